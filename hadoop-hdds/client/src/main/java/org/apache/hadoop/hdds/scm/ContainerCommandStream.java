@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm;
+
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandRequestProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.XceiverClientProtocolServiceGrpc.XceiverClientProtocolServiceStub;
+import org.apache.ratis.thirdparty.io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * A long-lived bidirectional gRPC stream to a single datanode.
+ *
+ * Many requests can be in flight on the stream at the same time. The datanode
+ * handles the requests of a stream one after the other and replies in the
+ * order they were received, so every reply completes the oldest outstanding
+ * request. Once the stream fails, all outstanding requests are failed and the
+ * stream is not used anymore; the caller is expected to open a new one.
+ */
+class ContainerCommandStream
+    implements StreamObserver<ContainerCommandResponseProto> {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ContainerCommandStream.class);
+
+  private final Queue<CompletableFuture<ContainerCommandResponseProto>>
+      outstanding = new ConcurrentLinkedQueue<>();
+  private final StreamObserver<ContainerCommandRequestProto> requestObserver;
+  private volatile boolean closed = false;
+
+  ContainerCommandStream(XceiverClientProtocolServiceStub stub) {
+    this.requestObserver = stub.send(this);
+  }
+
+  /**
+   * @param opener opens the stream, given the observer of the replies, and
+   *               returns the observer of the requests
+   */
+  ContainerCommandStream(Function<StreamObserver<ContainerCommandResponseProto>,
+      StreamObserver<ContainerCommandRequestProto>> opener) {
+    this.requestObserver = opener.apply(this);
+  }
+
+  /**
+   * Sends the request on this stream.
+   *
+   * @return future completed with the reply of the datanode
+   */
+  synchronized CompletableFuture<ContainerCommandResponseProto> send(
+      ContainerCommandRequestProto request) {
+    CompletableFuture<ContainerCommandResponseProto> future =
+        new CompletableFuture<>();
+    if (closed) {
+      future.completeExceptionally(
+          new IOException("Stream to datanode is already closed."));
+      return future;
+    }
+    outstanding.add(future);
+    try {
+      requestObserver.onNext(request);
+    } catch (RuntimeException e) {
+      // the request may or may not have been written, replies can't be
+      // matched reliably anymore.
+      requestObserver.onError(e);
+      fail(e);
+    }
+    return future;
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  int getOutstandingRequests() {
+    return outstanding.size();
+  }
+
+  /**
+   * Half-closes the stream. Outstanding requests are still answered.
+   */
+  synchronized void close() {
+    if (!closed) {
+      closed = true;
+      requestObserver.onCompleted();
+    }
+  }
+
+  @Override
+  public void onNext(ContainerCommandResponseProto value) {
+    CompletableFuture<ContainerCommandResponseProto> future =
+        outstanding.poll();
+    if (future != null) {
+      future.complete(value);
+    } else {
+      LOG.warn("Received reply {} without outstanding request",
+          value.getCmdType());
+    }
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    fail(t);
+  }
+
+  @Override
+  public void onCompleted() {
+    fail(new IOException("Stream completed but no reply for request"));
+  }
+
+  private void fail(Throwable t) {
+    synchronized (this) {
+      closed = true;
+    }
+    CompletableFuture<ContainerCommandResponseProto> future;
+    while ((future = outstanding.poll()) != null) {
+      future.completeExceptionally(t);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm;
+
+import java.util.function.Supplier;
+
+/**
+ * The command streams of a single datanode.
+ *
+ * Commands which the datanode must apply in the order they were sent, like
+ * writes, always use the first stream. Other commands use an idle stream, or
+ * the one with the fewest outstanding requests once all of them are in use,
+ * so a slow reply holds back and a failed stream fails only part of the
+ * requests in flight. Streams are opened on first use and replaced once they
+ * fail.
+ */
+class ContainerCommandStreamPool {
+
+  private final ContainerCommandStream[] streams;
+  private final Supplier<ContainerCommandStream> opener;
+
+  ContainerCommandStreamPool(int size,
+      Supplier<ContainerCommandStream> opener) {
+    this.streams = new ContainerCommandStream[Math.max(1, size)];
+    this.opener = opener;
+  }
+
+  /**
+   * @param ordered whether the request must be applied in order with the
+   *                other ordered requests
+   * @return the stream to send the request on
+   */
+  synchronized ContainerCommandStream getStream(boolean ordered) {
+    if (ordered) {
+      return getOrOpen(0);
+    }
+    ContainerCommandStream best = null;
+    int unused = -1;
+    for (int i = 0; i < streams.length; i++) {
+      ContainerCommandStream stream = streams[i];
+      if (stream == null || stream.isClosed()) {
+        if (unused < 0) {
+          unused = i;
+        }
+      } else if (best == null || stream.getOutstandingRequests()
+          < best.getOutstandingRequests()) {
+        best = stream;
+      }
+    }
+    if (unused >= 0 && (best == null || best.getOutstandingRequests() > 0)) {
+      return getOrOpen(unused);
+    }
+    return best;
+  }
+
+  private ContainerCommandStream getOrOpen(int index) {
+    ContainerCommandStream stream = streams[index];
+    if (stream == null || stream.isClosed()) {
+      stream = opener.get();
+      streams[index] = stream;
+    }
+    return stream;
+  }
+
+  /**
+   * Half-closes all the streams. Outstanding requests are still answered.
+   */
+  synchronized void close() {
+    for (ContainerCommandStream stream : streams) {
+      if (stream != null) {
+        stream.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A request which is sent again, to another target, if there is no reply
+ * within a delay. The first successful reply completes the result, which
+ * fails only once all the attempts sent have failed.
+ *
+ * @param <T> type of the reply
+ */
+final class HedgedRequest<T> {
+
+  private final CompletableFuture<T> result = new CompletableFuture<>();
+  // attempts sent and not completed yet, guarded by this
+  private int pending = 1;
+
+  private HedgedRequest() {
+  }
+
+  /**
+   * @param primary sends the first attempt
+   * @param hedge sends the hedged attempt
+   * @param delayMs delay of the hedged attempt
+   * @param scheduler schedules the hedged attempt
+   * @param executor sends the hedged attempt, as it may block
+   * @param onHedge called when the hedged attempt is sent
+   * @param onHedgeWon called when the hedged attempt completes the result
+   * @return future of the first successful reply
+   */
+  static <T> CompletableFuture<T> send(Supplier<CompletableFuture<T>> primary,
+      Supplier<CompletableFuture<T>> hedge, long delayMs,
+      ScheduledExecutorService scheduler, Executor executor,
+      Runnable onHedge, Runnable onHedgeWon) {
+    HedgedRequest<T> request = new HedgedRequest<>();
+    CompletableFuture<T> first = start(primary);
+    ScheduledFuture<?> timer = scheduler.schedule(
+        () -> executor.execute(
+            () -> request.sendHedge(first, hedge, onHedge, onHedgeWon)),
+        delayMs, TimeUnit.MILLISECONDS);
+    first.whenComplete((response, t) -> {
+      timer.cancel(false);
+      request.complete(response, t, null);
+    });
+    return request.result;
+  }
+
+  private void sendHedge(CompletableFuture<T> first,
+      Supplier<CompletableFuture<T>> hedge, Runnable onHedge,
+      Runnable onHedgeWon) {
+    synchronized (this) {
+      if (first.isDone()) {
+        return;
+      }
+      pending++;
+    }
+    onHedge.run();
+    start(hedge).whenComplete(
+        (response, t) -> complete(response, t, onHedgeWon));
+  }
+
+  private void complete(T response, Throwable t, Runnable onWon) {
+    boolean last;
+    synchronized (this) {
+      pending--;
+      last = pending == 0;
+    }
+    if (t == null) {
+      if (result.complete(response) && onWon != null) {
+        onWon.run();
+      }
+    } else if (last) {
+      // once every attempt sent failed, no other one is sent
+      result.completeExceptionally(t);
+    }
+  }
+
+  private static <T> CompletableFuture<T> start(
+      Supplier<CompletableFuture<T>> attempt) {
+    try {
+      return attempt.get();
+    } catch (RuntimeException e) {
+      CompletableFuture<T> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+  }
+}
@@ -20,6 +20,7 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hdds.HddsUtils;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
@@ -60,26 +61,48 @@
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
  * A Client for the storageContainer protocol for read object data.
  */
 public class XceiverClientGrpc extends XceiverClientSpi {
   static final Logger LOG = LoggerFactory.getLogger(XceiverClientGrpc.class);
+  // Delay of a hedged read while there is no latency sample for the datanode.
+  private static final long DEFAULT_HEDGED_READ_DELAY_MS = 50;
+  private static final long MIN_HEDGED_READ_DELAY_MS = 1;
+  private static final ScheduledExecutorService HEDGED_READ_SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+          .setDaemon(true).setNameFormat("HedgedReadScheduler-%d").build());
+  // Sends the retries and hedged reads, which may block on the in-flight
+  // request limit, off the gRPC callback and scheduler threads.
+  private static final ExecutorService RETRY_EXECUTOR =
+      Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+          .setDaemon(true).setNameFormat("XceiverClientRetry-%d").build());
   private final Pipeline pipeline;
   private final Configuration config;
   private Map<UUID, XceiverClientProtocolServiceStub> asyncStubs;
   private XceiverClientMetrics metrics;
   private Map<UUID, ManagedChannel> channels;
+  // Multiplexed command streams per datanode, created on first use.
+  private final Map<UUID, ContainerCommandStreamPool> streams;
+  private final int streamsPerDatanode;
   private final Semaphore semaphore;
   private boolean closed = false;
   private SecurityConfig secConfig;
   private final boolean topologyAwareRead;
+  private final boolean hedgedReadEnabled;
+  // 0 means the delay is derived from the observed datanode latency
+  private final long hedgedReadThresholdMs;
   private X509Certificate caCert;
   // Cache the DN which returned the GetBlock command so that the ReadChunk
   // command can be sent to the same DN.
@@ -106,9 +129,20 @@ public XceiverClientGrpc(Pipeline pipeline, Configuration config,
     this.metrics = XceiverClientManager.getXceiverClientMetrics();
     this.channels = new HashMap<>();
     this.asyncStubs = new HashMap<>();
+    this.streams = new ConcurrentHashMap<>();
+    this.streamsPerDatanode = config.getInt(
+        OzoneConfigKeys.OZONE_CLIENT_GRPC_STREAMS_PER_DATANODE,
+        OzoneConfigKeys.OZONE_CLIENT_GRPC_STREAMS_PER_DATANODE_DEFAULT);
     this.topologyAwareRead = config.getBoolean(
         OzoneConfigKeys.OZONE_NETWORK_TOPOLOGY_AWARE_READ_KEY,
         OzoneConfigKeys.OZONE_NETWORK_TOPOLOGY_AWARE_READ_DEFAULT);
+    this.hedgedReadEnabled = config.getBoolean(
+        OzoneConfigKeys.OZONE_CLIENT_HEDGED_READ_ENABLED,
+        OzoneConfigKeys.OZONE_CLIENT_HEDGED_READ_ENABLED_DEFAULT);
+    this.hedgedReadThresholdMs = config.getTimeDuration(
+        OzoneConfigKeys.OZONE_CLIENT_HEDGED_READ_THRESHOLD,
+        OzoneConfigKeys.OZONE_CLIENT_HEDGED_READ_THRESHOLD_DEFAULT,
+        TimeUnit.MILLISECONDS);
     this.caCert = caCert;
     this.getBlockDNcache = new ConcurrentHashMap<>();
   }
@@ -190,6 +224,11 @@ private synchronized void connectToDatanode(DatanodeDetails dn)
         XceiverClientProtocolServiceGrpc.newStub(channel);
     asyncStubs.put(dn.getUuid(), asyncStub);
     channels.put(dn.getUuid(), channel);
+    // the streams of the previous channel can't be used anymore
+    ContainerCommandStreamPool stale = streams.remove(dn.getUuid());
+    if (stale != null) {
+      stale.close();
+    }
   }
 
   /**
@@ -209,6 +248,10 @@ private boolean isConnected(ManagedChannel channel) {
   @Override
   public synchronized void close() {
     closed = true;
+    for (ContainerCommandStreamPool pool : streams.values()) {
+      pool.close();
+    }
+    streams.clear();
     for (ManagedChannel channel : channels.values()) {
       channel.shutdownNow();
       try {
@@ -228,12 +271,7 @@ public Pipeline getPipeline() {
   @Override
   public ContainerCommandResponseProto sendCommand(
       ContainerCommandRequestProto request) throws IOException {
-    try {
-      return sendCommandWithTraceIDAndRetry(request, null).
-          getResponse().get();
-    } catch (ExecutionException | InterruptedException e) {
-      throw new IOException("Failed to execute command " + request, e);
-    }
+    return sendCommand(request, null);
   }
 
   @Override
@@ -244,7 +282,16 @@ public ContainerCommandResponseProto sendCommand(
       XceiverClientReply reply;
       reply = sendCommandWithTraceIDAndRetry(request, validators);
       return reply.getResponse().get();
-    } catch (ExecutionException | InterruptedException e) {
+    } catch (ExecutionException e) {
+      // surface the failure of the last datanode the same way as a
+      // synchronous call would do.
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to execute command " + request,
+          e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new IOException("Failed to execute command " + request, e);
     }
   }
@@ -265,11 +312,9 @@ private XceiverClientReply sendCommandWithTraceIDAndRetry(
   private XceiverClientReply sendCommandWithRetry(
       ContainerCommandRequestProto request, List<CheckedBiFunction> validators)
       throws IOException {
-    ContainerCommandResponseProto responseProto = null;
-    IOException ioException = null;
-
     // In case of an exception or an error, we will try to read from the
-    // datanodes in the pipeline in a round robin fashion.
+    // datanodes in the pipeline in a round robin fashion. The retries are
+    // chained on the reply future, so the calling thread is never blocked.
 
     // TODO: cache the correct leader info in here, so that any subsequent calls
     // should first go to leader
@@ -303,65 +348,159 @@ private XceiverClientReply sendCommandWithRetry(
       // every time.
       Collections.shuffle(datanodeList);
     }
+    if (datanodeList.isEmpty()) {
+      throw new IOException("No datanode in the pipeline " + pipeline);
+    }
 
-    for (DatanodeDetails dn : datanodeList) {
-      try {
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("Executing command {} on datanode {}", request, dn);
-        }
-        // In case the command gets retried on a 2nd datanode,
-        // sendCommandAsyncCall will create a new channel and async stub
-        // in case these don't exist for the specific datanode.
-        reply.addDatanode(dn);
-        responseProto = sendCommandAsync(request, dn).getResponse().get();
-        if (validators != null && !validators.isEmpty()) {
-          for (CheckedBiFunction validator : validators) {
-            validator.apply(request, responseProto);
+    if (hedgedReadEnabled && datanodeList.size() > 1
+        && request.getCmdType() == ContainerProtos.Type.ReadChunk) {
+      reply.setResponse(
+          sendCommandHedged(request, validators, reply, datanodeList));
+    } else {
+      reply.setResponse(
+          sendCommandWithRetry(request, validators, reply, datanodeList, 0));
+    }
+    return reply;
+  }
+
+  /**
+   * Sends the request to the first datanode of the list, and if it does not
+   * reply within the hedged read delay, sends the same request to the second
+   * datanode too. The first reply which passes the validators is used, and
+   * the read fails only if both fail.
+   */
+  private CompletableFuture<ContainerCommandResponseProto> sendCommandHedged(
+      ContainerCommandRequestProto request, List<CheckedBiFunction> validators,
+      XceiverClientReply reply, List<DatanodeDetails> datanodeList) {
+    DatanodeDetails hedgeDn = datanodeList.get(1);
+    return HedgedRequest.send(
+        () -> sendCommandWithRetry(request, validators, reply, datanodeList, 0),
+        () -> {
+          if (LOG.isDebugEnabled()) {
+            LOG.debug("Sending hedged read {} to datanode {}",
+                request.getTraceID(), hedgeDn);
           }
-        }
-        if (request.getCmdType() == ContainerProtos.Type.GetBlock) {
-          DatanodeBlockID getBlockID = request.getGetBlock().getBlockID();
-          getBlockDNcache.put(getBlockID, dn);
-        }
-        break;
-      } catch (IOException e) {
-        ioException = e;
-        responseProto = null;
-      } catch (ExecutionException | InterruptedException e) {
-        LOG.debug("Failed to execute command {} on datanode {}",
-            request, dn.getUuid(), e);
-        if (Status.fromThrowable(e.getCause()).getCode()
-            == Status.UNAUTHENTICATED.getCode()) {
-          throw new SCMSecurityException("Failed to authenticate with "
-              + "GRPC XceiverServer with Ozone block token.");
-        }
+          return sendCommandWithRetry(request, validators, reply,
+              Collections.singletonList(hedgeDn), 0);
+        },
+        getHedgedReadDelay(datanodeList.get(0)), HEDGED_READ_SCHEDULER,
+        RETRY_EXECUTOR, metrics::incrHedgedReadOps,
+        metrics::incrHedgedReadOpsWin);
+  }
 
-        ioException = new IOException(e);
-        responseProto = null;
-      }
+  private long getHedgedReadDelay(DatanodeDetails dn) {
+    if (hedgedReadThresholdMs > 0) {
+      return hedgedReadThresholdMs;
     }
+    long avgLatencyNanos = metrics.getDatanodeReadLatency(dn.getUuid());
+    if (avgLatencyNanos == 0) {
+      return DEFAULT_HEDGED_READ_DELAY_MS;
+    }
+    return Math.max(MIN_HEDGED_READ_DELAY_MS,
+        TimeUnit.NANOSECONDS.toMillis(2 * avgLatencyNanos));
+  }
 
-    if (responseProto != null) {
-      reply.setResponse(CompletableFuture.completedFuture(responseProto));
-      return reply;
-    } else {
-      Preconditions.checkNotNull(ioException);
-      LOG.error("Failed to execute command {} on the pipeline {}.", request,
-          pipeline);
-      throw ioException;
+  /**
+   * Sends the request to the datanode at the given index of the list, and
+   * falls back to the next one asynchronously if it fails.
+   */
+  private CompletableFuture<ContainerCommandResponseProto>
+      sendCommandWithRetry(ContainerCommandRequestProto request,
+      List<CheckedBiFunction> validators, XceiverClientReply reply,
+      List<DatanodeDetails> datanodeList, int index) {
+    DatanodeDetails dn = datanodeList.get(index);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Executing command {} on datanode {}", request, dn);
     }
+    CompletableFuture<ContainerCommandResponseProto> attempt;
+    try {
+      // In case the command gets retried on a 2nd datanode,
+      // sendCommandAsync will create a new channel and async stub
+      // in case these don't exist for the specific datanode.
+      synchronized (reply) {
+        reply.addDatanode(dn);
+      }
+      attempt = sendCommandAsync(request, dn).getResponse()
+          .thenApply(responseProto -> {
+            validate(request, responseProto, validators);
+            if (request.getCmdType() == ContainerProtos.Type.GetBlock) {
+              DatanodeBlockID getBlockID = request.getGetBlock().getBlockID();
+              getBlockDNcache.put(getBlockID, dn);
+            }
+            return responseProto;
+          });
+    } catch (IOException e) {
+      attempt = new CompletableFuture<>();
+      attempt.completeExceptionally(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      CompletableFuture<ContainerCommandResponseProto> interrupted =
+          new CompletableFuture<>();
+      interrupted.completeExceptionally(e);
+      return interrupted;
+    }
+
+    return attempt.handle((responseProto, t) -> {
+      if (t == null) {
+        return CompletableFuture.completedFuture(responseProto);
+      }
+      Throwable cause = t instanceof CompletionException && t.getCause() != null
+          ? t.getCause() : t;
+      IOException ioException;
+      boolean retriable = true;
+      if (cause instanceof IOException) {
+        ioException = (IOException) cause;
+      } else if (Status.fromThrowable(cause).getCode()
+          == Status.UNAUTHENTICATED.getCode()) {
+        ioException = new SCMSecurityException("Failed to authenticate with "
+            + "GRPC XceiverServer with Ozone block token.");
+        retriable = false;
+      } else {
+        LOG.debug("Failed to execute command {} on datanode {}",
+            request, dn.getUuid(), cause);
+        ioException = new IOException(cause);
+      }
+
+      if (retriable && index + 1 < datanodeList.size()) {
+        // Retry off the gRPC callback thread, as sending may block on the
+        // in-flight request limit.
+        return CompletableFuture.supplyAsync(() -> sendCommandWithRetry(
+            request, validators, reply, datanodeList, index + 1),
+            RETRY_EXECUTOR).thenCompose(Function.identity());
+      }
+      if (retriable) {
+        LOG.error("Failed to execute command {} on the pipeline {}.", request,
+            pipeline);
+      }
+      CompletableFuture<ContainerCommandResponseProto> failed =
+          new CompletableFuture<>();
+      failed.completeExceptionally(ioException);
+      return failed;
+    }).thenCompose(Function.identity());
   }
 
-  // TODO: for a true async API, once the waitable future while executing
-  // the command on one channel fails, it should be retried asynchronously
-  // on the future Task for all the remaining datanodes.
+  private static void validate(ContainerCommandRequestProto request,
+      ContainerCommandResponseProto responseProto,
+      List<CheckedBiFunction> validators) {
+    if (validators == null || validators.isEmpty()) {
+      return;
+    }
+    try {
+      for (CheckedBiFunction validator : validators) {
+        validator.apply(request, responseProto);
+      }
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+  }
 
-  // Note: this Async api is not used currently used in any active I/O path.
-  // In case it gets used, the asynchronous retry logic needs to be plugged
-  // in here.
   /**
    * Sends a given command to server gets a waitable future back.
    *
+   * Read only commands are retried on the other datanodes of the pipeline in
+   * case of a failure. Other commands are sent to the first datanode only, on
+   * the same stream, so the datanode applies them in the order of the calls.
+   *
    * @param request Request
    * @return Response to the command
    * @throws IOException
@@ -378,16 +517,10 @@ public XceiverClientReply sendCommandAsync(
           ContainerCommandRequestProto.newBuilder(request)
               .setTraceID(TracingUtil.exportCurrentSpan())
               .build();
-      XceiverClientReply asyncReply =
-          sendCommandAsync(finalPayload, pipeline.getFirstNode());
-      // TODO : for now make this API sync in nature as async requests are
-      // served out of order over XceiverClientGrpc. This needs to be fixed
-      // if this API is to be used for I/O path. Currently, this is not
-      // used for Read/Write Operation but for tests.
-      if (!HddsUtils.isReadOnly(request)) {
-        asyncReply.getResponse().get();
+      if (HddsUtils.isReadOnly(request)) {
+        return sendCommandWithRetry(finalPayload, null);
       }
-      return asyncReply;
+      return sendCommandAsync(finalPayload, pipeline.getFirstNode());
     }
   }
 
@@ -395,51 +528,46 @@ private XceiverClientReply sendCommandAsync(
       ContainerCommandRequestProto request, DatanodeDetails dn)
       throws IOException, InterruptedException {
     checkOpen(dn, request.getEncodedToken());
-    UUID dnId = dn.getUuid();
     if (LOG.isDebugEnabled()) {
       LOG.debug("Send command {} to datanode {}",
           request.getCmdType(), dn.getNetworkFullPath());
     }
-    final CompletableFuture<ContainerCommandResponseProto> replyFuture =
-        new CompletableFuture<>();
+    // bound the number of requests in flight over all the streams
     semaphore.acquire();
     long requestTime = Time.monotonicNowNanos();
     metrics.incrPendingContainerOpsMetrics(request.getCmdType());
-    // create a new grpc stream for each non-async call.
-
-    // TODO: for async calls, we should reuse StreamObserver resources.
-    final StreamObserver<ContainerCommandRequestProto> requestObserver =
-        asyncStubs.get(dnId)
-            .send(new StreamObserver<ContainerCommandResponseProto>() {
-              @Override
-              public void onNext(ContainerCommandResponseProto value) {
-                replyFuture.complete(value);
-                metrics.decrPendingContainerOpsMetrics(request.getCmdType());
-                metrics.addContainerOpsLatency(request.getCmdType(),
-                    Time.monotonicNowNanos() - requestTime);
-                semaphore.release();
-              }
-
-              @Override
-              public void onError(Throwable t) {
-                replyFuture.completeExceptionally(t);
-                metrics.decrPendingContainerOpsMetrics(request.getCmdType());
-                metrics.addContainerOpsLatency(request.getCmdType(),
-                    Time.monotonicNowNanos() - requestTime);
-                semaphore.release();
-              }
-
-              @Override
-              public void onCompleted() {
-                if (!replyFuture.isDone()) {
-                  replyFuture.completeExceptionally(new IOException(
-                      "Stream completed but no reply for request " + request));
-                }
-              }
-            });
-    requestObserver.onNext(request);
-    requestObserver.onCompleted();
-    return new XceiverClientReply(replyFuture);
+    CompletableFuture<ContainerCommandResponseProto> replyFuture;
+    try {
+      replyFuture = getStream(dn, !HddsUtils.isReadOnly(request))
+          .send(request);
+    } catch (RuntimeException e) {
+      replyFuture = new CompletableFuture<>();
+      replyFuture.completeExceptionally(e);
+    }
+    return new XceiverClientReply(replyFuture.whenComplete((r, t) -> {
+      long latency = Time.monotonicNowNanos() - requestTime;
+      metrics.decrPendingContainerOpsMetrics(request.getCmdType());
+      metrics.addContainerOpsLatency(request.getCmdType(), latency);
+      if (t == null
+          && request.getCmdType() == ContainerProtos.Type.ReadChunk) {
+        metrics.addDatanodeReadLatency(dn.getUuid(), latency);
+      }
+      semaphore.release();
+    }));
+  }
+
+  /**
+   * Returns a command stream of the datanode, see
+   * {@link ContainerCommandStreamPool#getStream(boolean)}.
+   */
+  private synchronized ContainerCommandStream getStream(DatanodeDetails dn,
+      boolean ordered) {
+    UUID dnId = dn.getUuid();
+    XceiverClientProtocolServiceStub stub = asyncStubs.get(dnId);
+    return streams.computeIfAbsent(dnId,
+        id -> new ContainerCommandStreamPool(streamsPerDatanode,
+            () -> new ContainerCommandStream(stub)))
+        .getStream(ordered);
   }
 
   private synchronized void checkOpen(DatanodeDetails dn, String encodedToken)
@@ -25,6 +25,7 @@
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.StorageUnit;
 import org.apache.hadoop.hdds.conf.Config;
 import org.apache.hadoop.hdds.conf.ConfigGroup;
 import org.apache.hadoop.hdds.conf.ConfigType;
@@ -33,6 +34,7 @@
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
 import org.apache.hadoop.hdds.security.exception.SCMSecurityException;
 import org.apache.hadoop.hdds.security.x509.certificate.utils.CertificateCodec;
+import org.apache.hadoop.hdds.scm.storage.SharedBufferPool;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.OzoneSecurityUtil;
 import org.apache.hadoop.security.UserGroupInformation;
@@ -77,6 +79,7 @@ public class XceiverClientManager implements Closeable {
   private static XceiverClientMetrics metrics;
   private boolean isSecurityEnabled;
   private final boolean topologyAwareRead;
+  private SharedBufferPool sharedBufferPool;
   /**
    * Creates a new XceiverClientManager for non secured ozone cluster.
    * For security enabled ozone cluster, client should use the other constructor
@@ -281,6 +284,32 @@ public Function<ByteBuffer, ByteString> byteBufferToByteStringConversion(){
     return ByteStringConversion.createByteBufferConversion(conf);
   }
 
+  /**
+   * Returns the buffer pool shared by the output streams of this client, or
+   * null if it is disabled.
+   * @param bufferSize size of the buffers, the chunk size.
+   */
+  public synchronized SharedBufferPool getSharedBufferPool(int bufferSize) {
+    if (sharedBufferPool == null) {
+      long poolSize = (long) conf.getStorageSize(
+          OzoneConfigKeys.OZONE_CLIENT_SHARED_BUFFER_POOL_SIZE,
+          OzoneConfigKeys.OZONE_CLIENT_SHARED_BUFFER_POOL_SIZE_DEFAULT,
+          StorageUnit.BYTES);
+      int maxBuffers = (int) Math.min(Integer.MAX_VALUE,
+          poolSize / bufferSize);
+      if (maxBuffers <= 0) {
+        return null;
+      }
+      long waitTimeout = conf.getTimeDuration(
+          OzoneConfigKeys.OZONE_CLIENT_SHARED_BUFFER_POOL_WAIT_TIMEOUT,
+          OzoneConfigKeys.OZONE_CLIENT_SHARED_BUFFER_POOL_WAIT_TIMEOUT_DEFAULT,
+          MILLISECONDS);
+      sharedBufferPool = new SharedBufferPool(bufferSize, maxBuffers,
+          waitTimeout, getXceiverClientMetrics());
+    }
+    return sharedBufferPool;
+  }
+
   /**
    * Get xceiver client metric.
    */
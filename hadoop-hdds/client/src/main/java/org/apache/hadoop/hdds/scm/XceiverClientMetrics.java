@@ -26,8 +26,13 @@
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.apache.hadoop.metrics2.lib.MetricsRegistry;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
 import org.apache.hadoop.metrics2.lib.MutableRate;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * The client metrics for the Storage Container protocol.
  */
@@ -39,10 +44,19 @@ public class XceiverClientMetrics {
 
   private @Metric MutableCounterLong pendingOps;
   private @Metric MutableCounterLong totalOps;
+  private @Metric MutableCounterLong hedgedReadOps;
+  private @Metric MutableCounterLong hedgedReadOpsWin;
+  private @Metric MutableGaugeLong sharedBufferPoolCapacity;
+  private @Metric MutableGaugeLong sharedBufferPoolUsed;
+  private @Metric MutableCounterLong sharedBufferPoolWaits;
+  private @Metric MutableCounterLong sharedBufferPoolMisses;
   private MutableCounterLong[] pendingOpsArray;
   private MutableCounterLong[] opsArray;
   private MutableRate[] containerOpsLatency;
   private MetricsRegistry registry;
+  // moving average of the ReadChunk latency per datanode, in nanoseconds
+  private final Map<UUID, Long> datanodeReadLatency =
+      new ConcurrentHashMap<>();
 
   public XceiverClientMetrics() {
     int numEnumEntries = ContainerProtos.Type.values().length;
@@ -92,6 +106,70 @@ public void addContainerOpsLatency(ContainerProtos.Type type,
     containerOpsLatency[type.ordinal()].add(latencyNanos);
   }
 
+  /**
+   * Records the latency of a ReadChunk served by the given datanode.
+   */
+  public void addDatanodeReadLatency(UUID datanode, long latencyNanos) {
+    datanodeReadLatency.merge(datanode, latencyNanos,
+        (avg, sample) -> avg + (sample - avg) / 8);
+  }
+
+  /**
+   * @return moving average of the ReadChunk latency of the datanode in
+   * nanoseconds, or 0 if there is no sample yet.
+   */
+  public long getDatanodeReadLatency(UUID datanode) {
+    return datanodeReadLatency.getOrDefault(datanode, 0L);
+  }
+
+  public void incrHedgedReadOps() {
+    hedgedReadOps.incr();
+  }
+
+  public void incrHedgedReadOpsWin() {
+    hedgedReadOpsWin.incr();
+  }
+
+  public void incrSharedBufferPoolCapacity(long buffers) {
+    sharedBufferPoolCapacity.incr(buffers);
+  }
+
+  public void incrSharedBufferPoolUsed() {
+    sharedBufferPoolUsed.incr();
+  }
+
+  public void decrSharedBufferPoolUsed() {
+    sharedBufferPoolUsed.decr();
+  }
+
+  public void incrSharedBufferPoolWaits() {
+    sharedBufferPoolWaits.incr();
+  }
+
+  public void incrSharedBufferPoolMisses() {
+    sharedBufferPoolMisses.incr();
+  }
+
+  @VisibleForTesting
+  public long getSharedBufferPoolUsed() {
+    return sharedBufferPoolUsed.value();
+  }
+
+  @VisibleForTesting
+  public long getSharedBufferPoolMisses() {
+    return sharedBufferPoolMisses.value();
+  }
+
+  @VisibleForTesting
+  public long getHedgedReadOps() {
+    return hedgedReadOps.value();
+  }
+
+  @VisibleForTesting
+  public long getHedgedReadOpsWin() {
+    return hedgedReadOpsWin.value();
+  }
+
   public long getContainerOpsMetrics(ContainerProtos.Type type) {
     return pendingOpsArray[type.ordinal()].value();
   }
@@ -427,7 +427,7 @@ ContainerCommandResponseProto> executePutBlock()
   @Override
   public void flush() throws IOException {
     if (xceiverClientManager != null && xceiverClient != null
-        && bufferPool != null && bufferPool.getSize() > 0) {
+        && bufferPool != null && hasBuffers()) {
       try {
         handleFlush();
       } catch (InterruptedException | ExecutionException e) {
@@ -481,10 +481,18 @@ private void handleFlush()
     checkOpen();
   }
 
+  /**
+   * Buffers of the shared pool are returned once acknowledged, so the pool
+   * may have no buffers after data was written.
+   */
+  private boolean hasBuffers() {
+    return bufferPool.getSize() > 0 || writtenDataLength > 0;
+  }
+
   @Override
   public void close() throws IOException {
     if (xceiverClientManager != null && xceiverClient != null
-        && bufferPool != null && bufferPool.getSize() > 0) {
+        && bufferPool != null && hasBuffers()) {
       try {
         handleFlush();
       } catch (InterruptedException | ExecutionException e) {
@@ -25,7 +25,10 @@
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -38,6 +41,11 @@ public class BufferPool {
   private final int bufferSize;
   private final int capacity;
   private final Function<ByteBuffer, ByteString> byteStringConversion;
+  private final SharedBufferPool sharedBufferPool;
+  // buffers taken from the shared pool, returned once acknowledged
+  private final Set<ChunkBuffer> sharedBuffers =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+  private boolean registered;
 
   public BufferPool(int bufferSize, int capacity) {
     this(bufferSize, capacity,
@@ -46,11 +54,20 @@ public BufferPool(int bufferSize, int capacity) {
 
   public BufferPool(int bufferSize, int capacity,
       Function<ByteBuffer, ByteString> byteStringConversion){
+    this(bufferSize, capacity, byteStringConversion, null);
+  }
+
+  public BufferPool(int bufferSize, int capacity,
+      Function<ByteBuffer, ByteString> byteStringConversion,
+      SharedBufferPool sharedBufferPool) {
     this.capacity = capacity;
     this.bufferSize = bufferSize;
     bufferList = new ArrayList<>(capacity);
     currentBufferIndex = -1;
     this.byteStringConversion = byteStringConversion;
+    this.sharedBufferPool = sharedBufferPool != null
+        && sharedBufferPool.getBufferSize() == bufferSize ?
+        sharedBufferPool : null;
   }
 
   public Function<ByteBuffer, ByteString> byteStringConversion(){
@@ -79,7 +96,7 @@ public ChunkBuffer allocateBufferIfNeeded(int increment) {
     if (currentBufferIndex < bufferList.size() - 1) {
       buffer = getBuffer(currentBufferIndex + 1);
     } else {
-      buffer = ChunkBuffer.allocate(bufferSize, increment);
+      buffer = allocateBuffer(increment);
       bufferList.add(buffer);
     }
     Preconditions.checkArgument(bufferList.size() <= capacity);
@@ -90,13 +107,43 @@ public ChunkBuffer allocateBufferIfNeeded(int increment) {
     return buffer;
   }
 
+  private ChunkBuffer allocateBuffer(int increment) {
+    if (sharedBufferPool != null) {
+      if (!registered) {
+        sharedBufferPool.registerStream();
+        registered = true;
+      }
+      ChunkBuffer buffer = null;
+      try {
+        buffer = sharedBufferPool.acquire(sharedBuffers.size());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (buffer != null) {
+        sharedBuffers.add(buffer);
+        return buffer;
+      }
+    }
+    return ChunkBuffer.allocate(bufferSize, increment);
+  }
+
   void releaseBuffer(ChunkBuffer chunkBuffer) {
-    // always remove from head of the list and append at last
+    // always remove from head of the list and append at last, unless the
+    // buffer goes back to the shared pool
     final ChunkBuffer buffer = bufferList.remove(0);
     // Ensure the buffer to be removed is always at the head of the list.
     Preconditions.checkArgument(buffer == chunkBuffer);
     buffer.clear();
-    bufferList.add(buffer);
+    if (sharedBuffers.remove(buffer)) {
+      // Return the buffer right away, so that the streams opened later get
+      // their share of the pool. The next buffer is taken from the pool
+      // again, within the share of this stream at that time.
+      sharedBufferPool.release(buffer);
+    } else if (sharedBufferPool == null
+        || sharedBufferPool.getAvailableBuffers() == 0) {
+      bufferList.add(buffer);
+    }
+    // else drop the heap buffer, the pool has buffers again.
     Preconditions.checkArgument(currentBufferIndex >= 0);
     currentBufferIndex--;
   }
@@ -104,6 +151,14 @@ void releaseBuffer(ChunkBuffer chunkBuffer) {
   public void clearBufferPool() {
     bufferList.clear();
     currentBufferIndex = -1;
+    if (sharedBufferPool != null) {
+      sharedBuffers.forEach(sharedBufferPool::release);
+      sharedBuffers.clear();
+      if (registered) {
+        sharedBufferPool.unregisterStream();
+        registered = false;
+      }
+    }
   }
 
   public void checkBufferPoolEmpty() {
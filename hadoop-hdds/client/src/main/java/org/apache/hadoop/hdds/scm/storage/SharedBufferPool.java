@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import org.apache.hadoop.hdds.scm.XceiverClientMetrics;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of direct buffers shared by the {@link BufferPool}s of all the
+ * output streams of a client.
+ *
+ * Each stream may hold at most its fair share of the buffers, that is the
+ * pool size divided by the number of streams using the pool. Streams return
+ * their buffers as soon as the data is acknowledged and take a new one for
+ * the next chunk, so the share is enforced as new streams start writing.
+ * Streams wait for a free buffer in FIFO order up to a timeout. Streams
+ * above their share or timing out allocate a heap buffer instead, as
+ * waiting for the acknowledgements of their own data may otherwise
+ * deadlock.
+ */
+public class SharedBufferPool {
+
+  private final int bufferSize;
+  private final int maxBuffers;
+  private final long waitTimeoutMs;
+  private final Semaphore permits;
+  private final Queue<ChunkBuffer> freeBuffers =
+      new ConcurrentLinkedQueue<>();
+  private final AtomicInteger activeStreams = new AtomicInteger();
+  private final XceiverClientMetrics metrics;
+
+  public SharedBufferPool(int bufferSize, int maxBuffers, long waitTimeoutMs,
+      XceiverClientMetrics metrics) {
+    this.bufferSize = bufferSize;
+    this.maxBuffers = maxBuffers;
+    this.waitTimeoutMs = waitTimeoutMs;
+    this.permits = new Semaphore(maxBuffers, true);
+    this.metrics = metrics;
+    metrics.incrSharedBufferPoolCapacity(maxBuffers);
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  void registerStream() {
+    activeStreams.incrementAndGet();
+  }
+
+  void unregisterStream() {
+    activeStreams.decrementAndGet();
+  }
+
+  /**
+   * Returns a cleared buffer from the pool, or null if the stream already
+   * holds its share of the buffers or if no buffer was released in time.
+   * @param heldBuffers number of buffers of the pool held by the stream
+   */
+  ChunkBuffer acquire(int heldBuffers) throws InterruptedException {
+    int fairShare = Math.max(1, maxBuffers / Math.max(1, activeStreams.get()));
+    if (heldBuffers >= fairShare) {
+      metrics.incrSharedBufferPoolMisses();
+      return null;
+    }
+    if (!permits.tryAcquire()) {
+      metrics.incrSharedBufferPoolWaits();
+      if (!permits.tryAcquire(waitTimeoutMs, TimeUnit.MILLISECONDS)) {
+        metrics.incrSharedBufferPoolMisses();
+        return null;
+      }
+    }
+    metrics.incrSharedBufferPoolUsed();
+    ChunkBuffer buffer = freeBuffers.poll();
+    if (buffer == null) {
+      buffer = ChunkBuffer.wrap(ByteBuffer.allocateDirect(bufferSize));
+    }
+    return buffer;
+  }
+
+  void release(ChunkBuffer buffer) {
+    buffer.clear();
+    freeBuffers.offer(buffer);
+    metrics.decrSharedBufferPoolUsed();
+    permits.release();
+  }
+
+  int getAvailableBuffers() {
+    return permits.availablePermits();
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm;
+
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandRequestProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
+import org.apache.ratis.thirdparty.io.grpc.stub.StreamObserver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Tests {@link ContainerCommandStream} and
+ * {@link ContainerCommandStreamPool}.
+ */
+public class TestContainerCommandStream {
+
+  private final List<FakeStream> opened = new ArrayList<>();
+
+  @Before
+  public void setup() {
+    opened.clear();
+  }
+
+  @Test
+  public void multiplexesRequests() throws Exception {
+    ContainerCommandStream stream = open();
+    FakeStream server = opened.get(0);
+
+    List<CompletableFuture<ContainerCommandResponseProto>> replies =
+        new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      replies.add(stream.send(request(i)));
+    }
+    // all the requests are in flight on the same stream
+    Assert.assertEquals(3, server.requests.size());
+    Assert.assertEquals(3, stream.getOutstandingRequests());
+    replies.forEach(reply -> Assert.assertFalse(reply.isDone()));
+
+    // replies complete the requests in the order they were sent
+    for (int i = 0; i < 3; i++) {
+      stream.onNext(response(i));
+      Assert.assertTrue(replies.get(i).isDone());
+      Assert.assertEquals(String.valueOf(i), replies.get(i).get().getTraceID());
+      if (i + 1 < 3) {
+        Assert.assertFalse(replies.get(i + 1).isDone());
+      }
+    }
+    Assert.assertEquals(0, stream.getOutstandingRequests());
+    Assert.assertFalse(stream.isClosed());
+  }
+
+  @Test
+  public void errorFailsOutstandingRequestsOfTheStream() throws Exception {
+    ContainerCommandStream stream = open();
+    CompletableFuture<ContainerCommandResponseProto> first =
+        stream.send(request(1));
+    CompletableFuture<ContainerCommandResponseProto> second =
+        stream.send(request(2));
+
+    IOException error = new IOException("stream failed");
+    stream.onError(error);
+
+    assertFailedWith(error, first);
+    assertFailedWith(error, second);
+    Assert.assertTrue(stream.isClosed());
+
+    // later requests fail without being sent
+    CompletableFuture<ContainerCommandResponseProto> third =
+        stream.send(request(3));
+    Assert.assertTrue(third.isCompletedExceptionally());
+    Assert.assertEquals(2, opened.get(0).requests.size());
+  }
+
+  @Test
+  public void orderedRequestsShareTheFirstStream() {
+    ContainerCommandStreamPool pool =
+        new ContainerCommandStreamPool(3, this::open);
+
+    ContainerCommandStream stream = pool.getStream(true);
+    stream.send(request(1));
+    Assert.assertSame(stream, pool.getStream(true));
+    Assert.assertEquals(1, opened.size());
+  }
+
+  @Test
+  public void unorderedRequestsSpreadOverStreams() {
+    ContainerCommandStreamPool pool =
+        new ContainerCommandStreamPool(2, this::open);
+
+    ContainerCommandStream first = pool.getStream(false);
+    // an idle stream is reused
+    Assert.assertSame(first, pool.getStream(false));
+    first.send(request(1));
+
+    // a busy stream is not, while the pool is not full
+    ContainerCommandStream second = pool.getStream(false);
+    Assert.assertNotSame(first, second);
+    second.send(request(2));
+    second.send(request(3));
+
+    // once full, the stream with the fewest outstanding requests is used
+    Assert.assertSame(first, pool.getStream(false));
+    Assert.assertEquals(2, opened.size());
+  }
+
+  @Test
+  public void errorOnOneStreamDoesNotFailTheOthers() throws Exception {
+    ContainerCommandStreamPool pool =
+        new ContainerCommandStreamPool(2, this::open);
+
+    ContainerCommandStream first = pool.getStream(false);
+    CompletableFuture<ContainerCommandResponseProto> failing =
+        first.send(request(1));
+    ContainerCommandStream second = pool.getStream(false);
+    CompletableFuture<ContainerCommandResponseProto> pending =
+        second.send(request(2));
+
+    IOException error = new IOException("stream failed");
+    first.onError(error);
+    assertFailedWith(error, failing);
+    Assert.assertFalse(pending.isDone());
+
+    second.onNext(response(2));
+    Assert.assertEquals("2", pending.get().getTraceID());
+
+    // the failed stream is replaced on next use
+    ContainerCommandStream replacement = pool.getStream(true);
+    Assert.assertNotSame(first, replacement);
+    Assert.assertFalse(replacement.isClosed());
+    Assert.assertEquals(3, opened.size());
+  }
+
+  private ContainerCommandStream open() {
+    FakeStream server = new FakeStream();
+    opened.add(server);
+    return new ContainerCommandStream(replies -> server);
+  }
+
+  private static void assertFailedWith(Throwable expected,
+      CompletableFuture<ContainerCommandResponseProto> future)
+      throws InterruptedException {
+    try {
+      future.get();
+      Assert.fail("expected to fail");
+    } catch (ExecutionException e) {
+      Assert.assertSame(expected, e.getCause());
+    }
+  }
+
+  private static ContainerCommandRequestProto request(int id) {
+    return ContainerCommandRequestProto.newBuilder()
+        .setCmdType(ContainerProtos.Type.ReadChunk)
+        .setTraceID(String.valueOf(id))
+        .setContainerID(1)
+        .setDatanodeUuid("datanode")
+        .build();
+  }
+
+  private static ContainerCommandResponseProto response(int id) {
+    return ContainerCommandResponseProto.newBuilder()
+        .setCmdType(ContainerProtos.Type.ReadChunk)
+        .setTraceID(String.valueOf(id))
+        .setResult(ContainerProtos.Result.SUCCESS)
+        .build();
+  }
+
+  /**
+   * Request side of a stream which records the requests.
+   */
+  private static final class FakeStream
+      implements StreamObserver<ContainerCommandRequestProto> {
+    private final List<ContainerCommandRequestProto> requests =
+        new ArrayList<>();
+
+    @Override
+    public void onNext(ContainerCommandRequestProto value) {
+      requests.add(value);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+    }
+
+    @Override
+    public void onCompleted() {
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link HedgedRequest}.
+ */
+public class TestHedgedRequest {
+
+  private ScheduledExecutorService scheduler;
+  private final CompletableFuture<String> primary = new CompletableFuture<>();
+  private final CompletableFuture<String> hedge = new CompletableFuture<>();
+  private final CountDownLatch hedgeSent = new CountDownLatch(1);
+  private final AtomicInteger hedges = new AtomicInteger();
+  private final AtomicInteger hedgesWon = new AtomicInteger();
+
+  @Before
+  public void setup() {
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @After
+  public void cleanUp() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void noHedgeIfPrimaryRepliesInTime() throws Exception {
+    CompletableFuture<String> result = send(60_000);
+    primary.complete("primary");
+
+    Assert.assertEquals("primary", result.get());
+    Assert.assertEquals(0, hedges.get());
+    Assert.assertEquals(0, hedgesWon.get());
+  }
+
+  @Test
+  public void hedgeWinsIfPrimaryIsSlow() throws Exception {
+    CompletableFuture<String> result = send(0);
+    awaitHedge();
+
+    hedge.complete("hedge");
+    Assert.assertEquals("hedge", result.get());
+    Assert.assertEquals(1, hedges.get());
+    Assert.assertEquals(1, hedgesWon.get());
+
+    // the late primary reply is ignored
+    primary.complete("primary");
+    Assert.assertEquals("hedge", result.get());
+  }
+
+  @Test
+  public void primaryFailureWaitsForHedge() throws Exception {
+    CompletableFuture<String> result = send(0);
+    awaitHedge();
+
+    primary.completeExceptionally(new IOException("primary failed"));
+    Assert.assertFalse(result.isDone());
+
+    hedge.complete("hedge");
+    Assert.assertEquals("hedge", result.get());
+  }
+
+  @Test
+  public void failsWhenAllAttemptsFail() throws Exception {
+    CompletableFuture<String> result = send(0);
+    awaitHedge();
+
+    hedge.completeExceptionally(new IOException("hedge failed"));
+    Assert.assertFalse(result.isDone());
+
+    IOException error = new IOException("primary failed");
+    primary.completeExceptionally(error);
+    try {
+      result.get();
+      Assert.fail("expected to fail");
+    } catch (ExecutionException e) {
+      Assert.assertSame(error, e.getCause());
+    }
+  }
+
+  @Test
+  public void failsWithoutHedgeIfPrimaryFailsFirst() throws Exception {
+    CompletableFuture<String> result = send(60_000);
+    IOException error = new IOException("primary failed");
+    primary.completeExceptionally(error);
+
+    try {
+      result.get();
+      Assert.fail("expected to fail");
+    } catch (ExecutionException e) {
+      Assert.assertSame(error, e.getCause());
+    }
+    Assert.assertEquals(0, hedges.get());
+  }
+
+  private CompletableFuture<String> send(long delayMs) {
+    return HedgedRequest.send(() -> primary,
+        () -> {
+          hedgeSent.countDown();
+          return hedge;
+        },
+        delayMs, scheduler, Runnable::run,
+        hedges::incrementAndGet, hedgesWon::incrementAndGet);
+  }
+
+  private void awaitHedge() throws InterruptedException {
+    Assert.assertTrue(hedgeSent.await(10, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import org.apache.hadoop.hdds.scm.XceiverClientManager;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SharedBufferPool} used through {@link BufferPool}.
+ */
+public class TestSharedBufferPool {
+
+  private static final int BUFFER_SIZE = 1024;
+
+  @Test
+  public void testBuffersAreSharedAndReturned() {
+    SharedBufferPool sharedPool = new SharedBufferPool(BUFFER_SIZE, 4, 10,
+        XceiverClientManager.getXceiverClientMetrics());
+    BufferPool first = new BufferPool(BUFFER_SIZE, 4, null, sharedPool);
+    BufferPool second = new BufferPool(BUFFER_SIZE, 4, null, sharedPool);
+
+    fill(first.allocateBufferIfNeeded(0));
+    Assert.assertTrue(isDirect(first.getBuffer(0)));
+    fill(second.allocateBufferIfNeeded(0));
+    Assert.assertEquals(2, sharedPool.getAvailableBuffers());
+
+    // Two streams share the pool, each may hold two of the buffers.
+    fill(first.allocateBufferIfNeeded(0));
+    fill(first.allocateBufferIfNeeded(0));
+    Assert.assertEquals(1, sharedPool.getAvailableBuffers());
+    Assert.assertFalse(isDirect(first.getBuffer(2)));
+
+    first.clearBufferPool();
+    Assert.assertEquals(3, sharedPool.getAvailableBuffers());
+    second.clearBufferPool();
+    Assert.assertEquals(4, sharedPool.getAvailableBuffers());
+  }
+
+  @Test
+  public void testHeapBufferWhenPoolExhausted() {
+    SharedBufferPool sharedPool = new SharedBufferPool(BUFFER_SIZE, 1, 10,
+        XceiverClientManager.getXceiverClientMetrics());
+    BufferPool first = new BufferPool(BUFFER_SIZE, 2, null, sharedPool);
+    BufferPool second = new BufferPool(BUFFER_SIZE, 2, null, sharedPool);
+
+    fill(first.allocateBufferIfNeeded(0));
+    fill(second.allocateBufferIfNeeded(0));
+    Assert.assertTrue(isDirect(first.getBuffer(0)));
+    Assert.assertFalse(isDirect(second.getBuffer(0)));
+    first.clearBufferPool();
+    second.clearBufferPool();
+    Assert.assertEquals(1, sharedPool.getAvailableBuffers());
+  }
+
+  @Test
+  public void testLaterStreamGetsItsShare() {
+    SharedBufferPool sharedPool = new SharedBufferPool(BUFFER_SIZE, 4, 10,
+        XceiverClientManager.getXceiverClientMetrics());
+    BufferPool first = new BufferPool(BUFFER_SIZE, 4, null, sharedPool);
+    BufferPool second = new BufferPool(BUFFER_SIZE, 4, null, sharedPool);
+
+    // The first stream alone may take the whole pool.
+    for (int i = 0; i < 4; i++) {
+      fill(first.allocateBufferIfNeeded(0));
+    }
+    Assert.assertEquals(0, sharedPool.getAvailableBuffers());
+    fill(second.allocateBufferIfNeeded(0));
+    Assert.assertFalse(isDirect(second.getBuffer(0)));
+
+    // Acknowledged buffers go back to the pool right away.
+    first.releaseBuffer(first.getBuffer(0));
+    first.releaseBuffer(first.getBuffer(0));
+    Assert.assertEquals(2, sharedPool.getAvailableBuffers());
+    second.releaseBuffer(second.getBuffer(0));
+
+    // The second stream now gets buffers of the pool, while the first one
+    // is held to its share of two.
+    fill(second.allocateBufferIfNeeded(0));
+    Assert.assertTrue(isDirect(second.getBuffer(0)));
+    fill(first.allocateBufferIfNeeded(0));
+    Assert.assertFalse(isDirect(first.getBuffer(2)));
+    Assert.assertEquals(1, sharedPool.getAvailableBuffers());
+
+    first.clearBufferPool();
+    second.clearBufferPool();
+    Assert.assertEquals(4, sharedPool.getAvailableBuffers());
+  }
+
+  private static void fill(ChunkBuffer buffer) {
+    buffer.put(new byte[buffer.remaining()]);
+  }
+
+  private static boolean isDirect(ChunkBuffer buffer) {
+    return buffer.asByteBufferList().get(0).isDirect();
+  }
+}
@@ -25,9 +25,11 @@
 import org.apache.ratis.protocol.Message;
 import org.apache.ratis.protocol.RaftGroupId;
 import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.com.google.protobuf.CodedInputStream;
 import org.apache.ratis.thirdparty.com.google.protobuf.InvalidProtocolBufferException;
 import org.apache.ratis.util.JavaUtils;
 
+import java.io.IOException;
 import java.util.Objects;
 import java.util.function.Supplier;
 
@@ -60,9 +62,11 @@ public static ContainerCommandRequestMessage toMessage(
   public static ContainerCommandRequestProto toProto(
       ByteString bytes, RaftGroupId groupId)
       throws InvalidProtocolBufferException {
-    final int i = 4 + bytes.asReadOnlyByteBuffer().getInt();
+    // Only the length prefix is converted, asReadOnlyByteBuffer() copies the
+    // whole content when it is not backed by a single array.
+    final int i = 4 + bytes.substring(0, 4).asReadOnlyByteBuffer().getInt();
     final ContainerCommandRequestProto header
-        = ContainerCommandRequestProto.parseFrom(bytes.substring(4, i));
+        = parseFrom(bytes.substring(4, i));
     // TODO: setting pipeline id can be avoided if the client is sending it.
     //       In such case, just have to validate the pipeline id.
     final ContainerCommandRequestProto.Builder b = header.toBuilder();
@@ -78,6 +82,25 @@ public static ContainerCommandRequestProto toProto(
     return b.build();
   }
 
+  /**
+   * Parses a request without copying its bytes fields, they refer to the
+   * given ByteString instead. This is safe since ByteStrings are immutable.
+   * The data of a request which is not backed by a single array is still
+   * copied.
+   */
+  public static ContainerCommandRequestProto parseFrom(ByteString bytes)
+      throws InvalidProtocolBufferException {
+    final CodedInputStream input = bytes.newCodedInput();
+    input.enableAliasing(true);
+    try {
+      return ContainerCommandRequestProto.parseFrom(input);
+    } catch (InvalidProtocolBufferException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new InvalidProtocolBufferException(e.getMessage());
+    }
+  }
+
   private final ContainerCommandRequestProto header;
   private final ByteString data;
   private final Supplier<ByteString> contentSupplier
@@ -245,6 +245,13 @@ public final class ScmConfigKeys {
       "ozone.scm.security.handler.count.key";
   public static final int OZONE_SCM_SECURITY_HANDLER_COUNT_DEFAULT = 2;
 
+  public static final String OZONE_SCM_REPORT_HANDLER_THREADS_KEY =
+      "ozone.scm.report.handler.threads";
+  public static final int OZONE_SCM_REPORT_HANDLER_THREADS_DEFAULT = 10;
+  public static final String OZONE_SCM_REPORT_HANDLER_QUEUE_LIMIT_KEY =
+      "ozone.scm.report.handler.queue.limit";
+  public static final int OZONE_SCM_REPORT_HANDLER_QUEUE_LIMIT_DEFAULT = 0;
+
   public static final String OZONE_SCM_DEADNODE_INTERVAL =
       "ozone.scm.dead.node.interval";
   public static final String OZONE_SCM_DEADNODE_INTERVAL_DEFAULT =
@@ -276,6 +283,14 @@ public final class ScmConfigKeys {
   public static final int OZONE_SCM_HEARTBEAT_LOG_WARN_DEFAULT =
       10;
 
+  /**
+   * Maximum number of queued commands sent to a datanode in a single
+   * heartbeat response, 0 for no limit.
+   */
+  public static final String OZONE_SCM_HEARTBEAT_MAX_COMMANDS =
+      "ozone.scm.heartbeat.max.commands";
+  public static final int OZONE_SCM_HEARTBEAT_MAX_COMMANDS_DEFAULT = 0;
+
   // ozone.scm.names key is a set of DNS | DNS:PORT | IP Address | IP:PORT.
   // Written as a comma separated string. e.g. scm1, scm2:8020, 7.7.7.7:7777
   //
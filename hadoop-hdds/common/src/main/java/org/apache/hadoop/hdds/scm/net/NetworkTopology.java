@@ -103,6 +103,14 @@ public InvalidTopologyException(String msg) {
    */
   int getNumOfNodes(int level);
 
+  /**
+   * Return a counter which is increased by every node added to or removed
+   * from the topology, so that callers can cache information derived from
+   * the topology until it changes.
+   * @return the current generation of the topology
+   */
+  long getGeneration();
+
   /**
    * Randomly choose a node in the scope.
    * @param scope range of nodes from which a node will be chosen. If scope
@@ -30,6 +30,7 @@
 import java.util.List;
 import java.util.TreeMap;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
@@ -59,6 +60,8 @@ public class NetworkTopologyImpl implements NetworkTopology{
   private final NodeSchemaManager schemaManager;
   /** Lock to coordinate cluster tree access. */
   private ReadWriteLock netlock = new ReentrantReadWriteLock(true);
+  /** Number of changes of the cluster tree. */
+  private final AtomicLong generation = new AtomicLong();
 
   public NetworkTopologyImpl(Configuration conf) {
     schemaManager = NodeSchemaManager.getInstance();
@@ -103,6 +106,9 @@ public void add(Node node) {
     boolean add;
     try {
       add = clusterTree.add(node);
+      if (add) {
+        generation.incrementAndGet();
+      }
     }finally {
       netlock.writeLock().unlock();
     }
@@ -129,6 +135,7 @@ public void remove(Node node) {
     netlock.writeLock().lock();
     try {
       clusterTree.remove(node);
+      generation.incrementAndGet();
     }finally {
       netlock.writeLock().unlock();
     }
@@ -276,6 +283,13 @@ public int getNumOfNodes(int level) {
     }
   }
 
+  /**
+   * Return the number of times nodes were added to or removed from the tree.
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
   /**
    * Randomly choose a node in the scope.
    * @param scope range of nodes from which a node will be chosen. If scope
@@ -75,6 +75,17 @@ ContainerWithPipeline allocateContainer(
   ContainerWithPipeline getContainerWithPipeline(long containerID)
       throws IOException;
 
+  /**
+   * Ask SCM the location of a batch of containers. SCM responds with a group
+   * of nodes where these containers and their replicas are located.
+   *
+   * @param containerIDs - IDs of a batch of containers.
+   * @return List of ContainerWithPipeline, in the order of the given IDs.
+   * @throws IOException
+   */
+  List<ContainerWithPipeline> getContainerWithPipelineBatch(
+      List<Long> containerIDs) throws IOException;
+
   /**
    * Ask SCM a list of containers with a range of container names
    * and the limit of count.
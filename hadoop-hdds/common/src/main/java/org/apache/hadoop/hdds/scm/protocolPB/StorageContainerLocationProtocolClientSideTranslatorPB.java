@@ -34,6 +34,7 @@
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.ForceExitSafeModeRequestProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.ForceExitSafeModeResponseProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.GetContainerRequestProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.GetContainerWithPipelineBatchRequestProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.GetContainerWithPipelineRequestProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.InSafeModeRequestProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.ListPipelineRequestProto;
@@ -187,6 +188,35 @@ public ContainerWithPipeline getContainerWithPipeline(long containerID)
 
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<ContainerWithPipeline> getContainerWithPipelineBatch(
+      List<Long> containerIDs) throws IOException {
+    for (Long containerID : containerIDs) {
+      Preconditions.checkState(containerID >= 0,
+          "Container ID cannot be negative");
+    }
+    GetContainerWithPipelineBatchRequestProto request =
+        GetContainerWithPipelineBatchRequestProto.newBuilder()
+            .setTraceID(TracingUtil.exportCurrentSpan())
+            .addAllContainerIDs(containerIDs).build();
+
+    ScmContainerLocationResponse response =
+        submitRequest(Type.GetContainerWithPipelineBatch,
+            (builder) -> builder
+                .setGetContainerWithPipelineBatchRequest(request));
+
+    List<ContainerWithPipeline> cps = new ArrayList<>();
+    for (HddsProtos.ContainerWithPipeline cp : response
+        .getGetContainerWithPipelineBatchResponse()
+        .getContainerWithPipelinesList()) {
+      cps.add(ContainerWithPipeline.fromProtobuf(cp));
+    }
+    return cps;
+  }
+
   /**
    * {@inheritDoc}
    */
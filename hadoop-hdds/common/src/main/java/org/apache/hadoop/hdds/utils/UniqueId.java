@@ -66,4 +66,14 @@ public static synchronized long next() {
     throw new RuntimeException("Got invalid UTC time," +
         " cannot generate unique Id. UTC Time: " + utcTime);
   }
+
+  /**
+   * Returns the time in milliseconds at which the given id was generated.
+   *
+   * @param id value returned by {@link #next()}
+   * @return UTC time in milliseconds
+   */
+  public static long getTime(long id) {
+    return id >>> Short.SIZE;
+  }
 }
\ No newline at end of file
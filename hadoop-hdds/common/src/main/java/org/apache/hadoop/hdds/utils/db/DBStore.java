@@ -166,6 +166,14 @@ <KEY, VALUE> void move(KEY sourceKey, KEY destKey, VALUE value,
    */
   DBCheckpoint getCheckpoint(boolean flush) throws IOException;
 
+  /**
+   * Get the live SST files of the DB with metadata which identifies their
+   * content, without reading the files. Two files with the same name and
+   * metadata hold the same data.
+   * @return Map of SST file name -> file metadata.
+   */
+  Map<String, String> getLiveSstFiles();
+
   /**
    * Get DB Store location.
    * @return DB file location.
@@ -33,6 +33,7 @@
 import org.apache.hadoop.hdds.utils.RocksDBStoreMBean;
 import org.apache.hadoop.hdfs.DFSUtil;
 import org.apache.hadoop.metrics2.util.MBeans;
+import org.apache.hadoop.util.StringUtils;
 
 import com.google.common.base.Preconditions;
 import org.apache.hadoop.hdds.utils.db.cache.TableCacheImpl;
@@ -41,6 +42,7 @@
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.DBOptions;
 import org.rocksdb.FlushOptions;
+import org.rocksdb.LiveFileMetaData;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.TransactionLogIterator;
@@ -302,6 +304,23 @@ public DBCheckpoint getCheckpoint(boolean flush) throws IOException {
     return checkPointManager.createCheckpoint(checkpointsParentDir);
   }
 
+  @Override
+  public Map<String, String> getLiveSstFiles() {
+    Map<String, String> sstFiles = new HashMap<>();
+    for (LiveFileMetaData file : db.getLiveFilesMetaData()) {
+      // The file number in the name is never reused by a DB, the sequence
+      // numbers and key range tell apart files of different DBs.
+      String name = Paths.get(file.fileName()).getFileName().toString();
+      sstFiles.put(name, file.size()
+          + " " + file.smallestSeqno()
+          + " " + file.largestSeqno()
+          + " " + StringUtils.byteToHexString(file.columnFamilyName())
+          + " " + StringUtils.byteToHexString(file.smallestKey())
+          + " " + StringUtils.byteToHexString(file.largestKey()));
+    }
+    return sstFiles;
+  }
+
   @Override
   public File getDbLocation() {
     return dbLocation;
@@ -134,6 +134,15 @@ public final class OzoneConfigKeys {
   public static final String OZONE_CLIENT_STREAM_BUFFER_MAX_SIZE_DEFAULT =
       "128MB";
 
+  public static final String OZONE_CLIENT_SHARED_BUFFER_POOL_SIZE =
+      "ozone.client.shared.buffer.pool.size";
+  public static final String OZONE_CLIENT_SHARED_BUFFER_POOL_SIZE_DEFAULT =
+      "0";
+  public static final String OZONE_CLIENT_SHARED_BUFFER_POOL_WAIT_TIMEOUT =
+      "ozone.client.shared.buffer.pool.wait.timeout";
+  public static final String
+      OZONE_CLIENT_SHARED_BUFFER_POOL_WAIT_TIMEOUT_DEFAULT = "1s";
+
   public static final String OZONE_CLIENT_WATCH_REQUEST_TIMEOUT =
       "ozone.client.watch.request.timeout";
 
@@ -208,6 +217,15 @@ public final class OzoneConfigKeys {
   public static final int OZONE_OPEN_KEY_EXPIRE_THRESHOLD_SECONDS_DEFAULT =
       24 * 3600;
 
+  /**
+   * Maximum number of expired open keys purged by one run of the open key
+   * cleanup service.
+   */
+  public static final String OZONE_OPEN_KEY_CLEANUP_LIMIT_PER_TASK =
+      "ozone.open.key.cleanup.limit.per.task";
+  public static final int OZONE_OPEN_KEY_CLEANUP_LIMIT_PER_TASK_DEFAULT =
+      1000;
+
   public static final String OZONE_BLOCK_DELETING_SERVICE_TIMEOUT =
       "ozone.block.deleting.service.timeout";
   public static final String OZONE_BLOCK_DELETING_SERVICE_TIMEOUT_DEFAULT
@@ -228,6 +246,10 @@ public final class OzoneConfigKeys {
   public static final int
       OZONE_BLOCK_DELETING_CONTAINER_LIMIT_PER_INTERVAL_DEFAULT = 10;
 
+  public static final String OZONE_BLOCK_DELETING_LIMIT_PER_INTERVAL =
+      "ozone.block.deleting.limit.per.interval";
+  public static final int OZONE_BLOCK_DELETING_LIMIT_PER_INTERVAL_DEFAULT = 0;
+
   public static final String DFS_CONTAINER_RATIS_ENABLED_KEY
       = ScmConfigKeys.DFS_CONTAINER_RATIS_ENABLED_KEY;
   public static final boolean DFS_CONTAINER_RATIS_ENABLED_DEFAULT
@@ -442,6 +464,38 @@ public final class OzoneConfigKeys {
       "ozone.network.topology.aware.read";
   public static final boolean OZONE_NETWORK_TOPOLOGY_AWARE_READ_DEFAULT = false;
 
+  public static final String OZONE_CLIENT_FOLLOWER_READ_ENABLED =
+      "ozone.client.follower.read.enabled";
+  public static final boolean OZONE_CLIENT_FOLLOWER_READ_ENABLED_DEFAULT =
+      false;
+  public static final String OZONE_CLIENT_FOLLOWER_READ_FAILURE_BACKOFF =
+      "ozone.client.follower.read.failure.backoff";
+  public static final String
+      OZONE_CLIENT_FOLLOWER_READ_FAILURE_BACKOFF_DEFAULT = "30s";
+
+  public static final String OZONE_CLIENT_HEDGED_READ_ENABLED =
+      "ozone.client.hedged.read.enabled";
+  public static final boolean OZONE_CLIENT_HEDGED_READ_ENABLED_DEFAULT = false;
+  public static final String OZONE_CLIENT_HEDGED_READ_THRESHOLD =
+      "ozone.client.hedged.read.threshold";
+  public static final String OZONE_CLIENT_HEDGED_READ_THRESHOLD_DEFAULT =
+      "0ms";
+
+  public static final String OZONE_CLIENT_GRPC_STREAMS_PER_DATANODE =
+      "ozone.client.grpc.streams.per.datanode";
+  public static final int OZONE_CLIENT_GRPC_STREAMS_PER_DATANODE_DEFAULT = 4;
+
+  public static final String OZONE_AUDIT_LOG_ASYNC_ENABLED =
+      "ozone.audit.log.async.enabled";
+  public static final boolean OZONE_AUDIT_LOG_ASYNC_ENABLED_DEFAULT = false;
+  public static final String OZONE_AUDIT_LOG_ASYNC_QUEUE_SIZE =
+      "ozone.audit.log.async.queue.size";
+  public static final int OZONE_AUDIT_LOG_ASYNC_QUEUE_SIZE_DEFAULT = 65536;
+  public static final String OZONE_AUDIT_LOG_ASYNC_DROP_WHEN_FULL =
+      "ozone.audit.log.async.drop.when.full";
+  public static final boolean OZONE_AUDIT_LOG_ASYNC_DROP_WHEN_FULL_DEFAULT =
+      false;
+
   public static final String OZONE_MANAGER_FAIR_LOCK = "ozone.om.lock.fair";
   public static final boolean OZONE_MANAGER_FAIR_LOCK_DEFAULT = false;
 
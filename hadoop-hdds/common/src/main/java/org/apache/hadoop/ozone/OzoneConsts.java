@@ -126,6 +126,10 @@ public final class OzoneConsts {
   public static final String STORAGE_DIR_CHUNKS = "chunks";
   public static final String OZONE_DB_CHECKPOINT_REQUEST_FLUSH =
       "flushBeforeCheckpoint";
+  // Last entry of an incremental DB checkpoint tar, listing the SST files of
+  // the checkpoint which the receiver takes from its own copy.
+  public static final String OZONE_DB_CHECKPOINT_SST_FILE_LIST =
+      "checkpoint.sst.list";
 
   /**
    * Supports Bucket Versioning.
@@ -142,6 +146,9 @@ public static Versioning getVersioning(boolean versioning) {
   public static final String DELETED_KEY_PREFIX = "#deleted#";
   public static final String DELETE_TRANSACTION_KEY_PREFIX = "#delTX#";
   public static final String BLOCK_COMMIT_SEQUENCE_ID_PREFIX = "#BCSID";
+  // Key of the last key purged by the key deleting service in the OM
+  // metaTable.
+  public static final String KEY_DELETING_CURSOR = "#keyDeletingCursor";
 
   /**
    * OM LevelDB prefixes.
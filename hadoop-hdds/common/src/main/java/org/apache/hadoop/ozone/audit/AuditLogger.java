@@ -18,10 +18,21 @@
 package org.apache.hadoop.ozone.audit;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.spi.ExtendedLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -29,10 +40,32 @@
  */
 public class AuditLogger {
 
+  private static final Logger LOG = LoggerFactory.getLogger(AuditLogger.class);
+
   private ExtendedLogger logger;
   private static final String FQCN = AuditLogger.class.getName();
   private static final Marker WRITE_MARKER = AuditMarker.WRITE.getMarker();
   private static final Marker READ_MARKER = AuditMarker.READ.getMarker();
+  /**
+   * Queued by close() after the last event, the writer thread exits when it
+   * takes it.
+   */
+  private static final AuditEvent STOP = new AuditEvent(null, null, null,
+      null);
+  // Numbers the loggers to name their metrics, several loggers may write
+  // to the same log.
+  private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+  /**
+   * Events waiting to be written by the writer thread, null if the events
+   * are written by the calling thread.
+   */
+  private volatile BlockingQueue<AuditEvent> queue;
+  private Thread writer;
+  private AuditLoggerMetrics metrics;
+  private boolean dropWhenFull;
+  private final AtomicLong droppedEvents = new AtomicLong();
+  private final int instanceId = INSTANCES.incrementAndGet();
 
   /**
    * Parametrized Constructor to initialize logger.
@@ -50,37 +83,203 @@ private void initializeLogger(AuditLoggerType loggerType){
     this.logger = LogManager.getContext(false).getLogger(loggerType.getType());
   }
 
+  /**
+   * Switches the logger to asynchronous writing if configured. The audit
+   * messages are then queued by the calling thread and formatted and written
+   * by a background thread, and the number of queued and dropped messages is
+   * published as {@link AuditLoggerMetrics}. Calling it again has no effect
+   * until the logger is closed.
+   * @param conf configuration
+   */
+  public synchronized void configure(Configuration conf) {
+    if (queue != null || !conf.getBoolean(
+        OzoneConfigKeys.OZONE_AUDIT_LOG_ASYNC_ENABLED,
+        OzoneConfigKeys.OZONE_AUDIT_LOG_ASYNC_ENABLED_DEFAULT)) {
+      return;
+    }
+    int queueSize = conf.getInt(
+        OzoneConfigKeys.OZONE_AUDIT_LOG_ASYNC_QUEUE_SIZE,
+        OzoneConfigKeys.OZONE_AUDIT_LOG_ASYNC_QUEUE_SIZE_DEFAULT);
+    dropWhenFull = conf.getBoolean(
+        OzoneConfigKeys.OZONE_AUDIT_LOG_ASYNC_DROP_WHEN_FULL,
+        OzoneConfigKeys.OZONE_AUDIT_LOG_ASYNC_DROP_WHEN_FULL_DEFAULT);
+    BlockingQueue<AuditEvent> eventQueue = new ArrayBlockingQueue<>(queueSize);
+    writer = new Thread(() -> writeEvents(eventQueue),
+        "AuditWriter-" + logger.getName());
+    writer.setDaemon(true);
+    writer.start();
+    queue = eventQueue;
+    metrics = AuditLoggerMetrics.create(AuditLoggerMetrics.SOURCE_NAME + "-"
+        + logger.getName() + "-" + instanceId, this);
+    LOG.info("Asynchronous audit logging enabled for {}, queue size {}, " +
+        "drop when full {}", logger.getName(), queueSize, dropWhenFull);
+  }
+
+  /**
+   * Stops the asynchronous writer after it has written all the queued
+   * messages. Messages logged afterwards are written by the calling thread.
+   * The loggers are shared by all the services of the JVM, so this has to be
+   * called when a service stops, and configure() enables the writer again
+   * for a restarted service.
+   */
+  public void close() {
+    BlockingQueue<AuditEvent> eventQueue;
+    Thread writerThread;
+    AuditLoggerMetrics writerMetrics;
+    synchronized (this) {
+      eventQueue = queue;
+      writerThread = writer;
+      writerMetrics = metrics;
+      if (eventQueue == null) {
+        return;
+      }
+      queue = null;
+      writer = null;
+      metrics = null;
+    }
+    writerMetrics.unregister();
+    try {
+      eventQueue.put(STOP);
+      writerThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // Callers that picked up the queue before it was cleared may still have
+    // added messages after STOP.
+    List<AuditEvent> remaining = new ArrayList<>();
+    eventQueue.drainTo(remaining);
+    for (AuditEvent event : remaining) {
+      if (event != STOP) {
+        write(event);
+      }
+    }
+  }
+
   @VisibleForTesting
   public ExtendedLogger getLogger() {
     return logger;
   }
 
+  /**
+   * Returns the metrics of the asynchronous writer, null if it is not
+   * running.
+   */
+  @VisibleForTesting
+  public synchronized AuditLoggerMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the number of audit messages dropped because the queue of the
+   * asynchronous writer was full.
+   */
+  public long getDroppedEvents() {
+    return droppedEvents.get();
+  }
+
+  /**
+   * Returns the number of audit messages waiting to be written.
+   */
+  public int getPendingEvents() {
+    BlockingQueue<AuditEvent> eventQueue = queue;
+    return eventQueue == null ? 0 : eventQueue.size();
+  }
+
   public void logWriteSuccess(AuditMessage msg) {
-    this.logger.logIfEnabled(FQCN, Level.INFO, WRITE_MARKER, msg, null);
+    log(Level.INFO, WRITE_MARKER, msg, null);
   }
 
   public void logWriteFailure(AuditMessage msg) {
-    this.logger.logIfEnabled(FQCN, Level.ERROR, WRITE_MARKER, msg,
-        msg.getThrowable());
+    log(Level.ERROR, WRITE_MARKER, msg, msg.getThrowable());
   }
 
   public void logReadSuccess(AuditMessage msg) {
-    this.logger.logIfEnabled(FQCN, Level.INFO, READ_MARKER, msg, null);
+    log(Level.INFO, READ_MARKER, msg, null);
   }
 
   public void logReadFailure(AuditMessage msg) {
-    this.logger.logIfEnabled(FQCN, Level.ERROR, READ_MARKER, msg,
-        msg.getThrowable());
+    log(Level.ERROR, READ_MARKER, msg, msg.getThrowable());
   }
 
   public void logWrite(AuditMessage auditMessage) {
     if (auditMessage.getThrowable() == null) {
-      this.logger.logIfEnabled(FQCN, Level.INFO, WRITE_MARKER, auditMessage,
+      log(Level.INFO, WRITE_MARKER, auditMessage,
           auditMessage.getThrowable());
     } else {
-      this.logger.logIfEnabled(FQCN, Level.ERROR, WRITE_MARKER, auditMessage,
+      log(Level.ERROR, WRITE_MARKER, auditMessage,
           auditMessage.getThrowable());
     }
   }
 
+  private void log(Level level, Marker marker, AuditMessage msg,
+      Throwable throwable) {
+    BlockingQueue<AuditEvent> eventQueue = queue;
+    if (eventQueue == null) {
+      this.logger.logIfEnabled(FQCN, level, marker, msg, throwable);
+      return;
+    }
+    if (!this.logger.isEnabled(level, marker)) {
+      return;
+    }
+    AuditEvent event = new AuditEvent(level, marker, msg, throwable);
+    if (dropWhenFull) {
+      if (!eventQueue.offer(event)) {
+        // Log only the first drop of every 1000, the log is already lagging.
+        if (droppedEvents.getAndIncrement() % 1000 == 0) {
+          LOG.warn("Audit queue of {} is full, {} messages dropped so far.",
+              logger.getName(), droppedEvents.get());
+        }
+      }
+    } else {
+      try {
+        eventQueue.put(event);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        this.logger.logIfEnabled(FQCN, level, marker, msg, throwable);
+      }
+    }
+  }
+
+  private void writeEvents(BlockingQueue<AuditEvent> eventQueue) {
+    while (true) {
+      AuditEvent event;
+      try {
+        event = eventQueue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (event == STOP) {
+        return;
+      }
+      write(event);
+    }
+  }
+
+  private void write(AuditEvent event) {
+    try {
+      this.logger.logIfEnabled(FQCN, event.level, event.marker,
+          event.message, event.throwable);
+    } catch (RuntimeException e) {
+      LOG.error("Failed to write audit message to {}", logger.getName(), e);
+    }
+  }
+
+  /**
+   * Audit message queued for the writer thread.
+   */
+  private static final class AuditEvent {
+    private final Level level;
+    private final Marker marker;
+    private final AuditMessage message;
+    private final Throwable throwable;
+
+    private AuditEvent(Level level, Marker marker, AuditMessage message,
+        Throwable throwable) {
+      this.level = level;
+      this.marker = marker;
+      this.message = message;
+      this.throwable = throwable;
+    }
+  }
 }
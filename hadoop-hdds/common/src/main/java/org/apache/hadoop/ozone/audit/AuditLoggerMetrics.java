@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.hadoop.ozone.audit;
+
+import org.apache.hadoop.classification.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+
+/**
+ * Metrics of the asynchronous writer of an {@link AuditLogger}, registered
+ * while the writer runs.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Asynchronous audit logger metrics", context = "ozone")
+public final class AuditLoggerMetrics {
+
+  public static final String SOURCE_NAME =
+      AuditLoggerMetrics.class.getSimpleName();
+
+  private final String name;
+  private final AuditLogger auditLogger;
+
+  private AuditLoggerMetrics(String name, AuditLogger auditLogger) {
+    this.name = name;
+    this.auditLogger = auditLogger;
+  }
+
+  /**
+   * @param name unique name of the source, several audit loggers may write
+   * to the same log
+   */
+  public static AuditLoggerMetrics create(String name,
+      AuditLogger auditLogger) {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    return ms.register(name, "Asynchronous audit logger",
+        new AuditLoggerMetrics(name, auditLogger));
+  }
+
+  public void unregister() {
+    DefaultMetricsSystem.instance().unregisterSource(name);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  @Metric("Number of audit messages dropped because the queue was full")
+  public long getDroppedEvents() {
+    return auditLogger.getDroppedEvents();
+  }
+
+  @Metric("Number of audit messages waiting to be written")
+  public int getPendingEvents() {
+    return auditLogger.getPendingEvents();
+  }
+}
@@ -22,19 +22,35 @@
 
 /**
  * Defines audit message structure.
+ * The message is only formatted when it is written, which may happen on the
+ * audit writer thread.
  */
 public final class AuditMessage implements Message {
 
-  private final String message;
+  private final String user;
+  private final String ip;
+  private final String op;
+  private final Map<String, String> params;
+  private final String ret;
   private final Throwable throwable;
-
-  private AuditMessage(String message, Throwable throwable) {
-    this.message = message;
+  private String message;
+
+  private AuditMessage(String user, String ip, String op,
+      Map<String, String> params, String ret, Throwable throwable) {
+    this.user = user;
+    this.ip = ip;
+    this.op = op;
+    this.params = params;
+    this.ret = ret;
     this.throwable = throwable;
   }
 
   @Override
   public String getFormattedMessage() {
+    if (message == null) {
+      message = "user=" + user + " | ip=" + ip + " | " +
+          "op=" + op + " " + params + " | " + "ret=" + ret;
+    }
     return message;
   }
 
@@ -95,9 +111,7 @@ public Builder withException(Throwable ex){
     }
 
     public AuditMessage build(){
-      String message = "user=" + this.user + " | ip=" + this.ip + " | " +
-          "op=" + this.op + " " + this.params + " | " + "ret=" + this.ret;
-      return new AuditMessage(message, throwable);
+      return new AuditMessage(user, ip, op, params, ret, throwable);
     }
   }
 }
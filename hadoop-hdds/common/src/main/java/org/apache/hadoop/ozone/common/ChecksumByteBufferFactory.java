@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * Creates the fastest {@link ChecksumByteBuffer} available in the running
+ * JVM. CRC32 uses {@link CRC32}, CRC32C uses java.util.zip.CRC32C on Java 9
+ * and later. Both are JVM intrinsics, the pure Java implementations are used
+ * when they are not available.
+ */
+public final class ChecksumByteBufferFactory {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ChecksumByteBufferFactory.class);
+
+  private static final MethodType UPDATE_TYPE =
+      MethodType.methodType(void.class, ByteBuffer.class);
+
+  private static final MethodHandle CRC32_UPDATE =
+      findUpdate(CRC32.class.getName());
+
+  private static final MethodHandle CRC32C_CONSTRUCTOR;
+  private static final MethodHandle CRC32C_UPDATE;
+
+  static {
+    MethodHandle constructor = null;
+    MethodHandle update = findUpdate("java.util.zip.CRC32C");
+    if (update != null) {
+      try {
+        constructor = MethodHandles.publicLookup().findConstructor(
+            Class.forName("java.util.zip.CRC32C"),
+            MethodType.methodType(void.class))
+            .asType(MethodType.methodType(Checksum.class));
+      } catch (ReflectiveOperationException e) {
+        update = null;
+      }
+    }
+    CRC32C_CONSTRUCTOR = constructor;
+    CRC32C_UPDATE = update;
+    LOG.debug("CRC32 implementation: {}, CRC32C implementation: {}",
+        CRC32_UPDATE != null ? "java.util.zip.CRC32" : "pure Java",
+        CRC32C_UPDATE != null ? "java.util.zip.CRC32C" : "pure Java");
+  }
+
+  private ChecksumByteBufferFactory() {
+  }
+
+  private static MethodHandle findUpdate(String className) {
+    try {
+      Class<?> clazz = Class.forName(className);
+      return MethodHandles.publicLookup()
+          .findVirtual(clazz, "update", UPDATE_TYPE)
+          .asType(MethodType.methodType(void.class, Object.class,
+              ByteBuffer.class));
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the fastest available CRC32 implementation.
+   */
+  public static ChecksumByteBuffer crc32Impl() {
+    if (CRC32_UPDATE != null) {
+      return new ChecksumByteBufferImpl(new CRC32(), CRC32_UPDATE);
+    }
+    return pureJavaCrc32();
+  }
+
+  /**
+   * Returns the fastest available CRC32C implementation.
+   */
+  public static ChecksumByteBuffer crc32CImpl() {
+    if (CRC32C_UPDATE != null) {
+      try {
+        Checksum checksum = (Checksum) CRC32C_CONSTRUCTOR.invokeExact();
+        return new ChecksumByteBufferImpl(checksum, CRC32C_UPDATE);
+      } catch (Throwable t) {
+        LOG.debug("Failed to create java.util.zip.CRC32C", t);
+      }
+    }
+    return pureJavaCrc32C();
+  }
+
+  public static ChecksumByteBuffer pureJavaCrc32() {
+    return new PureJavaCrc32ByteBuffer();
+  }
+
+  public static ChecksumByteBuffer pureJavaCrc32C() {
+    return new PureJavaCrc32CByteBuffer();
+  }
+}
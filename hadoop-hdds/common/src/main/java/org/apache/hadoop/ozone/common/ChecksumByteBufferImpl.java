@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.common;
+
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.util.zip.Checksum;
+
+/**
+ * {@link ChecksumByteBuffer} backed by a JDK {@link Checksum}, such as
+ * {@link java.util.zip.CRC32}, whose update methods are JVM intrinsics.
+ */
+final class ChecksumByteBufferImpl implements ChecksumByteBuffer {
+
+  private final Checksum checksum;
+  /** The update(ByteBuffer) method of the checksum, used for direct buffers. */
+  private final MethodHandle byteBufferUpdate;
+
+  ChecksumByteBufferImpl(Checksum checksum, MethodHandle byteBufferUpdate) {
+    this.checksum = checksum;
+    this.byteBufferUpdate = byteBufferUpdate.bindTo(checksum);
+  }
+
+  @Override
+  public void update(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      checksum.update(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          buffer.remaining());
+      buffer.position(buffer.limit());
+      return;
+    }
+    try {
+      byteBufferUpdate.invokeExact(buffer);
+    } catch (Throwable t) {
+      throw new IllegalStateException("Failed to update " + checksum, t);
+    }
+  }
+
+  @Override
+  public void update(byte[] b, int off, int len) {
+    checksum.update(b, off, len);
+  }
+
+  @Override
+  public void update(int b) {
+    checksum.update(b);
+  }
+
+  @Override
+  public long getValue() {
+    return checksum.getValue();
+  }
+
+  @Override
+  public void reset() {
+    checksum.reset();
+  }
+}
@@ -30,9 +30,11 @@
 import org.apache.hadoop.ozone.common.ChecksumData;
 import org.apache.hadoop.ozone.common.OzoneChecksumException;
 import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.com.google.protobuf.UnsafeByteOperations;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 import java.util.UUID;
 import java.util.function.BiFunction;
@@ -122,6 +124,27 @@ public void testWriteChunk() throws Exception {
     runTest(TestContainerCommandRequestMessage::newWriteChunk);
   }
 
+  @Test
+  public void testParseFromAliasesData() throws Exception {
+    final BlockID blockID = new BlockID(RANDOM.nextLong(), RANDOM.nextLong());
+    final ByteString data = newData(100);
+    final ContainerCommandRequestProto original =
+        newPutSmallFile(blockID, data);
+    final byte[] bytes = original.toByteArray();
+
+    final ContainerCommandRequestProto parsed =
+        ContainerCommandRequestMessage.parseFrom(
+            UnsafeByteOperations.unsafeWrap(bytes));
+    Assert.assertEquals(original, parsed);
+
+    // the data was not copied, so changing the bytes changes the data
+    final ByteString parsedData = parsed.getPutSmallFile().getData();
+    Arrays.fill(bytes, (byte) 0);
+    for (int i = 0; i < parsedData.size(); i++) {
+      Assert.assertEquals(0, parsedData.byteAt(i));
+    }
+  }
+
   static void runTest(
       BiFunction<BlockID, ByteString, ContainerCommandRequestProto> method)
       throws Exception {
@@ -291,6 +291,33 @@ public void testRocksDBCheckpointCleanup() throws Exception {
     }
   }
 
+  @Test
+  public void testGetLiveSstFiles() throws Exception {
+    try (RDBStore newStore =
+             new RDBStore(folder.newFolder(), options, configSet)) {
+      insertRandomData(newStore, 1);
+      newStore.flush();
+      Map<String, String> sstFiles = newStore.getLiveSstFiles();
+      Assert.assertFalse(sstFiles.isEmpty());
+
+      DBCheckpoint checkpoint = newStore.getCheckpoint(false);
+      for (String name : sstFiles.keySet()) {
+        Assert.assertTrue(name.endsWith(".sst"));
+        Assert.assertTrue(Files.exists(
+            checkpoint.getCheckpointLocation().resolve(name)));
+      }
+
+      // Files are compared by metadata, a new file has a new name.
+      insertRandomData(newStore, 1);
+      newStore.flush();
+      Map<String, String> newSstFiles = newStore.getLiveSstFiles();
+      Assert.assertEquals(sstFiles.size() + 1, newSstFiles.size());
+      sstFiles.forEach((name, metadata) ->
+          Assert.assertEquals(metadata, newSstFiles.get(name)));
+      checkpoint.cleanupCheckpoint();
+    }
+  }
+
   /**
    * Not strictly a unit test. Just a confirmation of the expected behavior
    * of RocksDB keyMayExist API.
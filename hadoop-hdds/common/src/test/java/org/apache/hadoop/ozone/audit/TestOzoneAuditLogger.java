@@ -18,6 +18,9 @@
 package org.apache.hadoop.ozone.audit;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.junit.AfterClass;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -31,6 +34,8 @@
 import static org.apache.hadoop.ozone.audit.AuditEventStatus.FAILURE;
 import static org.apache.hadoop.ozone.audit.AuditEventStatus.SUCCESS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -123,6 +128,58 @@ public void verifyDefaultLogLevelForFailure() throws IOException {
     verifyLog(expected);
   }
 
+  /**
+   * Test to verify messages are written by the asynchronous writer.
+   */
+  @Test
+  public void verifyAsyncLogging() throws IOException {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OzoneConfigKeys.OZONE_AUDIT_LOG_ASYNC_ENABLED, true);
+    AuditLogger asyncAudit = new AuditLogger(AuditLoggerType.OMLOGGER);
+    asyncAudit.configure(conf);
+    asyncAudit.logWriteSuccess(WRITE_SUCCESS_MSG);
+    String expected =
+        "INFO  | OMAudit | " + WRITE_SUCCESS_MSG.getFormattedMessage();
+    verifyLog(expected);
+    AuditLoggerMetrics metrics = asyncAudit.getMetrics();
+    assertNotNull(DefaultMetricsSystem.instance().getSource(
+        metrics.getName()));
+    assertEquals(0, metrics.getDroppedEvents());
+    assertEquals(0, metrics.getPendingEvents());
+    asyncAudit.close();
+  }
+
+  /**
+   * Test to verify close() writes every queued message before it returns.
+   */
+  @Test
+  public void verifyCloseDrainsQueue() throws IOException {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OzoneConfigKeys.OZONE_AUDIT_LOG_ASYNC_ENABLED, true);
+    AuditLogger asyncAudit = new AuditLogger(AuditLoggerType.OMLOGGER);
+    asyncAudit.configure(conf);
+    String metricsName = asyncAudit.getMetrics().getName();
+    final int count = 100;
+    for (int i = 0; i < count; i++) {
+      asyncAudit.logWriteSuccess(WRITE_SUCCESS_MSG);
+    }
+    asyncAudit.close();
+    assertEquals(0, asyncAudit.getPendingEvents());
+    assertNull(asyncAudit.getMetrics());
+    assertNull(DefaultMetricsSystem.instance().getSource(metricsName));
+
+    // written by the calling thread once closed
+    asyncAudit.logWriteFailure(WRITE_FAIL_MSG);
+
+    File file = new File("audit.log");
+    List<String> lines = FileUtils.readLines(file, (String)null);
+    assertEquals(count + 1, lines.size());
+    assertTrue(lines.get(count).equalsIgnoreCase(
+        "ERROR | OMAudit | " + WRITE_FAIL_MSG.getFormattedMessage()));
+    lines.clear();
+    FileUtils.writeLines(file, lines, false);
+  }
+
   @Test
   public void messageIncludesAllParts() {
     String message = WRITE_FAIL_MSG.getFormattedMessage();
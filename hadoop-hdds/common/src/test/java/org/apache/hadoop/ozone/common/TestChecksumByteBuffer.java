@@ -22,6 +22,7 @@
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Random;
 import java.util.zip.Checksum;
@@ -44,6 +45,20 @@ public void testPureJavaCrc32CByteBuffer() {
     new VerifyChecksumByteBuffer(expected, testee).testCorrectness();
   }
 
+  @Test
+  public void testCrc32Impl() {
+    final Checksum expected = new PureJavaCrc32();
+    final ChecksumByteBuffer testee = ChecksumByteBufferFactory.crc32Impl();
+    new VerifyChecksumByteBuffer(expected, testee).testCorrectness();
+  }
+
+  @Test
+  public void testCrc32CImpl() {
+    final Checksum expected = new PureJavaCrc32C();
+    final ChecksumByteBuffer testee = ChecksumByteBufferFactory.crc32CImpl();
+    new VerifyChecksumByteBuffer(expected, testee).testCorrectness();
+  }
+
   static class VerifyChecksumByteBuffer {
     private final Checksum expected;
     private final ChecksumByteBuffer testee;
@@ -90,6 +105,17 @@ void checkBytes(byte[] bytes, int length) {
         checkSame();
       }
 
+      // Direct buffers take a different path in the intrinsic based
+      // implementations.
+      expected.reset();
+      testee.reset();
+      final ByteBuffer direct = ByteBuffer.allocateDirect(length);
+      direct.put(bytes, 0, length).flip();
+      expected.update(bytes, 0, length);
+      testee.update(direct);
+      checkSame();
+      Assert.assertFalse(direct.hasRemaining());
+
       expected.reset();
       testee.reset();
       checkSame();
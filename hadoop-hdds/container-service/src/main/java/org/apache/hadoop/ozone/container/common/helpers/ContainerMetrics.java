@@ -49,6 +49,7 @@ public class ContainerMetrics {
   public static final String STORAGE_CONTAINER_METRICS =
       "StorageContainerMetrics";
   @Metric private MutableCounterLong numOps;
+  @Metric private MutableCounterLong requestBytesCopied;
   private MutableCounterLong[] numOpsArray;
   private MutableCounterLong[] opsBytesArray;
   private MutableRate[] opsLatency;
@@ -125,4 +126,15 @@ public void incContainerBytesStats(ContainerProtos.Type type, long bytes) {
   public long getContainerBytesMetrics(ContainerProtos.Type type){
     return opsBytesArray[type.ordinal()].value();
   }
+
+  /**
+   * Increment the number of bytes copied out of the gRPC receive buffers.
+   */
+  public void incRequestBytesCopied(long bytes) {
+    requestBytesCopied.incr(bytes);
+  }
+
+  public long getRequestBytesCopied() {
+    return requestBytesCopied.value();
+  }
 }
\ No newline at end of file
@@ -79,6 +79,8 @@ public abstract class ContainerData {
 
   private boolean committedSpace;
 
+  private boolean countedAsOpen;
+
   //ID of the pipeline where this container is created
   private String originPipelineId;
   //ID of the datanode where this container is created
@@ -328,6 +330,11 @@ private void releaseCommitSpace() {
       getVolume().incCommittedBytes(0 - unused);
     }
     committedSpace = false;
+
+    if (countedAsOpen) {
+      getVolume().incOpenContainerCount(-1);
+      countedAsOpen = false;
+    }
   }
 
   /**
@@ -349,6 +356,10 @@ public void commitSpace() {
 
     // junit tests do not always set up volume
     cVol = getVolume();
+    if (cVol != null && !countedAsOpen) {
+      cVol.incOpenContainerCount(1);
+      countedAsOpen = true;
+    }
     if (unused > 0 && (cVol != null)) {
       cVol.incCommittedBytes(unused);
       committedSpace = true;
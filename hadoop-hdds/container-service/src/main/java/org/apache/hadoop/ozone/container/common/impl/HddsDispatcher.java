@@ -106,6 +106,7 @@ public HddsDispatcher(Configuration config, ContainerSet contSet,
       StateContext context, ContainerMetrics metrics,
       TokenVerifier tokenVerifier) {
     this.conf = config;
+    AUDIT.configure(conf);
     this.containerSet = contSet;
     this.volumeSet = volumes;
     this.context = context;
@@ -126,6 +127,7 @@ public void init() {
 
   @Override
   public void shutdown() {
+    AUDIT.close();
   }
 
   /**
@@ -22,6 +22,7 @@
 import org.apache.hadoop.hdds.conf.ConfigGroup;
 import static org.apache.hadoop.hdds.conf.ConfigTag.DATANODE;
 import org.apache.hadoop.hdds.conf.ConfigType;
+import org.apache.hadoop.ozone.container.keyvalue.CopyContainerCompression;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,6 +63,58 @@ public class DatanodeConfiguration {
 
   private int containerDeleteThreads = containerDeleteThreadsDefault;
 
+  /**
+   * Compression of the container archive sent to other datanodes during
+   * replication.
+   */
+  @Config(key = "replication.compression",
+      type = ConfigType.STRING,
+      defaultValue = "GZIP",
+      tags = {DATANODE},
+      description = "Compression used for the container archive streamed to "
+          + "other datanodes during replication. Possible values: GZIP, "
+          + "NO_COMPRESSION. The receiving datanode detects the compression "
+          + "automatically."
+  )
+  private String replicationCompression =
+      CopyContainerCompression.getDefault().name();
+
+  @Config(key = "replication.inbound.bandwidth.bytes.per.second",
+      type = ConfigType.LONG,
+      defaultValue = "0",
+      tags = {DATANODE},
+      description = "Maximum total bandwidth used by the datanode to download "
+          + "containers from other datanodes during replication. "
+          + "Zero or negative means unlimited."
+  )
+  private long replicationInboundBandwidth = 0;
+
+  @Config(key = "replication.outbound.bandwidth.bytes.per.second",
+      type = ConfigType.LONG,
+      defaultValue = "0",
+      tags = {DATANODE},
+      description = "Maximum total bandwidth used by the datanode to send "
+          + "containers to other datanodes during replication. "
+          + "Zero or negative means unlimited."
+  )
+  private long replicationOutboundBandwidth = 0;
+
+  /**
+   * Whether commands of different types are processed concurrently.
+   */
+  @Config(key = "command.handler.parallel",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "true",
+      tags = {DATANODE},
+      description = "If true, the commands received from SCM are processed "
+          + "by one thread per command type, so a long running command (e.g. "
+          + "a block deletion) does not delay commands of other types (e.g. "
+          + "container close). Commands of the same type, and of types "
+          + "which depend on each other (e.g. pipeline creation and close), "
+          + "are always processed in the order they were received."
+  )
+  private boolean parallelCommandHandling = true;
+
   @PostConstruct
   public void validate() {
     if (replicationMaxStreamsDefault < 1) {
@@ -77,6 +130,15 @@ public void validate() {
           containerDeleteThreads, containerDeleteThreadsDefault);
       containerDeleteThreads = containerDeleteThreadsDefault;
     }
+
+    try {
+      CopyContainerCompression.valueOf(replicationCompression);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      LOG.warn("hdds.datanode.replication.compression has an invalid value " +
+              "{}. Defaulting to {}",
+          replicationCompression, CopyContainerCompression.getDefault());
+      replicationCompression = CopyContainerCompression.getDefault().name();
+    }
   }
 
   public void setReplicationMaxStreams(int replicationMaxStreams) {
@@ -95,4 +157,37 @@ public int getContainerDeleteThreads() {
     return containerDeleteThreads;
   }
 
+  public long getReplicationInboundBandwidth() {
+    return replicationInboundBandwidth;
+  }
+
+  public void setReplicationInboundBandwidth(long bytesPerSecond) {
+    this.replicationInboundBandwidth = bytesPerSecond;
+  }
+
+  public long getReplicationOutboundBandwidth() {
+    return replicationOutboundBandwidth;
+  }
+
+  public void setReplicationOutboundBandwidth(long bytesPerSecond) {
+    this.replicationOutboundBandwidth = bytesPerSecond;
+  }
+
+  public boolean isParallelCommandHandling() {
+    return parallelCommandHandling;
+  }
+
+  public void setParallelCommandHandling(boolean parallel) {
+    this.parallelCommandHandling = parallel;
+  }
+
+  public void setReplicationCompression(
+      CopyContainerCompression replicationCompression) {
+    this.replicationCompression = replicationCompression.name();
+  }
+
+  public CopyContainerCompression getReplicationCompression() {
+    return CopyContainerCompression.valueOf(replicationCompression);
+  }
+
 }
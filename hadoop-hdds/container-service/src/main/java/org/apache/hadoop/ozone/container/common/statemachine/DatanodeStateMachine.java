@@ -34,6 +34,7 @@
 import org.apache.hadoop.hdds.protocol.proto
     .StorageContainerDatanodeProtocolProtos.NodeReportProto;
 import org.apache.hadoop.hdds.security.x509.certificate.client.CertificateClient;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.HddsDatanodeStopService;
 import org.apache.hadoop.ozone.container.common.report.ReportManager;
 import org.apache.hadoop.ozone.container.common.statemachine.commandhandler
@@ -55,6 +56,7 @@
 import org.apache.hadoop.ozone.container.replication.ContainerReplicator;
 import org.apache.hadoop.ozone.container.replication.DownloadAndImportReplicator;
 import org.apache.hadoop.ozone.container.replication.ReplicationSupervisor;
+import org.apache.hadoop.ozone.container.replication.ReplicationSupervisorMetrics;
 import org.apache.hadoop.ozone.container.replication.SimpleContainerDownloader;
 import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
 import org.apache.hadoop.util.JvmPauseMonitor;
@@ -86,6 +88,7 @@ public class DatanodeStateMachine implements Closeable {
   private Thread stateMachineThread = null;
   private Thread cmdProcessThread = null;
   private final ReplicationSupervisor supervisor;
+  private final ReplicationSupervisorMetrics replicationSupervisorMetrics;
 
   private JvmPauseMonitor jvmPauseMonitor;
   private CertificateClient dnCertClient;
@@ -118,14 +121,21 @@ public DatanodeStateMachine(DatanodeDetails datanodeDetails,
     dnCertClient = certClient;
     nextHB = new AtomicLong(Time.monotonicNow());
 
+    long inboundBandwidth = dnConf.getReplicationInboundBandwidth();
+    DataTransferThrottler inboundThrottler = inboundBandwidth > 0
+        ? new DataTransferThrottler(inboundBandwidth) : null;
+
     ContainerReplicator replicator =
         new DownloadAndImportReplicator(container.getContainerSet(),
             container.getController(),
-            new SimpleContainerDownloader(conf), new TarContainerPacker());
+            new SimpleContainerDownloader(conf, inboundThrottler),
+            new TarContainerPacker());
 
     supervisor =
         new ReplicationSupervisor(container.getContainerSet(), replicator,
             dnConf.getReplicationMaxStreams());
+    replicationSupervisorMetrics =
+        ReplicationSupervisorMetrics.create(supervisor);
 
     // When we add new handlers just adding a new handler here should do the
      // trick.
@@ -141,6 +151,7 @@ public DatanodeStateMachine(DatanodeDetails datanodeDetails,
         .setConnectionManager(connectionManager)
         .setContainer(container)
         .setContext(context)
+        .setParallelCommandHandling(dnConf.isParallelCommandHandling())
         .build();
 
     reportManager = ReportManager.newBuilder(conf)
@@ -407,6 +418,7 @@ public void join() throws InterruptedException {
   public synchronized void stopDaemon() {
     try {
       supervisor.stop();
+      replicationSupervisorMetrics.unRegister();
       context.setState(DatanodeStates.SHUTDOWN);
       reportManager.shutdown();
       this.close();
@@ -438,9 +450,8 @@ private void initCommandHandlerThread(Configuration config) {
 
     /**
      * Task that periodically checks if we have any outstanding commands.
-     * It is assumed that commands can be processed slowly and in order.
-     * This assumption might change in future. Right now due to this assumption
-     * we have single command  queue process thread.
+     * Commands are taken from the queue by a single thread and handed to the
+     * dispatcher, which may process different command types concurrently.
      */
     Runnable processCommandQueue = () -> {
       long now;
@@ -463,7 +474,7 @@ private void initCommandHandlerThread(Configuration config) {
       }
     };
 
-    // We will have only one thread for command processing in a datanode.
+    // We will have only one thread reading the command queue in a datanode.
     cmdProcessThread = getCommandHandlerThread(processCommandQueue);
     cmdProcessThread.start();
   }
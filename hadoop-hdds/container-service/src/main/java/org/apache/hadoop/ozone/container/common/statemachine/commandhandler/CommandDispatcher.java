@@ -19,6 +19,7 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.hadoop.hdds.protocol.proto
     .StorageContainerDatanodeProtocolProtos.SCMCommandProto.Type;
 import org.apache.hadoop.ozone.container.common.statemachine.SCMConnectionManager;
@@ -28,13 +29,27 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Dispatches command to the correct handler.
+ * <p>
+ * If parallel command handling is enabled, every command type has its own
+ * thread: commands of the same type are handled in order, while commands of
+ * different types are handled concurrently, so that e.g. a long block
+ * deletion does not delay closing containers. Command types which depend on
+ * each other share a thread, so that e.g. a pipeline is closed only after
+ * the close of its containers and its own creation were handled.
  */
 public final class CommandDispatcher {
   static final Logger LOG =
@@ -43,6 +58,16 @@ public final class CommandDispatcher {
   private final Map<Type, CommandHandler> handlerMap;
   private final OzoneContainer container;
   private final SCMConnectionManager connectionManager;
+  private final Map<Type, ExecutorService> executors;
+
+  // Command types which are handled in order by the same thread: the close
+  // of containers and of their pipeline and the creation of a pipeline, and
+  // the deletion and replication of a container replica.
+  private static final List<List<Type>> ORDERED_TYPES = Arrays.asList(
+      Arrays.asList(Type.closeContainerCommand, Type.closePipelineCommand,
+          Type.createPipelineCommand),
+      Arrays.asList(Type.deleteContainerCommand,
+          Type.replicateContainerCommand));
 
   /**
    * Constructs a command Dispatcher.
@@ -56,7 +81,7 @@ public final class CommandDispatcher {
    * @param handlers - Set of handlers.
    */
   private CommandDispatcher(OzoneContainer container, SCMConnectionManager
-      connectionManager, StateContext context,
+      connectionManager, StateContext context, boolean parallel,
       CommandHandler... handlers) {
     Preconditions.checkNotNull(context);
     Preconditions.checkNotNull(handlers);
@@ -76,6 +101,38 @@ private CommandDispatcher(OzoneContainer container, SCMConnectionManager
       }
       handlerMap.put(h.getCommandType(), h);
     }
+    executors = new EnumMap<>(Type.class);
+    if (parallel) {
+      for (Type type : handlerMap.keySet()) {
+        Type first = getFirstOrderedType(type);
+        ExecutorService executor = executors.get(first);
+        if (executor == null) {
+          executor = Executors.newSingleThreadExecutor(
+              new ThreadFactoryBuilder().setDaemon(true)
+                  .setNameFormat("CommandHandler-" + first + "-%d")
+                  .build());
+          executors.put(first, executor);
+        }
+        executors.put(type, executor);
+      }
+    }
+  }
+
+  /**
+   * Returns the type whose thread handles the given command type.
+   */
+  private static Type getFirstOrderedType(Type type) {
+    for (List<Type> types : ORDERED_TYPES) {
+      if (types.contains(type)) {
+        return types.get(0);
+      }
+    }
+    return type;
+  }
+
+  @VisibleForTesting
+  ExecutorService getExecutor(Type type) {
+    return executors.get(type);
   }
 
   public CommandHandler getCloseContainerHandler() {
@@ -95,16 +152,41 @@ public CommandHandler getDeleteBlocksCommandHandler() {
   public void handle(SCMCommand command) {
     Preconditions.checkNotNull(command);
     CommandHandler handler = handlerMap.get(command.getType());
-    if (handler != null) {
-      handler.handle(command, container, context, connectionManager);
-    } else {
+    if (handler == null) {
       LOG.error("Unknown SCM Command queued. There is no handler for this " +
           "command. Command: {}", command.getType().getDescriptorForType()
           .getName());
+      return;
     }
+    ExecutorService executor = executors.get(command.getType());
+    if (executor == null) {
+      handler.handle(command, container, context, connectionManager);
+      return;
+    }
+    executor.execute(() -> {
+      try {
+        handler.handle(command, container, context, connectionManager);
+      } catch (RuntimeException e) {
+        LOG.error("Error while handling command {}", command, e);
+      }
+    });
   }
 
   public void stop() {
+    Set<ExecutorService> executorSet = new HashSet<>(executors.values());
+    for (ExecutorService executor : executorSet) {
+      executor.shutdown();
+    }
+    try {
+      for (ExecutorService executor : executorSet) {
+        if (!executor.awaitTermination(3, TimeUnit.SECONDS)) {
+          executor.shutdownNow();
+        }
+      }
+    } catch (InterruptedException ie) {
+      // Ignore, we don't really care about the failure.
+      Thread.currentThread().interrupt();
+    }
     for (CommandHandler c : handlerMap.values()) {
       c.stop();
     }
@@ -122,6 +204,7 @@ public static class Builder {
     private OzoneContainer container;
     private StateContext context;
     private SCMConnectionManager connectionManager;
+    private boolean parallel;
 
     public Builder() {
       handlerList = new LinkedList<>();
@@ -176,6 +259,18 @@ public Builder setContext(StateContext stateContext) {
       return this;
     }
 
+    /**
+     * Sets whether commands of different types are handled concurrently.
+     *
+     * @param parallelCommandHandling - true to use a thread per command type
+     * @return this
+     */
+    public Builder setParallelCommandHandling(
+        boolean parallelCommandHandling) {
+      this.parallel = parallelCommandHandling;
+      return this;
+    }
+
     /**
      * Builds a command Dispatcher.
      * @return Command Dispatcher.
@@ -187,7 +282,7 @@ public CommandDispatcher build() {
       Preconditions.checkNotNull(this.context, "Missing context.");
       Preconditions.checkArgument(this.handlerList.size() > 0);
       return new CommandDispatcher(this.container, this.connectionManager,
-          this.context, handlerList.toArray(
+          this.context, this.parallel, handlerList.toArray(
               new CommandHandler[handlerList.size()]));
     }
   }
@@ -71,7 +71,8 @@ public void handle(SCMCommand command, OzoneContainer container,
         "Replication command is received for container %s "
             + "without source datanodes.", containerID);
 
-    supervisor.addTask(new ReplicationTask(containerID, sourceDatanodes));
+    supervisor.addTask(new ReplicationTask(containerID, sourceDatanodes,
+        replicateCommand.getReplicaCount()));
   }
 
   @Override
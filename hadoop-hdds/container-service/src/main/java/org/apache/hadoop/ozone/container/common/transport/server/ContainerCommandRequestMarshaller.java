@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.transport.server;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos
+    .ContainerCommandRequestProto;
+import org.apache.hadoop.hdds.ratis.ContainerCommandRequestMessage;
+import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
+import org.apache.ratis.thirdparty.com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.ratis.thirdparty.com.google.protobuf.UnsafeByteOperations;
+import org.apache.ratis.thirdparty.io.grpc.KnownLength;
+import org.apache.ratis.thirdparty.io.grpc.MethodDescriptor;
+import org.apache.ratis.thirdparty.io.grpc.Status;
+import org.apache.ratis.thirdparty.io.grpc.protobuf.ProtoUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Request marshaller which parses {@link ContainerCommandRequestProto} with
+ * aliasing enabled: the message is read once into a byte array and the chunk
+ * data of WriteChunk and PutSmallFile refers to that array instead of being
+ * copied again into its own ByteString.
+ */
+public class ContainerCommandRequestMarshaller
+    implements MethodDescriptor.Marshaller<ContainerCommandRequestProto> {
+
+  private final MethodDescriptor.Marshaller<ContainerCommandRequestProto>
+      delegate = ProtoUtils.marshaller(
+          ContainerCommandRequestProto.getDefaultInstance());
+  private final ContainerMetrics metrics;
+
+  public ContainerCommandRequestMarshaller(ContainerMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public InputStream stream(ContainerCommandRequestProto value) {
+    return delegate.stream(value);
+  }
+
+  @Override
+  public ContainerCommandRequestProto parse(InputStream stream) {
+    try {
+      final byte[] bytes;
+      if (stream instanceof KnownLength) {
+        bytes = new byte[stream.available()];
+        IOUtils.readFully(stream, bytes);
+      } else {
+        bytes = IOUtils.toByteArray(stream);
+      }
+      return parse(bytes);
+    } catch (IOException e) {
+      throw Status.INTERNAL.withDescription("Invalid container command request")
+          .withCause(e).asRuntimeException();
+    }
+  }
+
+  /**
+   * Parses a request read from the gRPC stream. The array is never modified
+   * afterwards, so the parsed ByteStrings share it.
+   */
+  @VisibleForTesting
+  ContainerCommandRequestProto parse(byte[] bytes)
+      throws InvalidProtocolBufferException {
+    if (metrics != null) {
+      metrics.incRequestBytesCopied(bytes.length);
+    }
+    return ContainerCommandRequestMessage.parseFrom(
+        UnsafeByteOperations.unsafeWrap(bytes));
+  }
+}
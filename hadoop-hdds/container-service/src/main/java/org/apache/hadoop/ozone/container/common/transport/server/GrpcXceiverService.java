@@ -23,7 +23,11 @@
     .ContainerCommandResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto
     .XceiverClientProtocolServiceGrpc;
+import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerDispatcher;
+import org.apache.ratis.thirdparty.io.grpc.MethodDescriptor;
+import org.apache.ratis.thirdparty.io.grpc.ServerCallHandler;
+import org.apache.ratis.thirdparty.io.grpc.ServerServiceDefinition;
 import org.apache.ratis.thirdparty.io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,9 +43,42 @@ public class GrpcXceiverService extends
       LOG = LoggerFactory.getLogger(GrpcXceiverService.class);
 
   private final ContainerDispatcher dispatcher;
+  private final ContainerMetrics metrics;
 
   public GrpcXceiverService(ContainerDispatcher dispatcher) {
+    this(dispatcher, null);
+  }
+
+  public GrpcXceiverService(ContainerDispatcher dispatcher,
+      ContainerMetrics metrics) {
     this.dispatcher = dispatcher;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Binds the service with {@link ContainerCommandRequestMarshaller}, so
+   * that the chunk data is not copied when the requests are parsed.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public ServerServiceDefinition bindService() {
+    ServerServiceDefinition definition = super.bindService();
+    MethodDescriptor<ContainerCommandRequestProto,
+        ContainerCommandResponseProto> send =
+        XceiverClientProtocolServiceGrpc.getSendMethod();
+    ServerCallHandler<ContainerCommandRequestProto,
+        ContainerCommandResponseProto> handler =
+        (ServerCallHandler<ContainerCommandRequestProto,
+            ContainerCommandResponseProto>) definition
+            .getMethod(send.getFullMethodName()).getServerCallHandler();
+    return ServerServiceDefinition
+        .builder(definition.getServiceDescriptor().getName())
+        .addMethod(send.toBuilder()
+                .setRequestMarshaller(
+                    new ContainerCommandRequestMarshaller(metrics))
+                .build(),
+            handler)
+        .build();
   }
 
   @Override
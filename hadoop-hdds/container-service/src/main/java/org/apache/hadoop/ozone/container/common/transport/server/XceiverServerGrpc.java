@@ -37,6 +37,7 @@
 import org.apache.hadoop.hdds.tracing.TracingUtil;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerDispatcher;
 
 import io.opentracing.Scope;
@@ -80,6 +81,19 @@ public final class XceiverServerGrpc implements XceiverServerSpi {
   public XceiverServerGrpc(DatanodeDetails datanodeDetails, Configuration conf,
       ContainerDispatcher dispatcher, CertificateClient caClient,
       BindableService... additionalServices) {
+    this(datanodeDetails, conf, dispatcher, null, caClient,
+        additionalServices);
+  }
+
+  /**
+   * Constructs a Grpc server class.
+   *
+   * @param conf - Configuration
+   * @param metrics - container metrics, may be null
+   */
+  public XceiverServerGrpc(DatanodeDetails datanodeDetails, Configuration conf,
+      ContainerDispatcher dispatcher, ContainerMetrics metrics,
+      CertificateClient caClient, BindableService... additionalServices) {
     Preconditions.checkNotNull(conf);
 
     this.id = datanodeDetails.getUuid();
@@ -98,7 +112,7 @@ public XceiverServerGrpc(DatanodeDetails datanodeDetails, Configuration conf,
 
     GrpcServerInterceptor tracingInterceptor = new GrpcServerInterceptor();
     nettyServerBuilder.addService(ServerInterceptors.intercept(
-        new GrpcXceiverService(dispatcher), tracingInterceptor));
+        new GrpcXceiverService(dispatcher, metrics), tracingInterceptor));
 
     for (BindableService service : additionalServices) {
       nettyServerBuilder.addService(service);
@@ -374,8 +374,9 @@ private ContainerCommandRequestProto getContainerCommandRequestProto(
     // TODO: We can avoid creating new builder and set pipeline Id if
     // the client is already sending the pipeline id, then we just have to
     // validate the pipeline Id.
+    // The PutSmallFile data refers to the log entry instead of being copied.
     return ContainerCommandRequestProto.newBuilder(
-        ContainerCommandRequestProto.parseFrom(request))
+        ContainerCommandRequestMessage.parseFrom(request))
         .setPipelineID(gid.getUuid().toString()).build();
   }
 
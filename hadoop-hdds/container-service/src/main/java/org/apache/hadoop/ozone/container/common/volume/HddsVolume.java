@@ -86,6 +86,7 @@
   private long cTime;             // creation time of the file system state
   private int layoutVersion;      // layout version of the storage data
   private final AtomicLong committedBytes; // till Open containers become full
+  private final AtomicLong openContainerCount;
 
   /**
    * Run a check on the current volume to determine if it is healthy.
@@ -169,6 +170,7 @@ private HddsVolume(Builder b) throws IOException {
           .usageCheckFactory(b.usageCheckFactory)
           .build();
       this.committedBytes = new AtomicLong(0);
+      this.openContainerCount = new AtomicLong(0);
 
       LOG.info("Creating Volume: {} of storage type : {} and capacity : {}",
           hddsRootDir, b.storageType, volumeInfo.getCapacity());
@@ -183,6 +185,7 @@ private HddsVolume(Builder b) throws IOException {
       storageID = UUID.randomUUID().toString();
       state = VolumeState.FAILED;
       committedBytes = null;
+      openContainerCount = null;
     }
   }
 
@@ -438,6 +441,23 @@ public long getCommittedBytes() {
     return committedBytes.get();
   }
 
+  /**
+   * add "delta" to the number of open containers in the volume.
+   * @param delta number of containers opened, or closed if negative
+   * @return number of open containers
+   */
+  public long incOpenContainerCount(long delta) {
+    return openContainerCount.addAndGet(delta);
+  }
+
+  /**
+   * return the number of open containers in the volume.
+   * @return number of open containers
+   */
+  public long getOpenContainerCount() {
+    return openContainerCount.get();
+  }
+
   /**
    * Override toSting() to show the path of HddsVolume.
    */
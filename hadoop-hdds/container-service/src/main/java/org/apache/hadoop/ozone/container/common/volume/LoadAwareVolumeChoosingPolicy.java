@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.volume;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.hadoop.ozone.container.common.interfaces.VolumeChoosingPolicy;
+import org.apache.hadoop.util.DiskChecker.DiskOutOfSpaceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Choose the volume with the best score based on free space and load.
+ * <p>
+ * The score of a volume is its available space (less the space committed to
+ * open containers), divided by one plus the number of open containers it
+ * holds, and reduced further if its average write latency since the
+ * previous choice is above the average of all volumes. This way emptier
+ * volumes (eg. a replaced disk) receive more new containers, while busy and
+ * slow volumes receive fewer.
+ * <p>
+ * The inputs and the score of each volume at the last choice are published
+ * by {@link LoadAwareVolumeChoosingPolicyMetrics}.
+ */
+public class LoadAwareVolumeChoosingPolicy implements VolumeChoosingPolicy,
+    Closeable {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(LoadAwareVolumeChoosingPolicy.class);
+
+  /**
+   * Write time and operation count of each volume at the previous choice,
+   * only for the volumes of the last choice.
+   */
+  private final Map<HddsVolume, long[]> lastWriteStats = new HashMap<>();
+
+  private final LoadAwareVolumeChoosingPolicyMetrics metrics =
+      LoadAwareVolumeChoosingPolicyMetrics.create();
+
+  @Override
+  public synchronized HddsVolume chooseVolume(List<HddsVolume> volumes,
+      long maxContainerSize) throws IOException {
+
+    // No volumes available to choose from
+    if (volumes.size() < 1) {
+      throw new DiskOutOfSpaceException("No more available volumes");
+    }
+    lastWriteStats.keySet().retainAll(volumes);
+    metrics.retainVolumes(volumes.stream()
+        .map(v -> v.getHddsRootDir().getPath())
+        .collect(Collectors.toSet()));
+
+    double[] latencies = new double[volumes.size()];
+    double latencySum = 0;
+    int latencyCount = 0;
+    for (int i = 0; i < volumes.size(); i++) {
+      latencies[i] = getRecentWriteLatency(volumes.get(i));
+      if (latencies[i] > 0) {
+        latencySum += latencies[i];
+        latencyCount++;
+      }
+    }
+    double averageLatency = latencyCount > 0 ? latencySum / latencyCount : 0;
+
+    HddsVolume chosen = null;
+    double bestScore = -1;
+    long maxAvailable = 0;
+    for (int i = 0; i < volumes.size(); i++) {
+      HddsVolume volume = volumes.get(i);
+      long committed = volume.getCommittedBytes();
+      // adjust for remaining capacity in Open containers
+      long available = volume.getAvailable() - committed;
+      maxAvailable = Math.max(maxAvailable, available);
+      long openContainers = volume.getOpenContainerCount();
+      double latencyFactor = latencies[i] > averageLatency ?
+          averageLatency / latencies[i] : 1;
+      double score = available <= maxContainerSize ? 0 :
+          (double) available / (1 + openContainers) * latencyFactor;
+      metrics.setVolumeScore(volume.getHddsRootDir().getPath(), score,
+          available, openContainers, latencyFactor);
+      if (available <= maxContainerSize) {
+        continue;
+      }
+
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Volume {}: available {} B, open containers {}, "
+                + "write latency {} ms (average {} ms), score {}",
+            volume, available, openContainers, latencies[i], averageLatency,
+            score);
+      }
+      if (score > bestScore) {
+        bestScore = score;
+        chosen = volume;
+      }
+    }
+
+    if (chosen == null) {
+      throw new DiskOutOfSpaceException("Out of space: "
+          + "The volume with the most available space (=" + maxAvailable
+          + " B) is less than the container size (=" + maxContainerSize
+          + " B).");
+    }
+    LOG.debug("Chose volume {} with score {}", chosen, bestScore);
+    metrics.incrChosen(chosen.getHddsRootDir().getPath());
+    return chosen;
+  }
+
+  @Override
+  public void close() {
+    metrics.unregister();
+  }
+
+  /**
+   * @return average write latency of the volume in milliseconds since the
+   * previous call, or 0 if there were no writes
+   */
+  private double getRecentWriteLatency(HddsVolume volume) {
+    VolumeIOStats stats = volume.getVolumeIOStats();
+    if (stats == null) {
+      return 0;
+    }
+    long writeTime = stats.getWriteTime();
+    long writeOps = stats.getWriteOpCount();
+    long[] last = lastWriteStats.put(volume, new long[] {writeTime, writeOps});
+    if (last == null || writeOps <= last[1]) {
+      return 0;
+    }
+    return (double) (writeTime - last[0]) / (writeOps - last[1]);
+  }
+
+  @VisibleForTesting
+  LoadAwareVolumeChoosingPolicyMetrics getMetrics() {
+    return metrics;
+  }
+
+  @VisibleForTesting
+  synchronized int getTrackedVolumeCount() {
+    return lastWriteStats.size();
+  }
+}
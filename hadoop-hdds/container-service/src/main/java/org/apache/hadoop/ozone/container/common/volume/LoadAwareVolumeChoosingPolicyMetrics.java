@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.volume;
+
+import org.apache.hadoop.classification.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the {@link LoadAwareVolumeChoosingPolicy}, per volume: the
+ * inputs and the score of the last choice, and how often it was chosen.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Datanode Load Aware Volume Choosing Policy Metrics",
+    context = "dfs")
+public final class LoadAwareVolumeChoosingPolicyMetrics
+    implements MetricsSource {
+
+  public static final String SOURCE_NAME =
+      LoadAwareVolumeChoosingPolicyMetrics.class.getSimpleName();
+
+  private final Map<String, VolumeStats> volumes = new ConcurrentHashMap<>();
+
+  private LoadAwareVolumeChoosingPolicyMetrics() {
+  }
+
+  public static LoadAwareVolumeChoosingPolicyMetrics create() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    return ms.register(SOURCE_NAME, "Datanode Load Aware Volume Choosing "
+        + "Policy", new LoadAwareVolumeChoosingPolicyMetrics());
+  }
+
+  public void unregister() {
+    DefaultMetricsSystem.instance().unregisterSource(SOURCE_NAME);
+  }
+
+  /**
+   * Records the inputs and the score of a volume at the last choice.
+   * @param score score of the volume, 0 if it does not have enough space.
+   * @param latencyFactor factor applied to the score for the write latency,
+   * 1 if the volume is not slower than the average.
+   */
+  public void setVolumeScore(String volume, double score, long available,
+      long openContainers, double latencyFactor) {
+    VolumeStats stats = getVolumeStats(volume);
+    stats.score = score;
+    stats.available = available;
+    stats.openContainers = openContainers;
+    stats.latencyFactor = latencyFactor;
+  }
+
+  public void incrChosen(String volume) {
+    getVolumeStats(volume).chosen.incrementAndGet();
+  }
+
+  /**
+   * Drops the metrics of the volumes not in the given set.
+   */
+  public void retainVolumes(Set<String> current) {
+    volumes.keySet().retainAll(current);
+  }
+
+  public double getScore(String volume) {
+    VolumeStats stats = volumes.get(volume);
+    return stats == null ? 0 : stats.score;
+  }
+
+  public double getLatencyFactor(String volume) {
+    VolumeStats stats = volumes.get(volume);
+    return stats == null ? 0 : stats.latencyFactor;
+  }
+
+  public long getNumChosen(String volume) {
+    VolumeStats stats = volumes.get(volume);
+    return stats == null ? 0 : stats.chosen.get();
+  }
+
+  int getVolumeCount() {
+    return volumes.size();
+  }
+
+  private VolumeStats getVolumeStats(String volume) {
+    return volumes.computeIfAbsent(volume, v -> new VolumeStats());
+  }
+
+  @Override
+  public void getMetrics(MetricsCollector collector, boolean all) {
+    volumes.forEach((volume, stats) -> collector.addRecord(SOURCE_NAME)
+        .tag(Interns.info("Volume", "Root directory of the volume"), volume)
+        .addGauge(Interns.info("score",
+            "Score of the volume at the last choice"), stats.score)
+        .addGauge(Interns.info("availableBytes",
+            "Available space less the space committed to open containers"),
+            stats.available)
+        .addGauge(Interns.info("openContainers",
+            "Number of open containers"), stats.openContainers)
+        .addGauge(Interns.info("latencyFactor",
+            "Factor applied to the score for the write latency"),
+            stats.latencyFactor)
+        .addCounter(Interns.info("numChosen",
+            "Number of times the volume was chosen"), stats.chosen.get()));
+  }
+
+  /**
+   * State of one volume at the last choice.
+   */
+  private static final class VolumeStats {
+    private volatile double score;
+    private volatile long available;
+    private volatile long openContainers;
+    private volatile double latencyFactor;
+    private final AtomicLong chosen = new AtomicLong();
+  }
+}
@@ -31,6 +31,7 @@ public class VolumeIOStats {
   private final AtomicLong writeOpCount;
   private final AtomicLong readTime;
   private final AtomicLong writeTime;
+  private final AtomicLong writeBytesCopied;
 
   public VolumeIOStats() {
     readBytes = new AtomicLong(0);
@@ -39,6 +40,7 @@ public VolumeIOStats() {
     writeOpCount = new AtomicLong(0);
     readTime = new AtomicLong(0);
     writeTime = new AtomicLong(0);
+    writeBytesCopied = new AtomicLong(0);
   }
 
   /**
@@ -87,6 +89,24 @@ public void incWriteTime(long time) {
     writeTime.addAndGet(time);
   }
 
+  /**
+   * Increment number of bytes written from heap buffers, which the JDK
+   * copies to native memory before writing them to the volume.
+   * @param bytesCopied
+   */
+  public void incWriteBytesCopied(long bytesCopied) {
+    writeBytesCopied.addAndGet(bytesCopied);
+  }
+
+  /**
+   * Returns total number of bytes copied to native memory to be written to
+   * the volume.
+   * @return long
+   */
+  public long getWriteBytesCopied() {
+    return writeBytesCopied.get();
+  }
+
   /**
    * Returns total number of bytes read from the volume.
    * @return long
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.keyvalue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+
+/**
+ * Compression applied to the container archive during replication.
+ * <p>
+ * The receiving side detects the compression from the stream itself, so the
+ * source can choose any of these without coordination.
+ */
+public enum CopyContainerCompression {
+
+  /**
+   * Plain tar stream. Cheapest option when the network is not the
+   * bottleneck, as chunk data is usually not compressible anyway.
+   */
+  NO_COMPRESSION {
+    @Override
+    public OutputStream wrap(OutputStream output) {
+      return output;
+    }
+  },
+
+  /**
+   * Gzip compressed tar stream (the format used by older datanodes).
+   */
+  GZIP {
+    @Override
+    public OutputStream wrap(OutputStream output) throws IOException {
+      return new GzipCompressorOutputStream(output);
+    }
+  };
+
+  public static CopyContainerCompression getDefault() {
+    return GZIP;
+  }
+
+  /**
+   * Wraps the destination stream with the compressor of this type.
+   * Closing the returned stream closes the original one as well.
+   */
+  public abstract OutputStream wrap(OutputStream output) throws IOException;
+
+}
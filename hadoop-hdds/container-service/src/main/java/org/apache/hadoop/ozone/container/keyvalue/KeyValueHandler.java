@@ -18,6 +18,7 @@
 
 package org.apache.hadoop.ozone.container.keyvalue;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -54,6 +55,7 @@
 import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.container.common.helpers
     .StorageContainerException;
+import org.apache.hadoop.io.IOUtils;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.common.ChunkBuffer;
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
@@ -150,6 +152,9 @@ public VolumeChoosingPolicy getVolumeChoosingPolicyForTesting() {
 
   @Override
   public void stop() {
+    if (volumeChoosingPolicy instanceof Closeable) {
+      IOUtils.closeQuietly((Closeable) volumeChoosingPolicy);
+    }
   }
 
   @Override
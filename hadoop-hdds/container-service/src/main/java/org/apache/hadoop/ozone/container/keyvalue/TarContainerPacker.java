@@ -17,6 +17,7 @@
  */
 package org.apache.hadoop.ozone.container.keyvalue;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -40,14 +41,16 @@
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
-import org.apache.commons.compress.compressors.CompressorException;
-import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.io.IOUtils;
 
 import static java.util.stream.Collectors.toList;
 
 /**
- * Compress/uncompress KeyValueContainer data to a tar.gz archive.
+ * Compress/uncompress KeyValueContainer data to a tar archive.
+ * <p>
+ * The archive is optionally compressed (see {@link CopyContainerCompression}).
+ * Unpacking detects the compression from the stream.
  */
 public class TarContainerPacker
     implements ContainerPacker<KeyValueContainerData> {
@@ -58,6 +61,20 @@
 
   private static final String CONTAINER_FILE_NAME = "container.yaml";
 
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final int GZIP_SIGNATURE_LENGTH = 2;
+
+  private final CopyContainerCompression compression;
+
+  public TarContainerPacker() {
+    this(CopyContainerCompression.getDefault());
+  }
+
+  public TarContainerPacker(CopyContainerCompression compression) {
+    this.compression = compression;
+  }
+
   /**
    * Given an input stream (tar file) extract the data to the specified
    * directories.
@@ -74,8 +91,7 @@ public byte[] unpackContainerData(Container<KeyValueContainerData> container,
     Path dbRoot = containerData.getDbFile().toPath();
     Path chunksRoot = Paths.get(containerData.getChunksPath());
 
-    try (InputStream decompressed = decompress(input);
-         ArchiveInputStream archiveInput = untar(decompressed)) {
+    try (ArchiveInputStream archiveInput = untar(decompress(input))) {
 
       ArchiveEntry entry = archiveInput.getNextEntry();
       while (entry != null) {
@@ -100,12 +116,6 @@ public byte[] unpackContainerData(Container<KeyValueContainerData> container,
         entry = archiveInput.getNextEntry();
       }
       return descriptorFileContent;
-
-    } catch (CompressorException e) {
-      throw new IOException(
-          "Can't uncompress the given container: " + container
-              .getContainerData().getContainerID(),
-          e);
     }
   }
 
@@ -119,11 +129,10 @@ private void extractEntry(InputStream input, long size,
 
     try (OutputStream fileOutput = new FileOutputStream(path.toFile());
          OutputStream output = new BufferedOutputStream(fileOutput)) {
-      int bufferSize = 1024;
-      byte[] buffer = new byte[bufferSize + 1];
+      byte[] buffer = new byte[BUFFER_SIZE];
       long remaining = size;
       while (remaining > 0) {
-        int len = (int) Math.min(remaining, bufferSize);
+        int len = (int) Math.min(remaining, BUFFER_SIZE);
         int read = input.read(buffer, 0, len);
         if (read >= 0) {
           remaining -= read;
@@ -138,6 +147,10 @@ private void extractEntry(InputStream input, long size,
   /**
    * Given a containerData include all the required container data/metadata
    * in a tar file.
+   * <p>
+   * The container descriptor is written as the first entry, so that
+   * {@link #unpackContainerDescriptor(InputStream)} does not need to read
+   * (and decompress) the whole archive.
    *
    * @param container Container to archive (data + metadata).
    * @param output   Destination tar file/stream.
@@ -149,29 +162,24 @@ public void pack(Container<KeyValueContainerData> container,
 
     KeyValueContainerData containerData = container.getContainerData();
 
-    try (OutputStream compressed = compress(output);
-         ArchiveOutputStream archiveOutput = tar(compressed)) {
+    try (ArchiveOutputStream archiveOutput =
+             tar(compression.wrap(output))) {
 
-      includePath(containerData.getDbFile().toPath(), DB_DIR_NAME,
+      includeFile(container.getContainerFile(), CONTAINER_FILE_NAME,
           archiveOutput);
 
-      includePath(Paths.get(containerData.getChunksPath()), CHUNKS_DIR_NAME,
+      includePath(containerData.getDbFile().toPath(), DB_DIR_NAME,
           archiveOutput);
 
-      includeFile(container.getContainerFile(), CONTAINER_FILE_NAME,
+      includePath(Paths.get(containerData.getChunksPath()), CHUNKS_DIR_NAME,
           archiveOutput);
-    } catch (CompressorException e) {
-      throw new IOException(
-          "Can't compress the container: " + containerData.getContainerID(),
-          e);
     }
   }
 
   @Override
   public byte[] unpackContainerDescriptor(InputStream input)
       throws IOException {
-    try (InputStream decompressed = decompress(input);
-         ArchiveInputStream archiveInput = untar(decompressed)) {
+    try (ArchiveInputStream archiveInput = untar(decompress(input))) {
 
       ArchiveEntry entry = archiveInput.getNextEntry();
       while (entry != null) {
@@ -181,10 +189,6 @@ public byte[] unpackContainerDescriptor(InputStream input)
         }
         entry = archiveInput.getNextEntry();
       }
-    } catch (CompressorException e) {
-      throw new IOException(
-          "Can't read the container descriptor from the container archive",
-          e);
     }
 
     throw new IOException(
@@ -222,7 +226,7 @@ static void includeFile(File file, String entryName,
     ArchiveEntry entry = archiveOutput.createArchiveEntry(file, entryName);
     archiveOutput.putArchiveEntry(entry);
     try (InputStream input = new FileInputStream(file)) {
-      IOUtils.copy(input, archiveOutput);
+      IOUtils.copyLarge(input, archiveOutput, new byte[BUFFER_SIZE]);
     }
     archiveOutput.closeArchiveEntry();
   }
@@ -235,16 +239,29 @@ private static ArchiveOutputStream tar(OutputStream output) {
     return new TarArchiveOutputStream(output);
   }
 
+  /**
+   * Wraps the input with a decompressor if the stream is gzip compressed,
+   * otherwise returns a stream of the plain tar archive.
+   */
   private static InputStream decompress(InputStream input)
-      throws CompressorException {
-    return new CompressorStreamFactory()
-        .createCompressorInputStream(CompressorStreamFactory.GZIP, input);
-  }
+      throws IOException {
+    InputStream buffered = new BufferedInputStream(input, BUFFER_SIZE);
+    byte[] signature = new byte[GZIP_SIGNATURE_LENGTH];
+    buffered.mark(signature.length);
+    int length = 0;
+    while (length < signature.length) {
+      int read = buffered.read(signature, length, signature.length - length);
+      if (read < 0) {
+        break;
+      }
+      length += read;
+    }
+    buffered.reset();
 
-  private static OutputStream compress(OutputStream output)
-      throws CompressorException {
-    return new CompressorStreamFactory()
-        .createCompressorOutputStream(CompressorStreamFactory.GZIP, output);
+    if (GzipCompressorInputStream.matches(signature, length)) {
+      return new GzipCompressorInputStream(buffered);
+    }
+    return buffered;
   }
 
 }
@@ -99,6 +99,13 @@ public static void writeData(File chunkFile, ChunkInfo chunkInfo,
       InterruptedException, NoSuchAlgorithmException {
 
     final int bufferSize = validateBufferSize(chunkInfo, data);
+    long heapBytes = 0;
+    for (ByteBuffer buffer : data.asByteBufferList()) {
+      if (!buffer.isDirect()) {
+        heapBytes += buffer.remaining();
+      }
+    }
+    final long bytesCopied = heapBytes;
 
     Path path = chunkFile.toPath();
     long startTime = Time.monotonicNow();
@@ -117,6 +124,7 @@ public static void writeData(File chunkFile, ChunkInfo chunkInfo,
         volumeIOStats.incWriteTime(Time.monotonicNow() - startTime);
         volumeIOStats.incWriteOpCount();
         volumeIOStats.incWriteBytes(size);
+        volumeIOStats.incWriteBytesCopied(bytesCopied);
         if (size != bufferSize) {
           LOG.error("Invalid write size found. Size:{}  Expected: {} ", size,
               bufferSize);
@@ -18,6 +18,7 @@
 
 package org.apache.hadoop.ozone.container.keyvalue.statemachine.background;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
@@ -26,6 +27,9 @@
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerDeletionChoosingPolicy;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.XceiverServerRatis;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.BlockUtils;
 import org.apache.hadoop.ozone.container.ozoneimpl.OzoneContainer;
@@ -52,9 +56,12 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -67,6 +74,10 @@
     .OZONE_BLOCK_DELETING_LIMIT_PER_CONTAINER;
 import static org.apache.hadoop.ozone.OzoneConfigKeys
     .OZONE_BLOCK_DELETING_LIMIT_PER_CONTAINER_DEFAULT;
+import static org.apache.hadoop.ozone.OzoneConfigKeys
+    .OZONE_BLOCK_DELETING_LIMIT_PER_INTERVAL;
+import static org.apache.hadoop.ozone.OzoneConfigKeys
+    .OZONE_BLOCK_DELETING_LIMIT_PER_INTERVAL_DEFAULT;
 
 /**
  * A per-datanode container block deleting service takes in charge
@@ -89,6 +100,16 @@ public class BlockDeletingService extends BackgroundService {
   // Throttle the number of containers to process concurrently at a time,
   private final int containerLimitPerInterval;
 
+  // Total number of blocks to delete per interval, split between the chosen
+  // containers, disabled if not positive
+  private final int blockLimitPerInterval;
+
+  private final BlockDeletingServiceMetrics metrics;
+
+  // IO time and operation count of the volumes at the previous interval,
+  // used to find the busy volumes
+  private final Map<HddsVolume, long[]> lastIOStats = new HashMap<>();
+
   // Task priority is useful when a to-delete block has weight.
   private final static int TASK_PRIORITY_DEFAULT = 1;
   // Core pool size for container tasks
@@ -111,6 +132,10 @@ public BlockDeletingService(OzoneContainer ozoneContainer,
     this.containerLimitPerInterval =
         conf.getInt(OZONE_BLOCK_DELETING_CONTAINER_LIMIT_PER_INTERVAL,
             OZONE_BLOCK_DELETING_CONTAINER_LIMIT_PER_INTERVAL_DEFAULT);
+    this.blockLimitPerInterval =
+        conf.getInt(OZONE_BLOCK_DELETING_LIMIT_PER_INTERVAL,
+            OZONE_BLOCK_DELETING_LIMIT_PER_INTERVAL_DEFAULT);
+    this.metrics = BlockDeletingServiceMetrics.create();
   }
 
 
@@ -132,9 +157,11 @@ public BackgroundTaskQueue getTasks() {
             containerLimitPerInterval, containers.size());
       }
 
-      for(ContainerData container : containers) {
+      int[] blockLimits = getBlockLimits(containers);
+      for (int i = 0; i < containers.size(); i++) {
         BlockDeletingTask containerTask =
-            new BlockDeletingTask(container, TASK_PRIORITY_DEFAULT);
+            new BlockDeletingTask(containers.get(i), TASK_PRIORITY_DEFAULT,
+                blockLimits[i]);
         queue.add(containerTask);
       }
     } catch (StorageContainerException e) {
@@ -150,6 +177,145 @@ public BackgroundTaskQueue getTasks() {
     return queue;
   }
 
+  /**
+   * Number of blocks each container task may delete in this interval.
+   * With a per interval budget the budget is split between the chosen
+   * containers in proportion to their pending deletions, and the share of
+   * the containers on volumes busier than the average is reduced. The per
+   * task limit is the minimum in every case.
+   */
+  private int[] getBlockLimits(List<ContainerData> containers) {
+    int[] limits = new int[containers.size()];
+    updateVolumeMetrics();
+    if (blockLimitPerInterval <= 0) {
+      Arrays.fill(limits, blockLimitPerTask);
+      return limits;
+    }
+    long totalPending = 0;
+    for (ContainerData container : containers) {
+      totalPending += getPendingDeletionBlocks(container);
+    }
+    Map<HddsVolume, Double> loadFactors = getVolumeLoadFactors(containers);
+    Map<String, Long> volumeBudgets = new HashMap<>();
+    for (int i = 0; i < containers.size(); i++) {
+      ContainerData container = containers.get(i);
+      double loadFactor = container.getVolume() == null ? 1
+          : loadFactors.get(container.getVolume());
+      limits[i] = getBlockLimit(blockLimitPerInterval, blockLimitPerTask,
+          getPendingDeletionBlocks(container), totalPending,
+          containers.size(), loadFactor);
+      volumeBudgets.merge(getVolumeName(container), (long) limits[i],
+          Long::sum);
+    }
+    volumeBudgets.forEach(metrics::setBlockBudget);
+    return limits;
+  }
+
+  /**
+   * @param budget number of blocks to delete in the interval
+   * @param minLimit number of blocks any container may delete
+   * @param pending number of blocks pending deletion in the container
+   * @param totalPending number of blocks pending deletion in all the chosen
+   *                     containers
+   * @param containerCount number of the chosen containers
+   * @param loadFactor share of the budget allowed by the load of the
+   *                   volume, between 0 and 1
+   * @return number of blocks the container may delete in the interval
+   */
+  @VisibleForTesting
+  public static int getBlockLimit(int budget, int minLimit, long pending,
+      long totalPending, int containerCount, double loadFactor) {
+    double share = totalPending > 0
+        ? (double) budget * pending / totalPending
+        : (double) budget / containerCount;
+    return (int) Math.max(minLimit, share * loadFactor);
+  }
+
+  /**
+   * Volumes with recent IO latency above the average of the volumes get a
+   * factor below 1 in proportion, the others get 1.
+   */
+  private Map<HddsVolume, Double> getVolumeLoadFactors(
+      List<ContainerData> containers) {
+    Map<HddsVolume, Double> latencies = new HashMap<>();
+    for (ContainerData container : containers) {
+      HddsVolume volume = container.getVolume();
+      if (volume != null && !latencies.containsKey(volume)) {
+        latencies.put(volume, getRecentIOLatency(volume));
+      }
+    }
+    lastIOStats.keySet().retainAll(latencies.keySet());
+
+    double latencySum = 0;
+    int latencyCount = 0;
+    for (double latency : latencies.values()) {
+      if (latency > 0) {
+        latencySum += latency;
+        latencyCount++;
+      }
+    }
+    double average = latencyCount > 0 ? latencySum / latencyCount : 0;
+    Map<HddsVolume, Double> factors = new HashMap<>();
+    latencies.forEach((volume, latency) ->
+        factors.put(volume, latency > average ? average / latency : 1));
+    return factors;
+  }
+
+  /**
+   * @return average IO latency of the volume in milliseconds since the
+   * previous interval, or 0 if there was no IO
+   */
+  private double getRecentIOLatency(HddsVolume volume) {
+    VolumeIOStats stats = volume.getVolumeIOStats();
+    if (stats == null) {
+      return 0;
+    }
+    long time = stats.getReadTime() + stats.getWriteTime();
+    long ops = stats.getReadOpCount() + stats.getWriteOpCount();
+    long[] last = lastIOStats.put(volume, new long[] {time, ops});
+    if (last == null || ops <= last[1]) {
+      return 0;
+    }
+    return (double) (time - last[0]) / (ops - last[1]);
+  }
+
+  /**
+   * Drops the metrics of the volumes which were removed.
+   */
+  private void updateVolumeMetrics() {
+    VolumeSet volumeSet = ozoneContainer.getVolumeSet();
+    if (volumeSet != null) {
+      Set<String> volumes = volumeSet.getVolumesList().stream()
+          .map(v -> v.getHddsRootDir().getPath())
+          .collect(Collectors.toSet());
+      metrics.retainVolumes(volumes);
+    }
+  }
+
+  private static long getPendingDeletionBlocks(ContainerData container) {
+    if (container instanceof KeyValueContainerData) {
+      return Math.max(0,
+          ((KeyValueContainerData) container).getNumPendingDeletionBlocks());
+    }
+    return 0;
+  }
+
+  private static String getVolumeName(ContainerData container) {
+    HddsVolume volume = container.getVolume();
+    return volume == null ? "unknown" : volume.getHddsRootDir().getPath();
+  }
+
+  @VisibleForTesting
+  public BlockDeletingServiceMetrics getMetrics() {
+    return metrics;
+  }
+
+  @Override
+  public void shutdown() {
+    super.shutdown();
+    metrics.unregister();
+  }
+
   public List<ContainerData> chooseContainerForBlockDeletion(int count,
       ContainerDeletionChoosingPolicy deletionPolicy)
       throws StorageContainerException {
@@ -239,10 +405,15 @@ public int getSize() {
 
     private final int priority;
     private final KeyValueContainerData containerData;
+    private final int blockLimit;
+    private final String volume;
 
-    BlockDeletingTask(ContainerData containerName, int priority) {
+    BlockDeletingTask(ContainerData containerName, int priority,
+        int blockLimit) {
       this.priority = priority;
       this.containerData = (KeyValueContainerData) containerName;
+      this.blockLimit = blockLimit;
+      this.volume = getVolumeName(containerData);
     }
 
     @Override
@@ -258,8 +429,7 @@ public BackgroundTaskResult call() throws Exception {
         KeyPrefixFilter filter =
             new KeyPrefixFilter().addFilter(OzoneConsts.DELETING_KEY_PREFIX);
         List<Map.Entry<byte[], byte[]>> toDeleteBlocks =
-            meta.getStore().getSequentialRangeKVs(null, blockLimitPerTask,
-                filter);
+            meta.getStore().getSequentialRangeKVs(null, blockLimit, filter);
         if (toDeleteBlocks.isEmpty()) {
           LOG.debug("No under deletion block found in container : {}",
               containerData.getContainerID());
@@ -285,6 +455,7 @@ public BackgroundTaskResult call() throws Exception {
               File chunkFile = dataDir.toPath()
                   .resolve(chunkInfo.getChunkName()).toFile();
               if (FileUtils.deleteQuietly(chunkFile)) {
+                metrics.incrChunksDeleted(volume, chunkInfo.getLen());
                 if (LOG.isDebugEnabled()) {
                   LOG.debug("block {} chunk {} deleted", blockName,
                       chunkFile.getAbsolutePath());
@@ -294,6 +465,7 @@ public BackgroundTaskResult call() throws Exception {
             succeedBlocks.add(blockName);
           } catch (InvalidProtocolBufferException e) {
             LOG.error("Failed to parse block info for block {}", blockName, e);
+            metrics.incrBlockDeletionFailures(volume);
           }
         });
 
@@ -311,6 +483,7 @@ public BackgroundTaskResult call() throws Exception {
         meta.getStore().writeBatch(batch);
         // update count of pending deletion blocks in in-memory container status
         containerData.decrPendingDeletionBlocks(succeedBlocks.size());
+        metrics.incrBlocksDeleted(volume, succeedBlocks.size());
 
         if (!succeedBlocks.isEmpty()) {
           LOG.info("Container: {}, deleted blocks: {}, task elapsed time: {}ms",
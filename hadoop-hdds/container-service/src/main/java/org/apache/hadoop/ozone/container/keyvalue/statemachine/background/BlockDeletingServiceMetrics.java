@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.keyvalue.statemachine.background;
+
+import org.apache.hadoop.classification.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsRecordBuilder;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the datanode block deleting service, in total and per volume.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Datanode Block Deleting Service Metrics", context = "dfs")
+public final class BlockDeletingServiceMetrics implements MetricsSource {
+
+  public static final String SOURCE_NAME =
+      BlockDeletingServiceMetrics.class.getSimpleName();
+
+  private final VolumeStats total = new VolumeStats();
+  private final Map<String, VolumeStats> volumes = new ConcurrentHashMap<>();
+
+  private BlockDeletingServiceMetrics() {
+  }
+
+  public static BlockDeletingServiceMetrics create() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    return ms.register(SOURCE_NAME, "Datanode Block Deleting Service",
+        new BlockDeletingServiceMetrics());
+  }
+
+  public void unregister() {
+    DefaultMetricsSystem.instance().unregisterSource(SOURCE_NAME);
+  }
+
+  public void incrBlocksDeleted(String volume, long count) {
+    total.blocksDeleted.addAndGet(count);
+    getVolumeStats(volume).blocksDeleted.addAndGet(count);
+  }
+
+  public void incrBlockDeletionFailures(String volume) {
+    total.blockDeletionFailures.incrementAndGet();
+    getVolumeStats(volume).blockDeletionFailures.incrementAndGet();
+  }
+
+  public void incrChunksDeleted(String volume, long bytes) {
+    VolumeStats stats = getVolumeStats(volume);
+    total.chunksDeleted.incrementAndGet();
+    total.bytesDeleted.addAndGet(bytes);
+    stats.chunksDeleted.incrementAndGet();
+    stats.bytesDeleted.addAndGet(bytes);
+  }
+
+  /**
+   * Sets the number of blocks the containers of the volume may delete in
+   * the current interval.
+   */
+  public void setBlockBudget(String volume, long budget) {
+    getVolumeStats(volume).blockBudget.set(budget);
+  }
+
+  /**
+   * Drops the per volume metrics of the volumes not in the given set.
+   */
+  public void retainVolumes(Set<String> current) {
+    volumes.keySet().retainAll(current);
+  }
+
+  public long getNumBlocksDeleted() {
+    return total.blocksDeleted.get();
+  }
+
+  public long getNumBlockDeletionFailures() {
+    return total.blockDeletionFailures.get();
+  }
+
+  public long getNumChunksDeleted() {
+    return total.chunksDeleted.get();
+  }
+
+  public long getNumBytesDeleted() {
+    return total.bytesDeleted.get();
+  }
+
+  public long getNumBlocksDeleted(String volume) {
+    VolumeStats stats = volumes.get(volume);
+    return stats == null ? 0 : stats.blocksDeleted.get();
+  }
+
+  public long getBlockBudget(String volume) {
+    VolumeStats stats = volumes.get(volume);
+    return stats == null ? 0 : stats.blockBudget.get();
+  }
+
+  private VolumeStats getVolumeStats(String volume) {
+    return volumes.computeIfAbsent(volume, v -> new VolumeStats());
+  }
+
+  @Override
+  public void getMetrics(MetricsCollector collector, boolean all) {
+    total.addTo(collector.addRecord(SOURCE_NAME)
+        .addCounter(Interns.info("numBlockDeletionFailures",
+            "Number of blocks which could not be deleted"),
+            total.blockDeletionFailures.get()));
+    volumes.forEach((volume, stats) -> stats.addTo(
+        collector.addRecord(SOURCE_NAME + "Volume")
+            .tag(Interns.info("Volume", "Root directory of the volume"),
+                volume)
+            .addCounter(Interns.info("numBlockDeletionFailures",
+                "Number of blocks which could not be deleted"),
+                stats.blockDeletionFailures.get())
+            .addGauge(Interns.info("blockBudget",
+                "Number of blocks which may be deleted in the interval"),
+                stats.blockBudget.get())));
+  }
+
+  /**
+   * Counters of the deletions in one volume, or in all of them.
+   */
+  private static final class VolumeStats {
+    private final AtomicLong blocksDeleted = new AtomicLong();
+    private final AtomicLong blockDeletionFailures = new AtomicLong();
+    private final AtomicLong chunksDeleted = new AtomicLong();
+    private final AtomicLong bytesDeleted = new AtomicLong();
+    private final AtomicLong blockBudget = new AtomicLong();
+
+    private void addTo(MetricsRecordBuilder builder) {
+      builder.addCounter(Interns.info("numBlocksDeleted",
+          "Number of blocks deleted"), blocksDeleted.get())
+          .addCounter(Interns.info("numChunksDeleted",
+              "Number of chunk files deleted"), chunksDeleted.get())
+          .addCounter(Interns.info("numBytesDeleted",
+              "Number of bytes in the deleted chunk files"),
+              bytesDeleted.get());
+    }
+  }
+}
@@ -29,6 +29,7 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,7 +64,8 @@ public ContainerDataScanner(ContainerScrubberConfiguration conf,
     this.controller = controller;
     this.volume = volume;
     dataScanInterval = conf.getDataScanInterval();
-    throttler = new HddsDataTransferThrottler(conf.getBandwidthPerVolume());
+    throttler = new HddsDataTransferThrottler(conf.getBandwidthPerVolume(),
+        conf.getMinBandwidthPerVolume(), volume.getVolumeIOStats());
     canceler = new Canceler();
     metrics = ContainerDataScrubberMetrics.create(volume.toString());
     setName("ContainerDataScanner(" + volume + ")");
@@ -183,17 +185,13 @@ public String toString() {
         ", " + volume.getStorageID() + ")";
   }
 
-  private class HddsDataTransferThrottler extends DataTransferThrottler {
-    HddsDataTransferThrottler(long bandwidthPerSec) {
-      super(bandwidthPerSec);
-    }
-
-    @Override
-    public synchronized void throttle(long numOfBytes) {
-      ContainerDataScanner.this.metrics.incNumBytesScanned(numOfBytes);
-      super.throttle(numOfBytes);
+  private class HddsDataTransferThrottler extends VolumeLoadAwareThrottler {
+    HddsDataTransferThrottler(long bandwidthPerSec, long minBandwidthPerSec,
+        VolumeIOStats ioStats) {
+      super(bandwidthPerSec, minBandwidthPerSec, ioStats);
     }
 
+    // throttle(long) delegates to this method
     @Override
     public synchronized void throttle(long numOfBytes, Canceler c) {
       ContainerDataScanner.this.metrics.incNumBytesScanned(numOfBytes);
@@ -62,6 +62,16 @@ public class ContainerScrubberConfiguration {
 
   private long bandwidthPerVolume;
 
+  @Config(key = "volume.min.bytes.per.second",
+      type = ConfigType.LONG,
+      defaultValue = "131072",
+      tags = {ConfigTag.STORAGE},
+      description = "Lower limit of the I/O bandwidth used by the data"
+          + " scrubber per volume. The bandwidth is reduced towards this"
+          + " value while the volume serves client reads and writes, and"
+          + " raised back to volume.bytes.per.second when it is idle."
+          + " Set it to the same value to disable the adaptation.")
+  private long minBandwidthPerVolume;
 
   public void setEnabled(boolean enabled) {
     this.enabled = enabled;
@@ -90,4 +100,12 @@ public long getDataScanInterval() {
   public long getBandwidthPerVolume() {
     return bandwidthPerVolume;
   }
+
+  public long getMinBandwidthPerVolume() {
+    return minBandwidthPerVolume;
+  }
+
+  public void setMinBandwidthPerVolume(long minBandwidthPerVolume) {
+    this.minBandwidthPerVolume = minBandwidthPerVolume;
+  }
 }
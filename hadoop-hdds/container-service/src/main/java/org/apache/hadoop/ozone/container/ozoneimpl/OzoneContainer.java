@@ -36,11 +36,13 @@
 import org.apache.hadoop.hdds.security.token.BlockTokenVerifier;
 import org.apache.hadoop.hdds.security.x509.SecurityConfig;
 import org.apache.hadoop.hdds.security.x509.certificate.client.CertificateClient;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.common.impl.HddsDispatcher;
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerDispatcher;
 import org.apache.hadoop.ozone.container.common.interfaces.Handler;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.statemachine.StateContext;
 import org.apache.hadoop.ozone.container.common.transport.server.XceiverServerGrpc;
 import org.apache.hadoop.ozone.container.common.transport.server.XceiverServerSpi;
@@ -134,7 +136,7 @@ public OzoneContainer(DatanodeDetails datanodeDetails, OzoneConfiguration
         datanodeDetails, config, hddsDispatcher, controller, certClient,
         context);
     this.readChannel = new XceiverServerGrpc(
-        datanodeDetails, config, hddsDispatcher, certClient,
+        datanodeDetails, config, hddsDispatcher, metrics, certClient,
         createReplicationService());
     long svcInterval = config
         .getTimeDuration(OZONE_BLOCK_DELETING_SERVICE_INTERVAL,
@@ -150,8 +152,14 @@ public OzoneContainer(DatanodeDetails datanodeDetails, OzoneConfiguration
   }
 
   private GrpcReplicationService createReplicationService() {
+    DatanodeConfiguration dnConf =
+        config.getObject(DatanodeConfiguration.class);
+    long outboundBandwidth = dnConf.getReplicationOutboundBandwidth();
+    DataTransferThrottler outboundThrottler = outboundBandwidth > 0
+        ? new DataTransferThrottler(outboundBandwidth) : null;
     return new GrpcReplicationService(
-        new OnDemandContainerReplicationSource(controller));
+        new OnDemandContainerReplicationSource(controller,
+            dnConf.getReplicationCompression()), outboundThrottler);
   }
 
   /**
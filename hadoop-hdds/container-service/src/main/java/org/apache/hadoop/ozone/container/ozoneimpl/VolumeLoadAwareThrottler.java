@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.ozoneimpl;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.hadoop.hdfs.util.Canceler;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.hadoop.util.Time;
+
+/**
+ * Throttler for background volume scanning which adapts to foreground I/O.
+ * <p>
+ * The bandwidth is halved (down to the minimum) after each period with
+ * client reads or writes on the volume, and raised step by step back to the
+ * maximum while the volume has no foreground I/O.
+ */
+class VolumeLoadAwareThrottler extends DataTransferThrottler {
+
+  private static final long ADJUSTMENT_PERIOD_MS = 1000;
+
+  private static final int RECOVERY_STEPS = 8;
+
+  /**
+   * Lower bound to keep at least one byte per throttling period.
+   */
+  private static final long MIN_BANDWIDTH = 1024;
+
+  private final VolumeIOStats ioStats;
+  private final long maxBandwidth;
+  private final long minBandwidth;
+
+  private long lastAdjustment;
+  private long lastForegroundOps;
+
+  /**
+   * @param ioStats statistics of the foreground I/O of the scanned volume,
+   *                may be null to disable the adaptation
+   */
+  VolumeLoadAwareThrottler(long maxBandwidth, long minBandwidth,
+      VolumeIOStats ioStats) {
+    super(maxBandwidth);
+    this.maxBandwidth = maxBandwidth;
+    this.minBandwidth =
+        Math.min(Math.max(minBandwidth, MIN_BANDWIDTH), maxBandwidth);
+    this.ioStats = ioStats;
+    this.lastAdjustment = Time.monotonicNow();
+    this.lastForegroundOps = getForegroundOps();
+  }
+
+  @Override
+  public synchronized void throttle(long numOfBytes, Canceler canceler) {
+    if (ioStats != null && minBandwidth < maxBandwidth) {
+      long now = Time.monotonicNow();
+      if (now - lastAdjustment >= ADJUSTMENT_PERIOD_MS) {
+        long foregroundOps = getForegroundOps();
+        adjustBandwidth(foregroundOps - lastForegroundOps);
+        lastForegroundOps = foregroundOps;
+        lastAdjustment = now;
+      }
+    }
+    super.throttle(numOfBytes, canceler);
+  }
+
+  /**
+   * Updates the bandwidth based on the number of foreground I/O operations
+   * since the last adjustment.
+   */
+  @VisibleForTesting
+  synchronized void adjustBandwidth(long foregroundOps) {
+    long current = getBandwidth();
+    long updated;
+    if (foregroundOps > 0) {
+      updated = Math.max(minBandwidth, current / 2);
+    } else {
+      updated = Math.min(maxBandwidth,
+          current + Math.max(1, maxBandwidth / RECOVERY_STEPS));
+    }
+    if (updated != current) {
+      setBandwidth(updated);
+    }
+  }
+
+  private long getForegroundOps() {
+    return ioStats == null ? 0
+        : ioStats.getReadOpCount() + ioStats.getWriteOpCount();
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.hadoop.ozone.container.replication;
 
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.CopyContainerResponseProto;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
 import org.apache.ratis.thirdparty.io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
@@ -44,14 +45,26 @@ class GrpcOutputStream extends OutputStream {
 
   private final int bufferSize;
 
+  private final DataTransferThrottler throttler;
+
   private int writtenBytes;
 
   GrpcOutputStream(
       StreamObserver<CopyContainerResponseProto> responseObserver,
       long containerId, int bufferSize) {
+    this(responseObserver, containerId, bufferSize, null);
+  }
+
+  /**
+   * @param throttler optional limit of the outgoing bandwidth, may be null
+   */
+  GrpcOutputStream(
+      StreamObserver<CopyContainerResponseProto> responseObserver,
+      long containerId, int bufferSize, DataTransferThrottler throttler) {
     this.responseObserver = responseObserver;
     this.containerId = containerId;
     this.bufferSize = bufferSize;
+    this.throttler = throttler;
     buffer = ByteString.newOutput(bufferSize);
   }
 
@@ -110,6 +123,9 @@ public void close() throws IOException {
   private void flushBuffer(boolean eof) {
     int length = buffer.size();
     if (length > 0) {
+      if (throttler != null) {
+        throttler.throttle(length);
+      }
       ByteString data = buffer.toByteString();
       LOG.debug("Sending {} bytes (of type {}) for container {}",
           length, data.getClass().getSimpleName(), containerId);
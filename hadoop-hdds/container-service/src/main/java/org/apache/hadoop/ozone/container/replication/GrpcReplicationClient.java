@@ -37,6 +37,7 @@
     .IntraDatanodeProtocolServiceGrpc.IntraDatanodeProtocolServiceStub;
 
 import com.google.common.base.Preconditions;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.ratis.thirdparty.io.grpc.ManagedChannel;
 import org.apache.ratis.thirdparty.io.grpc.netty.NettyChannelBuilder;
@@ -58,8 +59,18 @@ public class GrpcReplicationClient {
 
   private final Path workingDirectory;
 
+  private final DataTransferThrottler throttler;
+
   public GrpcReplicationClient(String host,
       int port, Path workingDir) {
+    this(host, port, workingDir, null);
+  }
+
+  /**
+   * @param throttler optional limit of the incoming bandwidth, may be null
+   */
+  public GrpcReplicationClient(String host,
+      int port, Path workingDir, DataTransferThrottler throttler) {
 
     channel = NettyChannelBuilder.forAddress(host, port)
         .usePlaintext()
@@ -67,6 +78,7 @@ public GrpcReplicationClient(String host,
         .build();
     client = IntraDatanodeProtocolServiceGrpc.newStub(channel);
     workingDirectory = workingDir;
+    this.throttler = throttler;
   }
 
   public CompletableFuture<Path> download(long containerId) {
@@ -83,7 +95,8 @@ public CompletableFuture<Path> download(long containerId) {
         getWorkingDirectory().resolve("container-" + containerId + ".tar.gz");
 
     client.download(request,
-        new StreamDownloader(containerId, response, destinationPath));
+        new StreamDownloader(containerId, response, destinationPath,
+            throttler));
 
     return response;
   }
@@ -111,12 +124,19 @@ public void shutdown() {
     private final long containerId;
     private final OutputStream stream;
     private final Path outputPath;
+    private final DataTransferThrottler throttler;
 
     public StreamDownloader(long containerId, CompletableFuture<Path> response,
         Path outputPath) {
+      this(containerId, response, outputPath, null);
+    }
+
+    public StreamDownloader(long containerId, CompletableFuture<Path> response,
+        Path outputPath, DataTransferThrottler throttler) {
       this.response = response;
       this.containerId = containerId;
       this.outputPath = outputPath;
+      this.throttler = throttler;
       try {
         Preconditions.checkNotNull(outputPath, "Output path cannot be null");
         Path parentPath = Preconditions.checkNotNull(outputPath.getParent());
@@ -131,6 +151,10 @@ public StreamDownloader(long containerId, CompletableFuture<Path> response,
     @Override
     public void onNext(CopyContainerResponseProto chunk) {
       try {
+        if (throttler != null) {
+          // blocking here applies gRPC flow control back to the source
+          throttler.throttle(chunk.getData().size());
+        }
         chunk.getData().writeTo(stream);
       } catch (IOException e) {
         response.completeExceptionally(e);
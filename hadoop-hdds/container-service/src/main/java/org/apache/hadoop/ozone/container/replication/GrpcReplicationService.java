@@ -23,6 +23,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.CopyContainerRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.CopyContainerResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.IntraDatanodeProtocolServiceGrpc;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 
 import org.apache.ratis.thirdparty.io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
@@ -41,8 +42,20 @@ public class GrpcReplicationService extends
 
   private final ContainerReplicationSource source;
 
+  private final DataTransferThrottler throttler;
+
   public GrpcReplicationService(ContainerReplicationSource source) {
+    this(source, null);
+  }
+
+  /**
+   * @param throttler optional limit of the total outgoing replication
+   *                  bandwidth shared by all streams, may be null
+   */
+  public GrpcReplicationService(ContainerReplicationSource source,
+      DataTransferThrottler throttler) {
     this.source = source;
+    this.throttler = throttler;
   }
 
   @Override
@@ -52,7 +65,8 @@ public void download(CopyContainerRequestProto request,
     LOG.info("Streaming container data ({}) to other datanode", containerID);
     try {
       GrpcOutputStream outputStream =
-          new GrpcOutputStream(responseObserver, containerID, BUFFER_SIZE);
+          new GrpcOutputStream(responseObserver, containerID, BUFFER_SIZE,
+              throttler);
       source.copyData(containerID, outputStream);
     } catch (IOException e) {
       LOG.error("Error streaming container {}", containerID, e);
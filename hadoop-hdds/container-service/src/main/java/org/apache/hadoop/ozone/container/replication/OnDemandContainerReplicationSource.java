@@ -21,6 +21,7 @@
 import java.io.OutputStream;
 
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.keyvalue.CopyContainerCompression;
 import org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker;
 
 import com.google.common.base.Preconditions;
@@ -35,11 +36,17 @@
 
   private final ContainerController controller;
 
-  private final TarContainerPacker packer = new TarContainerPacker();
+  private final TarContainerPacker packer;
 
   public OnDemandContainerReplicationSource(
       ContainerController controller) {
+    this(controller, CopyContainerCompression.getDefault());
+  }
+
+  public OnDemandContainerReplicationSource(
+      ContainerController controller, CopyContainerCompression compression) {
     this.controller = controller;
+    this.packer = new TarContainerPacker(compression);
   }
 
   @Override
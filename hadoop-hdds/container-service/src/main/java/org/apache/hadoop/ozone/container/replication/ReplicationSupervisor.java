@@ -19,10 +19,12 @@
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentHashMap.KeySetView;
+import java.util.Comparator;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -41,12 +43,21 @@ public class ReplicationSupervisor {
   private static final Logger LOG =
       LoggerFactory.getLogger(ReplicationSupervisor.class);
 
+  /**
+   * Containers with fewer replicas first, FIFO otherwise.
+   */
+  private static final Comparator<TaskRunner> TASK_ORDER =
+      Comparator.<TaskRunner>comparingInt(r -> r.task.getReplicaCount())
+          .thenComparingLong(r -> r.sequence);
+
   private final ContainerSet containerSet;
   private final ContainerReplicator replicator;
   private final ExecutorService executor;
   private final AtomicLong requestCounter = new AtomicLong();
   private final AtomicLong successCounter = new AtomicLong();
   private final AtomicLong failureCounter = new AtomicLong();
+  private final AtomicLong taskSequence = new AtomicLong();
+  private final AtomicInteger queuedCounter = new AtomicInteger();
 
   /**
    * A set of container IDs that are currently being downloaded
@@ -65,15 +76,28 @@ public class ReplicationSupervisor {
     this.executor = executor;
   }
 
+  /**
+   * Creates a supervisor which executes at most poolSize replications in
+   * parallel. Queued tasks are ordered by the number of existing replicas
+   * (fewest first), then by arrival.
+   */
   public ReplicationSupervisor(
       ContainerSet containerSet,
       ContainerReplicator replicator, int poolSize) {
-    this(containerSet, replicator, new ThreadPoolExecutor(
-        0, poolSize, 60, TimeUnit.SECONDS,
-        new LinkedBlockingQueue<>(),
+    this(containerSet, replicator, createExecutor(poolSize));
+  }
+
+  private static ExecutorService createExecutor(int poolSize) {
+    // core size has to be the max size, as new threads above the core size
+    // are only started when the (unbounded) queue is full
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        poolSize, poolSize, 60, TimeUnit.SECONDS,
+        new PriorityBlockingQueue<>(),
         new ThreadFactoryBuilder().setDaemon(true)
             .setNameFormat("ContainerReplicationThread-%d")
-            .build()));
+            .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   /**
@@ -81,7 +105,8 @@ public ReplicationSupervisor(
    */
   public void addTask(ReplicationTask task) {
     if (containersInFlight.add(task.getContainerId())) {
-      executor.execute(new TaskRunner(task));
+      queuedCounter.incrementAndGet();
+      executor.execute(new TaskRunner(task, taskSequence.getAndIncrement()));
     }
   }
 
@@ -102,21 +127,38 @@ public void stop() {
    * or scheduled for download.
    * @return Count of in-flight replications.
    */
-  @VisibleForTesting
-  int getInFlightReplications() {
+  public int getInFlightReplications() {
     return containersInFlight.size();
   }
 
-  private final class TaskRunner implements Runnable {
+  /**
+   * Get the number of replications waiting for a free replication thread.
+   * @return Count of queued replications.
+   */
+  public int getQueuedReplications() {
+    return queuedCounter.get();
+  }
+
+  private final class TaskRunner
+      implements Runnable, Comparable<TaskRunner> {
+
     private final ReplicationTask task;
+    private final long sequence;
 
-    private TaskRunner(ReplicationTask task) {
+    private TaskRunner(ReplicationTask task, long sequence) {
       this.task = task;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(TaskRunner other) {
+      return TASK_ORDER.compare(this, other);
     }
 
     @Override
     public void run() {
       final Long containerId = task.getContainerId();
+      queuedCounter.decrementAndGet();
       try {
         requestCounter.incrementAndGet();
 
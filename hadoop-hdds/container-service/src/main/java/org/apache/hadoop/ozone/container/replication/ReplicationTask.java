@@ -22,6 +22,7 @@
 import java.util.Objects;
 
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.ozone.protocol.commands.ReplicateContainerCommand;
 
 /**
  * The task to download a container from the sources.
@@ -36,10 +37,18 @@ public class ReplicationTask {
 
   private final Instant queued = Instant.now();
 
+  private final int replicaCount;
+
   public ReplicationTask(long containerId,
       List<DatanodeDetails> sources) {
+    this(containerId, sources, ReplicateContainerCommand.UNKNOWN_REPLICA_COUNT);
+  }
+
+  public ReplicationTask(long containerId,
+      List<DatanodeDetails> sources, int replicaCount) {
     this.containerId = containerId;
     this.sources = sources;
+    this.replicaCount = replicaCount;
   }
 
   @Override
@@ -67,6 +76,14 @@ public List<DatanodeDetails> getSources() {
     return sources;
   }
 
+  /**
+   * Number of existing replicas as reported by SCM. Tasks with fewer replicas
+   * are executed first.
+   */
+  public int getReplicaCount() {
+    return replicaCount;
+  }
+
   public Status getStatus() {
     return status;
   }
@@ -82,6 +99,7 @@ public String toString() {
         "status=" + status +
         ", containerId=" + containerId +
         ", sources=" + sources +
+        ", replicaCount=" + replicaCount +
         ", queued=" + queued +
         '}';
   }
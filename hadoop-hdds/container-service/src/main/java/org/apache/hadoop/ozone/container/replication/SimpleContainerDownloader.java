@@ -27,6 +27,7 @@
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails.Port.Name;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 
 import org.slf4j.Logger;
@@ -46,7 +47,19 @@ public class SimpleContainerDownloader implements ContainerDownloader {
 
   private final Path workingDirectory;
 
+  private final DataTransferThrottler throttler;
+
   public SimpleContainerDownloader(Configuration conf) {
+    this(conf, null);
+  }
+
+  /**
+   * @param throttler optional limit of the total incoming replication
+   *                  bandwidth shared by all downloads, may be null
+   */
+  public SimpleContainerDownloader(Configuration conf,
+      DataTransferThrottler throttler) {
+    this.throttler = throttler;
 
     String workDirString =
         conf.get(OzoneConfigKeys.OZONE_CONTAINER_COPY_WORKDIR);
@@ -71,7 +84,7 @@ public CompletableFuture<Path> getContainerDataFromReplicas(long containerId,
           GrpcReplicationClient grpcReplicationClient =
               new GrpcReplicationClient(datanode.getIpAddress(),
                   datanode.getPort(Name.STANDALONE).getValue(),
-                  workingDirectory);
+                  workingDirectory, throttler);
           result = grpcReplicationClient.download(containerId);
         } else {
           result = result.thenApply(CompletableFuture::completedFuture)
@@ -80,7 +93,7 @@ public CompletableFuture<Path> getContainerDataFromReplicas(long containerId,
                 GrpcReplicationClient grpcReplicationClient =
                     new GrpcReplicationClient(datanode.getIpAddress(),
                         datanode.getPort(Name.STANDALONE).getValue(),
-                        workingDirectory);
+                        workingDirectory, throttler);
                 return grpcReplicationClient.download(containerId);
               }).thenCompose(Function.identity());
         }
@@ -79,4 +79,8 @@ public long getContainerID() {
   public PipelineID getPipelineID() {
     return pipelineID;
   }
+
+  public boolean isForce() {
+    return force;
+  }
 }
@@ -39,8 +39,14 @@
 public class ReplicateContainerCommand
     extends SCMCommand<ReplicateContainerCommandProto> {
 
+  /**
+   * Replica count used when SCM does not report it.
+   */
+  public static final int UNKNOWN_REPLICA_COUNT = Integer.MAX_VALUE;
+
   private final long containerID;
   private final List<DatanodeDetails> sourceDatanodes;
+  private int replicaCount = UNKNOWN_REPLICA_COUNT;
 
   public ReplicateContainerCommand(long containerID,
       List<DatanodeDetails> sourceDatanodes) {
@@ -70,6 +76,9 @@ public ReplicateContainerCommandProto getProto() {
     for (DatanodeDetails dd : sourceDatanodes) {
       builder.addSources(dd.getProtoBufMessage());
     }
+    if (replicaCount != UNKNOWN_REPLICA_COUNT) {
+      builder.setReplicaCount(replicaCount);
+    }
     return builder.build();
   }
 
@@ -83,8 +92,13 @@ public static ReplicateContainerCommand getFromProtobuf(
             .map(DatanodeDetails::getFromProtoBuf)
             .collect(Collectors.toList());
 
-    return new ReplicateContainerCommand(protoMessage.getContainerID(),
-        datanodeDetails, protoMessage.getCmdId());
+    ReplicateContainerCommand command =
+        new ReplicateContainerCommand(protoMessage.getContainerID(),
+            datanodeDetails, protoMessage.getCmdId());
+    if (protoMessage.hasReplicaCount()) {
+      command.setReplicaCount(protoMessage.getReplicaCount());
+    }
+    return command;
 
   }
 
@@ -95,4 +109,16 @@ public long getContainerID() {
   public List<DatanodeDetails> getSourceDatanodes() {
     return sourceDatanodes;
   }
+
+  /**
+   * Number of replicas of the container known to SCM when the command was
+   * created. Datanodes use it to prioritize the most endangered containers.
+   */
+  public int getReplicaCount() {
+    return replicaCount;
+  }
+
+  public void setReplicaCount(int replicaCount) {
+    this.replicaCount = replicaCount;
+  }
 }
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.statemachine.commandhandler;
+
+import org.apache.hadoop.hdds.protocol.proto
+    .StorageContainerDatanodeProtocolProtos.SCMCommandProto.Type;
+import org.apache.hadoop.ozone.container.common.statemachine
+    .SCMConnectionManager;
+import org.apache.hadoop.ozone.container.common.statemachine.StateContext;
+import org.apache.hadoop.ozone.container.ozoneimpl.OzoneContainer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests the threads on which CommandDispatcher handles the commands.
+ */
+public class TestCommandDispatcher {
+
+  @Test
+  public void testDependentCommandsShareThread() {
+    CommandDispatcher.Builder builder = CommandDispatcher.newBuilder()
+        .setContainer(Mockito.mock(OzoneContainer.class))
+        .setContext(Mockito.mock(StateContext.class))
+        .setConnectionManager(Mockito.mock(SCMConnectionManager.class))
+        .setParallelCommandHandling(true);
+    for (Type type : new Type[] {Type.closeContainerCommand,
+        Type.closePipelineCommand, Type.createPipelineCommand,
+        Type.deleteContainerCommand, Type.replicateContainerCommand,
+        Type.deleteBlocksCommand}) {
+      CommandHandler handler = Mockito.mock(CommandHandler.class);
+      Mockito.when(handler.getCommandType()).thenReturn(type);
+      builder.addHandler(handler);
+    }
+    CommandDispatcher dispatcher = builder.build();
+    try {
+      Assert.assertSame(dispatcher.getExecutor(Type.closeContainerCommand),
+          dispatcher.getExecutor(Type.closePipelineCommand));
+      Assert.assertSame(dispatcher.getExecutor(Type.closeContainerCommand),
+          dispatcher.getExecutor(Type.createPipelineCommand));
+      Assert.assertSame(dispatcher.getExecutor(Type.deleteContainerCommand),
+          dispatcher.getExecutor(Type.replicateContainerCommand));
+      Assert.assertNotSame(
+          dispatcher.getExecutor(Type.closeContainerCommand),
+          dispatcher.getExecutor(Type.deleteContainerCommand));
+      Assert.assertNotSame(
+          dispatcher.getExecutor(Type.closeContainerCommand),
+          dispatcher.getExecutor(Type.deleteBlocksCommand));
+    } finally {
+      dispatcher.stop();
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.transport.server;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos
+    .ContainerCommandRequestProto;
+import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
+import org.apache.hadoop.ozone.container.ContainerTestHelper;
+import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ContainerCommandRequestMarshaller}.
+ */
+public class TestContainerCommandRequestMarshaller {
+
+  private ContainerMetrics metrics;
+  private ContainerCommandRequestMarshaller marshaller;
+  private ContainerCommandRequestProto request;
+
+  @Before
+  public void setup() throws Exception {
+    metrics = ContainerMetrics.create(new OzoneConfiguration());
+    marshaller = new ContainerCommandRequestMarshaller(metrics);
+    request = ContainerTestHelper.getWriteChunkRequest(
+        MockPipeline.createSingleNodePipeline(),
+        ContainerTestHelper.getTestBlockID(1), 1024, null);
+  }
+
+  @After
+  public void teardown() {
+    ContainerMetrics.remove();
+  }
+
+  @Test
+  public void testWriteChunkRoundTrip() throws Exception {
+    ContainerCommandRequestProto parsed =
+        marshaller.parse(marshaller.stream(request));
+
+    Assert.assertEquals(request, parsed);
+    Assert.assertEquals(request.getWriteChunk().getData(),
+        parsed.getWriteChunk().getData());
+    Assert.assertEquals(request.getSerializedSize(),
+        metrics.getRequestBytesCopied());
+  }
+
+  @Test
+  public void testChunkDataRefersToReceivedBytes() throws Exception {
+    final ByteString data = request.getWriteChunk().getData();
+    final byte[] bytes = request.toByteArray();
+    final int offset = indexOf(bytes, data.toByteArray());
+    Assert.assertTrue(offset >= 0);
+
+    ContainerCommandRequestProto parsed = marshaller.parse(bytes);
+    Assert.assertEquals(bytes.length, metrics.getRequestBytesCopied());
+    Assert.assertEquals(data, parsed.getWriteChunk().getData());
+
+    // a change of the received bytes shows up in the parsed data
+    for (int i = 0; i < data.size(); i++) {
+      bytes[offset + i] = (byte) ~bytes[offset + i];
+    }
+    ByteString parsedData = parsed.getWriteChunk().getData();
+    for (int i = 0; i < data.size(); i++) {
+      Assert.assertEquals((byte) ~data.byteAt(i), parsedData.byteAt(i));
+    }
+  }
+
+  private static int indexOf(byte[] array, byte[] target) {
+    outer:
+    for (int i = 0; i <= array.length - target.length; i++) {
+      for (int j = 0; j < target.length; j++) {
+        if (array[i + j] != target[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.volume;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hdds.fs.MockSpaceUsageCheckFactory;
+import org.apache.hadoop.hdds.fs.MockSpaceUsageSource;
+import org.apache.hadoop.hdds.fs.SpaceUsageCheckFactory;
+import org.apache.hadoop.hdds.fs.SpaceUsagePersistence;
+import org.apache.hadoop.hdds.fs.SpaceUsageSource;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
+import org.apache.hadoop.util.DiskChecker.DiskOutOfSpaceException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.hadoop.test.GenericTestUtils.getTestDir;
+
+/**
+ * Tests {@link LoadAwareVolumeChoosingPolicy}.
+ */
+public class TestLoadAwareVolumeChoosingPolicy {
+
+  private LoadAwareVolumeChoosingPolicy policy;
+  private final List<HddsVolume> volumes = new ArrayList<>();
+
+  private static final Configuration CONF = new Configuration();
+  private static final String BASE_DIR =
+      getTestDir(TestLoadAwareVolumeChoosingPolicy.class.getSimpleName())
+          .getAbsolutePath();
+
+  @Before
+  public void setup() {
+    policy = new LoadAwareVolumeChoosingPolicy();
+  }
+
+  @After
+  public void cleanUp() {
+    policy.close();
+    volumes.forEach(HddsVolume::shutdown);
+    volumes.clear();
+  }
+
+  @Test
+  public void prefersMoreAvailableSpace() throws Exception {
+    HddsVolume vol1 = addVolume("disk1", 100);
+    HddsVolume vol2 = addVolume("disk2", 200);
+
+    Assert.assertEquals(vol2, policy.chooseVolume(volumes, 10));
+
+    // space committed to open containers is not available
+    vol2.incCommittedBytes(150);
+    Assert.assertEquals(vol1, policy.chooseVolume(volumes, 10));
+  }
+
+  @Test
+  public void prefersFewerOpenContainers() throws Exception {
+    HddsVolume vol1 = addVolume("disk1", 1000);
+    HddsVolume vol2 = addVolume("disk2", 1200);
+
+    // vol2 has 1200 B available and 1 open container, vol1 1000 B and none
+    vol2.incOpenContainerCount(1);
+    Assert.assertEquals(vol1, policy.chooseVolume(volumes, 100));
+  }
+
+  @Test
+  public void countsOpenContainers() throws Exception {
+    HddsVolume volume = addVolume("disk1", 1000);
+    KeyValueContainerData container1 =
+        new KeyValueContainerData(1, 100, "pipeline", "node");
+    KeyValueContainerData container2 =
+        new KeyValueContainerData(2, 100, "pipeline", "node");
+    container1.setVolume(volume);
+    container2.setVolume(volume);
+
+    container1.commitSpace();
+    container2.commitSpace();
+    Assert.assertEquals(2, volume.getOpenContainerCount());
+
+    container1.closeContainer();
+    Assert.assertEquals(1, volume.getOpenContainerCount());
+
+    // a closed container is not counted again when it is closed
+    container1.closeContainer();
+    container2.setState(ContainerDataProto.State.UNHEALTHY);
+    Assert.assertEquals(0, volume.getOpenContainerCount());
+  }
+
+  @Test
+  public void forgetsRemovedVolumes() throws Exception {
+    HddsVolume vol1 = addVolume("disk1", 200);
+    addVolume("disk2", 200);
+    policy.chooseVolume(volumes, 10);
+    Assert.assertEquals(2, policy.getTrackedVolumeCount());
+
+    volumes.remove(vol1);
+    vol1.shutdown();
+    policy.chooseVolume(volumes, 10);
+    Assert.assertEquals(1, policy.getTrackedVolumeCount());
+  }
+
+  @Test
+  public void avoidsSlowVolumes() throws Exception {
+    HddsVolume vol1 = addVolume("disk1", 200);
+    HddsVolume vol2 = addVolume("disk2", 200);
+
+    // first choice records the baseline of the write statistics
+    Assert.assertEquals(vol1, policy.chooseVolume(volumes, 10));
+
+    recordWrite(vol1, 9);
+    recordWrite(vol2, 1);
+    Assert.assertEquals(vol2, policy.chooseVolume(volumes, 10));
+
+    LoadAwareVolumeChoosingPolicyMetrics metrics = policy.getMetrics();
+    Assert.assertEquals(5.0 / 9, metrics.getLatencyFactor(path(vol1)), 1e-9);
+    Assert.assertEquals(1, metrics.getLatencyFactor(path(vol2)), 1e-9);
+  }
+
+  @Test
+  public void publishesVolumeMetrics() throws Exception {
+    HddsVolume vol1 = addVolume("disk1", 100);
+    HddsVolume vol2 = addVolume("disk2", 300);
+    vol2.incOpenContainerCount(1);
+
+    Assert.assertEquals(vol2, policy.chooseVolume(volumes, 50));
+    Assert.assertEquals(vol2, policy.chooseVolume(volumes, 50));
+    LoadAwareVolumeChoosingPolicyMetrics metrics = policy.getMetrics();
+    Assert.assertEquals(100, metrics.getScore(path(vol1)), 1e-9);
+    Assert.assertEquals(150, metrics.getScore(path(vol2)), 1e-9);
+    Assert.assertEquals(0, metrics.getNumChosen(path(vol1)));
+    Assert.assertEquals(2, metrics.getNumChosen(path(vol2)));
+
+    // a volume without enough space scores 0
+    Assert.assertEquals(vol2, policy.chooseVolume(volumes, 100));
+    Assert.assertEquals(0, metrics.getScore(path(vol1)), 1e-9);
+
+    volumes.remove(vol1);
+    vol1.shutdown();
+    policy.chooseVolume(volumes, 10);
+    Assert.assertEquals(1, metrics.getVolumeCount());
+  }
+
+  @Test
+  public void failsIfNoVolumeHasEnoughSpace() throws Exception {
+    addVolume("disk1", 100);
+    addVolume("disk2", 200);
+
+    try {
+      policy.chooseVolume(volumes, 300);
+      Assert.fail("expected to throw DiskOutOfSpaceException");
+    } catch (DiskOutOfSpaceException e) {
+      Assert.assertEquals("Out of space: The volume with the most available "
+              + "space (=200 B) is less than the container size (=300 B).",
+          e.getMessage());
+    }
+  }
+
+  private HddsVolume addVolume(String name, long available) throws Exception {
+    SpaceUsageSource source = MockSpaceUsageSource.fixed(2000, available);
+    SpaceUsageCheckFactory factory = MockSpaceUsageCheckFactory.of(
+        source, Duration.ZERO, SpaceUsagePersistence.None.INSTANCE);
+    HddsVolume volume = new HddsVolume.Builder(BASE_DIR + name)
+        .conf(CONF)
+        .usageCheckFactory(factory)
+        .build();
+    volumes.add(volume);
+    return volume;
+  }
+
+  private static String path(HddsVolume volume) {
+    return volume.getHddsRootDir().getPath();
+  }
+
+  private static void recordWrite(HddsVolume volume, long millis) {
+    volume.getVolumeIOStats().incWriteOpCount();
+    volume.getVolumeIOStats().incWriteTime(millis);
+  }
+}
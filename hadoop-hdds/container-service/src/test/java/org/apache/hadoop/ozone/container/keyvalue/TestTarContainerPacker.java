@@ -203,6 +203,59 @@ public void pack() throws IOException, CompressorException {
     Assert.assertEquals(TEST_DESCRIPTOR_FILE_CONTENT, descriptor);
   }
 
+  @Test
+  public void packWithoutCompression() throws IOException {
+    //GIVEN
+    OzoneConfiguration conf = new OzoneConfiguration();
+    ContainerPacker<KeyValueContainerData> uncompressedPacker =
+        new TarContainerPacker(CopyContainerCompression.NO_COMPRESSION);
+
+    KeyValueContainerData sourceContainerData =
+        createContainer(SOURCE_CONTAINER_ROOT);
+    KeyValueContainer sourceContainer =
+        new KeyValueContainer(sourceContainerData, conf);
+    writeDbFile(sourceContainerData, TEST_DB_FILE_NAME);
+    writeChunkFile(sourceContainerData, TEST_CHUNK_FILE_NAME);
+    writeDescriptor(sourceContainer);
+
+    Path targetFile = TEMP_DIR.resolve("container.tar");
+
+    //WHEN
+    try (FileOutputStream output = new FileOutputStream(targetFile.toFile())) {
+      uncompressedPacker.pack(sourceContainer, output);
+    }
+
+    //THEN: plain tar with the descriptor as the first entry
+    try (FileInputStream input = new FileInputStream(targetFile.toFile());
+         TarArchiveInputStream tarStream = new TarArchiveInputStream(input)) {
+      TarArchiveEntry first = tarStream.getNextTarEntry();
+      Assert.assertNotNull(first);
+      Assert.assertEquals("container.yaml", first.getName());
+    }
+
+    //the default packer detects the missing compression
+    try (FileInputStream input = new FileInputStream(targetFile.toFile())) {
+      String containerYaml = new String(packer.unpackContainerDescriptor(input),
+          Charset.forName(UTF_8.name()));
+      Assert.assertEquals(TEST_DESCRIPTOR_FILE_CONTENT, containerYaml);
+    }
+
+    KeyValueContainerData destinationContainerData =
+        createContainer(DEST_CONTAINER_ROOT);
+    KeyValueContainer destinationContainer =
+        new KeyValueContainer(destinationContainerData, conf);
+    try (FileInputStream input = new FileInputStream(targetFile.toFile())) {
+      packer.unpackContainerData(destinationContainer, input);
+    }
+
+    assertExampleMetadataDbIsGood(
+        destinationContainerData.getDbFile().toPath(),
+        TEST_DB_FILE_NAME);
+    assertExampleChunkFileIsGood(
+        Paths.get(destinationContainerData.getChunksPath()),
+        TEST_CHUNK_FILE_NAME);
+  }
+
   @Test
   public void unpackContainerDataWithValidRelativeDbFilePath()
       throws Exception {
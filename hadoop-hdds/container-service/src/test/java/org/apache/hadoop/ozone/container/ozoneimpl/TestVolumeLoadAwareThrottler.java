@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.ozoneimpl;
+
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the bandwidth adaptation of {@link VolumeLoadAwareThrottler}.
+ */
+public class TestVolumeLoadAwareThrottler {
+
+  private static final long MAX = 8 * 1024 * 1024;
+  private static final long MIN = 1024 * 1024;
+
+  @Test
+  public void backsOffOnForegroundIO() {
+    VolumeLoadAwareThrottler throttler =
+        new VolumeLoadAwareThrottler(MAX, MIN, new VolumeIOStats());
+    assertEquals(MAX, throttler.getBandwidth());
+
+    throttler.adjustBandwidth(10);
+    assertEquals(MAX / 2, throttler.getBandwidth());
+
+    throttler.adjustBandwidth(1);
+    throttler.adjustBandwidth(1);
+    throttler.adjustBandwidth(1);
+    assertEquals(MIN, throttler.getBandwidth());
+  }
+
+  @Test
+  public void recoversWhenIdle() {
+    VolumeLoadAwareThrottler throttler =
+        new VolumeLoadAwareThrottler(MAX, MIN, new VolumeIOStats());
+    throttler.adjustBandwidth(10);
+    throttler.adjustBandwidth(10);
+    throttler.adjustBandwidth(10);
+    assertEquals(MIN, throttler.getBandwidth());
+
+    throttler.adjustBandwidth(0);
+    assertEquals(MIN + MAX / 8, throttler.getBandwidth());
+
+    for (int i = 0; i < 10; i++) {
+      throttler.adjustBandwidth(0);
+    }
+    assertEquals(MAX, throttler.getBandwidth());
+  }
+
+  @Test
+  public void minimumAboveMaximumDisablesAdaptation() {
+    VolumeLoadAwareThrottler throttler =
+        new VolumeLoadAwareThrottler(MIN, MAX, new VolumeIOStats());
+
+    throttler.adjustBandwidth(10);
+    assertEquals(MIN, throttler.getBandwidth());
+  }
+}
@@ -18,9 +18,13 @@
 
 package org.apache.hadoop.ozone.container.replication;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -30,6 +34,7 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
+import org.apache.hadoop.test.GenericTestUtils;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -157,6 +162,49 @@ public void stalledDownload() {
     }
   }
 
+  @Test
+  public void containersWithFewerReplicasFirst() throws Exception {
+    // GIVEN
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Long> order = Collections.synchronizedList(new ArrayList<>());
+    ContainerReplicator recordingReplicator = task -> {
+      if (task.getContainerId() == 1L) {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      order.add(task.getContainerId());
+      task.setStatus(ReplicationTask.Status.DONE);
+    };
+    ReplicationSupervisor supervisor =
+        new ReplicationSupervisor(set, recordingReplicator, 1);
+
+    try {
+      //WHEN: the only replication thread is busy
+      supervisor.addTask(new ReplicationTask(1L, emptyList(), 2));
+      started.await();
+      supervisor.addTask(new ReplicationTask(2L, emptyList(), 2));
+      supervisor.addTask(new ReplicationTask(3L, emptyList()));
+      supervisor.addTask(new ReplicationTask(4L, emptyList(), 1));
+      supervisor.addTask(new ReplicationTask(5L, emptyList(), 2));
+      Assert.assertEquals(4, supervisor.getQueuedReplications());
+      release.countDown();
+
+      //THEN
+      GenericTestUtils.waitFor(
+          () -> supervisor.getInFlightReplications() == 0, 10, 5000);
+      Assert.assertEquals(Arrays.asList(1L, 4L, 2L, 5L, 3L), order);
+      Assert.assertEquals(0, supervisor.getQueuedReplications());
+      Assert.assertEquals(5, supervisor.getReplicationSuccessCount());
+    } finally {
+      supervisor.stop();
+    }
+  }
+
   private ReplicationSupervisor supervisorWithSuccessfulReplicator() {
     return supervisorWith(supervisor -> new FakeReplicator(supervisor, set),
         sameThreadExecutor());
@@ -71,7 +71,8 @@ public RESPONSE processRequest(
 
       RESPONSE response = methodCall.apply(request);
 
-      if (logger.isTraceEnabled()) {
+      // response is null if it is deferred by the method call
+      if (logger.isTraceEnabled() && response != null) {
         logger.trace(
             "[service={}] [type={}] request is processed. Response: "
                 + "<json>{}</json>",
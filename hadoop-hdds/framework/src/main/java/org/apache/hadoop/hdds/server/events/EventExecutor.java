@@ -24,7 +24,8 @@
  * between the caller and the EventHandler.
  * <p>
  * Executors should guarantee that only one thread is executing one
- * EventHandler at the same time.
+ * EventHandler at the same time, unless they are documented to call the
+ * handler in parallel (see {@link FixedThreadPoolExecutor}).
  *
  * @param <PAYLOAD> the payload type of the event.
  */
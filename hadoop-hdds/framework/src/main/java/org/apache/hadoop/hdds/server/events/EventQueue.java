@@ -34,6 +34,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -92,6 +93,57 @@ public <PAYLOAD, EVENT_TYPE extends Event<PAYLOAD>> void addHandler(
     this.addHandler(event, new SingleThreadExecutor<>(executorName), handler);
   }
 
+  /**
+   * Add new handler to the event queue which is called from multiple
+   * threads.
+   * <p>
+   * Events are delivered by a {@link FixedThreadPoolExecutor} with
+   * unbounded queues: events with the same key are delivered in order from
+   * the same thread, events with different keys may be delivered in
+   * parallel. The handler should be thread safe.
+   *
+   * @param event        Triggering event.
+   * @param handler      Handler of event.
+   * @param threadCount  Number of threads delivering the events.
+   * @param keyFunction  Returns the ordering key of a payload, null if the
+   *                     events can be delivered in any order.
+   * @param <PAYLOAD>    The type of the event payload.
+   * @param <EVENT_TYPE> The type of the event identifier.
+   */
+  public <PAYLOAD, EVENT_TYPE extends Event<PAYLOAD>> void addHandler(
+      EVENT_TYPE event, EventHandler<PAYLOAD> handler, int threadCount,
+      Function<PAYLOAD, Object> keyFunction) {
+    addHandler(event, handler, threadCount, 0, keyFunction);
+  }
+
+  /**
+   * Add new handler to the event queue which is called from multiple
+   * threads, blocking {@link #fireEvent} while queueLimit events of the
+   * handler are waiting or being processed. Events fired from the threads
+   * of the event handlers are never blocked.
+   *
+   * @param event        Triggering event.
+   * @param handler      Handler of event.
+   * @param threadCount  Number of threads delivering the events.
+   * @param queueLimit   Maximum number of pending events, 0 for no limit.
+   * @param keyFunction  Returns the ordering key of a payload, null if the
+   *                     events can be delivered in any order.
+   * @param <PAYLOAD>    The type of the event payload.
+   * @param <EVENT_TYPE> The type of the event identifier.
+   * @see FixedThreadPoolExecutor
+   */
+  public <PAYLOAD, EVENT_TYPE extends Event<PAYLOAD>> void addHandler(
+      EVENT_TYPE event, EventHandler<PAYLOAD> handler, int threadCount,
+      int queueLimit, Function<PAYLOAD, Object> keyFunction) {
+    validateEvent(event);
+    Preconditions.checkNotNull(handler, "Handler should not be null.");
+    String executorName =
+        StringUtils.camelize(event.getName()) + EXECUTOR_NAME_SEPARATOR
+            + generateHandlerName(handler);
+    this.addHandler(event, new FixedThreadPoolExecutor<>(executorName,
+        threadCount, queueLimit, keyFunction), handler);
+  }
+
   private <EVENT_TYPE extends Event<?>> void validateEvent(EVENT_TYPE event) {
     Preconditions
         .checkArgument(!event.getName().contains(EXECUTOR_NAME_SEPARATOR),
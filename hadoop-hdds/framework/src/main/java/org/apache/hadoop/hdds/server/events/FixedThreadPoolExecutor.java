@@ -0,0 +1,281 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hdds.server.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableRate;
+import org.apache.hadoop.util.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * EventExecutor which calls the event handler from a fixed number of
+ * threads.
+ * <p>
+ * Without a key function the events are processed by a shared pool in no
+ * particular order. With a key function (for example the datanode UUID of a
+ * report) every thread has its own queue and payloads are assigned to a
+ * thread by their key, so payloads with the same key are processed
+ * one-by-one in order while payloads with different keys are processed in
+ * parallel.
+ * <p>
+ * If a queue limit is set, {@link #onMessage} blocks the publisher while
+ * that many events are waiting or being processed. Events published from
+ * the threads of any FixedThreadPoolExecutor are never blocked, so that a
+ * handler firing events to its own or to another bounded executor, whose
+ * handlers may fire back, cannot deadlock. Only the threads outside of the
+ * event executors, like the RPC handlers, are throttled.
+ * <p>
+ * The handler is called concurrently from multiple threads, therefore it
+ * should be thread safe.
+ *
+ * @param <P> the payload type of events
+ */
+@Metrics(context = "EventQueue")
+public class FixedThreadPoolExecutor<P> implements EventExecutor<P> {
+
+  private static final String EVENT_QUEUE = "EventQueue";
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(FixedThreadPoolExecutor.class);
+
+  private final String name;
+
+  private final List<ExecutorService> executors;
+
+  private final Function<P, Object> keyFunction;
+
+  private final Semaphore permits;
+
+  // Threads of all the instances, events published from them are never
+  // blocked.
+  private static final Set<Thread> EVENT_THREADS =
+      ConcurrentHashMap.newKeySet();
+
+  @Metric
+  private MutableCounterLong queued;
+
+  @Metric
+  private MutableCounterLong done;
+
+  @Metric
+  private MutableCounterLong failed;
+
+  @Metric("Time spent by the events in the queue")
+  private MutableRate queueTime;
+
+  @Metric("Time spent by the handler on the events")
+  private MutableRate processingTime;
+
+  @Metric("Time the publishers waited for a free slot in the queue")
+  private MutableRate publisherWaitTime;
+
+  /**
+   * Create FixedThreadPoolExecutor with unbounded queues.
+   *
+   * @param name Unique name used in monitoring and metrics.
+   * @param threadCount Number of threads processing the events.
+   * @param keyFunction Returns the key of a payload, payloads with equal
+   *                    keys are processed in order by the same thread. If
+   *                    null, the events are processed in any order.
+   */
+  public FixedThreadPoolExecutor(String name, int threadCount,
+      Function<P, Object> keyFunction) {
+    this(name, threadCount, 0, keyFunction);
+  }
+
+  /**
+   * Create FixedThreadPoolExecutor.
+   *
+   * @param name Unique name used in monitoring and metrics.
+   * @param threadCount Number of threads processing the events.
+   * @param queueLimit Maximum number of events waiting or being processed
+   *                   before the publishers are blocked, 0 for no limit.
+   * @param keyFunction Returns the key of a payload, payloads with equal
+   *                    keys are processed in order by the same thread. If
+   *                    null, the events are processed in any order.
+   */
+  public FixedThreadPoolExecutor(String name, int threadCount,
+      int queueLimit, Function<P, Object> keyFunction) {
+    Preconditions.checkArgument(threadCount > 0,
+        "Thread count should be positive.");
+    Preconditions.checkArgument(queueLimit >= 0,
+        "Queue limit should not be negative.");
+    this.name = name;
+    this.keyFunction = keyFunction;
+    this.permits = queueLimit > 0 ? new Semaphore(queueLimit) : null;
+    DefaultMetricsSystem.instance()
+        .register(EVENT_QUEUE + name, "Event Executor metrics ", this);
+
+    if (keyFunction == null) {
+      executors = new ArrayList<>(1);
+      executors.add(Executors.newFixedThreadPool(threadCount,
+          newThreadFactory(EVENT_QUEUE + "-" + name + "-")));
+    } else {
+      executors = new ArrayList<>(threadCount);
+      for (int i = 0; i < threadCount; i++) {
+        executors.add(Executors.newSingleThreadExecutor(
+            newThreadFactory(EVENT_QUEUE + "-" + name + "-" + i + "-")));
+      }
+    }
+  }
+
+  private ThreadFactory newThreadFactory(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(() -> {
+        EVENT_THREADS.add(Thread.currentThread());
+        try {
+          runnable.run();
+        } finally {
+          EVENT_THREADS.remove(Thread.currentThread());
+        }
+      });
+      thread.setName(prefix + count.getAndIncrement());
+      return thread;
+    };
+  }
+
+  @Override
+  public void onMessage(EventHandler<P> handler, P message, EventPublisher
+      publisher) {
+    boolean acquired = false;
+    if (permits != null &&
+        !EVENT_THREADS.contains(Thread.currentThread())) {
+      acquired = acquirePermit();
+      if (!acquired) {
+        LOG.warn("Interrupted while queueing message {}", message);
+        queued.incr();
+        failed.incr();
+        return;
+      }
+    }
+    queued.incr();
+    long queuedTime = Time.monotonicNow();
+    final boolean release = acquired;
+    try {
+      getExecutor(message).execute(() -> {
+        long startTime = Time.monotonicNow();
+        queueTime.add(startTime - queuedTime);
+        try {
+          handler.onMessage(message, publisher);
+          done.incr();
+        } catch (Exception ex) {
+          LOG.error("Error on execution message {}", message, ex);
+          failed.incr();
+        } finally {
+          processingTime.add(Time.monotonicNow() - startTime);
+          if (release) {
+            permits.release();
+          }
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      LOG.warn("Executor {} is closed, dropping message {}", name, message);
+      failed.incr();
+      if (release) {
+        permits.release();
+      }
+    }
+  }
+
+  /**
+   * Wait for a free slot in the bounded queue.
+   * @return true if a permit was acquired, false if interrupted.
+   */
+  private boolean acquirePermit() {
+    if (permits.tryAcquire()) {
+      return true;
+    }
+    long startTime = Time.monotonicNow();
+    try {
+      permits.acquire();
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      publisherWaitTime.add(Time.monotonicNow() - startTime);
+    }
+  }
+
+  private ExecutorService getExecutor(P message) {
+    if (executors.size() == 1) {
+      return executors.get(0);
+    }
+    Object key = keyFunction.apply(message);
+    int hash = key == null ? 0 : key.hashCode();
+    return executors.get((hash & Integer.MAX_VALUE) % executors.size());
+  }
+
+  /**
+   * Return the number of events waiting or being processed.
+   */
+  @Metric("Number of events waiting or being processed")
+  public long getQueueDepth() {
+    return queuedEvents() - successfulEvents() - failedEvents();
+  }
+
+  @VisibleForTesting
+  int availablePermits() {
+    return permits == null ? Integer.MAX_VALUE : permits.availablePermits();
+  }
+
+  @Override
+  public long failedEvents() {
+    return failed.value();
+  }
+
+  @Override
+  public long successfulEvents() {
+    return done.value();
+  }
+
+  @Override
+  public long queuedEvents() {
+    return queued.value();
+  }
+
+  @Override
+  public void close() {
+    executors.forEach(ExecutorService::shutdown);
+    DefaultMetricsSystem.instance().unregisterSource(EVENT_QUEUE + name);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+}
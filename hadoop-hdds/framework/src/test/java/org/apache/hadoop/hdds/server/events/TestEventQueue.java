@@ -17,6 +17,14 @@
  */
 package org.apache.hadoop.hdds.server.events;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -80,4 +88,94 @@ public void multipleSubscriber() {
 
   }
 
+  @Test
+  public void parallelHandlerKeepsOrderPerKey() {
+    Map<Long, List<Long>> received = new ConcurrentHashMap<>();
+    queue.addHandler(EVENT3, (payload, publisher) ->
+            received.computeIfAbsent(payload % 3, k -> new ArrayList<>())
+                .add(payload),
+        4, payload -> payload % 3);
+
+    for (long i = 0; i < 300; i++) {
+      queue.fireEvent(EVENT3, i);
+    }
+    queue.processAll(5000);
+
+    Assert.assertEquals(3, received.size());
+    for (Map.Entry<Long, List<Long>> entry : received.entrySet()) {
+      List<Long> payloads = entry.getValue();
+      Assert.assertEquals(100, payloads.size());
+      for (int i = 0; i < payloads.size(); i++) {
+        Assert.assertEquals(entry.getKey() + 3 * i, (long) payloads.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void boundedHandlerBlocksPublisher() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger processed = new AtomicInteger();
+    queue.addHandler(EVENT4, (payload, publisher) -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      processed.incrementAndGet();
+    }, 2, 2, null);
+
+    queue.fireEvent(EVENT4, 1L);
+    queue.fireEvent(EVENT4, 2L);
+    Thread publisher = new Thread(() -> queue.fireEvent(EVENT4, 3L));
+    publisher.start();
+    publisher.join(500);
+    Assert.assertTrue("Publisher should wait for a free slot",
+        publisher.isAlive());
+
+    release.countDown();
+    publisher.join(5000);
+    Assert.assertFalse(publisher.isAlive());
+    queue.processAll(5000);
+    Assert.assertEquals(3, processed.get());
+  }
+
+  @Test
+  public void boundedHandlerDoesNotBlockOtherExecutors() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    queue.addHandler(EVENT4, (payload, publisher) -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, 1, 1, null);
+    // The handler of another executor fires to the full one, and would
+    // deadlock if the full one fired back to it.
+    CountDownLatch forwarded = new CountDownLatch(1);
+    queue.addHandler(EVENT3, (payload, publisher) -> {
+      publisher.fireEvent(EVENT4, payload);
+      forwarded.countDown();
+    }, 1, 1, null);
+
+    queue.fireEvent(EVENT4, 1L);
+    queue.fireEvent(EVENT3, 2L);
+    Assert.assertTrue("Event thread should not wait for a free slot",
+        forwarded.await(5, TimeUnit.SECONDS));
+
+    release.countDown();
+    queue.processAll(5000);
+  }
+
+  @Test
+  public void rejectedEventReleasesPermit() {
+    FixedThreadPoolExecutor<Long> executor =
+        new FixedThreadPoolExecutor<>("rejected", 1, 1, null);
+    executor.close();
+
+    executor.onMessage((payload, publisher) -> { }, 1L, null);
+    Assert.assertEquals(1, executor.failedEvents());
+    Assert.assertEquals(0, executor.getQueueDepth());
+    Assert.assertEquals(1, executor.availablePermits());
+  }
+
 }
\ No newline at end of file
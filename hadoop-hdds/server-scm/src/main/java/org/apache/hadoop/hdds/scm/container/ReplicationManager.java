@@ -520,7 +520,8 @@ private void handleUnderReplicatedContainer(final ContainerInfo container,
             replicationFactor - delta);
 
         for (DatanodeDetails datanode : selectedDatanodes) {
-          sendReplicateCommand(container, datanode, source);
+          sendReplicateCommand(container, datanode, source,
+              replicationFactor - delta);
         }
       } else {
         LOG.warn("Cannot replicate container {}, no healthy replica found.",
@@ -673,10 +674,12 @@ private void sendCloseCommand(final ContainerInfo container,
    * @param container Container to be replicated
    * @param datanode The destination datanode to replicate
    * @param sources List of source nodes from where we can replicate
+   * @param replicaCount Number of replicas currently known to SCM
    */
   private void sendReplicateCommand(final ContainerInfo container,
                                     final DatanodeDetails datanode,
-                                    final List<DatanodeDetails> sources) {
+                                    final List<DatanodeDetails> sources,
+                                    final int replicaCount) {
 
     LOG.info("Sending replicate container command for container {}" +
             " to datanode {}", container.containerID(), datanode);
@@ -684,6 +687,7 @@ private void sendReplicateCommand(final ContainerInfo container,
     final ContainerID id = container.containerID();
     final ReplicateContainerCommand replicateCommand =
         new ReplicateContainerCommand(id.getId(), sources);
+    replicateCommand.setReplicaCount(replicaCount);
     inflightReplication.computeIfAbsent(id, k -> new ArrayList<>());
     sendAndTrackDatanodeCommand(datanode, replicateCommand,
         action -> inflightReplication.get(id).add(action));
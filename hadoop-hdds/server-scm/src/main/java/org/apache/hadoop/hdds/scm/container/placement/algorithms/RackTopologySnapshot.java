@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.placement.algorithms;
+
+import org.apache.hadoop.hdds.scm.net.NetConstants;
+import org.apache.hadoop.hdds.scm.net.NetworkTopology;
+import org.apache.hadoop.hdds.scm.net.Node;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable copy of the leaves of a network topology grouped by their
+ * parent (rack), used to choose nodes without taking the topology lock.
+ * <p>
+ * A snapshot is valid as long as the generation of the topology is the same
+ * as the generation the snapshot was built from. Choosing a node costs
+ * O(racks + excluded nodes) plus a scan of the chosen rack, independent of
+ * the size of the cluster.
+ */
+final class RackTopologySnapshot {
+
+  private final long generation;
+  // Leaves of every rack.
+  private final Node[][] racks;
+  // Network full path of a leaf to the index of its rack.
+  private final Map<String, Integer> rackIndex;
+  private final int leafCount;
+
+  private RackTopologySnapshot(long generation, Collection<List<Node>> leaves) {
+    this.generation = generation;
+    this.racks = new Node[leaves.size()][];
+    this.rackIndex = new HashMap<>();
+    int index = 0;
+    int count = 0;
+    for (List<Node> rack : leaves) {
+      racks[index] = rack.toArray(new Node[0]);
+      for (Node node : rack) {
+        rackIndex.put(node.getNetworkFullPath(), index);
+      }
+      count += rack.size();
+      index++;
+    }
+    this.leafCount = count;
+  }
+
+  /**
+   * Copy the leaves of the topology. Retried if the topology changes while
+   * it is being copied.
+   *
+   * @param topology network topology
+   * @return snapshot of the current topology
+   */
+  static RackTopologySnapshot create(NetworkTopology topology) {
+    while (true) {
+      long generation = topology.getGeneration();
+      int count = topology.getNumOfLeafNode(NetConstants.ROOT);
+      Map<String, List<Node>> leaves = new LinkedHashMap<>();
+      boolean complete = true;
+      for (int i = 0; i < count && complete; i++) {
+        Node leaf = topology.getNode(i, NetConstants.ROOT, null, null, null,
+            0);
+        if (leaf == null) {
+          complete = false;
+        } else {
+          leaves.computeIfAbsent(leaf.getNetworkLocation(),
+              k -> new ArrayList<>()).add(leaf);
+        }
+      }
+      if (complete && generation == topology.getGeneration()) {
+        return new RackTopologySnapshot(generation, leaves.values());
+      }
+    }
+  }
+
+  long getGeneration() {
+    return generation;
+  }
+
+  int getLeafCount() {
+    return leafCount;
+  }
+
+  /**
+   * Randomly choose a leaf, with the same semantics as
+   * {@link NetworkTopology#chooseRandom(String, List, Collection, Node, int)}
+   * on the whole cluster for ancestorGen 0 (node level) or 1 (rack level).
+   *
+   * @param excludedNodes nodes to be excluded, can be null
+   * @param excludedPaths network full paths of further leaves to be
+   *                      excluded, can be null
+   * @param affinityNode when not null and ancestorGen is 1, the chosen node
+   *                     should be on the same rack as this node
+   * @param ancestorGen 1 to exclude the racks of the excluded nodes (or to
+   *                    choose from the rack of the affinity node), 0 to only
+   *                    exclude the nodes themselves
+   * @return the chosen node, null if there is no available node
+   */
+  Node chooseRandom(Collection<Node> excludedNodes,
+      Collection<String> excludedPaths, Node affinityNode, int ancestorGen) {
+    Set<String> excluded = new HashSet<>();
+    Set<Integer> excludedRacks = new HashSet<>();
+    if (excludedNodes != null) {
+      for (Node node : excludedNodes) {
+        excluded.add(node.getNetworkFullPath());
+        Integer rack = rackIndex.get(node.getNetworkFullPath());
+        if (ancestorGen > 0 && rack != null) {
+          excludedRacks.add(rack);
+        }
+      }
+    }
+    if (excludedPaths != null) {
+      excluded.addAll(excludedPaths);
+    }
+
+    List<Integer> candidateRacks = new ArrayList<>();
+    if (affinityNode != null && ancestorGen > 0) {
+      Integer rack = rackIndex.get(affinityNode.getNetworkFullPath());
+      if (rack == null) {
+        return null;
+      }
+      candidateRacks.add(rack);
+    } else {
+      for (int i = 0; i < racks.length; i++) {
+        if (!excludedRacks.contains(i)) {
+          candidateRacks.add(i);
+        }
+      }
+    }
+
+    // Number of excluded leaves on each rack.
+    Map<Integer, Integer> excludedCount = new HashMap<>();
+    for (String path : excluded) {
+      Integer rack = rackIndex.get(path);
+      if (rack != null) {
+        excludedCount.merge(rack, 1, Integer::sum);
+      }
+    }
+    int available = 0;
+    for (int rack : candidateRacks) {
+      available += racks[rack].length - excludedCount.getOrDefault(rack, 0);
+    }
+    if (available <= 0) {
+      return null;
+    }
+
+    int index = ThreadLocalRandom.current().nextInt(available);
+    for (int rack : candidateRacks) {
+      int rackAvailable =
+          racks[rack].length - excludedCount.getOrDefault(rack, 0);
+      if (index >= rackAvailable) {
+        index -= rackAvailable;
+        continue;
+      }
+      for (Node node : racks[rack]) {
+        if (!excluded.contains(node.getNetworkFullPath())) {
+          if (index == 0) {
+            return node;
+          }
+          index--;
+        }
+      }
+    }
+    return null;
+  }
+}
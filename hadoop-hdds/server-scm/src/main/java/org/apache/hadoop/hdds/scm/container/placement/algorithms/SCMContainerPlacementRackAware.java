@@ -22,7 +22,6 @@
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.scm.exceptions.SCMException;
-import org.apache.hadoop.hdds.scm.net.NetConstants;
 import org.apache.hadoop.hdds.scm.net.NetworkTopology;
 import org.apache.hadoop.hdds.scm.net.Node;
 import org.apache.hadoop.hdds.scm.node.NodeManager;
@@ -44,6 +43,9 @@
  * This implementation applies to network topology like "/rack/node". Don't
  * recommend to use this if the network topology has more layers.
  * <p>
+ * Nodes are chosen from a {@link RackTopologySnapshot} of the topology,
+ * which is rebuilt only when datanodes are added or removed, so placement
+ * does not contend on the topology lock.
  */
 public final class SCMContainerPlacementRackAware extends SCMCommonPolicy {
   @VisibleForTesting
@@ -54,6 +56,7 @@ public final class SCMContainerPlacementRackAware extends SCMCommonPolicy {
   private static final int RACK_LEVEL = 1;
   private static final int MAX_RETRY= 3;
   private final SCMContainerPlacementMetrics metrics;
+  private volatile RackTopologySnapshot snapshot;
 
   /**
    * Constructs a Container Placement with rack awareness.
@@ -96,7 +99,8 @@ public List<DatanodeDetails> chooseDatanodes(
       int nodesRequired, final long sizeRequired) throws SCMException {
     Preconditions.checkArgument(nodesRequired > 0);
     metrics.incrDatanodeRequestCount(nodesRequired);
-    int datanodeCount = networkTopology.getNumOfLeafNode(NetConstants.ROOT);
+    RackTopologySnapshot topology = getSnapshot();
+    int datanodeCount = topology.getLeafCount();
     int excludedNodesCount = excludedNodes == null ? 0 : excludedNodes.size();
     if (datanodeCount < nodesRequired + excludedNodesCount) {
       throw new SCMException("No enough datanodes to choose. " +
@@ -126,7 +130,7 @@ public List<DatanodeDetails> chooseDatanodes(
         firstNode = favoredNode;
         favorIndex++;
       } else {
-        firstNode = chooseNode(null, null, sizeRequired);
+        firstNode = chooseNode(topology, null, null, sizeRequired);
       }
       chosenNodes.add(firstNode);
       nodesRequired--;
@@ -143,7 +147,8 @@ public List<DatanodeDetails> chooseDatanodes(
         secondNode = favoredNode;
         favorIndex++;
       } else {
-        secondNode = chooseNode(chosenNodes, firstNode, sizeRequired);
+        secondNode = chooseNode(topology, chosenNodes, firstNode,
+            sizeRequired);
       }
       chosenNodes.add(secondNode);
       nodesRequired--;
@@ -152,8 +157,8 @@ public List<DatanodeDetails> chooseDatanodes(
       }
 
       // choose remaining datanodes on different rack as first and second
-      return chooseNodes(null, chosenNodes, mutableFavoredNodes, favorIndex,
-          nodesRequired, sizeRequired);
+      return chooseNodes(topology, null, chosenNodes, mutableFavoredNodes,
+          favorIndex, nodesRequired, sizeRequired);
     } else {
       List<Node> mutableExcludedNodes = new ArrayList<>();
       mutableExcludedNodes.addAll(excludedNodes);
@@ -170,8 +175,8 @@ public List<DatanodeDetails> chooseDatanodes(
           firstNode = favoredNode;
           favorIndex++;
         } else {
-          firstNode = chooseNode(mutableExcludedNodes, excludedNodes.get(0),
-              sizeRequired);
+          firstNode = chooseNode(topology, mutableExcludedNodes,
+              excludedNodes.get(0), sizeRequired);
         }
         chosenNodes.add(firstNode);
         nodesRequired--;
@@ -179,8 +184,8 @@ public List<DatanodeDetails> chooseDatanodes(
           return Arrays.asList(chosenNodes.toArray(new DatanodeDetails[0]));
         }
         // choose remaining nodes on different racks
-        return chooseNodes(null, chosenNodes, mutableFavoredNodes, favorIndex,
-            nodesRequired, sizeRequired);
+        return chooseNodes(topology, null, chosenNodes, mutableFavoredNodes,
+            favorIndex, nodesRequired, sizeRequired);
       }
       // case 2: two or more excluded nodes, if these two nodes are
       // in the same rack, then choose nodes on different racks, otherwise,
@@ -191,7 +196,7 @@ public List<DatanodeDetails> chooseDatanodes(
           if (networkTopology.isSameParent(
               excludedNodes.get(i), excludedNodes.get(j))) {
             // choose remaining nodes on different racks
-            return chooseNodes(mutableExcludedNodes, chosenNodes,
+            return chooseNodes(topology, mutableExcludedNodes, chosenNodes,
                 mutableFavoredNodes, favorIndex, nodesRequired, sizeRequired);
           }
         }
@@ -205,8 +210,8 @@ public List<DatanodeDetails> chooseDatanodes(
         secondNode = favoredNode;
         favorIndex++;
       } else {
-        secondNode =
-            chooseNode(chosenNodes, mutableExcludedNodes.get(0), sizeRequired);
+        secondNode = chooseNode(topology, chosenNodes,
+            mutableExcludedNodes.get(0), sizeRequired);
       }
       chosenNodes.add(secondNode);
       mutableExcludedNodes.add(secondNode);
@@ -215,8 +220,8 @@ public List<DatanodeDetails> chooseDatanodes(
         return Arrays.asList(chosenNodes.toArray(new DatanodeDetails[0]));
       }
       // choose remaining nodes on different racks
-      return chooseNodes(mutableExcludedNodes, chosenNodes, mutableFavoredNodes,
-          favorIndex, nodesRequired, sizeRequired);
+      return chooseNodes(topology, mutableExcludedNodes, chosenNodes,
+          mutableFavoredNodes, favorIndex, nodesRequired, sizeRequired);
     }
   }
 
@@ -225,12 +230,27 @@ public DatanodeDetails chooseNode(List<DatanodeDetails> healthyNodes) {
     return null;
   }
 
+  /**
+   * Return the snapshot of the current network topology, rebuilding it if
+   * nodes were added or removed since it was taken.
+   */
+  private RackTopologySnapshot getSnapshot() {
+    RackTopologySnapshot current = snapshot;
+    if (current == null ||
+        current.getGeneration() != networkTopology.getGeneration()) {
+      current = RackTopologySnapshot.create(networkTopology);
+      snapshot = current;
+    }
+    return current;
+  }
+
   /**
    * Choose a datanode which meets the requirements. If there is no node which
    * meets all the requirements, there is fallback chosen process depending on
    * whether fallback is allowed when this class is instantiated.
    *
    *
+   * @param topology - snapshot of the network topology.
    * @param excludedNodes - list of the datanodes to excluded. Can be null.
    * @param affinityNode - the chosen nodes should be on the same rack as
    *                    affinityNode. Can be null.
@@ -238,16 +258,17 @@ public DatanodeDetails chooseNode(List<DatanodeDetails> healthyNodes) {
    * @return List of chosen datanodes.
    * @throws SCMException  SCMException
    */
-  private Node chooseNode(List<Node> excludedNodes, Node affinityNode,
-      long sizeRequired) throws SCMException {
+  private Node chooseNode(RackTopologySnapshot topology,
+      List<Node> excludedNodes, Node affinityNode, long sizeRequired)
+      throws SCMException {
     int ancestorGen = RACK_LEVEL;
     int maxRetry = MAX_RETRY;
     List<String> excludedNodesForCapacity = null;
     boolean isFallbacked = false;
     while(true) {
       metrics.incrDatanodeChooseAttemptCount();
-      Node node = networkTopology.chooseRandom(NetConstants.ROOT,
-          excludedNodesForCapacity, excludedNodes, affinityNode, ancestorGen);
+      Node node = topology.chooseRandom(excludedNodes,
+          excludedNodesForCapacity, affinityNode, ancestorGen);
       if (node == null) {
         // cannot find the node which meets all constrains
         LOG.warn("Failed to find the datanode for container. excludedNodes:" +
@@ -303,6 +324,7 @@ private Node chooseNode(List<Node> excludedNodes, Node affinityNode,
    * chosenNodes.
    *
    *
+   * @param topology - snapshot of the network topology.
    * @param excludedNodes - list of the datanodes to excluded. Can be null.
    * @param chosenNodes - list of nodes already chosen. These nodes should also
    *                    be excluded. Cannot be null.
@@ -316,10 +338,10 @@ private Node chooseNode(List<Node> excludedNodes, Node affinityNode,
    * @return List of chosen datanodes.
    * @throws SCMException  SCMException
    */
-  private List<DatanodeDetails> chooseNodes(List<Node> excludedNodes,
-      List<Node> chosenNodes, List<DatanodeDetails> favoredNodes,
-      int favorIndex, int nodesRequired, long sizeRequired)
-      throws SCMException {
+  private List<DatanodeDetails> chooseNodes(RackTopologySnapshot topology,
+      List<Node> excludedNodes, List<Node> chosenNodes,
+      List<DatanodeDetails> favoredNodes, int favorIndex, int nodesRequired,
+      long sizeRequired) throws SCMException {
     Preconditions.checkArgument(chosenNodes != null);
     List<Node> excludedNodeList = excludedNodes != null ?
         excludedNodes : chosenNodes;
@@ -333,7 +355,8 @@ private List<DatanodeDetails> chooseNodes(List<Node> excludedNodes,
         chosenNode = favoredNode;
         favorIndex++;
       } else {
-        chosenNode = chooseNode(excludedNodeList, null, sizeRequired);
+        chosenNode = chooseNode(topology, excludedNodeList, null,
+            sizeRequired);
       }
       excludedNodeList.add(chosenNode);
       if (excludedNodeList != chosenNodes) {
@@ -19,13 +19,23 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import org.apache.hadoop.hdds.protocol.proto
+    .StorageContainerDatanodeProtocolProtos.SCMCommandProto.Type;
+import org.apache.hadoop.ozone.protocol.commands.CloseContainerCommand;
 import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
 import org.apache.hadoop.util.Time;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -34,14 +44,49 @@
  * Command Queue is queue of commands for the datanode.
  * <p>
  * Node manager, container Manager and Ozone managers can queue commands for
- * datanodes into this queue. These commands will be send in the order in which
- * there where queued.
+ * datanodes into this queue. Command types which depend on each other share
+ * a lane, and the commands of a lane are sent in the order in which they
+ * were queued: containers are closed before their pipeline, a pipeline is
+ * created before it is closed, and a replica is deleted before the
+ * container is replicated to the datanode again. Only independent lanes are
+ * sent by priority, so that the commands which affect the availability of
+ * writes are sent before replication and deletion.
+ * <p>
+ * A command which is already queued for the datanode with the same type and
+ * id is not queued again. This coalesces retried commands and repeated
+ * closes of the same container, as the id of a close container command is
+ * the container ID. Other commands get a new id each, so e.g. two
+ * replications of the same container are both sent.
+ * <p>
+ * At most a configured number of commands is handed out per heartbeat so
+ * that a burst of commands is spread over multiple heartbeats.
  */
 public class CommandQueue {
   // This list is used as default return value.
   private static final List<SCMCommand> DEFAULT_LIST = new ArrayList<>();
+  // Lanes in the order in which they are sent to the datanodes, other types
+  // have a lane of their own after these.
+  private static final List<List<Type>> LANES = Arrays.asList(
+      Collections.singletonList(Type.reregisterCommand),
+      Arrays.asList(Type.closeContainerCommand, Type.closePipelineCommand,
+          Type.createPipelineCommand),
+      Arrays.asList(Type.deleteContainerCommand,
+          Type.replicateContainerCommand),
+      Collections.singletonList(Type.deleteBlocksCommand));
+  private static final Map<Type, Integer> LANE_OF_TYPE =
+      new EnumMap<>(Type.class);
+
+  static {
+    for (int i = 0; i < LANES.size(); i++) {
+      for (Type type : LANES.get(i)) {
+        LANE_OF_TYPE.put(type, i);
+      }
+    }
+  }
+
   private final Map<UUID, Commands> commandMap;
   private final Lock lock;
+  private final int maxCommandsPerHeartbeat;
   private long commandsInQueue;
 
   /**
@@ -52,15 +97,27 @@ public long getCommandsInQueue() {
     return commandsInQueue;
   }
 
+  /**
+   * Constructs a Command Queue which returns all the queued commands of a
+   * datanode at once.
+   */
+  public CommandQueue() {
+    this(0);
+  }
+
   /**
    * Constructs a Command Queue.
    * TODO : Add a flusher thread that throws away commands older than a certain
    * time period.
+   *
+   * @param maxCommandsPerHeartbeat maximum number of commands returned for a
+   *                                datanode at once, 0 for no limit.
    */
-  public CommandQueue() {
+  public CommandQueue(int maxCommandsPerHeartbeat) {
     commandMap = new HashMap<>();
     lock = new ReentrantLock();
     commandsInQueue = 0;
+    this.maxCommandsPerHeartbeat = maxCommandsPerHeartbeat;
   }
 
   /**
@@ -79,8 +136,8 @@ public void clear() {
 
   /**
    * Returns  a list of Commands for the datanode to execute, if we have no
-   * commands returns a empty list otherwise the current set of
-   * commands are returned and command map set to empty list again.
+   * commands returns a empty list otherwise the queued commands, up to the
+   * per heartbeat limit, are returned and removed from the queue.
    *
    * @param datanodeUuid Datanode UUID
    * @return List of SCM Commands.
@@ -89,15 +146,18 @@ public void clear() {
   List<SCMCommand> getCommand(final UUID datanodeUuid) {
     lock.lock();
     try {
-      Commands cmds = commandMap.remove(datanodeUuid);
-      List<SCMCommand> cmdList = null;
-      if(cmds != null) {
-        cmdList = cmds.getCommands();
-        commandsInQueue -= cmdList.size() > 0 ? cmdList.size() : 0;
-        // A post condition really.
-        Preconditions.checkState(commandsInQueue >= 0);
+      Commands cmds = commandMap.get(datanodeUuid);
+      if (cmds == null) {
+        return DEFAULT_LIST;
+      }
+      List<SCMCommand> cmdList = cmds.getCommands(maxCommandsPerHeartbeat);
+      if (cmds.isEmpty()) {
+        commandMap.remove(datanodeUuid);
       }
-      return cmds == null ? DEFAULT_LIST : cmdList;
+      commandsInQueue -= cmdList.size();
+      // A post condition really.
+      Preconditions.checkState(commandsInQueue >= 0);
+      return cmdList;
     } finally {
       lock.unlock();
     }
@@ -113,43 +173,69 @@ public void addCommand(final UUID datanodeUuid, final SCMCommand
       command) {
     lock.lock();
     try {
-      if (commandMap.containsKey(datanodeUuid)) {
-        commandMap.get(datanodeUuid).add(command);
-      } else {
-        commandMap.put(datanodeUuid, new Commands(command));
+      if (commandMap.computeIfAbsent(datanodeUuid, k -> new Commands())
+          .add(command)) {
+        commandsInQueue++;
       }
-      commandsInQueue++;
     } finally {
       lock.unlock();
     }
   }
 
+  private static int getLane(Type type) {
+    Integer lane = LANE_OF_TYPE.get(type);
+    return lane != null ? lane : LANES.size() + type.ordinal();
+  }
+
+  /**
+   * Type and id of a command, queued commands with the same key are
+   * coalesced.
+   */
+  private static final class CommandKey {
+    private final Type type;
+    private final long id;
+
+    CommandKey(SCMCommand command) {
+      this.type = command.getType();
+      this.id = command.getId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CommandKey)) {
+        return false;
+      }
+      CommandKey that = (CommandKey) o;
+      return type == that.type && id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(type, id);
+    }
+  }
+
   /**
-   * Class that stores commands for a datanode.
+   * Class that stores commands for a datanode, grouped by lane.
    */
   private static class Commands {
     private long updateTime;
     private long readTime;
-    private List<SCMCommand> commands;
+    private final Map<Integer, LinkedHashMap<CommandKey, SCMCommand>>
+        commands;
 
     /**
      * Constructs a Commands class.
      */
     Commands() {
-      commands = new ArrayList<>();
+      commands = new TreeMap<>();
       updateTime = 0;
       readTime = 0;
     }
 
-    /**
-     * Creates the object and populates with the command.
-     * @param command command to add to queue.
-     */
-    Commands(SCMCommand command) {
-      this();
-      this.add(command);
-    }
-
     /**
      * Gets the last time the commands for this node was updated.
      * @return Time stamp
@@ -167,24 +253,57 @@ public long getReadTime() {
     }
 
     /**
-     * Adds a command to the list.
+     * Adds a command to the end of its lane, unless a command of the same
+     * type with the same id is already queued. A forced close container
+     * command replaces a queued non-forced one in place.
      *
      * @param command SCMCommand
+     * @return true if the number of queued commands was increased.
      */
-    public void add(SCMCommand command) {
-      this.commands.add(command);
+    public boolean add(SCMCommand command) {
       updateTime = Time.monotonicNow();
+      Map<CommandKey, SCMCommand> lane =
+          commands.computeIfAbsent(getLane(command.getType()),
+              k -> new LinkedHashMap<>());
+      CommandKey key = new CommandKey(command);
+      SCMCommand queued = lane.get(key);
+      if (queued == null) {
+        lane.put(key, command);
+        return true;
+      }
+      if (command instanceof CloseContainerCommand
+          && ((CloseContainerCommand) command).isForce()) {
+        lane.put(key, command);
+      }
+      return false;
+    }
+
+    public boolean isEmpty() {
+      return commands.isEmpty();
     }
 
     /**
-     * Returns the commands for this datanode.
+     * Returns and removes the commands for this datanode.
+     * @param limit maximum number of commands to return, 0 for no limit.
      * @return command list.
      */
-    public List<SCMCommand> getCommands() {
-      List<SCMCommand> temp = this.commands;
-      this.commands = new ArrayList<>();
+    public List<SCMCommand> getCommands(int limit) {
+      List<SCMCommand> result = new ArrayList<>();
       readTime = Time.monotonicNow();
-      return temp;
+      Iterator<LinkedHashMap<CommandKey, SCMCommand>> lanes =
+          commands.values().iterator();
+      while (lanes.hasNext() && (limit <= 0 || result.size() < limit)) {
+        Map<CommandKey, SCMCommand> lane = lanes.next();
+        Iterator<SCMCommand> iterator = lane.values().iterator();
+        while (iterator.hasNext() && (limit <= 0 || result.size() < limit)) {
+          result.add(iterator.next());
+          iterator.remove();
+        }
+        if (lane.isEmpty()) {
+          lanes.remove();
+        }
+      }
+      return result;
     }
   }
 }
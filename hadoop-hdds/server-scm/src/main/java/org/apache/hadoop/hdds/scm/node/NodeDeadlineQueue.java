@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hdds.scm.node;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Deadlines at which the health of the datanodes has to be re-evaluated.
+ * <p>
+ * Every node has at most one deadline. A heartbeat moves the deadline of
+ * its node, so the health check only has to look at the nodes whose
+ * deadline has passed instead of at every node of the cluster.
+ */
+class NodeDeadlineQueue {
+
+  private final TreeSet<Deadline> queue = new TreeSet<>();
+
+  private final Map<UUID, Deadline> deadlines = new HashMap<>();
+
+  /**
+   * Sets the deadline of the node, replacing the previous one.
+   *
+   * @param uuid node id
+   * @param time monotonic time of the deadline in milliseconds
+   */
+  synchronized void schedule(UUID uuid, long time) {
+    Deadline deadline = new Deadline(time, uuid);
+    Deadline previous = deadlines.put(uuid, deadline);
+    if (previous != null) {
+      queue.remove(previous);
+    }
+    queue.add(deadline);
+  }
+
+  /**
+   * Removes the deadline of the node, if any.
+   *
+   * @param uuid node id
+   */
+  synchronized void remove(UUID uuid) {
+    Deadline previous = deadlines.remove(uuid);
+    if (previous != null) {
+      queue.remove(previous);
+    }
+  }
+
+  /**
+   * Removes and returns the nodes whose deadline is before the given time.
+   *
+   * @param now current monotonic time in milliseconds
+   * @return ids of the expired nodes, ordered by deadline
+   */
+  synchronized List<UUID> pollExpired(long now) {
+    List<UUID> expired = new ArrayList<>();
+    while (!queue.isEmpty() && queue.first().time < now) {
+      Deadline deadline = queue.pollFirst();
+      deadlines.remove(deadline.uuid);
+      expired.add(deadline.uuid);
+    }
+    return expired;
+  }
+
+  synchronized int size() {
+    return deadlines.size();
+  }
+
+  /**
+   * Deadline of a single node.
+   */
+  private static final class Deadline implements Comparable<Deadline> {
+    private final long time;
+    private final UUID uuid;
+
+    private Deadline(long time, UUID uuid) {
+      this.time = time;
+      this.uuid = uuid;
+    }
+
+    @Override
+    public int compareTo(Deadline other) {
+      int result = Long.compare(time, other.time);
+      return result != 0 ? result : uuid.compareTo(other.uuid);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Deadline deadline = (Deadline) o;
+      return time == deadline.time && uuid.equals(deadline.uuid);
+    }
+
+    @Override
+    public int hashCode() {
+      return uuid.hashCode() * 31 + Long.hashCode(time);
+    }
+  }
+}
@@ -60,6 +60,13 @@
  * the node state change should happen only via NodeStateManager. It also
  * runs a heartbeat thread which periodically updates the node state.
  * <p>
+ * Every node has a deadline at which its health has to be re-evaluated
+ * (the time it becomes stale if healthy, the time it becomes dead if stale).
+ * A heartbeat only moves the deadline of its own node, and the heartbeat
+ * thread only looks at the nodes whose deadline has passed, so the cost of
+ * a health check is proportional to the number of changed nodes instead of
+ * the size of the cluster.
+ * <p>
  * The getNode(byState) functions make copy of node maps and then creates a list
  * based on that. It should be assumed that these get functions always report
  * *stale* information. For example, getting the deadNodeCount followed by
@@ -117,6 +124,10 @@ private enum NodeLifeCycleEvent {
    * The timeout value which will be used for marking a datanode as dead.
    */
   private final long deadNodeIntervalMs;
+  /**
+   * Deadlines at which the health of the nodes has to be re-evaluated.
+   */
+  private final NodeDeadlineQueue healthDeadlines;
 
   /**
    * The future is used to pause/unpause the scheduled checks.
@@ -157,6 +168,7 @@ public NodeStateManager(Configuration conf, EventPublisher eventPublisher) {
         .getScmheartbeatCheckerInterval(conf);
     staleNodeIntervalMs = HddsServerUtil.getStaleNodeInterval(conf);
     deadNodeIntervalMs = HddsServerUtil.getDeadNodeInterval(conf);
+    healthDeadlines = new NodeDeadlineQueue();
     Preconditions.checkState(heartbeatCheckerIntervalMs > 0,
         OZONE_SCM_HEARTBEAT_PROCESS_INTERVAL + " should be greater than 0.");
     Preconditions.checkState(staleNodeIntervalMs < deadNodeIntervalMs,
@@ -272,6 +284,8 @@ private void initializeStateMachine() {
   public void addNode(DatanodeDetails datanodeDetails)
       throws NodeAlreadyExistsException {
     nodeStateMap.addNode(datanodeDetails, stateMachine.getInitialState());
+    healthDeadlines.schedule(datanodeDetails.getUuid(),
+        Time.monotonicNow() + staleNodeIntervalMs);
     eventPublisher.fireEvent(SCMEvents.NEW_NODE, datanodeDetails);
   }
 
@@ -298,14 +312,24 @@ public DatanodeInfo getNode(DatanodeDetails datanodeDetails)
   }
 
   /**
-   * Updates the last heartbeat time of the node.
+   * Updates the last heartbeat time of the node and moves its health check
+   * deadline. A stale or dead node is restored by the next health check.
    *
    * @throws NodeNotFoundException if the node is not present
    */
   public void updateLastHeartbeatTime(DatanodeDetails datanodeDetails)
       throws NodeNotFoundException {
-    nodeStateMap.getNodeInfo(datanodeDetails.getUuid())
-        .updateLastHeartbeatTime();
+    UUID uuid = datanodeDetails.getUuid();
+    DatanodeInfo node = nodeStateMap.getNodeInfo(uuid);
+    synchronized (node) {
+      node.updateLastHeartbeatTime();
+      NodeState state = nodeStateMap.getNodeState(uuid);
+      if (state == NodeState.HEALTHY) {
+        scheduleHealthCheck(node, state);
+      } else if (state == NodeState.STALE || state == NodeState.DEAD) {
+        healthDeadlines.schedule(uuid, Long.MIN_VALUE);
+      }
+    }
   }
 
   /**
@@ -563,6 +587,7 @@ private void checkNodesHealth() {
      *    marked as dead.
      *
      * The Processing starts from current time and looks backwards in time.
+     * Only the nodes whose health check deadline has passed are evaluated.
      */
     long processingStartTime = Time.monotonicNow();
     // After this time node is considered to be stale.
@@ -577,47 +602,22 @@ private void checkNodesHealth() {
         (lastHbTime) -> lastHbTime < healthyNodeDeadline;
     Predicate<Long> deadNodeCondition =
         (lastHbTime) -> lastHbTime < staleNodeDeadline;
-    try {
-      for (NodeState state : NodeState.values()) {
-        List<UUID> nodes = nodeStateMap.getNodes(state);
-        for (UUID id : nodes) {
-          DatanodeInfo node = nodeStateMap.getNodeInfo(id);
-          switch (state) {
-          case HEALTHY:
-            // Move the node to STALE if the last heartbeat time is less than
-            // configured stale-node interval.
-            updateNodeState(node, staleNodeCondition, state,
-                  NodeLifeCycleEvent.TIMEOUT);
-            break;
-          case STALE:
-            // Move the node to DEAD if the last heartbeat time is less than
-            // configured dead-node interval.
-            updateNodeState(node, deadNodeCondition, state,
-                NodeLifeCycleEvent.TIMEOUT);
-            // Restore the node if we have received heartbeat before configured
-            // stale-node interval.
-            updateNodeState(node, healthyNodeCondition, state,
-                NodeLifeCycleEvent.RESTORE);
-            break;
-          case DEAD:
-            // Resurrect the node if we have received heartbeat before
-            // configured stale-node interval.
-            updateNodeState(node, healthyNodeCondition, state,
-                NodeLifeCycleEvent.RESURRECT);
-            break;
-            // We don't do anything for DECOMMISSIONING and DECOMMISSIONED in
-            // heartbeat processing.
-          case DECOMMISSIONING:
-          case DECOMMISSIONED:
-          default:
-          }
+    // A node which became stale may already be dead, so keep polling until
+    // every expired deadline has moved past the processing start time.
+    List<UUID> expired = healthDeadlines.pollExpired(processingStartTime);
+    while (!expired.isEmpty()) {
+      for (UUID id : expired) {
+        try {
+          checkNodeHealth(id, healthyNodeCondition, staleNodeCondition,
+              deadNodeCondition);
+        } catch (NodeNotFoundException e) {
+          // This should not happen unless someone else other than
+          // NodeStateManager is directly modifying NodeStateMap and removed
+          // the node entry after we got the list of UUIDs.
+          LOG.error("Inconsistent NodeStateMap! " + nodeStateMap);
         }
       }
-    } catch (NodeNotFoundException e) {
-      // This should not happen unless someone else other than
-      // NodeStateManager is directly modifying NodeStateMap and removed
-      // the node entry after we got the list of UUIDs.
-      LOG.error("Inconsistent NodeStateMap! " + nodeStateMap);
+      expired = healthDeadlines.pollExpired(processingStartTime);
     }
     long processingEndTime = Time.monotonicNow();
     //If we have taken too much time for HB processing, log that information.
@@ -634,6 +634,65 @@ private void checkNodesHealth() {
 
   }
 
+  private void checkNodeHealth(UUID id, Predicate<Long> healthyNodeCondition,
+      Predicate<Long> staleNodeCondition, Predicate<Long> deadNodeCondition)
+      throws NodeNotFoundException {
+    DatanodeInfo node = nodeStateMap.getNodeInfo(id);
+    synchronized (node) {
+      NodeState state = nodeStateMap.getNodeState(id);
+      switch (state) {
+      case HEALTHY:
+        // Move the node to STALE if the last heartbeat time is less than
+        // configured stale-node interval.
+        updateNodeState(node, staleNodeCondition, state,
+            NodeLifeCycleEvent.TIMEOUT);
+        break;
+      case STALE:
+        // Move the node to DEAD if the last heartbeat time is less than
+        // configured dead-node interval.
+        updateNodeState(node, deadNodeCondition, state,
+            NodeLifeCycleEvent.TIMEOUT);
+        // Restore the node if we have received heartbeat before configured
+        // stale-node interval.
+        updateNodeState(node, healthyNodeCondition, state,
+            NodeLifeCycleEvent.RESTORE);
+        break;
+      case DEAD:
+        // Resurrect the node if we have received heartbeat before
+        // configured stale-node interval.
+        updateNodeState(node, healthyNodeCondition, state,
+            NodeLifeCycleEvent.RESURRECT);
+        break;
+        // We don't do anything for DECOMMISSIONING and DECOMMISSIONED in
+        // heartbeat processing.
+      case DECOMMISSIONING:
+      case DECOMMISSIONED:
+      default:
+      }
+      scheduleHealthCheck(node, nodeStateMap.getNodeState(id));
+    }
+  }
+
+  /**
+   * Sets the deadline of the next health check of the node: the time it
+   * becomes stale if healthy, the time it becomes dead if stale. Other nodes
+   * are only checked again after a heartbeat.
+   */
+  private void scheduleHealthCheck(DatanodeInfo node, NodeState state) {
+    switch (state) {
+    case HEALTHY:
+      healthDeadlines.schedule(node.getUuid(),
+          node.getLastHeartbeatTime() + staleNodeIntervalMs);
+      break;
+    case STALE:
+      healthDeadlines.schedule(node.getUuid(),
+          node.getLastHeartbeatTime() + deadNodeIntervalMs);
+      break;
+    default:
+      healthDeadlines.remove(node.getUuid());
+    }
+  }
+
   private void scheduleNextHealthCheck() {
 
     if (!Thread.currentThread().isInterrupted() &&
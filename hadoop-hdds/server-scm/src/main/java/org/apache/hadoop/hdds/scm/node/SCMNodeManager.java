@@ -41,6 +41,7 @@
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.SCMRegisteredResponseProto.ErrorCode;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.SCMVersionRequestProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.StorageReportProto;
+import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.VersionInfo;
 import org.apache.hadoop.hdds.scm.container.ContainerID;
 import org.apache.hadoop.hdds.scm.container.placement.metrics.SCMNodeMetric;
@@ -111,7 +112,9 @@ public SCMNodeManager(OzoneConfiguration conf,
       NetworkTopology networkTopology) {
     this.nodeStateManager = new NodeStateManager(conf, eventPublisher);
     this.version = VersionInfo.getLatestVersion();
-    this.commandQueue = new CommandQueue();
+    this.commandQueue = new CommandQueue(conf.getInt(
+        ScmConfigKeys.OZONE_SCM_HEARTBEAT_MAX_COMMANDS,
+        ScmConfigKeys.OZONE_SCM_HEARTBEAT_MAX_COMMANDS_DEFAULT));
     this.scmStorageConfig = scmStorageConfig;
     LOG.info("Entering startup safe mode.");
     registerMXBean();
@@ -35,6 +35,8 @@
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.ForceExitSafeModeResponseProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.GetContainerRequestProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.GetContainerResponseProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.GetContainerWithPipelineBatchRequestProto;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.GetContainerWithPipelineBatchResponseProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.GetContainerWithPipelineRequestProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.GetContainerWithPipelineResponseProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerLocationProtocolProtos.InSafeModeRequestProto;
@@ -138,6 +140,14 @@ public ScmContainerLocationResponse processRequest(
             .setGetContainerWithPipelineResponse(getContainerWithPipeline(
                 request.getGetContainerWithPipelineRequest()))
             .build();
+      case GetContainerWithPipelineBatch:
+        return ScmContainerLocationResponse.newBuilder()
+            .setCmdType(request.getCmdType())
+            .setStatus(Status.OK)
+            .setGetContainerWithPipelineBatchResponse(
+                getContainerWithPipelineBatch(
+                    request.getGetContainerWithPipelineBatchRequest()))
+            .build();
       case ListContainer:
         return ScmContainerLocationResponse.newBuilder()
             .setCmdType(request.getCmdType())
@@ -268,6 +278,19 @@ public GetContainerWithPipelineResponseProto getContainerWithPipeline(
         .build();
   }
 
+  public GetContainerWithPipelineBatchResponseProto
+      getContainerWithPipelineBatch(
+      GetContainerWithPipelineBatchRequestProto request) throws IOException {
+    List<ContainerWithPipeline> containers = impl
+        .getContainerWithPipelineBatch(request.getContainerIDsList());
+    GetContainerWithPipelineBatchResponseProto.Builder builder =
+        GetContainerWithPipelineBatchResponseProto.newBuilder();
+    for (ContainerWithPipeline container : containers) {
+      builder.addContainerWithPipelines(container.getProtobuf());
+    }
+    return builder.build();
+  }
+
   public SCMListContainerResponseProto listContainer(
       SCMListContainerRequestProto request) throws IOException {
 
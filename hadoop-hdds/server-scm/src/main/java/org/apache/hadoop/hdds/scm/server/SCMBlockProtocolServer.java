@@ -96,6 +96,7 @@ public SCMBlockProtocolServer(OzoneConfiguration conf,
       StorageContainerManager scm) throws IOException {
     this.scm = scm;
     this.conf = conf;
+    AUDIT.configure(conf);
     final int handlerCount =
         conf.getInt(OZONE_SCM_HANDLER_COUNT_KEY,
             OZONE_SCM_HANDLER_COUNT_DEFAULT);
@@ -159,6 +160,7 @@ public void stop() {
       LOG.error("Block Protocol RPC stop failed.", ex);
     }
     IOUtils.cleanupWithLogger(LOG, scm.getScmNodeManager());
+    AUDIT.close();
   }
 
   public void join() throws InterruptedException {
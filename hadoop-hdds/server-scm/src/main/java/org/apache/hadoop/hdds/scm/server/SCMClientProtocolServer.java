@@ -111,6 +111,7 @@ public SCMClientProtocolServer(OzoneConfiguration conf,
       StorageContainerManager scm) throws IOException {
     this.scm = scm;
     this.conf = conf;
+    AUDIT.configure(conf);
     safeModePrecheck = new SafeModePrecheck(conf);
     final int handlerCount =
         conf.getInt(OZONE_SCM_HANDLER_COUNT_KEY,
@@ -172,6 +173,7 @@ public void stop() {
       LOG.error("Client Protocol RPC stop failed.", ex);
     }
     IOUtils.cleanupWithLogger(LOG, scm.getScmNodeManager());
+    AUDIT.close();
   }
 
   public void join() throws InterruptedException {
@@ -275,6 +277,16 @@ public ContainerWithPipeline getContainerWithPipeline(long containerID)
     }
   }
 
+  @Override
+  public List<ContainerWithPipeline> getContainerWithPipelineBatch(
+      List<Long> containerIDs) throws IOException {
+    List<ContainerWithPipeline> cpList = new ArrayList<>(containerIDs.size());
+    for (Long containerID : containerIDs) {
+      cpList.add(getContainerWithPipeline(containerID));
+    }
+    return cpList;
+  }
+
   /**
    * Check if container reported replicas are equal or greater than required
    * replication factor.
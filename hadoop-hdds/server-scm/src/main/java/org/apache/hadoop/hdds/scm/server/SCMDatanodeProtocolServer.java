@@ -129,6 +129,7 @@ public SCMDatanodeProtocolServer(final OzoneConfiguration conf,
     Preconditions.checkNotNull(scm, "SCM cannot be null");
     Preconditions.checkNotNull(eventPublisher, "EventPublisher cannot be null");
 
+    AUDIT.configure(conf);
     this.scm = scm;
     this.eventPublisher = eventPublisher;
     final int handlerCount =
@@ -371,6 +372,7 @@ public void stop() {
     }
     IOUtils.cleanupWithLogger(LOG, scm.getScmNodeManager());
     protocolMessageMetrics.unregister();
+    AUDIT.close();
   }
 
   @Override
@@ -37,6 +37,7 @@
 import org.apache.hadoop.hdds.scm.HddsServerUtil;
 import org.apache.hadoop.hdds.scm.ScmConfig;
 import org.apache.hadoop.hdds.scm.ScmConfigKeys;
+import org.apache.hadoop.hdds.scm.server.SCMDatanodeHeartbeatDispatcher.ReportFromDatanode;
 import org.apache.hadoop.hdds.scm.block.BlockManager;
 import org.apache.hadoop.hdds.scm.block.BlockManagerImpl;
 import org.apache.hadoop.hdds.scm.block.DeletedBlockLogImpl;
@@ -336,10 +337,23 @@ public StorageContainerManager(OzoneConfiguration conf,
 
     eventQueue.addHandler(SCMEvents.DATANODE_COMMAND, scmNodeManager);
     eventQueue.addHandler(SCMEvents.RETRIABLE_DATANODE_COMMAND, scmNodeManager);
-    eventQueue.addHandler(SCMEvents.NODE_REPORT, nodeReportHandler);
-    eventQueue.addHandler(SCMEvents.CONTAINER_REPORT, containerReportHandler);
+    // Reports are processed in parallel for different datanodes and in
+    // order for the same datanode.
+    int reportHandlerThreads = conf.getInt(
+        ScmConfigKeys.OZONE_SCM_REPORT_HANDLER_THREADS_KEY,
+        ScmConfigKeys.OZONE_SCM_REPORT_HANDLER_THREADS_DEFAULT);
+    int reportQueueLimit = conf.getInt(
+        ScmConfigKeys.OZONE_SCM_REPORT_HANDLER_QUEUE_LIMIT_KEY,
+        ScmConfigKeys.OZONE_SCM_REPORT_HANDLER_QUEUE_LIMIT_DEFAULT);
+    eventQueue.addHandler(SCMEvents.NODE_REPORT, nodeReportHandler,
+        reportHandlerThreads, reportQueueLimit,
+        StorageContainerManager::getDatanodeUuid);
+    eventQueue.addHandler(SCMEvents.CONTAINER_REPORT, containerReportHandler,
+        reportHandlerThreads, reportQueueLimit,
+        StorageContainerManager::getDatanodeUuid);
     eventQueue.addHandler(SCMEvents.INCREMENTAL_CONTAINER_REPORT,
-        incrementalContainerReportHandler);
+        incrementalContainerReportHandler, reportHandlerThreads,
+        reportQueueLimit, StorageContainerManager::getDatanodeUuid);
     eventQueue.addHandler(SCMEvents.CONTAINER_ACTIONS, actionsHandler);
     eventQueue.addHandler(SCMEvents.CLOSE_CONTAINER, closeContainerHandler);
     eventQueue.addHandler(SCMEvents.NEW_NODE, newNodeHandler);
@@ -353,7 +367,9 @@ public StorageContainerManager(OzoneConfiguration conf,
     eventQueue.addHandler(SCMEvents.DELETE_BLOCK_STATUS,
         (DeletedBlockLogImpl) scmBlockManager.getDeletedBlockLog());
     eventQueue.addHandler(SCMEvents.PIPELINE_ACTIONS, pipelineActionHandler);
-    eventQueue.addHandler(SCMEvents.PIPELINE_REPORT, pipelineReportHandler);
+    eventQueue.addHandler(SCMEvents.PIPELINE_REPORT, pipelineReportHandler,
+        reportHandlerThreads, reportQueueLimit,
+        StorageContainerManager::getDatanodeUuid);
     eventQueue.addHandler(SCMEvents.SAFE_MODE_STATUS, safeModeHandler);
     registerMXBean();
     registerMetricsSource(this);
@@ -694,6 +710,14 @@ private Cache<String, ContainerStat> buildContainerReportCache() {
             .build();
   }
 
+  /**
+   * Ordering key of the datanode reports, see
+   * {@link org.apache.hadoop.hdds.server.events.FixedThreadPoolExecutor}.
+   */
+  private static Object getDatanodeUuid(ReportFromDatanode<?> report) {
+    return report.getDatanodeDetails().getUuid();
+  }
+
   private void registerMXBean() {
     final Map<String, String> jmxProperties = new HashMap<>();
     jmxProperties.put("component", "ServerRuntime");
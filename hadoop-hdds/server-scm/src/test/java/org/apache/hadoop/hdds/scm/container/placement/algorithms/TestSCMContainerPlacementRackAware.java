@@ -377,4 +377,36 @@ public void testDatanodeWithDefaultNetworkLocation() throws SCMException {
     Assert.assertTrue(cluster.isSameParent(datanodeDetails.get(1),
         datanodeDetails.get(2)));
   }
+
+  @Test
+  public void chooseNodeAfterTopologyChange() throws SCMException {
+    NetworkTopology clusterMap =
+        new NetworkTopologyImpl(NodeSchemaManager.getInstance());
+    DatanodeDetails node1 =
+        MockDatanodeDetails.createDatanodeDetails("host1", "/r1");
+    clusterMap.add(node1);
+    SCMContainerPlacementRackAware newPolicy =
+        new SCMContainerPlacementRackAware(nodeManager, conf, clusterMap, true,
+            metrics);
+    Assert.assertEquals(node1,
+        newPolicy.chooseDatanodes(null, null, 1, 15).get(0));
+
+    // The cached topology is rebuilt after a node is added.
+    DatanodeDetails node2 =
+        MockDatanodeDetails.createDatanodeDetails("host2", "/r2");
+    clusterMap.add(node2);
+    List<DatanodeDetails> excludedNodes = new ArrayList<>();
+    excludedNodes.add(node1);
+    Assert.assertEquals(node2,
+        newPolicy.chooseDatanodes(excludedNodes, null, 1, 15).get(0));
+
+    // ... and after a node is removed.
+    clusterMap.remove(node1);
+    try {
+      newPolicy.chooseDatanodes(null, null, 2, 15);
+      fail("Only one datanode is left, this call should fail");
+    } catch (SCMException e) {
+      // expected
+    }
+  }
 }
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hdds.scm.node;
+
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.protocol.proto
+    .StorageContainerDatanodeProtocolProtos.SCMCommandProto;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.ozone.protocol.commands.CloseContainerCommand;
+import org.apache.hadoop.ozone.protocol.commands.ClosePipelineCommand;
+import org.apache.hadoop.ozone.protocol.commands.CreatePipelineCommand;
+import org.apache.hadoop.ozone.protocol.commands.DeleteBlocksCommand;
+import org.apache.hadoop.ozone.protocol.commands.DeleteContainerCommand;
+import org.apache.hadoop.ozone.protocol.commands.ReplicateContainerCommand;
+import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tests the coalescing, ordering and limiting of the SCM command queue.
+ */
+public class TestCommandQueue {
+
+  private final UUID datanode = UUID.randomUUID();
+
+  @Test
+  public void testDuplicateCommandsAreCoalesced() {
+    CommandQueue queue = new CommandQueue();
+    PipelineID pipelineID = PipelineID.randomId();
+    DeleteBlocksCommand deleteBlocks =
+        new DeleteBlocksCommand(new ArrayList<>());
+    queue.addCommand(datanode, new CloseContainerCommand(1L, pipelineID));
+    queue.addCommand(datanode, new CloseContainerCommand(1L, pipelineID,
+        true));
+    queue.addCommand(datanode, new CloseContainerCommand(2L, pipelineID));
+    queue.addCommand(datanode, deleteBlocks);
+    // A retried command has the same id.
+    queue.addCommand(datanode, deleteBlocks);
+    Assert.assertEquals(3, queue.getCommandsInQueue());
+
+    List<SCMCommand> commands = queue.getCommand(datanode);
+    Assert.assertEquals(3, commands.size());
+    Assert.assertTrue(((CloseContainerCommand) commands.get(0)).isForce());
+    Assert.assertEquals(2L, commands.get(1).getId());
+    Assert.assertSame(deleteBlocks, commands.get(2));
+    Assert.assertEquals(0, queue.getCommandsInQueue());
+    Assert.assertTrue(queue.getCommand(datanode).isEmpty());
+  }
+
+  @Test
+  public void testCommandsAreLimitedAndPrioritized() {
+    CommandQueue queue = new CommandQueue(2);
+    queue.addCommand(datanode, new DeleteBlocksCommand(new ArrayList<>()));
+    queue.addCommand(datanode, new DeleteContainerCommand(3L));
+    queue.addCommand(datanode,
+        new CloseContainerCommand(1L, PipelineID.randomId()));
+
+    List<SCMCommand> commands = queue.getCommand(datanode);
+    Assert.assertEquals(2, commands.size());
+    Assert.assertEquals(SCMCommandProto.Type.closeContainerCommand,
+        commands.get(0).getType());
+    Assert.assertEquals(SCMCommandProto.Type.deleteContainerCommand,
+        commands.get(1).getType());
+    Assert.assertEquals(1, queue.getCommandsInQueue());
+
+    commands = queue.getCommand(datanode);
+    Assert.assertEquals(1, commands.size());
+    Assert.assertEquals(SCMCommandProto.Type.deleteBlocksCommand,
+        commands.get(0).getType());
+    Assert.assertEquals(0, queue.getCommandsInQueue());
+  }
+
+  @Test
+  public void testDependentCommandsKeepTheirOrder() {
+    CommandQueue queue = new CommandQueue();
+    PipelineID pipelineID = PipelineID.randomId();
+    SCMCommand deleteBlocks = new DeleteBlocksCommand(new ArrayList<>());
+    SCMCommand replicate = new ReplicateContainerCommand(3L,
+        Collections.emptyList());
+    SCMCommand deleteContainer = new DeleteContainerCommand(3L);
+    SCMCommand createPipeline = new CreatePipelineCommand(pipelineID,
+        HddsProtos.ReplicationType.RATIS, HddsProtos.ReplicationFactor.ONE,
+        Collections.emptyList());
+    SCMCommand closeContainer = new CloseContainerCommand(1L, pipelineID);
+    SCMCommand closePipeline = new ClosePipelineCommand(pipelineID);
+    queue.addCommand(datanode, deleteBlocks);
+    queue.addCommand(datanode, replicate);
+    queue.addCommand(datanode, deleteContainer);
+    queue.addCommand(datanode, createPipeline);
+    queue.addCommand(datanode, closeContainer);
+    queue.addCommand(datanode, closePipeline);
+
+    // Pipeline and container close commands are sent first, but in the
+    // order they were queued, and so are replication and deletion.
+    Assert.assertEquals(Arrays.asList(createPipeline, closeContainer,
+        closePipeline, replicate, deleteContainer, deleteBlocks),
+        queue.getCommand(datanode));
+  }
+}
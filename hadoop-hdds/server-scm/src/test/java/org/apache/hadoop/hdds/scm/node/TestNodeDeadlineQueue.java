@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hdds.scm.node;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Tests the health check deadlines of the datanodes.
+ */
+public class TestNodeDeadlineQueue {
+
+  @Test
+  public void testExpiredNodesAreReturnedInOrder() {
+    NodeDeadlineQueue queue = new NodeDeadlineQueue();
+    UUID node1 = UUID.randomUUID();
+    UUID node2 = UUID.randomUUID();
+    UUID node3 = UUID.randomUUID();
+    queue.schedule(node1, 30);
+    queue.schedule(node2, 10);
+    queue.schedule(node3, 50);
+
+    Assert.assertEquals(Collections.emptyList(), queue.pollExpired(10));
+    Assert.assertEquals(Arrays.asList(node2, node1), queue.pollExpired(31));
+    Assert.assertEquals(1, queue.size());
+    Assert.assertEquals(Collections.emptyList(), queue.pollExpired(31));
+  }
+
+  @Test
+  public void testRescheduleReplacesDeadline() {
+    NodeDeadlineQueue queue = new NodeDeadlineQueue();
+    UUID node1 = UUID.randomUUID();
+    UUID node2 = UUID.randomUUID();
+    queue.schedule(node1, 10);
+    queue.schedule(node2, 20);
+    // A heartbeat moves the deadline of the node.
+    queue.schedule(node1, 100);
+    queue.remove(node2);
+
+    Assert.assertEquals(1, queue.size());
+    Assert.assertEquals(Collections.emptyList(), queue.pollExpired(50));
+    Assert.assertEquals(Collections.singletonList(node1),
+        queue.pollExpired(101));
+    Assert.assertEquals(0, queue.size());
+  }
+}
@@ -107,7 +107,8 @@ public BlockOutputStreamEntryPool(OzoneManagerProtocol omClient,
     Preconditions.checkState(blockSize % streamBufferMaxSize == 0);
     this.bufferPool =
         new BufferPool(chunkSize, (int) streamBufferMaxSize / chunkSize,
-            xceiverClientManager.byteBufferToByteStringConversion());
+            xceiverClientManager.byteBufferToByteStringConversion(),
+            xceiverClientManager.getSharedBufferPool(chunkSize));
   }
 
   /**
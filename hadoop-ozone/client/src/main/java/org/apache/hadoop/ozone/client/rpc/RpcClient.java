@@ -1052,6 +1052,7 @@ private OzoneInputStream getInputStreamWithRetryFunction(
             .setKeyName(omKeyInfo.getKeyName())
             .setRefreshPipeline(true)
             .setSortDatanodesInPipeline(topologyAwareReadEnabled)
+            .setForceUpdateContainerCache(true)
             .build();
         return ozoneManagerClient.lookupKey(omKeyArgs);
       } catch (IOException e) {
@@ -21,6 +21,7 @@
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
@@ -29,8 +30,12 @@
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.stream.Collectors;
@@ -38,6 +43,8 @@
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorOutputStream;
@@ -46,6 +53,7 @@
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hdds.utils.db.DBCheckpoint;
+import org.apache.hadoop.hdds.utils.db.DBStore;
 import org.apache.hadoop.net.NetUtils;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
@@ -53,6 +61,7 @@
 
 import static org.apache.hadoop.hdds.HddsUtils.getHostNameFromConfigKeys;
 import static org.apache.hadoop.hdds.HddsUtils.getPortNumberFromConfigKeys;
+import static org.apache.hadoop.ozone.OzoneConsts.OZONE_DB_CHECKPOINT_SST_FILE_LIST;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_ADDRESS_KEY;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_BIND_HOST_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_HTTPS_ADDRESS_KEY;
@@ -76,6 +85,7 @@ public final class OmUtils {
   public static final Logger LOG = LoggerFactory.getLogger(OmUtils.class);
   private static final SecureRandom SRAND = new SecureRandom();
   private static byte[] randomBytes = new byte[32];
+  private static final String SST_FILE_EXTENSION = ".sst";
 
   private OmUtils() {
   }
@@ -244,6 +254,7 @@ public static boolean isReadOnly(
     case SetAcl:
     case AddAcl:
     case PurgeKeys:
+    case PurgeOpenKeys:
       return false;
     default:
       LOG.error("CmdType {} is not categorized as readOnly or not.", cmdType);
@@ -369,6 +380,167 @@ public static void writeOmDBCheckpointToStream(DBCheckpoint checkpoint,
     }
   }
 
+  /**
+   * Write OM DB Checkpoint to an output stream as an uncompressed tar,
+   * leaving out the SST files the receiver already has. A file is left out
+   * only if the receiver reported the same name and RocksDB metadata for it,
+   * so files of a diverged DB which reuse a name are still sent. No file is
+   * read to compare them. The names of the SST files left out are written as
+   * the last entry, so the receiver knows which of its own files to take.
+   * @param checkpoint checkpoint file
+   * @param destination desination output stream.
+   * @param checkpointSstFiles metadata of the SST files of the checkpoint, by
+   * name, see {@link #getCheckpointSstFiles(Map, Path)}. Files without
+   * metadata are always sent.
+   * @param existingSstFiles metadata of the SST files the receiver has, by
+   * name.
+   * @throws IOException
+   */
+  public static void writeOmDBCheckpointToStream(DBCheckpoint checkpoint,
+      OutputStream destination, Map<String, String> checkpointSstFiles,
+      Map<String, String> existingSstFiles) throws IOException {
+    try (ArchiveOutputStream archiveOutputStream =
+             new TarArchiveOutputStream(destination)) {
+      StringBuilder reusedSstFiles = new StringBuilder();
+      Path checkpointPath = checkpoint.getCheckpointLocation();
+      try (Stream<Path> files = Files.list(checkpointPath)) {
+        for (Path path : files.collect(Collectors.toList())) {
+          Path fileName = path.getFileName();
+          if (fileName == null) {
+            continue;
+          }
+          String name = fileName.toString();
+          String metadata = checkpointSstFiles.get(name);
+          if (metadata != null && metadata.equals(existingSstFiles.get(name))) {
+            reusedSstFiles.append(name).append('\n');
+            continue;
+          }
+          includeFile(path.toFile(), name, archiveOutputStream);
+        }
+      }
+      byte[] sstFileList =
+          reusedSstFiles.toString().getBytes(StandardCharsets.UTF_8);
+      TarArchiveEntry entry =
+          new TarArchiveEntry(OZONE_DB_CHECKPOINT_SST_FILE_LIST);
+      entry.setSize(sstFileList.length);
+      archiveOutputStream.putArchiveEntry(entry);
+      archiveOutputStream.write(sstFileList);
+      archiveOutputStream.closeArchiveEntry();
+    }
+  }
+
+  /**
+   * Returns the metadata of the SST files of a checkpoint, by file name.
+   * @param liveSstFiles metadata of the live SST files of the DB the
+   * checkpoint was taken from, after taking it, see
+   * {@link DBStore#getLiveSstFiles()}. The metadata of a file compacted away
+   * in between is unknown, and the file is left out.
+   * @param checkpointDir directory of the checkpoint.
+   * @return map of file name to metadata.
+   */
+  public static Map<String, String> getCheckpointSstFiles(
+      Map<String, String> liveSstFiles, Path checkpointDir) {
+    Map<String, String> sstFiles = new HashMap<>();
+    liveSstFiles.forEach((name, metadata) -> {
+      if (name.endsWith(SST_FILE_EXTENSION)
+          && Files.isRegularFile(checkpointDir.resolve(name))) {
+        sstFiles.put(name, metadata);
+      }
+    });
+    return sstFiles;
+  }
+
+  /**
+   * Serializes SST file metadata, one "name metadata" line per file, as
+   * sent in the request for an incremental DB checkpoint.
+   */
+  public static String formatSstFileList(Map<String, String> sstFiles) {
+    StringBuilder sb = new StringBuilder();
+    sstFiles.forEach((name, metadata) ->
+        sb.append(name).append(' ').append(metadata).append('\n'));
+    return sb.toString();
+  }
+
+  /**
+   * Parses one line written by {@link #formatSstFileList(Map)} into the
+   * map of SST file metadata.
+   * @throws IOException if the line is malformed.
+   */
+  public static void parseSstFileListEntry(String line,
+      Map<String, String> sstFiles) throws IOException {
+    String[] fields = line.split(" ", 2);
+    if (fields.length != 2) {
+      throw new IOException("Malformed SST file list entry: " + line);
+    }
+    sstFiles.put(fields[0], fields[1]);
+  }
+
+  /**
+   * Extracts a checkpoint written by
+   * {@link #writeOmDBCheckpointToStream(DBCheckpoint, OutputStream, Map,
+   * Map)} into a new directory. SST files of the checkpoint which were not
+   * transferred are hard linked, or copied if linking fails, from the
+   * checkpoint of the receiver whose SST files were reported. That checkpoint
+   * must stay in place until this returns.
+   * @param source tar stream.
+   * @param destination directory to create the checkpoint in.
+   * @param localCheckpointDir checkpoint whose SST files were reported.
+   * @throws IOException
+   */
+  public static void extractOmDBCheckpoint(InputStream source,
+      Path destination, Path localCheckpointDir) throws IOException {
+    Path destDir = destination.toAbsolutePath().normalize();
+    Path localDir = localCheckpointDir.toAbsolutePath().normalize();
+    Files.createDirectories(destDir);
+    List<String> reusedSstFiles = null;
+    try (TarArchiveInputStream tarIn = new TarArchiveInputStream(source)) {
+      TarArchiveEntry entry;
+      while ((entry = tarIn.getNextTarEntry()) != null) {
+        if (entry.getName().equals(OZONE_DB_CHECKPOINT_SST_FILE_LIST)) {
+          reusedSstFiles = Arrays.asList(new String(
+              IOUtils.toByteArray(tarIn), StandardCharsets.UTF_8).split("\n"));
+          continue;
+        }
+        Path target = resolveCheckpointFile(destDir, entry.getName());
+        if (entry.isDirectory()) {
+          throw new IOException("Unexpected directory " + entry.getName() +
+              " in DB checkpoint.");
+        }
+        Files.copy(tarIn, target);
+      }
+    }
+    if (reusedSstFiles == null) {
+      throw new IOException("DB checkpoint has no " +
+          OZONE_DB_CHECKPOINT_SST_FILE_LIST + " entry.");
+    }
+    for (String sstFile : reusedSstFiles) {
+      if (sstFile.isEmpty()) {
+        continue;
+      }
+      if (!sstFile.endsWith(SST_FILE_EXTENSION)) {
+        throw new IOException("Unexpected file " + sstFile +
+            " in SST file list of DB checkpoint.");
+      }
+      Path target = resolveCheckpointFile(destDir, sstFile);
+      Path existing = resolveCheckpointFile(localDir, sstFile);
+      try {
+        Files.createLink(target, existing);
+      } catch (IOException | UnsupportedOperationException e) {
+        Files.copy(existing, target);
+      }
+    }
+  }
+
+  private static Path resolveCheckpointFile(Path dir, String name)
+      throws IOException {
+    Path path = dir.resolve(name).normalize();
+    if (!path.startsWith(dir) || path.equals(dir)) {
+      throw new IOException("Unexpected entry " + name +
+          " in DB checkpoint.");
+    }
+    return path;
+  }
+
   private static void includeFile(File file, String entryName,
                            ArchiveOutputStream archiveOutputStream)
       throws IOException {
@@ -83,11 +83,32 @@ private OMConfigKeys() {
   public static final String OZONE_KEY_DELETING_LIMIT_PER_TASK =
       "ozone.key.deleting.limit.per.task";
   public static final int OZONE_KEY_DELETING_LIMIT_PER_TASK_DEFAULT = 1000;
+  public static final String OZONE_KEY_DELETING_MAX_INFLIGHT_BATCHES =
+      "ozone.key.deleting.max.inflight.batches";
+  public static final int OZONE_KEY_DELETING_MAX_INFLIGHT_BATCHES_DEFAULT = 2;
 
   public static final String OZONE_OM_METRICS_SAVE_INTERVAL =
       "ozone.om.save.metrics.interval";
   public static final String OZONE_OM_METRICS_SAVE_INTERVAL_DEFAULT = "5m";
 
+  // Cache of the locations of closed containers, used to refresh the
+  // pipelines of looked up keys.
+  public static final String OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE =
+      "ozone.om.container.location.cache.size";
+  public static final int OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE_DEFAULT =
+      100000;
+  public static final String OZONE_OM_CONTAINER_LOCATION_CACHE_TTL =
+      "ozone.om.container.location.cache.ttl";
+  public static final String OZONE_OM_CONTAINER_LOCATION_CACHE_TTL_DEFAULT =
+      "60s";
+
+  // Persist keys without pipelines and block tokens, both are resolved when
+  // the key is read.
+  public static final String OZONE_OM_KEY_COMPACT_FORMAT_ENABLED =
+      "ozone.om.key.compact.format.enabled";
+  public static final boolean OZONE_OM_KEY_COMPACT_FORMAT_ENABLED_DEFAULT =
+      false;
+
   /**
    * OM Ratis related configurations.
    */
@@ -174,6 +195,18 @@ private OMConfigKeys() {
       OZONE_OM_RATIS_SERVER_ROLE_CHECK_INTERVAL_DEFAULT
       = TimeDuration.valueOf(15, TimeUnit.SECONDS);
 
+  // Follower OMs serve read requests if they heard from the leader within
+  // the max staleness and applied all the transactions committed by then.
+  public static final String OZONE_OM_RATIS_FOLLOWER_READ_ENABLED_KEY
+      = "ozone.om.ratis.follower.read.enabled";
+  public static final boolean OZONE_OM_RATIS_FOLLOWER_READ_ENABLED_DEFAULT
+      = false;
+  public static final String OZONE_OM_RATIS_FOLLOWER_READ_MAX_STALENESS_KEY
+      = "ozone.om.ratis.follower.read.max.staleness";
+  public static final TimeDuration
+      OZONE_OM_RATIS_FOLLOWER_READ_MAX_STALENESS_DEFAULT
+      = TimeDuration.valueOf(1, TimeUnit.SECONDS);
+
   // OM SnapshotProvider configurations
   public static final String OZONE_OM_RATIS_SNAPSHOT_DIR =
       "ozone.om.ratis.snapshot.dir";
@@ -222,6 +255,13 @@ private OMConfigKeys() {
   public static final long OZONE_DB_CHECKPOINT_TRANSFER_RATE_DEFAULT =
       0;  //no throttling
 
+  // When enabled, OM followers and Recon only download the SST files of a
+  // DB checkpoint which they do not have yet.
+  public static final String OZONE_DB_CHECKPOINT_INCREMENTAL_ENABLED_KEY =
+      "ozone.manager.db.checkpoint.incremental.enabled";
+  public static final boolean OZONE_DB_CHECKPOINT_INCREMENTAL_ENABLED_DEFAULT =
+      false;
+
   // Comma separated acls (users, groups) allowing clients accessing
   // OM client protocol
   // when hadoop.security.authorization is true, this needs to be set in
@@ -127,6 +127,29 @@ public interface OMMetadataManager {
    */
   String getOpenKey(String volume, String bucket, String key, long id);
 
+  /**
+   * Returns the DB key of an open key in the open key expiry index. The key
+   * is the zero padded creation time followed by the open key, so entries
+   * sort by creation time.
+   *
+   * @param creationTime - creation time of the open key in milliseconds
+   * @param openKey - DB key of the open key, see {@link #getOpenKey}
+   * @return DB key in the openKeyExpiryTable.
+   */
+  String getOpenKeyExpiryKey(long creationTime, String openKey);
+
+  /**
+   * Returns the DB key of an open key in the open key expiry index, with the
+   * creation time taken from the session ID the open key ends with. Session
+   * IDs are generated by UniqueId from the time the key was opened, so every
+   * path which removes an open key can find its index entry.
+   *
+   * @param openKey - DB key of the open key, see {@link #getOpenKey}
+   * @return DB key in the openKeyExpiryTable, null if the open key does not
+   * end with a session ID, like the entries of multipart uploads.
+   */
+  String getOpenKeyExpiryKey(String openKey);
+
   /**
    * Given a volume, check if it is empty, i.e there are no buckets inside it.
    *
@@ -230,14 +253,18 @@ List<OmVolumeArgs> listVolumes(String userName, String prefix,
   List<BlockGroup> getPendingDeletionKeys(int count) throws IOException;
 
   /**
-   * Returns a list of all still open key info. Which contains the info about
-   * the key name and all its associated block IDs. A pending open key has
-   * prefix #open# in OM DB.
+   * Returns the openKeyExpiryTable entries of open keys which have been open
+   * longer than the expire threshold. The expiry index is ordered by creation
+   * time, so this is a range scan from the start of the table that stops at
+   * the first entry which has not expired yet. Entries whose open key is
+   * already gone are returned as well, so that they get purged, but they do
+   * not count towards the limit.
    *
-   * @return a list of {@link BlockGroup} representing keys and blocks.
+   * @param count max number of entries of open keys to return.
+   * @return a list of keys in the openKeyExpiryTable.
    * @throws IOException
    */
-  List<BlockGroup> getExpiredOpenKeys() throws IOException;
+  List<String> getExpiredOpenKeys(int count) throws IOException;
 
   /**
    * Returns the user Table.
@@ -281,6 +308,22 @@ List<OmVolumeArgs> listVolumes(String userName, String prefix,
    */
   Table<String, OmKeyInfo> getOpenKeyTable();
 
+  /**
+   * Gets the open key expiry index, which maps
+   * {@link #getOpenKeyExpiryKey} to the DB key of the open key.
+   *
+   * @return Table.
+   */
+  Table<String, String> getOpenKeyExpiryTable();
+
+  /**
+   * Gets the table of OM state which is not part of the namespace, like the
+   * position of the key deleting service in the deletedTable.
+   *
+   * @return Table.
+   */
+  Table<String, String> getMetaTable();
+
   /**
    * Gets the DelegationTokenTable.
    *
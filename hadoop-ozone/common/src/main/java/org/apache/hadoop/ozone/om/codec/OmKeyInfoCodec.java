@@ -30,11 +30,26 @@
  */
 public class OmKeyInfoCodec implements Codec<OmKeyInfo> {
 
+  private final boolean ignorePipeline;
+
+  public OmKeyInfoCodec() {
+    this(false);
+  }
+
+  /**
+   * @param ignorePipeline if true, pipelines and block tokens are not
+   *                       persisted. Entries written with them are still
+   *                       readable.
+   */
+  public OmKeyInfoCodec(boolean ignorePipeline) {
+    this.ignorePipeline = ignorePipeline;
+  }
+
   @Override
   public byte[] toPersistedFormat(OmKeyInfo object) throws IOException {
     Preconditions
         .checkNotNull(object, "Null object can't be converted to byte array.");
-    return object.getProtobuf().toByteArray();
+    return object.getProtobuf(ignorePipeline).toByteArray();
   }
 
   @Override
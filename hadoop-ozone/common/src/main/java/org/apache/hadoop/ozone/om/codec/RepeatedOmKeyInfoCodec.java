@@ -29,12 +29,27 @@
  * Codec to encode RepeatedOmKeyInfo as byte array.
  */
 public class RepeatedOmKeyInfoCodec implements Codec<RepeatedOmKeyInfo> {
+
+  private final boolean ignorePipeline;
+
+  public RepeatedOmKeyInfoCodec() {
+    this(false);
+  }
+
+  /**
+   * @param ignorePipeline if true, pipelines and block tokens are not
+   *                       persisted.
+   */
+  public RepeatedOmKeyInfoCodec(boolean ignorePipeline) {
+    this.ignorePipeline = ignorePipeline;
+  }
+
   @Override
   public byte[] toPersistedFormat(RepeatedOmKeyInfo object)
       throws IOException {
     Preconditions.checkNotNull(object,
         "Null object can't be converted to byte array.");
-    return object.getProto().toByteArray();
+    return object.getProto(ignorePipeline).toByteArray();
   }
 
   @Override
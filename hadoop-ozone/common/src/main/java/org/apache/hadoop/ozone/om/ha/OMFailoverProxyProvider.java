@@ -184,6 +184,21 @@ private void createOMProxyIfNeeded(ProxyInfo proxyInfo,
     }
   }
 
+  /**
+   * Get the proxy object of the given OM node, irrespective of the current
+   * proxy. Used to send read requests to follower OMs.
+   * @return the OM proxy object to invoke methods upon
+   */
+  public synchronized OzoneManagerProtocolPB getProxy(String omNodeId) {
+    ProxyInfo<OzoneManagerProtocolPB> proxyInfo = omProxies.get(omNodeId);
+    createOMProxyIfNeeded(proxyInfo, omNodeId);
+    return proxyInfo.proxy;
+  }
+
+  public synchronized List<String> getOMNodeIds() {
+    return new ArrayList<>(omNodeIDList);
+  }
+
   public Text getCurrentProxyDelegationToken() {
     return delegationTokenService;
   }
@@ -47,6 +47,7 @@ public final class OmKeyArgs implements Auditable {
   private Map<String, String> metadata;
   private boolean refreshPipeline;
   private boolean sortDatanodesInPipeline;
+  private boolean forceUpdateContainerCache;
   private List<OzoneAcl> acls;
 
   @SuppressWarnings("parameternumber")
@@ -55,7 +56,8 @@ private OmKeyArgs(String volumeName, String bucketName, String keyName,
       List<OmKeyLocationInfo> locationInfoList, boolean isMultipart,
       String uploadID, int partNumber,
       Map<String, String> metadataMap, boolean refreshPipeline,
-      List<OzoneAcl> acls, boolean sortDatanode) {
+      List<OzoneAcl> acls, boolean sortDatanode,
+      boolean forceUpdateContainerCache) {
     this.volumeName = volumeName;
     this.bucketName = bucketName;
     this.keyName = keyName;
@@ -70,6 +72,7 @@ private OmKeyArgs(String volumeName, String bucketName, String keyName,
     this.refreshPipeline = refreshPipeline;
     this.acls = acls;
     this.sortDatanodesInPipeline = sortDatanode;
+    this.forceUpdateContainerCache = forceUpdateContainerCache;
   }
 
   public boolean getIsMultipartKey() {
@@ -140,6 +143,10 @@ public boolean getSortDatanodes() {
     return sortDatanodesInPipeline;
   }
 
+  public boolean getForceUpdateContainerCache() {
+    return forceUpdateContainerCache;
+  }
+
   @Override
   public Map<String, String> toAuditMap() {
     Map<String, String> auditMap = new LinkedHashMap<>();
@@ -179,6 +186,7 @@ public static class Builder {
     private Map<String, String> metadata = new HashMap<>();
     private boolean refreshPipeline;
     private boolean sortDatanodesInPipeline;
+    private boolean forceUpdateContainerCache;
     private List<OzoneAcl> acls;
 
     public Builder setVolumeName(String volume) {
@@ -256,11 +264,16 @@ public Builder setSortDatanodesInPipeline(boolean sort) {
       return this;
     }
 
+    public Builder setForceUpdateContainerCache(boolean forceUpdate) {
+      this.forceUpdateContainerCache = forceUpdate;
+      return this;
+    }
+
     public OmKeyArgs build() {
       return new OmKeyArgs(volumeName, bucketName, keyName, dataSize, type,
           factor, locationInfoList, isMultipartKey, multipartUploadID,
           multipartUploadPartNumber, metadata, refreshPipeline, acls,
-          sortDatanodesInPipeline);
+          sortDatanodesInPipeline, forceUpdateContainerCache);
     }
 
   }
@@ -412,6 +412,15 @@ public OmKeyInfo build() {
   }
 
   public KeyInfo getProtobuf() {
+    return getProtobuf(false);
+  }
+
+  /**
+   * Returns the protobuf of this key.
+   * @param ignorePipeline if true, the block locations only carry the block
+   *                       ids, lengths and offsets.
+   */
+  public KeyInfo getProtobuf(boolean ignorePipeline) {
     long latestVersion = keyLocationVersions.size() == 0 ? -1 :
         keyLocationVersions.get(keyLocationVersions.size() - 1).getVersion();
     KeyInfo.Builder kb = KeyInfo.newBuilder()
@@ -422,7 +431,7 @@ public KeyInfo getProtobuf() {
         .setFactor(factor)
         .setType(type)
         .addAllKeyLocationList(keyLocationVersions.stream()
-            .map(OmKeyLocationInfoGroup::getProtobuf)
+            .map(l -> l.getProtobuf(ignorePipeline))
             .collect(Collectors.toList()))
         .setLatestVersion(latestVersion)
         .setCreationTime(creationTime)
@@ -156,18 +156,35 @@ public OmKeyLocationInfo build() {
   }
 
   public KeyLocation getProtobuf() {
+    return getProtobuf(false);
+  }
+
+  /**
+   * Returns the protobuf of this location.
+   * @param ignorePipeline if true, the pipeline and the block token are left
+   *                       out, they are resolved again when the key is read.
+   */
+  public KeyLocation getProtobuf(boolean ignorePipeline) {
     KeyLocation.Builder builder = KeyLocation.newBuilder()
         .setBlockID(blockID.getProtobuf())
         .setLength(length)
         .setOffset(offset)
         .setCreateVersion(createVersion);
+    if (ignorePipeline) {
+      return builder.build();
+    }
     if (this.token != null) {
       builder.setToken(this.token.toTokenProto());
     }
-    try {
-      builder.setPipeline(pipeline.getProtobufMessage());
-    } catch (UnknownPipelineStateException e) {
-      //TODO: fix me: we should not return KeyLocation without pipeline.
+    // Keys stored in the compact format have no pipeline until they are
+    // refreshed from SCM, which lookupKey and lookupFile do. Clients look up
+    // the key again before reading it.
+    if (pipeline != null) {
+      try {
+        builder.setPipeline(pipeline.getProtobufMessage());
+      } catch (UnknownPipelineStateException e) {
+        //TODO: fix me: we should not return KeyLocation without pipeline.
+      }
     }
     return builder.build();
   }
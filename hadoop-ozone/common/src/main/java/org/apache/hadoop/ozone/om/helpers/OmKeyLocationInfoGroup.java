@@ -58,10 +58,14 @@ public List<OmKeyLocationInfo> getLocationList() {
   }
 
   public KeyLocationList getProtobuf() {
+    return getProtobuf(false);
+  }
+
+  public KeyLocationList getProtobuf(boolean ignorePipeline) {
     return KeyLocationList.newBuilder()
         .setVersion(version)
         .addAllKeyLocations(
-            locationList.stream().map(OmKeyLocationInfo::getProtobuf)
+            locationList.stream().map(l -> l.getProtobuf(ignorePipeline))
                 .collect(Collectors.toList()))
         .build();
   }
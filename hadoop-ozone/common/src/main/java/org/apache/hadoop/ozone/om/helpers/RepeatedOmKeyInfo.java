@@ -61,9 +61,13 @@ public static RepeatedOmKeyInfo getFromProto(RepeatedKeyInfo
   }
 
   public RepeatedKeyInfo getProto() {
+    return getProto(false);
+  }
+
+  public RepeatedKeyInfo getProto(boolean ignorePipeline) {
     List<KeyInfo> list = new ArrayList<>();
     for(OmKeyInfo k : omKeyInfoList) {
-      list.add(k.getProtobuf());
+      list.add(k.getProtobuf(ignorePipeline));
     }
 
     RepeatedKeyInfo.Builder builder = RepeatedKeyInfo.newBuilder()
@@ -21,6 +21,11 @@
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -35,6 +40,7 @@
 import org.apache.hadoop.ipc.ProtobufHelper;
 import org.apache.hadoop.ipc.ProtocolTranslator;
 import org.apache.hadoop.ipc.RemoteException;
+import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.om.exceptions.OMLeaderNotReadyException;
@@ -152,6 +158,7 @@
 import org.apache.hadoop.security.proto.SecurityProtos.GetDelegationTokenRequestProto;
 import org.apache.hadoop.security.proto.SecurityProtos.RenewDelegationTokenRequestProto;
 import org.apache.hadoop.security.token.Token;
+import org.apache.hadoop.util.Time;
 import org.apache.hadoop.hdds.utils.db.DBUpdatesWrapper;
 
 import com.google.common.base.Preconditions;
@@ -186,6 +193,16 @@
   private final OMFailoverProxyProvider omFailoverProxyProvider;
   private final OzoneManagerProtocolPB rpcProxy;
   private final String clientID;
+  // Spread read only requests over all the OMs, not only the leader.
+  private final boolean followerReadEnabled;
+  private final AtomicInteger readProxyIndex = new AtomicInteger();
+  // OMs which could not be reached get no reads until the given time.
+  private final long followerReadBackoffMs;
+  private final Map<String, Long> followerReadBackoff =
+      new ConcurrentHashMap<>();
+  // Log index of the last write seen, followers have to apply it before
+  // serving the reads of this client.
+  private final AtomicLong lastWriteIndex = new AtomicLong();
   private static final Logger FAILOVER_PROXY_PROVIDER_LOG =
       LoggerFactory.getLogger(OMFailoverProxyProvider.class);
 
@@ -194,6 +211,8 @@ public OzoneManagerProtocolClientSideTranslatorPB(
     this.rpcProxy = proxy;
     this.clientID = clientId;
     this.omFailoverProxyProvider = null;
+    this.followerReadEnabled = false;
+    this.followerReadBackoffMs = 0;
   }
 
   /**
@@ -221,6 +240,13 @@ public OzoneManagerProtocolClientSideTranslatorPB(OzoneConfiguration conf,
     this.rpcProxy = createRetryProxy(omFailoverProxyProvider, maxFailovers,
         sleepBase, sleepMax);
     this.clientID = clientId;
+    this.followerReadEnabled = conf.getBoolean(
+        OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_ENABLED,
+        OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_ENABLED_DEFAULT);
+    this.followerReadBackoffMs = conf.getTimeDuration(
+        OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_FAILURE_BACKOFF,
+        OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_FAILURE_BACKOFF_DEFAULT,
+        TimeUnit.MILLISECONDS);
   }
 
   /**
@@ -386,12 +412,26 @@ private OMRequest.Builder createOMRequest(Type cmdType) {
   private OMResponse submitRequest(OMRequest omRequest)
       throws IOException {
     try {
-      OMRequest payload = OMRequest.newBuilder(omRequest)
-          .setTraceID(TracingUtil.exportCurrentSpan())
-          .build();
+      OMRequest.Builder builder = OMRequest.newBuilder(omRequest)
+          .setTraceID(TracingUtil.exportCurrentSpan());
+      boolean followerRead = followerReadEnabled
+          && OmUtils.isReadOnly(omRequest);
+      if (followerRead) {
+        builder.setMinAppliedIndex(lastWriteIndex.get());
+      }
+      OMRequest payload = builder.build();
 
-      OMResponse omResponse =
-          rpcProxy.submitRequest(NULL_RPC_CONTROLLER, payload);
+      OMResponse omResponse = null;
+      if (followerRead) {
+        omResponse = submitFollowerRead(payload);
+      }
+      if (omResponse == null) {
+        omResponse = rpcProxy.submitRequest(NULL_RPC_CONTROLLER, payload);
+      }
+      if (followerReadEnabled && omResponse.hasLogIndex()) {
+        long logIndex = omResponse.getLogIndex();
+        lastWriteIndex.accumulateAndGet(logIndex, Math::max);
+      }
 
       if (omResponse.hasLeaderOMNodeId() && omFailoverProxyProvider != null) {
         String leaderOmId = omResponse.getLeaderOMNodeId();
@@ -411,6 +451,57 @@ private OMResponse submitRequest(OMRequest omRequest)
     }
   }
 
+  /**
+   * Sends a read only request to the next OM in round robin order, which may
+   * be a follower. OMs which could not be reached recently are skipped.
+   * @return response from OM, or null if the OM could not serve the read and
+   * the request has to be sent to the leader.
+   */
+  private OMResponse submitFollowerRead(OMRequest payload) {
+    String omNodeId = getNextFollowerReadNodeId();
+    if (omNodeId == null) {
+      return null;
+    }
+    try {
+      return omFailoverProxyProvider.getProxy(omNodeId)
+          .submitRequest(NULL_RPC_CONTROLLER, payload);
+    } catch (ServiceException | RuntimeException e) {
+      if (!(e.getCause() instanceof RemoteException)) {
+        // The OM could not be reached, do not pay for the connection
+        // timeout on the next reads.
+        followerReadBackoff.put(omNodeId,
+            Time.monotonicNow() + followerReadBackoffMs);
+      }
+      // Follower is stale, not reachable, etc. The leader serves the read.
+      if (FAILOVER_PROXY_PROVIDER_LOG.isDebugEnabled()) {
+        FAILOVER_PROXY_PROVIDER_LOG.debug("OM {} could not serve {}, " +
+            "sending it to the leader.", omNodeId, payload.getCmdType(), e);
+      }
+      return null;
+    }
+  }
+
+  /**
+   * @return the next OM in round robin order which is not backed off, or
+   * null if all the OMs are.
+   */
+  private String getNextFollowerReadNodeId() {
+    List<String> omNodeIds = omFailoverProxyProvider.getOMNodeIds();
+    long now = Time.monotonicNow();
+    for (int i = 0; i < omNodeIds.size(); i++) {
+      String omNodeId = omNodeIds.get(
+          Math.floorMod(readProxyIndex.getAndIncrement(), omNodeIds.size()));
+      Long backoffUntil = followerReadBackoff.get(omNodeId);
+      if (backoffUntil == null) {
+        return omNodeId;
+      } else if (backoffUntil <= now) {
+        followerReadBackoff.remove(omNodeId, backoffUntil);
+        return omNodeId;
+      }
+    }
+    return null;
+  }
+
   /**
    * Creates a volume.
    *
@@ -861,6 +952,7 @@ public OmKeyInfo lookupKey(OmKeyArgs args) throws IOException {
         .setKeyName(args.getKeyName())
         .setDataSize(args.getDataSize())
         .setSortDatanodes(args.getSortDatanodes())
+        .setForceUpdateContainerCache(args.getForceUpdateContainerCache())
         .build();
     req.setKeyArgs(keyArgs);
 
@@ -1445,6 +1537,7 @@ public OmKeyInfo lookupFile(OmKeyArgs args)
         .setBucketName(args.getBucketName())
         .setKeyName(args.getKeyName())
         .setSortDatanodes(args.getSortDatanodes())
+        .setForceUpdateContainerCache(args.getForceUpdateContainerCache())
         .build();
     LookupFileRequest lookupFileRequest = LookupFileRequest.newBuilder()
             .setKeyArgs(keyArgs)
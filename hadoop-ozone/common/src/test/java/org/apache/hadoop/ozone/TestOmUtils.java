@@ -18,6 +18,9 @@
 
 package org.apache.hadoop.ozone;
 
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.hdds.utils.db.DBCheckpoint;
 import org.apache.hadoop.io.IOUtils;
@@ -26,17 +29,28 @@
 import org.junit.rules.TemporaryFolder;
 import org.junit.rules.Timeout;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
 /**
@@ -81,6 +95,128 @@ public void testWriteCheckpointToOutputStream() throws Exception {
     }
   }
 
+  @Test
+  public void testIncrementalCheckpointSkipsExistingSstFiles()
+      throws Exception {
+    Path checkpointDir = folder.newFolder().toPath();
+    Path localCheckpointDir = folder.newFolder().toPath();
+    Path destination = folder.newFolder().toPath().resolve("db");
+
+    writeFile(checkpointDir.resolve("000001.sst"), "sst 1");
+    writeFile(checkpointDir.resolve("000002.sst"), "sst 2");
+    writeFile(checkpointDir.resolve("000003.sst"), "sst 3");
+    writeFile(checkpointDir.resolve("CURRENT"), "MANIFEST-000003");
+    // 000003.sst was compacted away before the live files were listed,
+    // 000004.sst was written after the checkpoint.
+    Map<String, String> liveSstFiles = new HashMap<>();
+    liveSstFiles.put("000001.sst", "5 1 10 6b 61 62");
+    liveSstFiles.put("000002.sst", "5 11 20 6b 61 62");
+    liveSstFiles.put("000004.sst", "5 21 30 6b 61 62");
+    Map<String, String> checkpointSstFiles =
+        OmUtils.getCheckpointSstFiles(liveSstFiles, checkpointDir);
+    assertEquals(new HashSet<>(Arrays.asList("000001.sst", "000002.sst")),
+        checkpointSstFiles.keySet());
+
+    // The receiver already has 000001.sst from its previous snapshot, and a
+    // different file with the name 000002.sst written by its own DB.
+    writeFile(localCheckpointDir.resolve("000001.sst"), "sst 1");
+    writeFile(localCheckpointDir.resolve("000002.sst"), "sst X");
+    writeFile(localCheckpointDir.resolve("000003.sst"), "sst 3");
+    Map<String, String> localSstFiles = new HashMap<>();
+    localSstFiles.put("000001.sst", "5 1 10 6b 61 62");
+    localSstFiles.put("000002.sst", "5 7 9 6b 61 63");
+    localSstFiles.put("000003.sst", "5 31 40 6b 61 62");
+
+    Map<String, String> existing = new HashMap<>();
+    for (String line : OmUtils.formatSstFileList(localSstFiles)
+        .split("\n")) {
+      OmUtils.parseSstFileListEntry(line, existing);
+    }
+    assertEquals(localSstFiles, existing);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    OmUtils.writeOmDBCheckpointToStream(new TestDBCheckpoint(checkpointDir),
+        out, checkpointSstFiles, existing);
+    assertEquals(new HashSet<>(Arrays.asList("000002.sst", "000003.sst",
+        "CURRENT", OzoneConsts.OZONE_DB_CHECKPOINT_SST_FILE_LIST)),
+        getTarEntryNames(out.toByteArray()));
+
+    OmUtils.extractOmDBCheckpoint(
+        new ByteArrayInputStream(out.toByteArray()), destination,
+        localCheckpointDir);
+
+    assertEquals("sst 1", readFile(destination.resolve("000001.sst")));
+    assertEquals("sst 2", readFile(destination.resolve("000002.sst")));
+    assertEquals("sst 3", readFile(destination.resolve("000003.sst")));
+    assertEquals("MANIFEST-000003", readFile(destination.resolve("CURRENT")));
+    assertFalse(Files.exists(
+        destination.resolve(OzoneConsts.OZONE_DB_CHECKPOINT_SST_FILE_LIST)));
+  }
+
+  @Test
+  public void testExtractCheckpointRejectsPathTraversal() throws Exception {
+    Path localCheckpointDir = folder.newFolder().toPath();
+    Path destination = folder.newFolder().toPath().resolve("db");
+    writeFile(localCheckpointDir.getParent().resolve("000001.sst"), "sst");
+
+    byte[] tar = createTar("../000002.sst", "sst",
+        OzoneConsts.OZONE_DB_CHECKPOINT_SST_FILE_LIST, "");
+    try {
+      OmUtils.extractOmDBCheckpoint(new ByteArrayInputStream(tar),
+          destination, localCheckpointDir);
+      fail("Entry outside of the destination was extracted.");
+    } catch (IOException e) {
+      assertFalse(Files.exists(destination.resolveSibling("000002.sst")));
+    }
+
+    tar = createTar(OzoneConsts.OZONE_DB_CHECKPOINT_SST_FILE_LIST,
+        "../000001.sst\n");
+    try {
+      OmUtils.extractOmDBCheckpoint(new ByteArrayInputStream(tar),
+          folder.newFolder().toPath().resolve("db"), localCheckpointDir);
+      fail("File outside of the local checkpoint was linked.");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  private static byte[] createTar(String... entries) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(out)) {
+      for (int i = 0; i < entries.length; i += 2) {
+        byte[] content = entries[i + 1].getBytes(StandardCharsets.UTF_8);
+        TarArchiveEntry entry = new TarArchiveEntry(entries[i]);
+        entry.setSize(content.length);
+        tarOut.putArchiveEntry(entry);
+        tarOut.write(content);
+        tarOut.closeArchiveEntry();
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static Set<String> getTarEntryNames(byte[] tar)
+      throws IOException {
+    Set<String> names = new HashSet<>();
+    try (TarArchiveInputStream tarIn =
+             new TarArchiveInputStream(new ByteArrayInputStream(tar))) {
+      TarArchiveEntry entry;
+      while ((entry = tarIn.getNextTarEntry()) != null) {
+        names.add(entry.getName());
+      }
+    }
+    return names;
+  }
+
+  private static void writeFile(Path path, String content)
+      throws IOException {
+    Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String readFile(Path path) throws IOException {
+    return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+  }
+
   @Test
   public void createOMDirCreatesDirectoryIfNecessary() throws IOException {
     File parent = folder.newFolder();
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.om.codec;
+
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
+import org.apache.hadoop.util.Time;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class tests OmKeyInfoCodec.
+ */
+public class TestOmKeyInfoCodec {
+
+  @Test
+  public void testCompactFormat() throws Exception {
+    OmKeyInfo keyInfo = getKeyInfo();
+    byte[] fullData = new OmKeyInfoCodec().toPersistedFormat(keyInfo);
+
+    OmKeyInfoCodec codec = new OmKeyInfoCodec(true);
+    byte[] compactData = codec.toPersistedFormat(keyInfo);
+    Assert.assertTrue(compactData.length < fullData.length);
+
+    OmKeyInfo compactKeyInfo = codec.fromPersistedFormat(compactData);
+    List<OmKeyLocationInfo> locations =
+        compactKeyInfo.getLatestVersionLocations().getLocationList();
+    Assert.assertEquals(2, locations.size());
+    for (OmKeyLocationInfo location : locations) {
+      Assert.assertNull(location.getPipeline());
+      Assert.assertEquals(10L, location.getLength());
+    }
+    Assert.assertEquals(101L, locations.get(0).getLocalID());
+
+    // Entries written in the old format are still readable.
+    OmKeyInfo fullKeyInfo = codec.fromPersistedFormat(fullData);
+    for (OmKeyLocationInfo location :
+        fullKeyInfo.getLatestVersionLocations().getLocationList()) {
+      Assert.assertNotNull(location.getPipeline());
+    }
+  }
+
+  private OmKeyInfo getKeyInfo() {
+    List<OmKeyLocationInfo> omKeyLocationInfos = new ArrayList<>();
+    omKeyLocationInfos.add(getOmKeyLocationInfo(new BlockID(100L, 101L)));
+    omKeyLocationInfos.add(getOmKeyLocationInfo(new BlockID(101L, 100L)));
+    return new OmKeyInfo.Builder()
+        .setKeyName("key1")
+        .setBucketName("bucket")
+        .setVolumeName("vol1")
+        .setCreationTime(Time.now())
+        .setModificationTime(Time.now())
+        .setDataSize(20L)
+        .setReplicationFactor(HddsProtos.ReplicationFactor.ONE)
+        .setReplicationType(HddsProtos.ReplicationType.STAND_ALONE)
+        .setOmKeyLocationInfos(Collections.singletonList(
+            new OmKeyLocationInfoGroup(0, omKeyLocationInfos)))
+        .build();
+  }
+
+  private OmKeyLocationInfo getOmKeyLocationInfo(BlockID blockID) {
+    Pipeline pipeline = Pipeline.newBuilder()
+        .setFactor(HddsProtos.ReplicationFactor.ONE)
+        .setId(PipelineID.randomId())
+        .setNodes(Collections.emptyList())
+        .setState(Pipeline.PipelineState.OPEN)
+        .setType(HddsProtos.ReplicationType.STAND_ALONE)
+        .build();
+    return new OmKeyLocationInfo.Builder()
+        .setBlockID(blockID)
+        .setPipeline(pipeline)
+        .setLength(10L)
+        .build();
+  }
+}
@@ -41,6 +41,8 @@
 import org.apache.hadoop.ozone.container.common.impl.RandomContainerDeletionChoosingPolicy;
 import org.apache.hadoop.ozone.container.keyvalue.statemachine.background
     .BlockDeletingService;
+import org.apache.hadoop.ozone.container.keyvalue.statemachine.background
+    .BlockDeletingServiceMetrics;
 import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.test.GenericTestUtils;
 import org.apache.hadoop.test.GenericTestUtils.LogCapturer;
@@ -72,6 +74,8 @@
     .OZONE_BLOCK_DELETING_LIMIT_PER_CONTAINER;
 import static org.apache.hadoop.ozone.OzoneConfigKeys
     .OZONE_BLOCK_DELETING_CONTAINER_LIMIT_PER_INTERVAL;
+import static org.apache.hadoop.ozone.OzoneConfigKeys
+    .OZONE_BLOCK_DELETING_LIMIT_PER_INTERVAL;
 
 /**
  * Tests to test block deleting service.
@@ -153,6 +157,7 @@ private void createToDeleteBlocks(ContainerSet containerSet,
               kd.getProtoBufMessage().toByteArray());
         }
       }
+      data.incrPendingDeletionBlocks(numOfBlocksPerContainer);
     }
   }
 
@@ -450,6 +455,68 @@ public void testBlockThrottle() throws Exception {
     }
   }
 
+  @Test(timeout = 30000)
+  public void testBlockLimitPerIntervalFollowsBacklog() throws Exception {
+    // Properties :
+    //  - Number of containers : 2, with 8 and 2 blocks
+    //  - Block limit per interval : 10
+    //  - Block limit per container : 1
+    //
+    // The interval budget is split by the pending deletions, so a single
+    // interval deletes all the blocks of both containers.
+    Configuration conf = new OzoneConfiguration();
+    conf.set(
+        ScmConfigKeys.OZONE_SCM_KEY_VALUE_CONTAINER_DELETION_CHOOSING_POLICY,
+        RandomContainerDeletionChoosingPolicy.class.getName());
+    conf.setInt(OZONE_BLOCK_DELETING_CONTAINER_LIMIT_PER_INTERVAL, 10);
+    conf.setInt(OZONE_BLOCK_DELETING_LIMIT_PER_CONTAINER, 1);
+    conf.setInt(OZONE_BLOCK_DELETING_LIMIT_PER_INTERVAL, 10);
+    ContainerSet containerSet = new ContainerSet();
+    createToDeleteBlocks(containerSet, conf, 1, 8, 1);
+    createToDeleteBlocks(containerSet, conf, 1, 2, 1);
+    Assert.assertEquals(10, getNumberOfChunksInContainers(containerSet));
+
+    BlockDeletingServiceTestImpl service =
+        getBlockDeletinService(containerSet, conf, 1000);
+    service.start();
+
+    try {
+      GenericTestUtils.waitFor(service::isStarted, 100, 3000);
+      deleteAndWait(service, 1);
+      Assert.assertEquals(0, getNumberOfChunksInContainers(containerSet));
+
+      BlockDeletingServiceMetrics metrics = service.getMetrics();
+      Assert.assertEquals(10, metrics.getNumBlocksDeleted());
+      Assert.assertEquals(10, metrics.getNumChunksDeleted());
+      Assert.assertEquals(0, metrics.getNumBlockDeletionFailures());
+
+      String volume = containerSet.getContainerIterator().next()
+          .getContainerData().getVolume().getHddsRootDir().getPath();
+      Assert.assertEquals(10, metrics.getNumBlocksDeleted(volume));
+      Assert.assertEquals(10, metrics.getBlockBudget(volume));
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testBlockLimit() {
+    // budget split by pending deletions
+    Assert.assertEquals(80,
+        BlockDeletingService.getBlockLimit(100, 1, 80, 100, 2, 1));
+    Assert.assertEquals(20,
+        BlockDeletingService.getBlockLimit(100, 1, 20, 100, 2, 1));
+    // evenly split without pending deletion counts
+    Assert.assertEquals(50,
+        BlockDeletingService.getBlockLimit(100, 1, 0, 0, 2, 1));
+    // busy volume gets a smaller share
+    Assert.assertEquals(40,
+        BlockDeletingService.getBlockLimit(100, 1, 80, 100, 2, 0.5));
+    // but not less than the per task limit
+    Assert.assertEquals(30,
+        BlockDeletingService.getBlockLimit(100, 30, 20, 100, 2, 0.5));
+  }
+
   private int getNumberOfChunksInContainers(ContainerSet containerSet) {
     Iterator<Container<?>> iterator = containerSet.getContainerIterator();
     int numChunks = 0;
@@ -23,6 +23,7 @@
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
@@ -114,6 +115,7 @@
 import static org.apache.hadoop.ozone.OzoneConsts.OZONE_URI_DELIMITER;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.SCM_GET_PIPELINE_EXCEPTION;
 import static org.apache.hadoop.ozone.security.acl.IAccessAuthorizer.ACLType.ALL;
+import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -1113,8 +1115,9 @@ public void testRefreshPipeline() throws Exception {
         mock(ContainerWithPipeline.class);
     when(containerWithPipelineMock.getPipeline())
         .thenReturn(getRandomPipeline());
-    when(sclProtocolMock.getContainerWithPipeline(anyLong()))
-        .thenReturn(containerWithPipelineMock);
+    when(sclProtocolMock.getContainerWithPipelineBatch(anyList()))
+        .thenReturn(Arrays.asList(containerWithPipelineMock,
+            containerWithPipelineMock));
 
     ScmClient scmClientMock = mock(ScmClient.class);
     when(scmClientMock.getContainerClient()).thenReturn(sclProtocolMock);
@@ -1153,9 +1156,10 @@ public void testRefreshPipeline() throws Exception {
 
     keyManagerImpl.refreshPipeline(omKeyInfo);
 
-    verify(sclProtocolMock, times(2)).getContainerWithPipeline(anyLong());
-    verify(sclProtocolMock, times(1)).getContainerWithPipeline(100L);
-    verify(sclProtocolMock, times(1)).getContainerWithPipeline(200L);
+    // All the containers of the key are looked up with a single call.
+    verify(sclProtocolMock, times(1))
+        .getContainerWithPipelineBatch(Arrays.asList(100L, 200L));
+    verify(sclProtocolMock, times(0)).getContainerWithPipeline(anyLong());
   }
 
 
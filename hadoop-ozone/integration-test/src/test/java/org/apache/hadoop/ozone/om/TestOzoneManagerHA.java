@@ -205,6 +205,24 @@ public void testAllVolumeOperations() throws Exception {
         () -> objectStore.deleteVolume(volumeName));
   }
 
+  @Test
+  public void testDeferredWriteRequests() throws Exception {
+    // write requests over RPC are answered once Ratis applied them, without
+    // keeping the handler thread
+    String volumeName = "volume" + RandomStringUtils.randomNumeric(5);
+    createAndCheckVolume(volumeName);
+
+    OMMetrics leaderMetrics = cluster.getOMLeader().getMetrics();
+    GenericTestUtils.waitFor(
+        () -> leaderMetrics.getNumDeferredWriteRequests() == 0, 100, 10000);
+
+    // errors of deferred requests reach the client
+    OzoneTestUtils.expectOmException(
+        OMException.ResultCodes.VOLUME_ALREADY_EXISTS,
+        () -> objectStore.createVolume(volumeName));
+    Assert.assertEquals(0, leaderMetrics.getNumDeferredWriteRequests());
+  }
+
 
   @Test
   public void testAllBucketOperations() throws Exception {
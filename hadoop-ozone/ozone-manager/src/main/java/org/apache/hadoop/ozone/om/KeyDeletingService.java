@@ -20,13 +20,19 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import com.google.protobuf.ServiceException;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
+import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.common.BlockGroup;
 import org.apache.hadoop.ozone.common.DeleteBlockGroupResult;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeKeysRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
@@ -40,10 +46,14 @@
 import com.google.common.annotations.VisibleForTesting;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_KEY_DELETING_LIMIT_PER_TASK;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_KEY_DELETING_LIMIT_PER_TASK_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_KEY_DELETING_MAX_INFLIGHT_BATCHES;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_KEY_DELETING_MAX_INFLIGHT_BATCHES_DEFAULT;
 
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
 import org.apache.hadoop.hdds.utils.db.DBStore;
 import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.Table.KeyValue;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.apache.ratis.protocol.ClientId;
 import org.rocksdb.RocksDBException;
 import org.slf4j.Logger;
@@ -54,37 +64,66 @@
  * periodically to get the keys from DeletedTable and ask scm to delete
  * metadata accordingly, if scm returns success for keys, then clean up those
  * keys.
+ *
+ * The scan resumes from where the previous batch stopped instead of the head
+ * of the DeletedTable, so keys which are still being purged are not read
+ * again. The last key of each batch is stored in the metaTable together with
+ * the purge of the batch, so a restarted or new leader resumes from there.
+ * Every run carves up to a configured number of consecutive batches,
+ * which are sent to scm in parallel. The batch size shrinks when scm rejects
+ * blocks and grows back while scm accepts them.
  */
 public class KeyDeletingService extends BackgroundService {
   private static final Logger LOG =
       LoggerFactory.getLogger(KeyDeletingService.class);
 
-  // The thread pool size for key deleting service.
-  private final static int KEY_DELETING_CORE_POOL_SIZE = 2;
-
   private final OzoneManager ozoneManager;
   private final ScmBlockLocationProtocol scmClient;
   private final KeyManager manager;
   private ClientId clientId = ClientId.randomId();
   private final int keyLimitPerTask;
+  private final int maxInflightBatches;
+  private final AtomicInteger batchSize;
   private final AtomicLong deletedKeyCount;
   private final AtomicLong runCount;
 
+  // Last key of the last batch handed out, null to start from the head of
+  // the DeletedTable. Only accessed from getTasks, which is serialized by
+  // the periodical task.
+  private String cursor;
+  // Whether the cursor was read from the metaTable since this OM became the
+  // leader.
+  private boolean cursorLoaded;
+  // Whether the current scan started from the head of the DeletedTable.
+  private boolean scanFromHead = true;
+  // Bytes of the keys found since the scan last started from the head, and
+  // in the last complete scan of the DeletedTable.
+  private long scanBytes;
+  private long lastScanBytes = -1;
+
   KeyDeletingService(OzoneManager ozoneManager,
       ScmBlockLocationProtocol scmClient,
       KeyManager manager, long serviceInterval,
       long serviceTimeout, Configuration conf) {
+    // One thread runs the periodical task which waits for the batches.
     super("KeyDeletingService", serviceInterval, TimeUnit.MILLISECONDS,
-        KEY_DELETING_CORE_POOL_SIZE, serviceTimeout);
+        getMaxInflightBatches(conf) + 1, serviceTimeout);
     this.ozoneManager = ozoneManager;
     this.scmClient = scmClient;
     this.manager = manager;
     this.keyLimitPerTask = conf.getInt(OZONE_KEY_DELETING_LIMIT_PER_TASK,
         OZONE_KEY_DELETING_LIMIT_PER_TASK_DEFAULT);
+    this.maxInflightBatches = getMaxInflightBatches(conf);
+    this.batchSize = new AtomicInteger(keyLimitPerTask);
     this.deletedKeyCount = new AtomicLong(0);
     this.runCount = new AtomicLong(0);
   }
 
+  private static int getMaxInflightBatches(Configuration conf) {
+    return Math.max(1, conf.getInt(OZONE_KEY_DELETING_MAX_INFLIGHT_BATCHES,
+        OZONE_KEY_DELETING_MAX_INFLIGHT_BATCHES_DEFAULT));
+  }
+
   /**
    * Returns the number of times this Background service has run.
    *
@@ -105,13 +144,127 @@ public AtomicLong getDeletedKeyCount() {
     return deletedKeyCount;
   }
 
+  /**
+   * Returns the number of keys the next batch will contain at most.
+   *
+   * @return batch size.
+   */
+  @VisibleForTesting
+  public int getBatchSize() {
+    return batchSize.get();
+  }
+
   @Override
   public BackgroundTaskQueue getTasks() {
     BackgroundTaskQueue queue = new BackgroundTaskQueue();
-    queue.add(new KeyDeletingTask());
+    // Check if this is the Leader OM. If not leader, no need to execute this
+    // task.
+    if (!shouldRun()) {
+      cursorLoaded = false;
+      return queue;
+    }
+    runCount.incrementAndGet();
+    try {
+      if (!cursorLoaded) {
+        // Batches which were in flight may have been purged in any order,
+        // so this resumes after the last one stored. Keys skipped this way
+        // are found when the scan wraps around to the head.
+        cursor = manager.getMetadataManager().getMetaTable()
+            .get(OzoneConsts.KEY_DELETING_CURSOR);
+        cursorLoaded = true;
+        scanFromHead = cursor == null;
+        scanBytes = 0;
+      }
+      for (int i = 0; i < maxInflightBatches; i++) {
+        List<BlockGroup> keyBlocksList = nextBatch(batchSize.get());
+        if (keyBlocksList.isEmpty()) {
+          // Reached the end of the DeletedTable, the next run starts from
+          // the head again.
+          break;
+        }
+        queue.add(new KeyDeletingTask(keyBlocksList));
+      }
+      updatePendingMetrics();
+    } catch (IOException e) {
+      LOG.error("Error while scanning pending deletion keys. Will retry at " +
+          "next run.", e);
+    }
     return queue;
   }
 
+  /**
+   * Reads up to count keys after the cursor from the DeletedTable and moves
+   * the cursor to the last key read.
+   */
+  private List<BlockGroup> nextBatch(int count) throws IOException {
+    List<BlockGroup> keyBlocksList = new ArrayList<>();
+    Table<String, RepeatedOmKeyInfo> deletedTable =
+        manager.getMetadataManager().getDeletedTable();
+    try (TableIterator<String, ? extends KeyValue<String, RepeatedOmKeyInfo>>
+             keyIter = deletedTable.iterator()) {
+      if (cursor != null) {
+        keyIter.seek(cursor);
+      }
+      while (keyIter.hasNext() && keyBlocksList.size() < count) {
+        KeyValue<String, RepeatedOmKeyInfo> kv = keyIter.next();
+        String key = kv.getKey();
+        if (key.equals(cursor)) {
+          // seek positions on the cursor itself if it still exists.
+          continue;
+        }
+        for (OmKeyInfo info : kv.getValue().getOmKeyInfoList()) {
+          List<BlockID> item = info.getLatestVersionLocations()
+              .getLocationList().stream()
+              .map(b -> new BlockID(b.getContainerID(), b.getLocalID()))
+              .collect(Collectors.toList());
+          keyBlocksList.add(BlockGroup.newBuilder()
+              .setKeyName(key)
+              .addAllBlockIDs(item)
+              .build());
+          scanBytes += info.getDataSize();
+        }
+        cursor = key;
+      }
+    }
+    if (keyBlocksList.isEmpty()) {
+      cursor = null;
+      if (scanFromHead) {
+        lastScanBytes = scanBytes;
+      }
+      scanFromHead = true;
+      scanBytes = 0;
+    }
+    return keyBlocksList;
+  }
+
+  private void updatePendingMetrics() throws IOException {
+    if (ozoneManager == null) {
+      return;
+    }
+    OMMetrics metrics = ozoneManager.getMetrics();
+    metrics.setNumPendingDeletionKeys(manager.getMetadataManager()
+        .getDeletedTable().getEstimatedKeyCount());
+    // Until the first complete scan, report what has been found so far.
+    metrics.setPendingDeletionBytes(Math.max(lastScanBytes, scanBytes));
+  }
+
+  /**
+   * Adapts the batch size to the share of keys scm accepted: halve it when
+   * less than half were accepted, grow it by a quarter up to the configured
+   * limit when all were accepted.
+   */
+  private void adjustBatchSize(int accepted, int total) {
+    if (total == 0) {
+      return;
+    }
+    if (accepted == total) {
+      batchSize.updateAndGet(size -> Math.min(keyLimitPerTask,
+          size + Math.max(1, size / 4)));
+    } else if (accepted * 2 < total) {
+      batchSize.updateAndGet(size -> Math.max(1, size / 2));
+    }
+  }
+
   private boolean shouldRun() {
     if (ozoneManager == null) {
       // OzoneManager can be null for testing
@@ -137,6 +290,15 @@ private boolean isRatisEnabled() {
   private class KeyDeletingTask implements
       BackgroundTask<BackgroundTaskResult> {
 
+    private final List<BlockGroup> keyBlocksList;
+    // Last key of the batch, stored as the cursor with the purge.
+    private final String lastKey;
+
+    KeyDeletingTask(List<BlockGroup> keyBlocksList) {
+      this.keyBlocksList = keyBlocksList;
+      this.lastKey = keyBlocksList.get(keyBlocksList.size() - 1).getGroupID();
+    }
+
     @Override
     public int getPriority() {
       return 0;
@@ -144,36 +306,31 @@ public int getPriority() {
 
     @Override
     public BackgroundTaskResult call() throws Exception {
-      // Check if this is the Leader OM. If not leader, no need to execute this
-      // task.
-      if (shouldRun()) {
-        runCount.incrementAndGet();
-        try {
-          long startTime = Time.monotonicNow();
-          List<BlockGroup> keyBlocksList = manager
-              .getPendingDeletionKeys(keyLimitPerTask);
-          if (keyBlocksList != null && !keyBlocksList.isEmpty()) {
-            List<DeleteBlockGroupResult> results =
-                scmClient.deleteKeyBlocks(keyBlocksList);
-            if (results != null) {
-              int delCount;
-              if (isRatisEnabled()) {
-                delCount = submitPurgeKeysRequest(results);
-              } else {
-                // TODO: Once HA and non-HA paths are merged, we should have
-                //  only one code path here. Purge keys should go through an
-                //  OMRequest model.
-                delCount = deleteAllKeys(results);
-              }
-              LOG.debug("Number of keys deleted: {}, elapsed time: {}ms",
-                  delCount, Time.monotonicNow() - startTime);
-              deletedKeyCount.addAndGet(delCount);
-            }
+      try {
+        long startTime = Time.monotonicNow();
+        List<DeleteBlockGroupResult> results =
+            scmClient.deleteKeyBlocks(keyBlocksList);
+        if (results != null) {
+          int accepted = (int) results.stream()
+              .filter(DeleteBlockGroupResult::isSuccess).count();
+          adjustBatchSize(accepted, results.size());
+          int delCount;
+          if (isRatisEnabled()) {
+            delCount = submitPurgeKeysRequest(results);
+          } else {
+            // TODO: Once HA and non-HA paths are merged, we should have
+            //  only one code path here. Purge keys should go through an
+            //  OMRequest model.
+            delCount = deleteAllKeys(results);
           }
-        } catch (IOException e) {
-          LOG.error("Error while running delete keys background task. Will " +
-              "retry at next run.", e);
+          LOG.debug("Number of keys deleted: {}, elapsed time: {}ms",
+              delCount, Time.monotonicNow() - startTime);
+          deletedKeyCount.addAndGet(delCount);
         }
+      } catch (IOException e) {
+        adjustBatchSize(0, keyBlocksList.size());
+        LOG.error("Error while running delete keys background task. Will " +
+            "retry at next run.", e);
       }
       // By design, no one cares about the results of this call back.
       return EmptyTaskResult.newResult();
@@ -189,6 +346,8 @@ public BackgroundTaskResult call() throws Exception {
     private int deleteAllKeys(List<DeleteBlockGroupResult> results)
         throws RocksDBException, IOException {
       Table deletedTable = manager.getMetadataManager().getDeletedTable();
+      Table<String, String> metaTable =
+          manager.getMetadataManager().getMetaTable();
 
       DBStore store = manager.getMetadataManager().getStore();
 
@@ -204,6 +363,8 @@ private int deleteAllKeys(List<DeleteBlockGroupResult> results)
             deletedCount++;
           }
         }
+        metaTable.putWithBatch(writeBatch, OzoneConsts.KEY_DELETING_CURSOR,
+            lastKey);
         // Write a single transaction for delete.
         store.commitBatchOperation(writeBatch);
       }
@@ -234,6 +395,7 @@ public int submitPurgeKeysRequest(List<DeleteBlockGroupResult> results) {
 
       PurgeKeysRequest purgeKeysRequest = PurgeKeysRequest.newBuilder()
           .addAllKeys(purgeKeysList)
+          .setLastKey(lastKey)
           .build();
 
       OMRequest omRequest = OMRequest.newBuilder()
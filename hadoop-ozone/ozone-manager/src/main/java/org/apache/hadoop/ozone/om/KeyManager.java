@@ -182,24 +182,26 @@ List<RepeatedOmKeyInfo> listTrash(String volumeName, String bucketName,
   List<BlockGroup> getPendingDeletionKeys(int count) throws IOException;
 
   /**
-   * Returns a list of all still open key info. Which contains the info about
-   * the key name and all its associated block IDs. A pending open key has
-   * prefix #open# in OM DB.
+   * Returns the openKeyExpiryTable entries of open keys which have been open
+   * for longer than the expire threshold, oldest first.
    *
-   * @return a list of {@link BlockGroup} representing keys and blocks.
+   * @param count max number of entries to return.
+   * @return a list of keys in the openKeyExpiryTable.
    * @throws IOException
    */
-  List<BlockGroup> getExpiredOpenKeys() throws IOException;
+  List<String> getExpiredOpenKeys(int count) throws IOException;
 
   /**
-   * Deletes a expired open key by its name. Called when a hanging key has been
-   * lingering for too long. Once called, the open key entries gets removed
-   * from OM mdata data.
+   * Deletes expired open keys. Called when hanging keys have been lingering
+   * for too long. The open key entries get removed from OM metadata and their
+   * blocks are moved to the deletedTable, so that the KeyDeletingService
+   * deletes them in SCM.
    *
-   * @param objectKeyName object key name with #open# prefix.
-   * @throws IOException if specified key doesn't exist or other I/O errors.
+   * @param expiryKeys keys in the openKeyExpiryTable.
+   * @return number of open keys deleted.
+   * @throws IOException on I/O errors.
    */
-  void deleteExpiredOpenKey(String objectKeyName) throws IOException;
+  int deleteExpiredOpenKeys(List<String> expiryKeys) throws IOException;
 
   /**
    * Returns the metadataManager.
@@ -27,6 +27,7 @@
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -54,6 +55,7 @@
 import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
 import org.apache.hadoop.hdds.scm.exceptions.SCMException;
 import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
+import org.apache.hadoop.hdds.scm.protocol.StorageContainerLocationProtocol;
 import org.apache.hadoop.hdds.utils.BackgroundService;
 import org.apache.hadoop.hdds.utils.UniqueId;
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
@@ -104,6 +106,8 @@
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.codec.digest.DigestUtils;
 import static org.apache.hadoop.fs.CommonConfigurationKeysPublic.HADOOP_SECURITY_KEY_PROVIDER_PATH;
 import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_BLOCK_TOKEN_ENABLED;
@@ -114,6 +118,8 @@
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_BLOCK_DELETING_SERVICE_INTERVAL_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_BLOCK_DELETING_SERVICE_TIMEOUT;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_BLOCK_DELETING_SERVICE_TIMEOUT_DEFAULT;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_OPEN_KEY_CLEANUP_SERVICE_INTERVAL_SECONDS;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_OPEN_KEY_CLEANUP_SERVICE_INTERVAL_SECONDS_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_CLIENT_LIST_TRASH_KEYS_MAX;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_CLIENT_LIST_TRASH_KEYS_MAX_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_KEY_PREALLOCATION_BLOCKS_MAX;
@@ -121,6 +127,10 @@
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_SCM_BLOCK_SIZE;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_SCM_BLOCK_SIZE_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConsts.OZONE_URI_DELIMITER;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_TTL;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_CONTAINER_LOCATION_CACHE_TTL_DEFAULT;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.BUCKET_NOT_FOUND;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.DIRECTORY_NOT_FOUND;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.FILE_NOT_FOUND;
@@ -158,9 +168,12 @@ public class KeyManagerImpl implements KeyManager {
   private final boolean grpcBlockTokenEnabled;
 
   private BackgroundService keyDeletingService;
+  private BackgroundService openKeyCleanupService;
 
   private final KeyProviderCryptoExtension kmsProvider;
   private final PrefixManager prefixManager;
+  // null if disabled
+  private final Cache<Long, ContainerWithPipeline> containerLocationCache;
 
 
   @VisibleForTesting
@@ -205,6 +218,18 @@ public KeyManagerImpl(OzoneManager om, ScmClient scmClient,
     this.secretManager = secretManager;
     this.kmsProvider = kmsProvider;
 
+    int locationCacheSize = conf.getInt(
+        OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE,
+        OZONE_OM_CONTAINER_LOCATION_CACHE_SIZE_DEFAULT);
+    long locationCacheTtl = conf.getTimeDuration(
+        OZONE_OM_CONTAINER_LOCATION_CACHE_TTL,
+        OZONE_OM_CONTAINER_LOCATION_CACHE_TTL_DEFAULT,
+        TimeUnit.MILLISECONDS);
+    this.containerLocationCache = locationCacheSize <= 0 ? null :
+        CacheBuilder.newBuilder()
+            .maximumSize(locationCacheSize)
+            .expireAfterWrite(locationCacheTtl, TimeUnit.MILLISECONDS)
+            .build();
   }
 
   @Override
@@ -223,6 +248,18 @@ public void start(OzoneConfiguration configuration) {
           serviceTimeout, configuration);
       keyDeletingService.start();
     }
+    if (openKeyCleanupService == null) {
+      int openKeyCleanupInterval = configuration.getInt(
+          OZONE_OPEN_KEY_CLEANUP_SERVICE_INTERVAL_SECONDS,
+          OZONE_OPEN_KEY_CLEANUP_SERVICE_INTERVAL_SECONDS_DEFAULT);
+      long serviceTimeout = configuration.getTimeDuration(
+          OZONE_BLOCK_DELETING_SERVICE_TIMEOUT,
+          OZONE_BLOCK_DELETING_SERVICE_TIMEOUT_DEFAULT,
+          TimeUnit.MILLISECONDS);
+      openKeyCleanupService = new OpenKeyCleanupService(ozoneManager, this,
+          openKeyCleanupInterval, serviceTimeout, configuration);
+      openKeyCleanupService.start();
+    }
   }
 
   KeyProviderCryptoExtension getKMSProvider() {
@@ -235,6 +272,10 @@ public void stop() throws IOException {
       keyDeletingService.shutdown();
       keyDeletingService = null;
     }
+    if (openKeyCleanupService != null) {
+      openKeyCleanupService.shutdown();
+      openKeyCleanupService = null;
+    }
   }
 
   private OmBucketInfo getBucketInfo(String volumeName, String bucketName)
@@ -487,7 +528,8 @@ private void allocateBlockInKey(OmKeyInfo keyInfo, long size, long sessionId)
     }
 
     metadataManager.getOpenKeyTable().put(openKey, keyInfo);
-
+    metadataManager.getOpenKeyExpiryTable().put(
+        metadataManager.getOpenKeyExpiryKey(openKey), openKey);
   }
 
   private OmKeyInfo prepareKeyInfo(
@@ -614,6 +656,8 @@ public void commitKey(OmKeyArgs args, long clientID) throws IOException {
           keyInfo,
           metadataManager.getOpenKeyTable(),
           metadataManager.getKeyTable());
+      metadataManager.getOpenKeyExpiryTable().delete(
+          metadataManager.getOpenKeyExpiryKey(openKey));
     } catch (OMException e) {
       throw e;
     } catch (IOException ex) {
@@ -658,9 +702,10 @@ public OmKeyInfo lookupKey(OmKeyArgs args, String clientAddress)
         }
       }
       // Refresh container pipeline info from SCM
-      // based on OmKeyArgs.refreshPipeline flag
-      if (args.getRefreshPipeline()) {
-        refreshPipeline(value);
+      // based on OmKeyArgs.refreshPipeline flag, or if the key was persisted
+      // without pipelines.
+      if (args.getRefreshPipeline() || isPipelineMissing(value)) {
+        refreshPipeline(value, args.getForceUpdateContainerCache());
       }
       if (args.getSortDatanodes()) {
         sortDatanodeInPipeline(value, clientAddress);
@@ -686,35 +731,116 @@ public OmKeyInfo lookupKey(OmKeyArgs args, String clientAddress)
    */
   @VisibleForTesting
   protected void refreshPipeline(OmKeyInfo value) throws IOException {
-    Map<Long, ContainerWithPipeline> containerWithPipelineMap = new HashMap<>();
+    refreshPipeline(value, false);
+  }
+
+  /**
+   * Refresh pipeline info in OM by asking SCM.
+   * @param value OmKeyInfo
+   * @param forceUpdateContainerCache if true the cached locations of the
+   *                                  containers of the key are dropped
+   *                                  first, as a client failed to read
+   *                                  from them
+   */
+  @VisibleForTesting
+  void refreshPipeline(OmKeyInfo value,
+      boolean forceUpdateContainerCache) throws IOException {
+    // TODO: fix Some tests that may not initialize container client
+    // The production should always have containerClient initialized.
+    if (scmClient.getContainerClient() == null) {
+      return;
+    }
+    Set<Long> containerIDs = new LinkedHashSet<>();
     for (OmKeyLocationInfoGroup key : value.getKeyLocationVersions()) {
       for (OmKeyLocationInfo k : key.getLocationList()) {
-        // TODO: fix Some tests that may not initialize container client
-        // The production should always have containerClient initialized.
-        if (scmClient.getContainerClient() != null) {
-          try {
-            if (!containerWithPipelineMap.containsKey(k.getContainerID())) {
-              ContainerWithPipeline containerWithPipeline = scmClient
-                  .getContainerClient()
-                  .getContainerWithPipeline(k.getContainerID());
-              containerWithPipelineMap.put(k.getContainerID(),
-                  containerWithPipeline);
-            }
-          } catch (IOException ioEx) {
-            LOG.debug("Get containerPipeline failed for volume:{} bucket:{} " +
-                    "key:{}", value.getVolumeName(), value.getBucketName(),
-                value.getKeyName(), ioEx);
-            throw new OMException(ioEx.getMessage(),
-                SCM_GET_PIPELINE_EXCEPTION);
-          }
-          ContainerWithPipeline cp =
-              containerWithPipelineMap.get(k.getContainerID());
-          if (!cp.getPipeline().equals(k.getPipeline())) {
-            k.setPipeline(cp.getPipeline());
-          }
+        containerIDs.add(k.getContainerID());
+      }
+    }
+    if (containerIDs.isEmpty()) {
+      return;
+    }
+    if (forceUpdateContainerCache && containerLocationCache != null) {
+      containerLocationCache.invalidateAll(containerIDs);
+    }
+
+    Map<Long, ContainerWithPipeline> containerWithPipelineMap;
+    try {
+      containerWithPipelineMap = getContainerWithPipelines(containerIDs);
+    } catch (IOException ioEx) {
+      LOG.debug("Get containerPipeline failed for volume:{} bucket:{} " +
+              "key:{}", value.getVolumeName(), value.getBucketName(),
+          value.getKeyName(), ioEx);
+      throw new OMException(ioEx.getMessage(),
+          SCM_GET_PIPELINE_EXCEPTION);
+    }
+    for (OmKeyLocationInfoGroup key : value.getKeyLocationVersions()) {
+      for (OmKeyLocationInfo k : key.getLocationList()) {
+        ContainerWithPipeline cp =
+            containerWithPipelineMap.get(k.getContainerID());
+        if (!cp.getPipeline().equals(k.getPipeline())) {
+          k.setPipeline(cp.getPipeline());
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns true if any location of the key has no pipeline, which is the
+   * case for keys stored in the compact format.
+   */
+  private static boolean isPipelineMissing(OmKeyInfo value) {
+    for (OmKeyLocationInfoGroup key : value.getKeyLocationVersions()) {
+      for (OmKeyLocationInfo k : key.getLocationList()) {
+        if (k.getPipeline() == null) {
+          return true;
         }
       }
     }
+    return false;
+  }
+
+  /**
+   * Returns the location of the given containers, from the cache if possible
+   * and otherwise with a single call to SCM.
+   */
+  private Map<Long, ContainerWithPipeline> getContainerWithPipelines(
+      Set<Long> containerIDs) throws IOException {
+    Map<Long, ContainerWithPipeline> containerWithPipelineMap =
+        new HashMap<>();
+    List<Long> uncachedIDs = new ArrayList<>();
+    for (Long containerID : containerIDs) {
+      ContainerWithPipeline cp = containerLocationCache == null ? null :
+          containerLocationCache.getIfPresent(containerID);
+      if (cp != null) {
+        containerWithPipelineMap.put(containerID, cp);
+      } else {
+        uncachedIDs.add(containerID);
+      }
+    }
+    if (uncachedIDs.isEmpty()) {
+      return containerWithPipelineMap;
+    }
+
+    StorageContainerLocationProtocol containerClient =
+        scmClient.getContainerClient();
+    List<ContainerWithPipeline> cpList;
+    if (uncachedIDs.size() == 1) {
+      cpList = Collections.singletonList(
+          containerClient.getContainerWithPipeline(uncachedIDs.get(0)));
+    } else {
+      cpList = containerClient.getContainerWithPipelineBatch(uncachedIDs);
+    }
+    for (int i = 0; i < uncachedIDs.size(); i++) {
+      ContainerWithPipeline cp = cpList.get(i);
+      containerWithPipelineMap.put(uncachedIDs.get(i), cp);
+      // The pipeline of open containers changes when they get closed, only
+      // the closed ones are cached.
+      if (containerLocationCache != null && cp.getContainerInfo() != null
+          && !cp.getContainerInfo().isOpen()) {
+        containerLocationCache.put(uncachedIDs.get(i), cp);
+      }
+    }
+    return containerWithPipelineMap;
   }
 
   @Override
@@ -878,15 +1004,56 @@ public List<BlockGroup> getPendingDeletionKeys(final int count)
   }
 
   @Override
-  public List<BlockGroup> getExpiredOpenKeys() throws IOException {
-    return metadataManager.getExpiredOpenKeys();
-
+  public List<String> getExpiredOpenKeys(int count) throws IOException {
+    return metadataManager.getExpiredOpenKeys(count);
   }
 
   @Override
-  public void deleteExpiredOpenKey(String objectKeyName) throws IOException {
-    Preconditions.checkNotNull(objectKeyName);
-    // TODO: Fix this in later patches.
+  public int deleteExpiredOpenKeys(List<String> expiryKeys)
+      throws IOException {
+    Preconditions.checkNotNull(expiryKeys);
+    int deletedCount = 0;
+    for (String expiryKey : expiryKeys) {
+      String openKey = metadataManager.getOpenKeyExpiryTable().get(expiryKey);
+      OmKeyInfo keyInfo = openKey == null ? null :
+          metadataManager.getOpenKeyTable().get(openKey);
+      if (keyInfo == null) {
+        // Already committed or deleted, only the index entry is left.
+        metadataManager.getOpenKeyExpiryTable().delete(expiryKey);
+        continue;
+      }
+      String volumeName = keyInfo.getVolumeName();
+      String bucketName = keyInfo.getBucketName();
+      metadataManager.getLock().acquireLock(BUCKET_LOCK, volumeName,
+          bucketName);
+      try {
+        // Re-read under the lock, the key may have been committed meanwhile.
+        keyInfo = metadataManager.getOpenKeyTable().get(openKey);
+        DBStore store = metadataManager.getStore();
+        try (BatchOperation batch = store.initBatchOperation()) {
+          metadataManager.getOpenKeyExpiryTable().deleteWithBatch(batch,
+              expiryKey);
+          if (keyInfo != null) {
+            metadataManager.getOpenKeyTable().deleteWithBatch(batch, openKey);
+            if (!keyInfo.getLatestVersionLocations().getLocationList()
+                .isEmpty()) {
+              String ozoneKey = metadataManager.getOzoneKey(volumeName,
+                  bucketName, keyInfo.getKeyName());
+              RepeatedOmKeyInfo repeatedOmKeyInfo = OmUtils.prepareKeyForDelete(
+                  keyInfo, metadataManager.getDeletedTable().get(ozoneKey));
+              metadataManager.getDeletedTable().putWithBatch(batch, ozoneKey,
+                  repeatedOmKeyInfo);
+            }
+            deletedCount++;
+          }
+          store.commitBatchOperation(batch);
+        }
+      } finally {
+        metadataManager.getLock().releaseLock(BUCKET_LOCK, volumeName,
+            bucketName);
+      }
+    }
+    return deletedCount;
   }
 
   @Override
@@ -1077,6 +1244,8 @@ public OmMultipartCommitUploadPartInfo commitMultipartUploadPart(
           DBStore store = metadataManager.getStore();
           try (BatchOperation batch = store.initBatchOperation()) {
             metadataManager.getOpenKeyTable().deleteWithBatch(batch, openKey);
+            metadataManager.getOpenKeyExpiryTable().deleteWithBatch(batch,
+                metadataManager.getOpenKeyExpiryKey(openKey));
             metadataManager.getMultipartInfoTable().putWithBatch(batch,
                 multipartKey, multipartKeyInfo);
             store.commitBatchOperation(batch);
@@ -1104,6 +1273,8 @@ public OmMultipartCommitUploadPartInfo commitMultipartUploadPart(
                 oldPartKeyInfo.getPartName(),
                 repeatedOmKeyInfo);
             metadataManager.getOpenKeyTable().deleteWithBatch(batch, openKey);
+            metadataManager.getOpenKeyExpiryTable().deleteWithBatch(batch,
+                metadataManager.getOpenKeyExpiryKey(openKey));
             metadataManager.getMultipartInfoTable().putWithBatch(batch,
                 multipartKey, multipartKeyInfo);
             store.commitBatchOperation(batch);
@@ -1863,8 +2034,10 @@ public OmKeyInfo lookupFile(OmKeyArgs args, String clientAddress)
     try {
       OzoneFileStatus fileStatus = getFileStatus(args);
       if (fileStatus.isFile()) {
-        if (args.getRefreshPipeline()) {
-          refreshPipeline(fileStatus.getKeyInfo());
+        if (args.getRefreshPipeline()
+            || isPipelineMissing(fileStatus.getKeyInfo())) {
+          refreshPipeline(fileStatus.getKeyInfo(),
+              args.getForceUpdateContainerCache());
         }
         if (args.getSortDatanodes()) {
           sortDatanodeInPipeline(fileStatus.getKeyInfo(), clientAddress);
@@ -2132,6 +2305,9 @@ private void sortDatanodeInPipeline(OmKeyInfo keyInfo, String clientMachine) {
     if (keyInfo != null && clientMachine != null && !clientMachine.isEmpty()) {
       for (OmKeyLocationInfoGroup key : keyInfo.getKeyLocationVersions()) {
         key.getLocationList().forEach(k -> {
+          if (k.getPipeline() == null) {
+            return;
+          }
           List<DatanodeDetails> nodes = k.getPipeline().getNodes();
           if (nodes == null || nodes.isEmpty()) {
             LOG.warn("Datanodes for pipeline {} is empty",
@@ -24,10 +24,13 @@
 import static org.apache.hadoop.ozone.OzoneConsts.
     OZONE_DB_CHECKPOINT_REQUEST_FLUSH;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -47,6 +50,12 @@
 
 /**
  * Provides the current checkpoint Snapshot of the OM DB. (tar.gz)
+ *
+ * A POST request whose body lists the SST files the client already has, one
+ * "name metadata" line per file, gets an uncompressed tar with only the
+ * other files, see {@link OmUtils#writeOmDBCheckpointToStream(DBCheckpoint,
+ * java.io.OutputStream, Map, Map)}. The files are compared by their RocksDB
+ * metadata, so the request does not make this OM read them.
  */
 public class OMDBCheckpointServlet extends HttpServlet {
 
@@ -91,6 +100,37 @@ public void init() throws ServletException {
    */
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) {
+    writeCheckpoint(request, response, null);
+  }
+
+  /**
+   * Process a POST request for an incremental Ozone Manager DB checkpoint
+   * snapshot. The request body lists the SST files the client has.
+   *
+   * @param request  The servlet request we are processing
+   * @param response The servlet response we are creating
+   */
+  @Override
+  public void doPost(HttpServletRequest request,
+      HttpServletResponse response) {
+    Map<String, String> existingSstFiles = new HashMap<>();
+    try (BufferedReader reader = request.getReader()) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          OmUtils.parseSstFileListEntry(line, existingSstFiles);
+        }
+      }
+    } catch (IOException e) {
+      LOG.error("Unable to read the SST file list of the request.", e);
+      response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+    writeCheckpoint(request, response, existingSstFiles);
+  }
+
+  private void writeCheckpoint(HttpServletRequest request,
+      HttpServletResponse response, Map<String, String> existingSstFiles) {
 
     LOG.info("Received request to obtain OM DB checkpoint snapshot");
     if (omDbStore == null) {
@@ -148,14 +188,27 @@ public void doGet(HttpServletRequest request, HttpServletResponse response) {
       if (file == null) {
         return;
       }
-      response.setContentType("application/x-tgz");
-      response.setHeader("Content-Disposition",
-          "attachment; filename=\"" +
-               file.toString() + ".tgz\"");
-
       Instant start = Instant.now();
-      OmUtils.writeOmDBCheckpointToStream(checkpoint,
-          response.getOutputStream());
+      if (existingSstFiles == null) {
+        response.setContentType("application/x-tgz");
+        response.setHeader("Content-Disposition",
+            "attachment; filename=\"" +
+                 file.toString() + ".tgz\"");
+        OmUtils.writeOmDBCheckpointToStream(checkpoint,
+            response.getOutputStream());
+      } else {
+        LOG.info("Client reported {} SST files it already has.",
+            existingSstFiles.size());
+        response.setContentType("application/x-tar");
+        response.setHeader("Content-Disposition",
+            "attachment; filename=\"" +
+                 file.toString() + ".tar\"");
+        OmUtils.writeOmDBCheckpointToStream(checkpoint,
+            response.getOutputStream(), OmUtils.getCheckpointSstFiles(
+                omDbStore.getLiveSstFiles(),
+                checkpoint.getCheckpointLocation()),
+            existingSstFiles);
+      }
       Instant end = Instant.now();
 
       long duration = Duration.between(start, end).toMillis();
@@ -129,6 +129,16 @@ public class OMMetrics {
   private @Metric MutableCounterLong numCheckpoints;
   private @Metric MutableCounterLong numCheckpointFails;
 
+  // Write requests submitted to Ratis whose RPC response is not sent yet.
+  private @Metric MutableGaugeLong numDeferredWriteRequests;
+
+  // Read requests served by this OM as a follower.
+  private @Metric MutableCounterLong numFollowerReads;
+
+  // Backlog of the key deleting service.
+  private @Metric MutableGaugeLong numPendingDeletionKeys;
+  private @Metric MutableGaugeLong pendingDeletionBytes;
+
   private @Metric MutableCounterLong numBucketS3Creates;
   private @Metric MutableCounterLong numBucketS3CreateFails;
   private @Metric MutableCounterLong numBucketS3Deletes;
@@ -535,6 +545,26 @@ public void incNumCheckpointFails() {
     numCheckpointFails.incr();
   }
 
+  public void incNumDeferredWriteRequests() {
+    numDeferredWriteRequests.incr();
+  }
+
+  public void decNumDeferredWriteRequests() {
+    numDeferredWriteRequests.decr();
+  }
+
+  public void setNumPendingDeletionKeys(long val) {
+    this.numPendingDeletionKeys.set(val);
+  }
+
+  public void setPendingDeletionBytes(long val) {
+    this.pendingDeletionBytes.set(val);
+  }
+
+  public void incNumFollowerReads() {
+    numFollowerReads.incr();
+  }
+
   @VisibleForTesting
   public long getNumVolumeCreates() {
     return numVolumeCreates.value();
@@ -781,6 +811,26 @@ public long getLastCheckpointCreationTimeTaken() {
     return lastCheckpointCreationTimeTaken.value();
   }
 
+  @VisibleForTesting
+  public long getNumDeferredWriteRequests() {
+    return numDeferredWriteRequests.value();
+  }
+
+  @VisibleForTesting
+  public long getNumPendingDeletionKeys() {
+    return numPendingDeletionKeys.value();
+  }
+
+  @VisibleForTesting
+  public long getPendingDeletionBytes() {
+    return pendingDeletionBytes.value();
+  }
+
+  @VisibleForTesting
+  public long getNumFollowerReads() {
+    return numFollowerReads.value();
+  }
+
   @VisibleForTesting
   public long getNumCheckpoints() {
     return numCheckpoints.value();
@@ -30,6 +30,8 @@
 
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.utils.UniqueId;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
 import org.apache.hadoop.hdds.utils.db.DBStore;
 import org.apache.hadoop.hdds.utils.db.DBStoreBuilder;
 import org.apache.hadoop.hdds.utils.db.RocksDBConfiguration;
@@ -67,6 +69,7 @@
 import org.apache.hadoop.ozone.protocol.proto
     .OzoneManagerProtocolProtos.UserVolumeInfo;
 import org.apache.hadoop.ozone.security.OzoneTokenIdentifier;
+import org.apache.hadoop.util.Time;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
@@ -126,11 +129,13 @@ public class OmMetadataManagerImpl implements OMMetadataManager {
   public static final String KEY_TABLE = "keyTable";
   public static final String DELETED_TABLE = "deletedTable";
   public static final String OPEN_KEY_TABLE = "openKeyTable";
+  public static final String OPEN_KEY_EXPIRY_TABLE = "openKeyExpiryTable";
   public static final String S3_TABLE = "s3Table";
   public static final String MULTIPARTINFO_TABLE = "multipartInfoTable";
   public static final String S3_SECRET_TABLE = "s3SecretTable";
   public static final String DELEGATION_TOKEN_TABLE = "dTokenTable";
   public static final String PREFIX_TABLE = "prefixTable";
+  public static final String META_TABLE = "metaTable";
 
   private DBStore store;
 
@@ -143,12 +148,15 @@ public class OmMetadataManagerImpl implements OMMetadataManager {
   private Table keyTable;
   private Table deletedTable;
   private Table openKeyTable;
+  private Table<String, String> openKeyExpiryTable;
   private Table s3Table;
   private Table<String, OmMultipartKeyInfo> multipartInfoTable;
   private Table s3SecretTable;
   private Table dTokenTable;
   private Table prefixTable;
+  private Table<String, String> metaTable;
   private boolean isRatisEnabled;
+  private boolean compactKeyFormat;
 
   public OmMetadataManagerImpl(OzoneConfiguration conf) throws IOException {
     this.lock = new OzoneManagerLock(conf);
@@ -207,6 +215,16 @@ public Table<String, OmKeyInfo> getOpenKeyTable() {
     return openKeyTable;
   }
 
+  @Override
+  public Table<String, String> getOpenKeyExpiryTable() {
+    return openKeyExpiryTable;
+  }
+
+  @Override
+  public Table<String, String> getMetaTable() {
+    return metaTable;
+  }
+
   @Override
   public Table<String, String> getS3Table() {
     return s3Table;
@@ -243,6 +261,9 @@ public void start(OzoneConfiguration configuration) throws IOException {
     // db, so we need to create the store object and initialize DB.
     if (store == null) {
       File metaDir = OMStorage.getOmDbDir(configuration);
+      compactKeyFormat = configuration.getBoolean(
+          OMConfigKeys.OZONE_OM_KEY_COMPACT_FORMAT_ENABLED,
+          OMConfigKeys.OZONE_OM_KEY_COMPACT_FORMAT_ENABLED_DEFAULT);
 
       RocksDBConfiguration rocksDBConfiguration =
           configuration.getObject(RocksDBConfiguration.class);
@@ -266,9 +287,37 @@ public void start(OzoneConfiguration configuration) throws IOException {
 
       this.store = addOMTablesAndCodecs(dbStoreBuilder).build();
       initializeOmTables();
+      addMissingOpenKeyExpiryEntries();
     }
   }
 
+  /**
+   * Indexes the open keys of a DB written before the openKeyExpiryTable
+   * existed, so that they expire as well. This runs only while the index is
+   * empty. The entries are derived from the open keys, so every OM of a
+   * Ratis ring builds the same index.
+   */
+  private void addMissingOpenKeyExpiryEntries() throws IOException {
+    if (!openKeyExpiryTable.isEmpty() || openKeyTable.isEmpty()) {
+      return;
+    }
+    long count = 0;
+    try (BatchOperation batch = store.initBatchOperation();
+         TableIterator<String, ? extends KeyValue<String, OmKeyInfo>>
+             keyIter = getOpenKeyTable().iterator()) {
+      while (keyIter.hasNext()) {
+        String openKey = keyIter.next().getKey();
+        String expiryKey = getOpenKeyExpiryKey(openKey);
+        if (expiryKey != null) {
+          openKeyExpiryTable.putWithBatch(batch, expiryKey, openKey);
+          count++;
+        }
+      }
+      store.commitBatchOperation(batch);
+    }
+    LOG.info("Added {} open keys to {}", count, OPEN_KEY_EXPIRY_TABLE);
+  }
+
   protected DBStoreBuilder addOMTablesAndCodecs(DBStoreBuilder builder) {
 
     return builder.addTable(USER_TABLE)
@@ -277,14 +326,17 @@ protected DBStoreBuilder addOMTablesAndCodecs(DBStoreBuilder builder) {
         .addTable(KEY_TABLE)
         .addTable(DELETED_TABLE)
         .addTable(OPEN_KEY_TABLE)
+        .addTable(OPEN_KEY_EXPIRY_TABLE)
         .addTable(S3_TABLE)
         .addTable(MULTIPARTINFO_TABLE)
         .addTable(DELEGATION_TOKEN_TABLE)
         .addTable(S3_SECRET_TABLE)
         .addTable(PREFIX_TABLE)
+        .addTable(META_TABLE)
         .addCodec(OzoneTokenIdentifier.class, new TokenIdentifierCodec())
-        .addCodec(OmKeyInfo.class, new OmKeyInfoCodec())
-        .addCodec(RepeatedOmKeyInfo.class, new RepeatedOmKeyInfoCodec())
+        .addCodec(OmKeyInfo.class, new OmKeyInfoCodec(compactKeyFormat))
+        .addCodec(RepeatedOmKeyInfo.class,
+            new RepeatedOmKeyInfoCodec(compactKeyFormat))
         .addCodec(OmBucketInfo.class, new OmBucketInfoCodec())
         .addCodec(OmVolumeArgs.class, new OmVolumeArgsCodec())
         .addCodec(UserVolumeInfo.class, new UserVolumeInfoCodec())
@@ -328,6 +380,10 @@ protected void initializeOmTables() throws IOException {
         this.store.getTable(OPEN_KEY_TABLE, String.class, OmKeyInfo.class);
     checkTableStatus(openKeyTable, OPEN_KEY_TABLE);
 
+    openKeyExpiryTable = this.store.getTable(OPEN_KEY_EXPIRY_TABLE,
+        String.class, String.class);
+    checkTableStatus(openKeyExpiryTable, OPEN_KEY_EXPIRY_TABLE);
+
     s3Table = this.store.getTable(S3_TABLE, String.class, String.class);
     checkTableStatus(s3Table, S3_TABLE);
 
@@ -346,6 +402,9 @@ protected void initializeOmTables() throws IOException {
     prefixTable = this.store.getTable(PREFIX_TABLE, String.class,
         OmPrefixInfo.class);
     checkTableStatus(prefixTable, PREFIX_TABLE);
+
+    metaTable = this.store.getTable(META_TABLE, String.class, String.class);
+    checkTableStatus(metaTable, META_TABLE);
   }
 
   /**
@@ -436,6 +495,24 @@ public String getOpenKey(String volume, String bucket,
     return openKey;
   }
 
+  @Override
+  public String getOpenKeyExpiryKey(long creationTime, String openKey) {
+    // Fixed width, so that the lexicographic order of the DB keys is the
+    // order of the creation times.
+    return String.format("%020d", creationTime) + openKey;
+  }
+
+  @Override
+  public String getOpenKeyExpiryKey(String openKey) {
+    String id = openKey.substring(openKey.lastIndexOf(OM_KEY_PREFIX) + 1);
+    try {
+      return getOpenKeyExpiryKey(UniqueId.getTime(Long.parseLong(id)),
+          openKey);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
   @Override
   public String getMultipartKey(String volume, String bucket, String key,
                                 String
@@ -898,10 +975,27 @@ public List<BlockGroup> getPendingDeletionKeys(final int keyCount)
   }
 
   @Override
-  public List<BlockGroup> getExpiredOpenKeys() throws IOException {
-    List<BlockGroup> keyBlocksList = Lists.newArrayList();
-    // TODO: Fix the getExpiredOpenKeys, Not part of this patch.
-    return keyBlocksList;
+  public List<String> getExpiredOpenKeys(int count) throws IOException {
+    List<String> expiredKeys = Lists.newArrayList();
+    // Every entry which sorts before this key was created before the expire
+    // threshold.
+    String expiredBefore = getOpenKeyExpiryKey(
+        Time.now() - openKeyExpireThresholdMS, "");
+    int staleCount = 0;
+    try (TableIterator<String, ? extends KeyValue<String, String>>
+             keyIter = getOpenKeyExpiryTable().iterator()) {
+      while (keyIter.hasNext() && expiredKeys.size() - staleCount < count) {
+        KeyValue<String, String> entry = keyIter.next();
+        if (entry.getKey().compareTo(expiredBefore) >= 0) {
+          break;
+        }
+        expiredKeys.add(entry.getKey());
+        if (!getOpenKeyTable().isExist(entry.getValue())) {
+          staleCount++;
+        }
+      }
+    }
+    return expiredKeys;
   }
 
   @Override
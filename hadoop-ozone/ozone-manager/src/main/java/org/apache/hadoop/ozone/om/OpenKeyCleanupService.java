@@ -15,48 +15,71 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.apache.hadoop.ozone.om;
 
-import org.apache.hadoop.ozone.common.BlockGroup;
-import org.apache.hadoop.ozone.common.DeleteBlockGroupResult;
-import org.apache.hadoop.hdds.scm.protocol.ScmBlockLocationProtocol;
-import org.apache.hadoop.util.StringUtils;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.ServiceException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeOpenKeysRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
 import org.apache.hadoop.hdds.utils.BackgroundService;
 import org.apache.hadoop.hdds.utils.BackgroundTask;
 import org.apache.hadoop.hdds.utils.BackgroundTaskQueue;
 import org.apache.hadoop.hdds.utils.BackgroundTaskResult;
+import org.apache.ratis.protocol.ClientId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_OPEN_KEY_CLEANUP_LIMIT_PER_TASK;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_OPEN_KEY_CLEANUP_LIMIT_PER_TASK_DEFAULT;
 
 /**
  * This is the background service to delete hanging open keys.
- * Scan the metadata of om periodically to get
- * the keys with prefix "#open#" and ask scm to
- * delete metadata accordingly, if scm returns
- * success for keys, then clean up those keys.
+ * Scan the open key expiry index of om periodically to get the keys which
+ * have been open for longer than the expire threshold, and purge them with a
+ * single request. The blocks of the purged keys are moved to the
+ * deletedTable, from where the {@link KeyDeletingService} asks scm to delete
+ * them.
  */
 public class OpenKeyCleanupService extends BackgroundService {
 
   private static final Logger LOG =
       LoggerFactory.getLogger(OpenKeyCleanupService.class);
 
-  private final static int OPEN_KEY_DELETING_CORE_POOL_SIZE = 2;
+  private final static int OPEN_KEY_DELETING_CORE_POOL_SIZE = 1;
 
+  private final OzoneManager ozoneManager;
   private final KeyManager keyManager;
-  private final ScmBlockLocationProtocol scmClient;
+  private final ClientId clientId = ClientId.randomId();
+  private final int keyLimitPerTask;
+  private final AtomicLong deletedKeyCount;
 
-  public OpenKeyCleanupService(ScmBlockLocationProtocol scmClient,
+  public OpenKeyCleanupService(OzoneManager ozoneManager,
       KeyManager keyManager, int serviceInterval,
-      long serviceTimeout) {
+      long serviceTimeout, Configuration conf) {
     super("OpenKeyCleanupService", serviceInterval, TimeUnit.SECONDS,
         OPEN_KEY_DELETING_CORE_POOL_SIZE, serviceTimeout);
+    this.ozoneManager = ozoneManager;
     this.keyManager = keyManager;
-    this.scmClient = scmClient;
+    this.keyLimitPerTask = conf.getInt(OZONE_OPEN_KEY_CLEANUP_LIMIT_PER_TASK,
+        OZONE_OPEN_KEY_CLEANUP_LIMIT_PER_TASK_DEFAULT);
+    this.deletedKeyCount = new AtomicLong(0);
+  }
+
+  /**
+   * Returns the number of expired open keys submitted for purge.
+   *
+   * @return Long count.
+   */
+  @VisibleForTesting
+  public AtomicLong getDeletedKeyCount() {
+    return deletedKeyCount;
   }
 
   @Override
@@ -66,6 +89,21 @@ public BackgroundTaskQueue getTasks() {
     return queue;
   }
 
+  private boolean shouldRun() {
+    if (ozoneManager == null) {
+      // OzoneManager can be null for testing
+      return true;
+    }
+    return ozoneManager.isLeader();
+  }
+
+  private boolean isRatisEnabled() {
+    if (ozoneManager == null) {
+      return false;
+    }
+    return ozoneManager.isRatisEnabled();
+  }
+
   private class OpenKeyDeletingTask
       implements BackgroundTask<BackgroundTaskResult> {
 
@@ -76,36 +114,25 @@ public int getPriority() {
 
     @Override
     public BackgroundTaskResult call() throws Exception {
+      if (!shouldRun()) {
+        return BackgroundTaskResult.EmptyTaskResult.newResult();
+      }
       try {
-        List<BlockGroup> keyBlocksList = keyManager.getExpiredOpenKeys();
-        if (keyBlocksList.size() > 0) {
-          int toDeleteSize = keyBlocksList.size();
+        List<String> expiryKeys =
+            keyManager.getExpiredOpenKeys(keyLimitPerTask);
+        if (expiryKeys != null && !expiryKeys.isEmpty()) {
+          int toDeleteSize = expiryKeys.size();
           LOG.debug("Found {} to-delete open keys in OM", toDeleteSize);
-          List<DeleteBlockGroupResult> results =
-              scmClient.deleteKeyBlocks(keyBlocksList);
-          int deletedSize = 0;
-          for (DeleteBlockGroupResult result : results) {
-            if (result.isSuccess()) {
-              try {
-                keyManager.deleteExpiredOpenKey(result.getObjectKey());
-                if (LOG.isDebugEnabled()) {
-                  LOG.debug("Key {} deleted from OM DB", result.getObjectKey());
-                }
-                deletedSize += 1;
-              } catch (IOException e) {
-                LOG.warn("Failed to delete hanging-open key {}",
-                    result.getObjectKey(), e);
-              }
-            } else {
-              LOG.warn("Deleting open Key {} failed because some of the blocks"
-                      + " were failed to delete, failed blocks: {}",
-                  result.getObjectKey(),
-                  StringUtils.join(",", result.getFailedBlocks()));
-            }
+          int deletedSize;
+          if (isRatisEnabled()) {
+            deletedSize = submitPurgeOpenKeysRequest(expiryKeys);
+          } else {
+            deletedSize = keyManager.deleteExpiredOpenKeys(expiryKeys);
           }
+          deletedKeyCount.addAndGet(deletedSize);
           LOG.info("Found {} expired open key entries, successfully " +
               "cleaned up {} entries", toDeleteSize, deletedSize);
-          return results::size;
+          return () -> deletedSize;
         } else {
           LOG.debug("No hanging open key found in OM");
         }
@@ -115,5 +142,32 @@ public BackgroundTaskResult call() throws Exception {
       }
       return BackgroundTaskResult.EmptyTaskResult.newResult();
     }
+
+    /**
+     * Submits a single PurgeOpenKeys request for all the expired open keys
+     * found by this run.
+     *
+     * @param expiryKeys keys in the openKeyExpiryTable.
+     */
+    private int submitPurgeOpenKeysRequest(List<String> expiryKeys) {
+      PurgeOpenKeysRequest purgeOpenKeysRequest =
+          PurgeOpenKeysRequest.newBuilder()
+              .addAllExpiryKeys(expiryKeys)
+              .build();
+
+      OMRequest omRequest = OMRequest.newBuilder()
+          .setCmdType(Type.PurgeOpenKeys)
+          .setPurgeOpenKeysRequest(purgeOpenKeysRequest)
+          .setClientId(clientId.toString())
+          .build();
+
+      try {
+        ozoneManager.getOmServerProtocol().submitRequest(null, omRequest);
+      } catch (ServiceException e) {
+        LOG.error("PurgeOpenKeys request failed. Will retry at next run.");
+        return 0;
+      }
+      return expiryKeys.size();
+    }
   }
 }
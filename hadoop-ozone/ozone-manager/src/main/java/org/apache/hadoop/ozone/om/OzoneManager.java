@@ -308,6 +308,7 @@ private OzoneManager(OzoneConfiguration conf) throws IOException,
     super(OzoneVersionInfo.OZONE_VERSION_INFO);
     Preconditions.checkNotNull(conf);
     configuration = conf;
+    AUDIT.configure(conf);
     // Load HA related configurations
     OMHANodeDetails omhaNodeDetails =
         OMHANodeDetails.loadOMHAConfig(configuration);
@@ -1277,6 +1278,7 @@ public void stop() {
     } catch (Exception e) {
       LOG.error("OzoneManager stop failed.", e);
     }
+    AUDIT.close();
   }
 
   /**
@@ -3171,7 +3173,8 @@ private DBCheckpoint getDBCheckpointFromLeader(String leaderId) {
         "from the checkpoint.", leaderId);
 
     try {
-      return omSnapshotProvider.getOzoneManagerDBSnapshot(leaderId);
+      return omSnapshotProvider.getOzoneManagerDBSnapshot(leaderId,
+          metadataManager.getStore());
     } catch (IOException e) {
       LOG.error("Failed to download checkpoint from OM leader {}", leaderId, e);
     }
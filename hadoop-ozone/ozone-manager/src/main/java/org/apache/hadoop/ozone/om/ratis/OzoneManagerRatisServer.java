@@ -25,10 +25,14 @@
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -53,10 +57,12 @@
     .OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos
     .OMResponse;
+import org.apache.hadoop.util.Time;
 import org.apache.ratis.RaftConfigKeys;
 import org.apache.ratis.conf.RaftProperties;
 import org.apache.ratis.grpc.GrpcConfigKeys;
 import org.apache.ratis.netty.NettyConfigKeys;
+import org.apache.ratis.proto.RaftProtos.CommitInfoProto;
 import org.apache.ratis.proto.RaftProtos.RoleInfoProto;
 import org.apache.ratis.proto.RaftProtos.RaftPeerRole;
 import org.apache.ratis.protocol.ClientId;
@@ -110,6 +116,12 @@ public final class OzoneManagerRatisServer {
   private Optional<RaftPeerRole> cachedPeerRole = Optional.empty();
   private Optional<RaftPeerId> cachedLeaderPeerId = Optional.empty();
 
+  private final boolean followerReadEnabled;
+  private final long followerReadMaxStalenessMs;
+  // Follower state as of the last role update, guarded by roleCheckLock.
+  private long lastLeaderContactTime;
+  private long leaderCommitIndex = -1;
+
   private static final AtomicLong CALL_ID_COUNTER = new AtomicLong();
 
   private static long nextCallId() {
@@ -123,17 +135,45 @@ private static long nextCallId() {
    * @throws ServiceException
    */
   public OMResponse submitRequest(OMRequest omRequest) throws ServiceException {
+    try {
+      return submitRequestAsync(omRequest).get();
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof ServiceException) {
+        throw (ServiceException) ex.getCause();
+      }
+      throw new ServiceException(ex.getMessage(), ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException(ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Submit request to Ratis server without waiting for it to be applied.
+   * @param omRequest
+   * @return future completed with the OMResponse once the request is applied,
+   * or exceptionally with a ServiceException.
+   */
+  public CompletableFuture<OMResponse> submitRequestAsync(
+      OMRequest omRequest) {
     RaftClientRequest raftClientRequest =
         createWriteRaftClientRequest(omRequest);
-    RaftClientReply raftClientReply;
+    CompletableFuture<RaftClientReply> raftClientReply;
     try {
-      raftClientReply = server.submitClientRequestAsync(raftClientRequest)
-          .get();
+      raftClientReply = server.submitClientRequestAsync(raftClientRequest);
     } catch (Exception ex) {
-      throw new ServiceException(ex.getMessage(), ex);
+      CompletableFuture<OMResponse> failed = new CompletableFuture<>();
+      failed.completeExceptionally(new ServiceException(ex.getMessage(), ex));
+      return failed;
     }
 
-    return processReply(omRequest, raftClientReply);
+    return raftClientReply.thenApply(reply -> {
+      try {
+        return processReply(omRequest, reply);
+      } catch (ServiceException ex) {
+        throw new CompletionException(ex);
+      }
+    });
   }
 
   /**
@@ -205,7 +245,11 @@ private OMResponse processReply(OMRequest omRequest, RaftClientReply reply)
     }
 
     try {
-      return OMRatisHelper.getOMResponseFromRaftClientReply(reply);
+      // Clients send the log index with their next reads, so that followers
+      // serve these reads only once they applied the write.
+      return OMRatisHelper.getOMResponseFromRaftClientReply(reply).toBuilder()
+          .setLogIndex(reply.getLogIndex())
+          .build();
     } catch (InvalidProtocolBufferException ex) {
       if (ex.getMessage() != null) {
         throw new ServiceException(ex.getMessage(), ex);
@@ -255,6 +299,20 @@ private OzoneManagerRatisServer(Configuration conf,
     this.port = addr.getPort();
     RaftProperties serverProperties = newRaftProperties(conf);
 
+    this.followerReadEnabled = conf.getBoolean(
+        OMConfigKeys.OZONE_OM_RATIS_FOLLOWER_READ_ENABLED_KEY,
+        OMConfigKeys.OZONE_OM_RATIS_FOLLOWER_READ_ENABLED_DEFAULT);
+    TimeUnit maxStalenessUnit =
+        OMConfigKeys.OZONE_OM_RATIS_FOLLOWER_READ_MAX_STALENESS_DEFAULT
+            .getUnit();
+    long maxStalenessDuration = conf.getTimeDuration(
+        OMConfigKeys.OZONE_OM_RATIS_FOLLOWER_READ_MAX_STALENESS_KEY,
+        OMConfigKeys.OZONE_OM_RATIS_FOLLOWER_READ_MAX_STALENESS_DEFAULT
+            .getDuration(), maxStalenessUnit);
+    this.followerReadMaxStalenessMs = TimeDuration.valueOf(
+        maxStalenessDuration, maxStalenessUnit)
+        .toLong(TimeUnit.MILLISECONDS);
+
     this.raftPeerId = localRaftPeerId;
     this.raftGroupId = RaftGroupId.valueOf(
         getRaftGroupIdFromOmServiceId(raftGroupIdStr));
@@ -289,6 +347,18 @@ public void run() {
         }
       }
     }, roleCheckInitialDelayMs, roleCheckIntervalMs, TimeUnit.MILLISECONDS);
+
+    if (followerReadEnabled) {
+      // Keep the follower state fresh off the RPC handler threads, so the
+      // reads only check the cached state.
+      long refreshIntervalMs = Math.max(1, followerReadMaxStalenessMs / 4);
+      this.scheduledRoleChecker.scheduleWithFixedDelay(() -> {
+        if (!cachedPeerRole.isPresent()
+            || cachedPeerRole.get() != RaftPeerRole.LEADER) {
+          updateServerRole();
+        }
+      }, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
   }
 
   /**
@@ -565,6 +635,61 @@ public boolean isLeader() {
     return checkCachedPeerRoleIsLeader();
   }
 
+  /**
+   * Check if this OM can serve a read request as a follower.
+   *
+   * This is the case if follower reads are enabled, this OM heard from the
+   * leader within the max staleness and it applied all the transactions which
+   * the leader had committed at that time. So the read reflects all the
+   * writes acknowledged by the leader before the max staleness. The follower
+   * must also have applied the last write seen by the client, so that the
+   * client reads its own writes.
+   *
+   * The follower state is refreshed in the background and reset when the
+   * leader changes, so this check does not call the Ratis server.
+   * @param minAppliedIndex log index of the last write seen by the client.
+   * @return true if the read can be served, false otherwise.
+   */
+  public boolean canServeFollowerRead(long minAppliedIndex) {
+    if (!followerReadEnabled) {
+      return false;
+    }
+    long appliedIndex = getLastAppliedTermIndex().getIndex();
+    this.roleCheckLock.readLock().lock();
+    try {
+      return isFollowerReadAllowed(cachedPeerRole, Time.monotonicNow(),
+          lastLeaderContactTime, followerReadMaxStalenessMs,
+          Math.max(leaderCommitIndex, minAppliedIndex), appliedIndex);
+    } finally {
+      this.roleCheckLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @param commitIndex index the follower must have applied to serve reads.
+   * Negative if the commit index of the leader is unknown.
+   */
+  @VisibleForTesting
+  static boolean isFollowerReadAllowed(Optional<RaftPeerRole> role, long now,
+      long lastLeaderContactTime, long maxStalenessMs, long commitIndex,
+      long appliedIndex) {
+    return role.isPresent()
+        && role.get() == RaftPeerRole.FOLLOWER
+        && now - lastLeaderContactTime <= maxStalenessMs
+        && commitIndex >= 0
+        && appliedIndex >= commitIndex;
+  }
+
+  /**
+   * Called when the leader changes. Follower reads are rejected until the
+   * next refresh of the follower state, as the commit index known from the
+   * old leader may be behind the writes of the new one.
+   */
+  public void handleLeaderChanged(RaftPeerId newLeaderId) {
+    LOG.info("OM leader changed to {}", newLeaderId);
+    updateFollowerState(0, -1);
+  }
+
   /**
    * Get the suggested leader peer id.
    * @return RaftPeerId of the suggested leader node.
@@ -603,6 +728,8 @@ public void updateServerRole() {
         }
 
         setServerRole(thisNodeRole, leaderPeerId);
+        updateFollowerState(groupInfo, leaderNodeId, roleInfoProto
+            .getFollowerInfo().getLeaderInfo().getLastRpcElapsedTimeMs());
 
       } else {
         setServerRole(thisNodeRole, null);
@@ -615,10 +742,55 @@ public void updateServerRole() {
     }
   }
 
+  /**
+   * Record when the leader was last heard of and the commit index of the
+   * leader, used to decide if this follower can serve reads.
+   *
+   * The commit index of the follower itself is not used, as it is never
+   * ahead of the log of the follower, however far behind the leader it is.
+   * The leader sends its commit index with every append entries request, so
+   * the follower knows it as of the last contact with the leader. Without it
+   * follower reads are rejected.
+   */
+  private void updateFollowerState(GroupInfoReply groupInfo,
+      ByteString leaderNodeId, long lastRpcElapsedTimeMs) {
+    updateFollowerState(Time.monotonicNow() - lastRpcElapsedTimeMs,
+        getLeaderCommitIndex(groupInfo.getCommitInfos(), leaderNodeId));
+  }
+
+  /**
+   * @return the commit index of the leader, or -1 if it is unknown.
+   */
+  @VisibleForTesting
+  static long getLeaderCommitIndex(Collection<CommitInfoProto> commitInfos,
+      ByteString leaderNodeId) {
+    if (leaderNodeId == null || leaderNodeId.isEmpty()) {
+      return -1;
+    }
+    for (CommitInfoProto commitInfo : commitInfos) {
+      if (commitInfo.getServer().getId().equals(leaderNodeId)) {
+        return commitInfo.getCommitIndex();
+      }
+    }
+    return -1;
+  }
+
+  @VisibleForTesting
+  void updateFollowerState(long leaderContactTime, long commitIndex) {
+    this.roleCheckLock.writeLock().lock();
+    try {
+      this.lastLeaderContactTime = leaderContactTime;
+      this.leaderCommitIndex = commitIndex;
+    } finally {
+      this.roleCheckLock.writeLock().unlock();
+    }
+  }
+
   /**
    * Set the current server role and the leader peer id.
    */
-  private void setServerRole(RaftPeerRole currentRole,
+  @VisibleForTesting
+  void setServerRole(RaftPeerRole currentRole,
       RaftPeerId leaderPeerId) {
     this.roleCheckLock.writeLock().lock();
     try {
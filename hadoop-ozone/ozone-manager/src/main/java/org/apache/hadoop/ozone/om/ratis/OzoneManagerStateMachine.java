@@ -46,6 +46,7 @@
 import org.apache.ratis.protocol.Message;
 import org.apache.ratis.protocol.RaftClientRequest;
 import org.apache.ratis.protocol.RaftGroupId;
+import org.apache.ratis.protocol.RaftGroupMemberId;
 import org.apache.ratis.protocol.RaftPeerId;
 import org.apache.ratis.server.RaftServer;
 import org.apache.ratis.server.protocol.TermIndex;
@@ -377,6 +378,15 @@ public void notifyNotLeader(Collection<TransactionContext> pendingEntries)
     omRatisServer.updateServerRole();
   }
 
+  /**
+   * Notifies the state machine that the leader of the group changed.
+   */
+  @Override
+  public void notifyLeaderChanged(RaftGroupMemberId groupMemberId,
+      RaftPeerId newLeaderId) {
+    omRatisServer.handleLeaderChanged(newLeaderId);
+  }
+
   /**
    * Handle the RaftClientRequest and return TransactionContext object.
    * @param raftClientRequest
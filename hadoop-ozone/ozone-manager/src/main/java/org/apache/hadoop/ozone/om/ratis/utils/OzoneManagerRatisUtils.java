@@ -33,6 +33,7 @@
 import org.apache.hadoop.ozone.om.request.key.OMKeyCreateRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyDeleteRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyPurgeRequest;
+import org.apache.hadoop.ozone.om.request.key.OMOpenKeysPurgeRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyRenameRequest;
 import org.apache.hadoop.ozone.om.request.key.acl.OMKeyAddAclRequest;
 import org.apache.hadoop.ozone.om.request.key.acl.OMKeyRemoveAclRequest;
@@ -122,6 +123,8 @@ public static OMClientRequest createClientRequest(OMRequest omRequest) {
       return new OMFileCreateRequest(omRequest);
     case PurgeKeys:
       return new OMKeyPurgeRequest(omRequest);
+    case PurgeOpenKeys:
+      return new OMOpenKeysPurgeRequest(omRequest);
     case CreateS3Bucket:
       return new S3BucketCreateRequest(omRequest);
     case DeleteS3Bucket:
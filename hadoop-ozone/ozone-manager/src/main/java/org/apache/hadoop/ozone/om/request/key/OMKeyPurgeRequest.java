@@ -51,6 +51,8 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
       OzoneManagerDoubleBufferHelper ozoneManagerDoubleBufferHelper) {
     PurgeKeysRequest purgeKeysRequest = getOmRequest().getPurgeKeysRequest();
     List<String> purgeKeysList = purgeKeysRequest.getKeysList();
+    String lastKey = purgeKeysRequest.hasLastKey() ?
+        purgeKeysRequest.getLastKey() : null;
 
     LOG.debug("Processing Purge Keys for {} number of keys.",
         purgeKeysList.size());
@@ -64,7 +66,7 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
         .build();
 
     OMClientResponse omClientResponse = new OMKeyPurgeResponse(purgeKeysList,
-        omResponse);
+        lastKey, omResponse);
     omClientResponse.setFlushFuture(
         ozoneManagerDoubleBufferHelper.add(omClientResponse,
             transactionLogIndex));
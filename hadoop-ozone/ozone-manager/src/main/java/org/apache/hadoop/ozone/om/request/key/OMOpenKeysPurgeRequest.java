@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import com.google.common.base.Optional;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMOpenKeysPurgeResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeOpenKeysRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeOpenKeysResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.BUCKET_LOCK;
+
+/**
+ * Handles purging of expired open keys from OM DB. The open keys are removed
+ * from the openKeyTable and their blocks are moved to the deletedTable, from
+ * where the KeyDeletingService hands them to SCM.
+ */
+public class OMOpenKeysPurgeRequest extends OMKeyRequest {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMOpenKeysPurgeRequest.class);
+
+  public OMOpenKeysPurgeRequest(OMRequest omRequest) {
+    super(omRequest);
+  }
+
+  @Override
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
+      long transactionLogIndex,
+      OzoneManagerDoubleBufferHelper ozoneManagerDoubleBufferHelper) {
+    PurgeOpenKeysRequest purgeOpenKeysRequest =
+        getOmRequest().getPurgeOpenKeysRequest();
+    List<String> expiryKeys = purgeOpenKeysRequest.getExpiryKeysList();
+
+    LOG.debug("Processing Purge Open Keys for {} number of keys.",
+        expiryKeys.size());
+
+    OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
+    // Open keys which still exist, by open key. Expiry keys of open keys
+    // which were already committed or deleted are only removed from the
+    // index.
+    Map<String, OmKeyInfo> openKeys = new HashMap<>();
+    for (String expiryKey : expiryKeys) {
+      try {
+        String openKey =
+            omMetadataManager.getOpenKeyExpiryTable().get(expiryKey);
+        if (openKey == null) {
+          continue;
+        }
+        OmKeyInfo omKeyInfo = removeOpenKey(omMetadataManager, openKey,
+            transactionLogIndex);
+        if (omKeyInfo != null) {
+          openKeys.put(openKey, omKeyInfo);
+        }
+      } catch (IOException ex) {
+        // The entry stays in the index and is retried by the next run.
+        LOG.warn("Failed to purge expired open key {}", expiryKey, ex);
+      }
+    }
+
+    OMResponse omResponse = OMResponse.newBuilder()
+        .setCmdType(Type.PurgeOpenKeys)
+        .setPurgeOpenKeysResponse(PurgeOpenKeysResponse.newBuilder().build())
+        .setStatus(Status.OK)
+        .setSuccess(true)
+        .build();
+
+    OMClientResponse omClientResponse =
+        new OMOpenKeysPurgeResponse(expiryKeys, openKeys, omResponse);
+    omClientResponse.setFlushFuture(
+        ozoneManagerDoubleBufferHelper.add(omClientResponse,
+            transactionLogIndex));
+    return omClientResponse;
+  }
+
+  /**
+   * Removes an open key from the openKeyTable cache under the bucket lock.
+   *
+   * @return the removed key, or null if it no longer exists.
+   */
+  private OmKeyInfo removeOpenKey(OMMetadataManager omMetadataManager,
+      String openKey, long transactionLogIndex) throws IOException {
+    OmKeyInfo omKeyInfo = omMetadataManager.getOpenKeyTable().get(openKey);
+    if (omKeyInfo == null) {
+      return null;
+    }
+    String volumeName = omKeyInfo.getVolumeName();
+    String bucketName = omKeyInfo.getBucketName();
+    omMetadataManager.getLock().acquireLock(BUCKET_LOCK, volumeName,
+        bucketName);
+    try {
+      // Re-read under the lock, the key may have been committed meanwhile.
+      omKeyInfo = omMetadataManager.getOpenKeyTable().get(openKey);
+      if (omKeyInfo != null) {
+        omMetadataManager.getOpenKeyTable().addCacheEntry(
+            new CacheKey<>(openKey),
+            new CacheValue<>(Optional.absent(), transactionLogIndex));
+      }
+      return omKeyInfo;
+    } finally {
+      omMetadataManager.getLock().releaseLock(BUCKET_LOCK, volumeName,
+          bucketName);
+    }
+  }
+}
@@ -62,6 +62,8 @@ public void addToDBBatch(OMMetadataManager omMetadataManager,
       // Delete from open key table and add entry to key table.
       omMetadataManager.getOpenKeyTable().deleteWithBatch(batchOperation,
           openKey);
+      omMetadataManager.getOpenKeyExpiryTable().deleteWithBatch(
+          batchOperation, omMetadataManager.getOpenKeyExpiryKey(openKey));
       omMetadataManager.getKeyTable().putWithBatch(batchOperation, ozoneKey,
           omKeyInfo);
     }
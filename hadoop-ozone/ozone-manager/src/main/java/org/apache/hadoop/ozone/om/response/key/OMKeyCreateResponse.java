@@ -57,6 +57,10 @@ public void addToDBBatch(OMMetadataManager omMetadataManager,
           openKeySessionID);
       omMetadataManager.getOpenKeyTable().putWithBatch(batchOperation,
           openKey, omKeyInfo);
+      // The session ID carries the time the key was opened, so the entry
+      // is found again when the open key is removed.
+      omMetadataManager.getOpenKeyExpiryTable().putWithBatch(batchOperation,
+          omMetadataManager.getOpenKeyExpiryKey(openKey), openKey);
     }
   }
 }
@@ -18,6 +18,7 @@
 
 package org.apache.hadoop.ozone.om.response.key;
 
+import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.response.OMClientResponse;
 import org.apache.hadoop.ozone.om.request.key.OMKeyPurgeRequest;
@@ -35,11 +36,22 @@
 public class OMKeyPurgeResponse extends OMClientResponse {
 
   private List<String> purgeKeyList;
+  private String lastKey;
 
   public OMKeyPurgeResponse(List<String> keyList,
       @Nonnull OMResponse omResponse) {
+    this(keyList, null, omResponse);
+  }
+
+  /**
+   * @param lastKey last key of the batch in the deletedTable, stored as the
+   * position of the key deleting service; null to leave it unchanged.
+   */
+  public OMKeyPurgeResponse(List<String> keyList, String lastKey,
+      @Nonnull OMResponse omResponse) {
     super(omResponse);
     this.purgeKeyList = keyList;
+    this.lastKey = lastKey;
   }
 
   @Override
@@ -51,6 +63,10 @@ public void addToDBBatch(OMMetadataManager omMetadataManager,
         omMetadataManager.getDeletedTable().deleteWithBatch(batchOperation,
             key);
       }
+      if (lastKey != null) {
+        omMetadataManager.getMetaTable().putWithBatch(batchOperation,
+            OzoneConsts.KEY_DELETING_CURSOR, lastKey);
+      }
     }
   }
 }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.key;
+
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
+import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
+import org.apache.hadoop.ozone.om.request.key.OMOpenKeysPurgeRequest;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+/**
+ * Response for {@link OMOpenKeysPurgeRequest} request.
+ */
+public class OMOpenKeysPurgeResponse extends OMClientResponse {
+
+  private List<String> expiryKeys;
+  private Map<String, OmKeyInfo> openKeys;
+
+  public OMOpenKeysPurgeResponse(List<String> expiryKeys,
+      Map<String, OmKeyInfo> openKeys, @Nonnull OMResponse omResponse) {
+    super(omResponse);
+    this.expiryKeys = expiryKeys;
+    this.openKeys = openKeys;
+  }
+
+  @Override
+  public void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+
+    if (getOMResponse().getStatus() == OzoneManagerProtocolProtos.Status.OK) {
+      for (String expiryKey : expiryKeys) {
+        omMetadataManager.getOpenKeyExpiryTable().deleteWithBatch(
+            batchOperation, expiryKey);
+      }
+
+      // Several expired open keys can belong to the same key name, so the
+      // deletedTable entries are collected before they are written.
+      Map<String, RepeatedOmKeyInfo> deletedKeys = new HashMap<>();
+      for (Map.Entry<String, OmKeyInfo> entry : openKeys.entrySet()) {
+        OmKeyInfo omKeyInfo = entry.getValue();
+        omMetadataManager.getOpenKeyTable().deleteWithBatch(batchOperation,
+            entry.getKey());
+        if (isKeyEmpty(omKeyInfo)) {
+          continue;
+        }
+        String ozoneKey = omMetadataManager.getOzoneKey(
+            omKeyInfo.getVolumeName(), omKeyInfo.getBucketName(),
+            omKeyInfo.getKeyName());
+        RepeatedOmKeyInfo repeatedOmKeyInfo = deletedKeys.get(ozoneKey);
+        if (repeatedOmKeyInfo == null) {
+          repeatedOmKeyInfo =
+              omMetadataManager.getDeletedTable().get(ozoneKey);
+        }
+        deletedKeys.put(ozoneKey,
+            OmUtils.prepareKeyForDelete(omKeyInfo, repeatedOmKeyInfo));
+      }
+      for (Map.Entry<String, RepeatedOmKeyInfo> entry
+          : deletedKeys.entrySet()) {
+        omMetadataManager.getDeletedTable().putWithBatch(batchOperation,
+            entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private boolean isKeyEmpty(OmKeyInfo keyInfo) {
+    for (OmKeyLocationInfoGroup keyLocationList : keyInfo
+        .getKeyLocationVersions()) {
+      if (keyLocationList.getLocationList().size() != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -123,6 +123,8 @@ public void addToDBBatch(OMMetadataManager omMetadataManager,
     //  safely delete part key info from open key table.
     omMetadataManager.getOpenKeyTable().deleteWithBatch(batchOperation,
         openKey);
+    omMetadataManager.getOpenKeyExpiryTable().deleteWithBatch(batchOperation,
+        omMetadataManager.getOpenKeyExpiryKey(openKey));
   }
 }
 
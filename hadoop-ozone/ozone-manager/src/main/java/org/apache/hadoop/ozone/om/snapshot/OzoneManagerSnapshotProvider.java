@@ -23,8 +23,10 @@
 import org.apache.hadoop.fs.FileUtil;
 import org.apache.hadoop.hdfs.DFSUtil;
 import org.apache.hadoop.http.HttpConfig;
+import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.om.ha.OMNodeDetails;
 import org.apache.hadoop.hdds.utils.db.DBCheckpoint;
+import org.apache.hadoop.hdds.utils.db.DBStore;
 import org.apache.hadoop.hdds.utils.db.RocksDBCheckpoint;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
@@ -32,6 +34,9 @@
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.util.EntityUtils;
@@ -41,6 +46,7 @@
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
@@ -52,6 +58,8 @@
 import static java.net.HttpURLConnection.HTTP_OK;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_RATIS_SNAPSHOT_INDEX;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_RATIS_SNAPSHOT_TERM;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_DB_CHECKPOINT_INCREMENTAL_ENABLED_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_DB_CHECKPOINT_INCREMENTAL_ENABLED_KEY;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SNAPSHOT_PROVIDER_CONNECTION_TIMEOUT_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SNAPSHOT_PROVIDER_REQUEST_TIMEOUT_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SNAPSHOT_PROVIDER_REQUEST_TIMEOUT_KEY;
@@ -73,6 +81,7 @@ public class OzoneManagerSnapshotProvider {
   private final HttpConfig.Policy httpPolicy;
   private final RequestConfig httpRequestConfig;
   private CloseableHttpClient httpClient;
+  private final boolean incrementalTransfer;
 
   private static final String OM_SNAPSHOT_DB = "om.snapshot.db";
 
@@ -89,6 +98,9 @@ public OzoneManagerSnapshotProvider(Configuration conf,
 
     this.httpPolicy = DFSUtil.getHttpPolicy(conf);
     this.httpRequestConfig = getHttpRequestConfig(conf);
+    this.incrementalTransfer = conf.getBoolean(
+        OZONE_DB_CHECKPOINT_INCREMENTAL_ENABLED_KEY,
+        OZONE_DB_CHECKPOINT_INCREMENTAL_ENABLED_DEFAULT);
   }
 
   private RequestConfig getHttpRequestConfig(Configuration conf) {
@@ -152,6 +164,20 @@ private void closeHttpClient() throws IOException {
    */
   public DBCheckpoint getOzoneManagerDBSnapshot(String leaderOMNodeID)
       throws IOException {
+    return getOzoneManagerDBSnapshot(leaderOMNodeID, null);
+  }
+
+  /**
+   * Download the latest checkpoint from OM Leader via HTTP. If incremental
+   * transfer is enabled, only the SST files which differ from those of a
+   * checkpoint of the current DB are downloaded, the others are linked from
+   * that checkpoint.
+   * @param leaderOMNodeID leader OM Node ID.
+   * @param currentDb the current OM DB, may be null.
+   * @return the DB checkpoint (including the ratis snapshot index)
+   */
+  public DBCheckpoint getOzoneManagerDBSnapshot(String leaderOMNodeID,
+      DBStore currentDb) throws IOException {
     String snapshotFileName = OM_SNAPSHOT_DB + "_" + System.currentTimeMillis();
     File targetFile = new File(omSnapshotDir, snapshotFileName + ".tar.gz");
 
@@ -161,9 +187,23 @@ public DBCheckpoint getOzoneManagerDBSnapshot(String leaderOMNodeID)
     LOG.info("Downloading latest checkpoint from Leader OM {}. Checkpoint " +
         "URL: {}", leaderOMNodeID, omCheckpointUrl);
 
+    // The files of the current DB are linked from a checkpoint, so that
+    // compactions cannot remove them during the download.
+    DBCheckpoint localCheckpoint = incrementalTransfer && currentDb != null ?
+        currentDb.getCheckpoint(false) : null;
     try {
-      HttpGet httpGet = new HttpGet(omCheckpointUrl);
-      HttpResponse response = getHttpClient().execute(httpGet);
+      HttpUriRequest request;
+      if (localCheckpoint != null) {
+        HttpPost httpPost = new HttpPost(omCheckpointUrl);
+        httpPost.setEntity(new StringEntity(OmUtils.formatSstFileList(
+            OmUtils.getCheckpointSstFiles(currentDb.getLiveSstFiles(),
+                localCheckpoint.getCheckpointLocation())),
+            StandardCharsets.UTF_8));
+        request = httpPost;
+      } else {
+        request = new HttpGet(omCheckpointUrl);
+      }
+      HttpResponse response = getHttpClient().execute(request);
       int errorCode = response.getStatusLine().getStatusCode();
       HttpEntity entity = response.getEntity();
 
@@ -185,15 +225,23 @@ public DBCheckpoint getOzoneManagerDBSnapshot(String leaderOMNodeID)
 
         long snapshotTerm = Long.parseLong(header.getValue());
 
-        try (InputStream inputStream = entity.getContent()) {
-          FileUtils.copyInputStreamToFile(inputStream, targetFile);
-        }
-
-        // Untar the checkpoint file.
         Path untarredDbDir = Paths.get(omSnapshotDir.getAbsolutePath(),
             snapshotFileName);
-        FileUtil.unTar(targetFile, untarredDbDir.toFile());
-        FileUtils.deleteQuietly(targetFile);
+        if (localCheckpoint != null) {
+          // Extract while downloading, the stream is not compressed.
+          try (InputStream inputStream = entity.getContent()) {
+            OmUtils.extractOmDBCheckpoint(inputStream, untarredDbDir,
+                localCheckpoint.getCheckpointLocation());
+          }
+        } else {
+          try (InputStream inputStream = entity.getContent()) {
+            FileUtils.copyInputStreamToFile(inputStream, targetFile);
+          }
+
+          // Untar the checkpoint file.
+          FileUtil.unTar(targetFile, untarredDbDir.toFile());
+          FileUtils.deleteQuietly(targetFile);
+        }
 
         LOG.info("Sucessfully downloaded latest checkpoint with snapshot " +
             "index {} from leader OM: {}",  snapshotIndex, leaderOMNodeID);
@@ -215,6 +263,9 @@ public DBCheckpoint getOzoneManagerDBSnapshot(String leaderOMNodeID)
       }
     } finally {
       closeHttpClient();
+      if (localCheckpoint != null) {
+        localCheckpoint.cleanupCheckpoint();
+      }
     }
   }
 }
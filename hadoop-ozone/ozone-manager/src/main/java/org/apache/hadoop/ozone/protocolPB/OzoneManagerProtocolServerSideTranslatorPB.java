@@ -17,7 +17,11 @@
 package org.apache.hadoop.ozone.protocolPB;
 
 import org.apache.hadoop.hdds.server.OzoneProtocolMessageDispatcher;
+import org.apache.hadoop.ipc.ProtobufRpcEngine;
+import org.apache.hadoop.ipc.ProtobufRpcEngineCallback;
+import org.apache.hadoop.ipc.Server;
 import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.om.OMMetrics;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
 import org.apache.hadoop.ozone.om.protocolPB.OzoneManagerProtocolPB;
@@ -30,6 +34,7 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.RpcController;
 import com.google.protobuf.ServiceException;
 import org.apache.ratis.protocol.RaftPeerId;
@@ -39,6 +44,7 @@
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -156,16 +162,55 @@ private OMResponse createErrorResponse(
 
   /**
    * Submits request to OM's Ratis server.
+   *
+   * When called from an RPC handler, the response is deferred and sent once
+   * the request is applied, so the handler thread does not wait for the
+   * replication and can serve other requests. In this case null is returned.
    */
   private OMResponse submitRequestToRatis(OMRequest request)
       throws ServiceException {
-    return omRatisServer.submitRequest(request);
+    if (!Server.isRpcInvocation()) {
+      return omRatisServer.submitRequest(request);
+    }
+    ProtobufRpcEngineCallback callback =
+        ProtobufRpcEngine.Server.registerForDeferredResponse();
+    OMMetrics omMetrics = ozoneManager.getMetrics();
+    omMetrics.incNumDeferredWriteRequests();
+    omRatisServer.submitRequestAsync(request).whenComplete((response, ex) -> {
+      omMetrics.decNumDeferredWriteRequests();
+      sendDeferredResponse(callback, response, ex);
+    });
+    return null;
+  }
+
+  /**
+   * Sends the response, or the failure, of a deferred request to the client.
+   */
+  @VisibleForTesting
+  static void sendDeferredResponse(ProtobufRpcEngineCallback callback,
+      OMResponse response, Throwable ex) {
+    if (ex == null) {
+      callback.setResponse(response);
+    } else {
+      // Same as for a ServiceException thrown by the handler, the client
+      // receives the cause.
+      Throwable cause = ex instanceof CompletionException
+          && ex.getCause() != null ? ex.getCause() : ex;
+      if (cause instanceof ServiceException && cause.getCause() != null) {
+        cause = cause.getCause();
+      }
+      callback.error(cause);
+    }
   }
 
   private OMResponse submitReadRequestToOM(OMRequest request)
       throws ServiceException {
-    // Check if this OM is the leader.
-    if (omRatisServer.isLeader()) {
+    // Check the cached follower state first, as isLeader() queries the Ratis
+    // server when this OM is not the leader.
+    if (omRatisServer.canServeFollowerRead(request.getMinAppliedIndex())) {
+      ozoneManager.getMetrics().incNumFollowerReads();
+      return handler.handleReadRequest(request);
+    } else if (omRatisServer.isLeader()) {
       return handler.handleReadRequest(request);
     } else {
       throw createNotLeaderException();
@@ -364,6 +364,7 @@ private LookupKeyResponse lookupKey(LookupKeyRequest request)
         .setKeyName(keyArgs.getKeyName())
         .setRefreshPipeline(true)
         .setSortDatanodesInPipeline(keyArgs.getSortDatanodes())
+        .setForceUpdateContainerCache(keyArgs.getForceUpdateContainerCache())
         .build();
     OmKeyInfo keyInfo = impl.lookupKey(omKeyArgs);
     resp.setKeyInfo(keyInfo.getProtobuf());
@@ -575,6 +576,7 @@ private LookupFileResponse lookupFile(
         .setKeyName(keyArgs.getKeyName())
         .setRefreshPipeline(true)
         .setSortDatanodesInPipeline(keyArgs.getSortDatanodes())
+        .setForceUpdateContainerCache(keyArgs.getForceUpdateContainerCache())
         .build();
     return LookupFileResponse.newBuilder()
         .setKeyInfo(impl.lookupFile(omKeyArgs).getProtobuf())
@@ -30,6 +30,7 @@
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.scm.container.common.helpers.ExcludeList;
 import org.apache.hadoop.hdds.server.ServerUtils;
+import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
@@ -41,6 +42,9 @@
 import org.apache.commons.lang3.RandomStringUtils;
 import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_CONTAINER_REPORT_INTERVAL;
 import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_BLOCK_DELETING_SERVICE_INTERVAL;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_KEY_DELETING_LIMIT_PER_TASK;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_KEY_DELETING_LIMIT_PER_TASK_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_KEY_DELETING_MAX_INFLIGHT_BATCHES;
 
 import org.junit.Assert;
 import org.junit.Rule;
@@ -134,6 +138,42 @@ public void checkIfDeleteServiceWithFailingSCM()
     Assert.assertEquals(keyDeletingService.getDeletedKeyCount().get(), 0);
     Assert.assertEquals(
         keyManager.getPendingDeletionKeys(Integer.MAX_VALUE).size(), keyCount);
+    // Rejected batches shrink the batch size.
+    Assert.assertTrue(keyDeletingService.getBatchSize()
+        < OZONE_KEY_DELETING_LIMIT_PER_TASK_DEFAULT);
+  }
+
+  /**
+   * Deleted keys are sent to SCM in several small batches per run; the scan
+   * resumes after the last batch, so every key is deleted exactly once.
+   */
+  @Test(timeout = 30000)
+  public void checkIfDeleteServiceDeletesInBatches()
+      throws IOException, TimeoutException, InterruptedException {
+    OzoneConfiguration conf = createConfAndInitValues();
+    conf.setInt(OZONE_KEY_DELETING_LIMIT_PER_TASK, 10);
+    conf.setInt(OZONE_KEY_DELETING_MAX_INFLIGHT_BATCHES, 3);
+    OmMetadataManagerImpl metaMgr = new OmMetadataManagerImpl(conf);
+    KeyManager keyManager =
+        new KeyManagerImpl(
+            new ScmBlockLocationTestingClient(null, null, 0),
+            metaMgr, conf, UUID.randomUUID().toString(), null);
+    final int keyCount = 100;
+    createAndDeleteKeys(keyManager, keyCount, 1);
+    keyManager.start(conf);
+    KeyDeletingService keyDeletingService =
+        (KeyDeletingService) keyManager.getDeletingService();
+    GenericTestUtils.waitFor(
+        () -> keyDeletingService.getDeletedKeyCount().get() >= keyCount,
+        100, 10000);
+    Assert.assertEquals(keyCount,
+        keyDeletingService.getDeletedKeyCount().get());
+    Assert.assertEquals(10, keyDeletingService.getBatchSize());
+    Assert.assertEquals(
+        keyManager.getPendingDeletionKeys(Integer.MAX_VALUE).size(), 0);
+    // The position is stored for the next leader.
+    Assert.assertNotNull(metaMgr.getMetaTable().get(
+        OzoneConsts.KEY_DELETING_CURSOR));
   }
 
   @Test(timeout = 30000)
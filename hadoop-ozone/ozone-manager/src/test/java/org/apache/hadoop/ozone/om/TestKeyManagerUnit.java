@@ -37,8 +37,10 @@
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
 import org.apache.hadoop.hdds.protocol.StorageType;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationType;
+import org.apache.hadoop.hdds.scm.container.ContainerInfo;
 import org.apache.hadoop.hdds.scm.container.common.helpers.ContainerWithPipeline;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
@@ -58,6 +60,7 @@
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadList;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadListParts;
 import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
+import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
 import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
 import org.apache.hadoop.ozone.security.OzoneBlockTokenSecretManager;
@@ -436,4 +439,232 @@ public void testLookupFileWithDnFailure() throws IOException {
         .getNodes().contains(dnSix));
   }
 
+  @Test
+  public void testRefreshPipelineCachesClosedContainers() throws IOException {
+    final StorageContainerLocationProtocol containerClient =
+        Mockito.mock(StorageContainerLocationProtocol.class);
+    final KeyManagerImpl manager = new KeyManagerImpl(null,
+        new ScmClient(Mockito.mock(ScmBlockLocationProtocol.class),
+            containerClient), metadataManager, configuration, "test-om",
+        Mockito.mock(OzoneBlockTokenSecretManager.class), null, null);
+
+    final Pipeline pipeline = Pipeline.newBuilder()
+        .setId(PipelineID.randomId())
+        .setType(ReplicationType.STAND_ALONE)
+        .setFactor(ReplicationFactor.THREE)
+        .setState(Pipeline.PipelineState.OPEN)
+        .setNodes(Arrays.asList(MockDatanodeDetails.randomDatanodeDetails()))
+        .build();
+    final ContainerWithPipeline closedContainer = new ContainerWithPipeline(
+        new ContainerInfo.Builder().setContainerID(1L)
+            .setState(LifeCycleState.CLOSED).build(), pipeline);
+    final ContainerWithPipeline openContainer = new ContainerWithPipeline(
+        new ContainerInfo.Builder().setContainerID(2L)
+            .setState(LifeCycleState.OPEN).build(), pipeline);
+    Mockito.when(containerClient.getContainerWithPipelineBatch(
+        Arrays.asList(1L, 2L)))
+        .thenReturn(Arrays.asList(closedContainer, openContainer));
+    Mockito.when(containerClient.getContainerWithPipeline(2L))
+        .thenReturn(openContainer);
+
+    final OmKeyInfo keyInfo = new OmKeyInfo.Builder()
+        .setVolumeName("volumeOne")
+        .setBucketName("bucketOne")
+        .setKeyName("keyOne")
+        .setOmKeyLocationInfos(Collections.singletonList(
+            new OmKeyLocationInfoGroup(0, Arrays.asList(
+                new OmKeyLocationInfo.Builder()
+                    .setBlockID(new BlockID(1L, 1L)).build(),
+                new OmKeyLocationInfo.Builder()
+                    .setBlockID(new BlockID(2L, 1L)).build()))))
+        .setCreationTime(Time.now())
+        .setModificationTime(Time.now())
+        .setReplicationType(ReplicationType.RATIS)
+        .setReplicationFactor(ReplicationFactor.THREE)
+        .setAcls(Collections.emptyList())
+        .build();
+
+    manager.refreshPipeline(keyInfo);
+    manager.refreshPipeline(keyInfo);
+
+    // the closed container is served from the cache the second time
+    Mockito.verify(containerClient, Mockito.times(1))
+        .getContainerWithPipelineBatch(Mockito.anyList());
+    Mockito.verify(containerClient, Mockito.times(1))
+        .getContainerWithPipeline(2L);
+    Mockito.verify(containerClient, Mockito.never())
+        .getContainerWithPipeline(1L);
+    for (OmKeyLocationInfo location :
+        keyInfo.getLatestVersionLocations().getLocationList()) {
+      Assert.assertEquals(pipeline.getId(), location.getPipeline().getId());
+    }
+  }
+
+  @Test
+  public void testRefreshPipelineAfterReadFailureSkipsCache()
+      throws IOException {
+    final StorageContainerLocationProtocol containerClient =
+        Mockito.mock(StorageContainerLocationProtocol.class);
+    final KeyManagerImpl manager = new KeyManagerImpl(null,
+        new ScmClient(Mockito.mock(ScmBlockLocationProtocol.class),
+            containerClient), metadataManager, configuration, "test-om",
+        Mockito.mock(OzoneBlockTokenSecretManager.class), null, null);
+
+    final Pipeline oldPipeline = Pipeline.newBuilder()
+        .setId(PipelineID.randomId())
+        .setType(ReplicationType.STAND_ALONE)
+        .setFactor(ReplicationFactor.ONE)
+        .setState(Pipeline.PipelineState.OPEN)
+        .setNodes(Arrays.asList(MockDatanodeDetails.randomDatanodeDetails()))
+        .build();
+    final Pipeline newPipeline = Pipeline.newBuilder()
+        .setId(PipelineID.randomId())
+        .setType(ReplicationType.STAND_ALONE)
+        .setFactor(ReplicationFactor.ONE)
+        .setState(Pipeline.PipelineState.OPEN)
+        .setNodes(Arrays.asList(MockDatanodeDetails.randomDatanodeDetails()))
+        .build();
+    final ContainerInfo containerInfo = new ContainerInfo.Builder()
+        .setContainerID(1L).setState(LifeCycleState.CLOSED).build();
+    Mockito.when(containerClient.getContainerWithPipeline(1L))
+        .thenReturn(new ContainerWithPipeline(containerInfo, oldPipeline))
+        .thenReturn(new ContainerWithPipeline(containerInfo, newPipeline));
+
+    final OmKeyInfo keyInfo = new OmKeyInfo.Builder()
+        .setVolumeName("volumeOne")
+        .setBucketName("bucketOne")
+        .setKeyName("keyOne")
+        .setOmKeyLocationInfos(Collections.singletonList(
+            new OmKeyLocationInfoGroup(0, Collections.singletonList(
+                new OmKeyLocationInfo.Builder()
+                    .setBlockID(new BlockID(1L, 1L)).build()))))
+        .setCreationTime(Time.now())
+        .setModificationTime(Time.now())
+        .setReplicationType(ReplicationType.STAND_ALONE)
+        .setReplicationFactor(ReplicationFactor.ONE)
+        .setAcls(Collections.emptyList())
+        .build();
+    final OmKeyLocationInfo location =
+        keyInfo.getLatestVersionLocations().getLocationList().get(0);
+
+    manager.refreshPipeline(keyInfo, false);
+    Assert.assertEquals(oldPipeline.getId(), location.getPipeline().getId());
+
+    // served from the cache
+    manager.refreshPipeline(keyInfo, false);
+    Assert.assertEquals(oldPipeline.getId(), location.getPipeline().getId());
+    Mockito.verify(containerClient, Mockito.times(1))
+        .getContainerWithPipeline(1L);
+
+    // a client failed to read with the cached location
+    manager.refreshPipeline(keyInfo, true);
+    Assert.assertEquals(newPipeline.getId(), location.getPipeline().getId());
+    Mockito.verify(containerClient, Mockito.times(2))
+        .getContainerWithPipeline(1L);
+
+    // the new location replaced the evicted one
+    manager.refreshPipeline(keyInfo, false);
+    Assert.assertEquals(newPipeline.getId(), location.getPipeline().getId());
+    Mockito.verify(containerClient, Mockito.times(2))
+        .getContainerWithPipeline(1L);
+  }
+
+  @Test
+  public void testListWithCompactKeyFormat() throws IOException {
+    final OzoneConfiguration conf = new OzoneConfiguration();
+    conf.set(HddsConfigKeys.OZONE_METADATA_DIRS,
+        GenericTestUtils.getRandomizedTestDir().toString());
+    conf.setBoolean(OMConfigKeys.OZONE_OM_KEY_COMPACT_FORMAT_ENABLED, true);
+    final OmMetadataManagerImpl compactMetadataManager =
+        new OmMetadataManagerImpl(conf);
+    final KeyManager manager = new KeyManagerImpl(
+        Mockito.mock(ScmBlockLocationProtocol.class),
+        compactMetadataManager, conf, "omtest",
+        Mockito.mock(OzoneBlockTokenSecretManager.class));
+
+    TestOMRequestUtils.addVolumeToOM(compactMetadataManager,
+        OmVolumeArgs.newBuilder()
+            .setVolume("volumeOne")
+            .setAdminName("admin")
+            .setOwnerName("admin")
+            .build());
+    TestOMRequestUtils.addBucketToOM(compactMetadataManager,
+        OmBucketInfo.newBuilder()
+            .setVolumeName("volumeOne")
+            .setBucketName("bucketOne")
+            .build());
+
+    final Pipeline pipeline = Pipeline.newBuilder()
+        .setId(PipelineID.randomId())
+        .setType(ReplicationType.RATIS)
+        .setFactor(ReplicationFactor.THREE)
+        .setState(Pipeline.PipelineState.OPEN)
+        .setNodes(Arrays.asList(MockDatanodeDetails.randomDatanodeDetails()))
+        .build();
+    for (String keyName : Arrays.asList("dir/keyOne", "dir/keyTwo")) {
+      final OmKeyInfo keyInfo = new OmKeyInfo.Builder()
+          .setVolumeName("volumeOne")
+          .setBucketName("bucketOne")
+          .setKeyName(keyName)
+          .setOmKeyLocationInfos(Collections.singletonList(
+              new OmKeyLocationInfoGroup(0, Collections.singletonList(
+                  new OmKeyLocationInfo.Builder()
+                      .setBlockID(new BlockID(1L, 1L))
+                      .setPipeline(pipeline)
+                      .setLength(256000)
+                      .build()))))
+          .setCreationTime(Time.now())
+          .setModificationTime(Time.now())
+          .setDataSize(256000)
+          .setReplicationType(ReplicationType.RATIS)
+          .setReplicationFactor(ReplicationFactor.THREE)
+          .setAcls(Collections.emptyList())
+          .build();
+      // only in the DB, the table cache would still have the pipeline
+      compactMetadataManager.getKeyTable().put(
+          compactMetadataManager.getOzoneKey("volumeOne", "bucketOne",
+              keyName), keyInfo);
+    }
+
+    final List<OmKeyInfo> keys =
+        manager.listKeys("volumeOne", "bucketOne", null, "dir/", 10);
+    Assert.assertEquals(2, keys.size());
+    for (OmKeyInfo key : keys) {
+      OmKeyLocationInfo location =
+          key.getLatestVersionLocations().getLocationList().get(0);
+      Assert.assertNull(location.getPipeline());
+      // the listKeys response is built from the protobuf
+      Assert.assertFalse(key.getProtobuf().getKeyLocationList(0)
+          .getKeyLocations(0).hasPipeline());
+    }
+
+    final OmKeyArgs dirArgs = new OmKeyArgs.Builder()
+        .setVolumeName("volumeOne")
+        .setBucketName("bucketOne")
+        .setKeyName("dir")
+        .build();
+    final List<OzoneFileStatus> statuses =
+        manager.listStatus(dirArgs, false, "", 10);
+    Assert.assertEquals(2, statuses.size());
+    for (OzoneFileStatus status : statuses) {
+      Assert.assertTrue(status.isFile());
+      Assert.assertNull(status.getKeyInfo().getLatestVersionLocations()
+          .getLocationList().get(0).getPipeline());
+      Assert.assertEquals(256000,
+          status.getProtobuf().getStatus().getLength());
+    }
+
+    final OzoneFileStatus fileStatus = manager.getFileStatus(
+        new OmKeyArgs.Builder()
+            .setVolumeName("volumeOne")
+            .setBucketName("bucketOne")
+            .setKeyName("dir/keyOne")
+            .build());
+    Assert.assertFalse(fileStatus.getKeyInfo().getProtobuf()
+        .getKeyLocationList(0).getKeyLocations(0).hasPipeline());
+    Assert.assertEquals(256000, fileStatus.getKeyInfo().getProtobuf()
+        .getKeyLocationList(0).getKeyLocations(0).getLength());
+
+    compactMetadataManager.stop();
+  }
 }
@@ -20,6 +20,7 @@
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.StorageType;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.utils.UniqueId;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
@@ -89,6 +90,24 @@ public void testListVolumes() throws Exception {
     Assert.assertEquals(volumeList.size(), totalVol - startOrder - 1);
   }
 
+  @Test
+  public void testOpenKeyExpiryTableBackfill() throws Exception {
+    OmKeyInfo omKeyInfo = TestOMRequestUtils.createOmKeyInfo("vol1",
+        "bucket1", "key1", HddsProtos.ReplicationType.RATIS,
+        HddsProtos.ReplicationFactor.ONE);
+    String openKey = omMetadataManager.getOpenKey("vol1", "bucket1",
+        "key1", UniqueId.next());
+    omMetadataManager.getOpenKeyTable().put(openKey, omKeyInfo);
+    Assert.assertTrue(omMetadataManager.getOpenKeyExpiryTable().isEmpty());
+
+    // A restart indexes the open keys of a DB without an expiry index.
+    omMetadataManager.stop();
+    omMetadataManager.start(ozoneConfiguration);
+
+    Assert.assertEquals(openKey, omMetadataManager.getOpenKeyExpiryTable()
+        .get(omMetadataManager.getOpenKeyExpiryKey(openKey)));
+  }
+
   @Test
   public void testListBuckets() throws Exception {
 
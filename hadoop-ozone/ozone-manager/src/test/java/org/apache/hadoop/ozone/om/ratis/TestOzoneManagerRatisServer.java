@@ -22,7 +22,10 @@
 import java.net.InetSocketAddress;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -39,8 +42,14 @@
     .OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
 import org.apache.hadoop.test.GenericTestUtils;
+import org.apache.hadoop.util.Time;
+import org.apache.ratis.proto.RaftProtos.CommitInfoProto;
+import org.apache.ratis.proto.RaftProtos.RaftPeerProto;
+import org.apache.ratis.proto.RaftProtos.RaftPeerRole;
 import org.apache.ratis.protocol.RaftGroupId;
+import org.apache.ratis.protocol.RaftPeerId;
 import org.apache.ratis.server.protocol.TermIndex;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
 import org.apache.ratis.util.LifeCycle;
 import org.junit.After;
 import org.junit.Assert;
@@ -150,6 +159,99 @@ public void testLoadSnapshotInfoOnStart() throws Exception {
         lastAppliedTermIndex.getTerm());
   }
 
+  @Test
+  public void testFollowerReadStalenessBound() {
+    long now = 10_000;
+    long maxStaleness = 1000;
+    Optional<RaftPeerRole> follower = Optional.of(RaftPeerRole.FOLLOWER);
+
+    // heard from the leader within the bound and applied all known commits
+    Assert.assertTrue(OzoneManagerRatisServer.isFollowerReadAllowed(
+        follower, now, now - 500, maxStaleness, 10, 10));
+    Assert.assertTrue(OzoneManagerRatisServer.isFollowerReadAllowed(
+        follower, now, now - maxStaleness, maxStaleness, 10, 10));
+    // leader not heard of within the bound
+    Assert.assertFalse(OzoneManagerRatisServer.isFollowerReadAllowed(
+        follower, now, now - maxStaleness - 1, maxStaleness, 10, 10));
+    // known commits not applied yet
+    Assert.assertFalse(OzoneManagerRatisServer.isFollowerReadAllowed(
+        follower, now, now - 500, maxStaleness, 10, 9));
+    // commit index unknown
+    Assert.assertFalse(OzoneManagerRatisServer.isFollowerReadAllowed(
+        follower, now, now - 500, maxStaleness, -1, 10));
+    // not a follower
+    Assert.assertFalse(OzoneManagerRatisServer.isFollowerReadAllowed(
+        Optional.of(RaftPeerRole.CANDIDATE), now, now - 500, maxStaleness,
+        10, 10));
+    Assert.assertFalse(OzoneManagerRatisServer.isFollowerReadAllowed(
+        Optional.empty(), now, now - 500, maxStaleness, 10, 10));
+  }
+
+  @Test
+  public void testFollowerReadUsesLeaderCommitIndex() {
+    ByteString leader = ByteString.copyFromUtf8("leader");
+    ByteString follower = ByteString.copyFromUtf8("follower");
+    List<CommitInfoProto> commitInfos = Arrays.asList(
+        newCommitInfo(follower, 5), newCommitInfo(leader, 100));
+
+    // the own commit index of a lagging follower does not bound the reads
+    Assert.assertEquals(100, OzoneManagerRatisServer.getLeaderCommitIndex(
+        commitInfos, leader));
+    Assert.assertEquals(-1, OzoneManagerRatisServer.getLeaderCommitIndex(
+        commitInfos, ByteString.copyFromUtf8("unknown")));
+    Assert.assertEquals(-1, OzoneManagerRatisServer.getLeaderCommitIndex(
+        commitInfos, ByteString.EMPTY));
+    Assert.assertEquals(-1, OzoneManagerRatisServer.getLeaderCommitIndex(
+        commitInfos, null));
+  }
+
+  private static CommitInfoProto newCommitInfo(ByteString peerId,
+      long commitIndex) {
+    return CommitInfoProto.newBuilder()
+        .setServer(RaftPeerProto.newBuilder().setId(peerId))
+        .setCommitIndex(commitIndex)
+        .build();
+  }
+
+  @Test
+  public void testFollowerReadRejectedAfterLeaderChange() throws Exception {
+    omRatisServer.stop();
+    TermIndex appliedIndex = TermIndex.newTermIndex(1, 5);
+    ozoneManager.getSnapshotInfo().saveRatisSnapshotToDisk(appliedIndex);
+    conf.setBoolean(OMConfigKeys.OZONE_OM_RATIS_FOLLOWER_READ_ENABLED_KEY,
+        true);
+    // refresh the state from Ratis only after the test
+    conf.setTimeDuration(
+        OMConfigKeys.OZONE_OM_RATIS_FOLLOWER_READ_MAX_STALENESS_KEY,
+        1, TimeUnit.HOURS);
+    omRatisServer = OzoneManagerRatisServer.newOMRatisServer(conf,
+        ozoneManager, omNodeDetails, Collections.emptyList());
+
+    omRatisServer.setServerRole(RaftPeerRole.FOLLOWER, null);
+    omRatisServer.updateFollowerState(Time.monotonicNow(),
+        appliedIndex.getIndex());
+    Assert.assertTrue(omRatisServer.canServeFollowerRead(0));
+
+    // reads of clients which saw a later write wait for the follower
+    Assert.assertTrue(omRatisServer.canServeFollowerRead(
+        appliedIndex.getIndex()));
+    Assert.assertFalse(omRatisServer.canServeFollowerRead(
+        appliedIndex.getIndex() + 1));
+
+    // reads wait for the state of the new leader
+    omRatisServer.handleLeaderChanged(RaftPeerId.valueOf("newLeader"));
+    Assert.assertFalse(omRatisServer.canServeFollowerRead(0));
+
+    // and are served again once the follower caught up with it
+    omRatisServer.setServerRole(RaftPeerRole.FOLLOWER, null);
+    omRatisServer.updateFollowerState(Time.monotonicNow(),
+        appliedIndex.getIndex());
+    Assert.assertTrue(omRatisServer.canServeFollowerRead(0));
+    omRatisServer.updateFollowerState(Time.monotonicNow(),
+        appliedIndex.getIndex() + 1);
+    Assert.assertFalse(omRatisServer.canServeFollowerRead(0));
+  }
+
   /**
    * Test that all of {@link OzoneManagerProtocolProtos.Type} enum values are
    * categorized in {@link OmUtils#isReadOnly(OMRequest)}.
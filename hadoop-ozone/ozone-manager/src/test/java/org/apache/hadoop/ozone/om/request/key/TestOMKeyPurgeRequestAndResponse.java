@@ -26,6 +26,7 @@
 import org.junit.Assert;
 import org.junit.Test;
 
+import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
 import org.apache.hadoop.ozone.om.response.OMClientResponse;
 import org.apache.hadoop.ozone.om.response.key.OMKeyPurgeResponse;
@@ -119,8 +120,9 @@ public void testValidateAndUpdateCache() throws Exception {
     BatchOperation batchOperation =
         omMetadataManager.getStore().initBatchOperation();
 
+    String lastKey = deletedKeyNames.get(deletedKeyNames.size() - 1);
     OMKeyPurgeResponse omKeyPurgeResponse =
-        new OMKeyPurgeResponse(deletedKeyNames, omResponse);
+        new OMKeyPurgeResponse(deletedKeyNames, lastKey, omResponse);
     omKeyPurgeResponse.addToDBBatch(omMetadataManager, batchOperation);
 
     // Do manual commit and see whether addToBatch is successful or not.
@@ -131,6 +133,9 @@ public void testValidateAndUpdateCache() throws Exception {
       Assert.assertFalse(omMetadataManager.getDeletedTable().isExist(
           deletedKey));
     }
+    // The key deleting service resumes after the last key of the batch
+    Assert.assertEquals(lastKey, omMetadataManager.getMetaTable().get(
+        OzoneConsts.KEY_DELETING_CURSOR));
   }
 
   private OMRequest preExecute(OMRequest originalOmRequest) throws IOException {
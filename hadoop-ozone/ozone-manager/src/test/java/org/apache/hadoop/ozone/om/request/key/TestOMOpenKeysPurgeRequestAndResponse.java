@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.utils.UniqueId;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.request.TestOMRequestUtils;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PurgeOpenKeysRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+
+/**
+ * Tests {@link OMOpenKeysPurgeRequest} and the expiry index it consumes.
+ */
+public class TestOMOpenKeysPurgeRequestAndResponse extends TestOMKeyRequest {
+
+  private int numKeys = 10;
+
+  /**
+   * Adds open keys, created a long time ago, with one block each to the
+   * openKeyTable and the expiry index.
+   */
+  private List<String> createExpiredOpenKeys() throws Exception {
+    TestOMRequestUtils.addVolumeAndBucketToDB(volumeName, bucketName,
+        omMetadataManager);
+
+    List<String> expiryKeys = new ArrayList<>(numKeys);
+    for (int i = 1; i <= numKeys; i++) {
+      String key = keyName + "-" + i;
+      OmKeyInfo omKeyInfo = TestOMRequestUtils.createOmKeyInfo(volumeName,
+          bucketName, key, replicationType, replicationFactor);
+      omKeyInfo.appendNewBlocks(Collections.singletonList(
+          new OmKeyLocationInfo.Builder()
+              .setBlockID(new BlockID(containerID, localID + i))
+              .setLength(1000L)
+              .build()), false);
+      String openKey = omMetadataManager.getOpenKey(volumeName, bucketName,
+          key, clientID);
+      omMetadataManager.getOpenKeyTable().put(openKey, omKeyInfo);
+      String expiryKey = omMetadataManager.getOpenKeyExpiryKey(i, openKey);
+      omMetadataManager.getOpenKeyExpiryTable().put(expiryKey, openKey);
+      expiryKeys.add(expiryKey);
+    }
+    return expiryKeys;
+  }
+
+  private OMRequest createPurgeOpenKeysRequest(List<String> expiryKeys) {
+    PurgeOpenKeysRequest purgeOpenKeysRequest =
+        PurgeOpenKeysRequest.newBuilder()
+            .addAllExpiryKeys(expiryKeys)
+            .build();
+
+    return OMRequest.newBuilder()
+        .setPurgeOpenKeysRequest(purgeOpenKeysRequest)
+        .setCmdType(Type.PurgeOpenKeys)
+        .setClientId(UUID.randomUUID().toString())
+        .build();
+  }
+
+  @Test
+  public void testGetExpiredOpenKeys() throws Exception {
+    List<String> expiryKeys = createExpiredOpenKeys();
+
+    // A key which was opened just now is not expired.
+    String openKey = omMetadataManager.getOpenKey(volumeName, bucketName,
+        keyName, clientID);
+    omMetadataManager.getOpenKeyExpiryTable().put(
+        omMetadataManager.getOpenKeyExpiryKey(System.currentTimeMillis(),
+            openKey), openKey);
+
+    Assert.assertEquals(expiryKeys,
+        omMetadataManager.getExpiredOpenKeys(Integer.MAX_VALUE));
+    Assert.assertEquals(expiryKeys.subList(0, 3),
+        omMetadataManager.getExpiredOpenKeys(3));
+  }
+
+  @Test
+  public void testGetExpiredOpenKeysSkipsStaleEntries() throws Exception {
+    List<String> expiryKeys = createExpiredOpenKeys();
+
+    // Index entries of keys which were committed before they expired are
+    // older than every open key left, but must not use up the limit.
+    List<String> staleKeys = new ArrayList<>();
+    for (int i = 1; i <= numKeys; i++) {
+      String openKey = omMetadataManager.getOpenKey(volumeName, bucketName,
+          keyName + "-committed-" + i, clientID);
+      String expiryKey = omMetadataManager.getOpenKeyExpiryKey(0L, openKey);
+      omMetadataManager.getOpenKeyExpiryTable().put(expiryKey, openKey);
+      staleKeys.add(expiryKey);
+    }
+    Collections.sort(staleKeys);
+
+    List<String> expected = new ArrayList<>(staleKeys);
+    expected.addAll(expiryKeys.subList(0, 3));
+    Assert.assertEquals(expected, omMetadataManager.getExpiredOpenKeys(3));
+  }
+
+  @Test
+  public void testGetOpenKeyExpiryKey() throws Exception {
+    long before = System.currentTimeMillis();
+    long sessionID = UniqueId.next();
+    String openKey = omMetadataManager.getOpenKey(volumeName, bucketName,
+        keyName, sessionID);
+    String expiryKey = omMetadataManager.getOpenKeyExpiryKey(openKey);
+    Assert.assertTrue(expiryKey.endsWith(openKey));
+    long creationTime = Long.parseLong(
+        expiryKey.substring(0, expiryKey.length() - openKey.length()));
+    Assert.assertTrue(creationTime >= before);
+    Assert.assertTrue(creationTime <= System.currentTimeMillis());
+
+    // Multipart upload entries do not end with a session ID.
+    Assert.assertNull(omMetadataManager.getOpenKeyExpiryKey(
+        omMetadataManager.getMultipartKey(volumeName, bucketName, keyName,
+            UUID.randomUUID().toString())));
+  }
+
+  @Test
+  public void testValidateAndUpdateCache() throws Exception {
+    List<String> expiryKeys = createExpiredOpenKeys();
+
+    // An index entry whose open key was already committed.
+    String committedKey = omMetadataManager.getOpenKey(volumeName,
+        bucketName, keyName, clientID);
+    String committedExpiryKey =
+        omMetadataManager.getOpenKeyExpiryKey(0L, committedKey);
+    omMetadataManager.getOpenKeyExpiryTable().put(committedExpiryKey,
+        committedKey);
+    expiryKeys.add(committedExpiryKey);
+
+    OMOpenKeysPurgeRequest omOpenKeysPurgeRequest =
+        new OMOpenKeysPurgeRequest(createPurgeOpenKeysRequest(expiryKeys));
+
+    OMClientResponse omClientResponse =
+        omOpenKeysPurgeRequest.validateAndUpdateCache(ozoneManager, 100L,
+            ozoneManagerDoubleBufferHelper);
+    Assert.assertEquals(Status.OK,
+        omClientResponse.getOMResponse().getStatus());
+
+    BatchOperation batchOperation =
+        omMetadataManager.getStore().initBatchOperation();
+    omClientResponse.addToDBBatch(omMetadataManager, batchOperation);
+
+    // Do manual commit and see whether addToBatch is successful or not.
+    omMetadataManager.getStore().commitBatchOperation(batchOperation);
+
+    for (String expiryKey : expiryKeys) {
+      Assert.assertFalse(omMetadataManager.getOpenKeyExpiryTable().isExist(
+          expiryKey));
+    }
+    for (int i = 1; i <= numKeys; i++) {
+      String key = keyName + "-" + i;
+      Assert.assertNull(omMetadataManager.getOpenKeyTable().get(
+          omMetadataManager.getOpenKey(volumeName, bucketName, key,
+              clientID)));
+      // The blocks are handed to the KeyDeletingService.
+      Assert.assertTrue(omMetadataManager.getDeletedTable().isExist(
+          omMetadataManager.getOzoneKey(volumeName, bucketName, key)));
+    }
+    Assert.assertEquals(numKeys,
+        omMetadataManager.getPendingDeletionKeys(Integer.MAX_VALUE).size());
+  }
+}
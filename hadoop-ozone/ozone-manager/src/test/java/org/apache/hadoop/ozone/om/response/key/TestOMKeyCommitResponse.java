@@ -51,6 +51,8 @@ public void testAddToDBBatch() throws Exception {
     String openKey = omMetadataManager.getOpenKey(volumeName, bucketName,
         keyName, clientID);
     Assert.assertTrue(omMetadataManager.getOpenKeyTable().isExist(openKey));
+    String expiryKey = omMetadataManager.getOpenKeyExpiryKey(openKey);
+    omMetadataManager.getOpenKeyExpiryTable().put(expiryKey, openKey);
 
     OMKeyCommitResponse omKeyCommitResponse =
         new OMKeyCommitResponse(omKeyInfo, clientID, omResponse);
@@ -62,6 +64,8 @@ public void testAddToDBBatch() throws Exception {
 
     // When key commit key is deleted from openKey table and added to keyTable.
     Assert.assertFalse(omMetadataManager.getOpenKeyTable().isExist(openKey));
+    Assert.assertFalse(
+        omMetadataManager.getOpenKeyExpiryTable().isExist(expiryKey));
     Assert.assertTrue(omMetadataManager.getKeyTable().isExist(
         omMetadataManager.getOzoneKey(volumeName, bucketName, keyName)));
   }
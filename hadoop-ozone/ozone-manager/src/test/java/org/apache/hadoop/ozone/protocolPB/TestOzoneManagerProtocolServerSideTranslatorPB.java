@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.hadoop.ozone.protocolPB;
+
+import com.google.protobuf.ServiceException;
+import org.apache.hadoop.ipc.ProtobufRpcEngineCallback;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests the deferred responses of
+ * {@link OzoneManagerProtocolServerSideTranslatorPB}.
+ */
+public class TestOzoneManagerProtocolServerSideTranslatorPB {
+
+  @Test
+  public void deferredWriteCompletes() {
+    ProtobufRpcEngineCallback callback =
+        Mockito.mock(ProtobufRpcEngineCallback.class);
+    CompletableFuture<OMResponse> future = new CompletableFuture<>();
+    future.whenComplete((response, ex) ->
+        OzoneManagerProtocolServerSideTranslatorPB
+            .sendDeferredResponse(callback, response, ex));
+
+    OMResponse response = OMResponse.newBuilder()
+        .setCmdType(Type.CreateVolume)
+        .setStatus(Status.OK)
+        .setSuccess(true)
+        .build();
+    future.complete(response);
+
+    verify(callback).setResponse(response);
+    verify(callback, never()).error(any());
+  }
+
+  @Test
+  public void deferredWriteFailurePropagates() {
+    ProtobufRpcEngineCallback callback =
+        Mockito.mock(ProtobufRpcEngineCallback.class);
+    CompletableFuture<OMResponse> future = new CompletableFuture<>();
+    // same as in a thenApply chain, the failure is wrapped
+    future.thenApply(r -> r).whenComplete((response, ex) ->
+        OzoneManagerProtocolServerSideTranslatorPB
+            .sendDeferredResponse(callback, response, ex));
+
+    OMException cause = new OMException("not leader",
+        OMException.ResultCodes.INTERNAL_ERROR);
+    future.completeExceptionally(new ServiceException(cause));
+
+    verify(callback).error(cause);
+    verify(callback, never()).setResponse(any());
+  }
+
+  @Test
+  public void unwrapsCompletionException() {
+    ProtobufRpcEngineCallback callback =
+        Mockito.mock(ProtobufRpcEngineCallback.class);
+    OMException cause = new OMException("failed",
+        OMException.ResultCodes.INTERNAL_ERROR);
+
+    OzoneManagerProtocolServerSideTranslatorPB.sendDeferredResponse(
+        callback, null, new CompletionException(cause));
+
+    verify(callback).error(cause);
+  }
+}
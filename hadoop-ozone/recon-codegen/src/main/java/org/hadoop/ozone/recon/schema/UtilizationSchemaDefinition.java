@@ -41,6 +41,9 @@ public class UtilizationSchemaDefinition implements ReconSchemaDefinition {
   public static final String FILE_COUNT_BY_SIZE_TABLE_NAME =
       "file_count_by_size";
 
+  public static final String NAMESPACE_SUMMARY_TABLE_NAME =
+      "namespace_summary";
+
   @Inject
   UtilizationSchemaDefinition(DataSource dataSource) {
     this.dataSource = dataSource;
@@ -52,6 +55,7 @@ public void initializeSchema() throws SQLException {
     Connection conn = dataSource.getConnection();
     createClusterGrowthTable(conn);
     createFileSizeCount(conn);
+    createNamespaceSummary(conn);
   }
 
   void createClusterGrowthTable(Connection conn) {
@@ -77,4 +81,16 @@ void createFileSizeCount(Connection conn) {
             .primaryKey("file_size"))
         .execute();
   }
+
+  void createNamespaceSummary(Connection conn) {
+    DSL.using(conn).createTableIfNotExists(NAMESPACE_SUMMARY_TABLE_NAME)
+        .column("path", SQLDataType.VARCHAR(4096))
+        .column("object_count", SQLDataType.BIGINT)
+        .column("logical_size", SQLDataType.BIGINT)
+        .column("replicated_size", SQLDataType.BIGINT)
+        .column("size_histogram", SQLDataType.VARCHAR(1024))
+        .constraint(DSL.constraint("pk_path")
+            .primaryKey("path"))
+        .execute();
+  }
 }
@@ -43,10 +43,17 @@ private ReconConstants() {
   public static final String CONTAINER_KEY_COUNT_TABLE =
       "containerKeyCountTable";
 
+  public static final String CONTAINER_KEY_SIZE_TABLE =
+      "containerKeySizeTable";
+
+  public static final String CONTAINER_KEY_PREFIX_SIZE_TABLE =
+      "containerKeyPrefixSizeTable";
+
   public static final String FETCH_ALL = "-1";
   public static final String RECON_QUERY_PREVKEY = "prevKey";
   public static final String PREV_CONTAINER_ID_DEFAULT_VALUE = "0";
   public static final String RECON_QUERY_LIMIT = "limit";
+  public static final String RECON_QUERY_PATH = "path";
 
   public static final String RECON_SCM_CONTAINER_DB =
       "recon-" + CONTAINER_DB_SUFFIX;
@@ -20,6 +20,7 @@
 
 import org.apache.hadoop.ozone.recon.tasks.ContainerKeyMapperTask;
 import org.apache.hadoop.ozone.recon.tasks.FileSizeCountTask;
+import org.apache.hadoop.ozone.recon.tasks.NamespaceSummaryTask;
 import org.apache.hadoop.ozone.recon.tasks.ReconDBUpdateTask;
 
 import com.google.inject.AbstractModule;
@@ -36,5 +37,6 @@ protected void configure() {
         Multibinder.newSetBinder(binder(), ReconDBUpdateTask.class);
     taskBinder.addBinding().to(ContainerKeyMapperTask.class);
     taskBinder.addBinding().to(FileSizeCountTask.class);
+    taskBinder.addBinding().to(NamespaceSummaryTask.class);
   }
 }
@@ -31,6 +31,7 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.zip.GZIPOutputStream;
@@ -46,6 +47,9 @@
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 
 import org.apache.http.util.EntityUtils;
@@ -227,9 +231,28 @@ public void untarCheckpointFile(File tarFile, Path destPath)
   public InputStream makeHttpCall(CloseableHttpClient httpClient,
                                          String url)
       throws IOException {
+    return execute(httpClient, new HttpGet(url));
+  }
+
+  /**
+   * Make HTTP POST call on the URL with a text body and return inputstream
+   * to the response.
+   * @param httpClient HttpClient to use.
+   * @param url url to call
+   * @param body request body
+   * @return Inputstream to the response of the HTTP call.
+   * @throws IOException While reading the response.
+   */
+  public InputStream makeHttpPostCall(CloseableHttpClient httpClient,
+      String url, String body) throws IOException {
+    HttpPost httpPost = new HttpPost(url);
+    httpPost.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+    return execute(httpClient, httpPost);
+  }
 
-    HttpGet httpGet = new HttpGet(url);
-    HttpResponse response = httpClient.execute(httpGet);
+  private InputStream execute(CloseableHttpClient httpClient,
+      HttpUriRequest request) throws IOException {
+    HttpResponse response = httpClient.execute(request);
     int errorCode = response.getStatusLine().getStatusCode();
     HttpEntity entity = response.getEntity();
 
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.recon.api;
+
+import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
+import static org.apache.hadoop.ozone.recon.ReconConstants.RECON_QUERY_PATH;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.hadoop.ozone.recon.api.types.NamespaceUsage;
+import org.hadoop.ozone.recon.schema.tables.daos.NamespaceSummaryDao;
+import org.hadoop.ozone.recon.schema.tables.pojos.NamespaceSummary;
+import org.jooq.Configuration;
+
+/**
+ * Endpoint for querying the aggregated usage of volumes, buckets and
+ * directory prefixes maintained by the NamespaceSummaryTask.
+ */
+@Path("/namespace")
+@Produces(MediaType.APPLICATION_JSON)
+public class NamespaceSummaryService {
+
+  private NamespaceSummaryDao namespaceSummaryDao;
+
+  @Inject
+  private Configuration sqlConfiguration;
+
+  NamespaceSummaryDao getDao() {
+    if (namespaceSummaryDao == null) {
+      namespaceSummaryDao = new NamespaceSummaryDao(sqlConfiguration);
+    }
+    return namespaceSummaryDao;
+  }
+
+  /**
+   * Return the number of keys, logical and replicated size and key size
+   * histogram under the given path, e.g. /vol1/bucket1/dir1.
+   * @param path volume, bucket or directory path, defaults to the root.
+   * @return {@link Response}
+   */
+  @GET
+  @Path("/summary")
+  public Response getSummary(
+      @DefaultValue(OM_KEY_PREFIX) @QueryParam(RECON_QUERY_PATH)
+          String path) {
+    return Response.ok(getUsage(normalize(path))).build();
+  }
+
+  /**
+   * Return the usage of the given path and of each of its parents, from
+   * the root down to the path itself.
+   * @param path volume, bucket or directory path, defaults to the root.
+   * @return {@link Response}
+   */
+  @GET
+  @Path("/usage")
+  public Response getUsageWithParents(
+      @DefaultValue(OM_KEY_PREFIX) @QueryParam(RECON_QUERY_PATH)
+          String path) {
+    String normalized = normalize(path);
+    List<NamespaceUsage> usages = new ArrayList<>();
+    usages.add(getUsage(OM_KEY_PREFIX));
+    int index = 1;
+    while (index < normalized.length()) {
+      index = normalized.indexOf(OM_KEY_PREFIX, index);
+      if (index < 0) {
+        index = normalized.length();
+      }
+      usages.add(getUsage(normalized.substring(0, index)));
+      index++;
+    }
+    return Response.ok(usages).build();
+  }
+
+  private NamespaceUsage getUsage(String path) {
+    NamespaceSummary record = getDao().findById(path);
+    return record == null ? new NamespaceUsage(path) :
+        NamespaceUsage.fromRecord(record);
+  }
+
+  /**
+   * Convert the path to the form used by the namespace_summary table:
+   * a leading "/", no empty names and no trailing "/".
+   */
+  static String normalize(String path) {
+    StringBuilder normalized = new StringBuilder();
+    for (String name : path.split(OM_KEY_PREFIX)) {
+      if (!name.isEmpty()) {
+        normalized.append(OM_KEY_PREFIX).append(name);
+      }
+    }
+    return normalized.length() == 0 ? OM_KEY_PREFIX : normalized.toString();
+  }
+}
@@ -33,6 +33,9 @@ public class ContainerMetadata {
   @XmlElement(name = "NumberOfKeys")
   private long numberOfKeys;
 
+  @XmlElement(name = "UsedBytes")
+  private long usedBytes;
+
   public ContainerMetadata(long containerID) {
     this.containerID = containerID;
   }
@@ -53,4 +56,12 @@ public void setNumberOfKeys(long numberOfKeys) {
     this.numberOfKeys = numberOfKeys;
   }
 
+  public long getUsedBytes() {
+    return usedBytes;
+  }
+
+  public void setUsedBytes(long usedBytes) {
+    this.usedBytes = usedBytes;
+  }
+
 }
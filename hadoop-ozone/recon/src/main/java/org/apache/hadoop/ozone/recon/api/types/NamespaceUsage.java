@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.recon.api.types;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hadoop.ozone.recon.schema.tables.pojos.NamespaceSummary;
+
+/**
+ * Aggregated usage of a volume, bucket or directory prefix: number of keys
+ * under it, their logical and replicated size and a histogram of key sizes.
+ * Histogram bins use the same upper bounds as the file_count_by_size table
+ * (1 KB, 2 KB, ..., 1 PB and an extra bin for larger keys).
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+public class NamespaceUsage {
+
+  // 1 KB (2 ^ 10) is the smallest tracked size and 1 PB (2 ^ 50) the
+  // largest, plus an extra bin for keys larger than 1 PB.
+  private static final int MIN_BIN_POWER = 10;
+  private static final int MAX_BIN_POWER = 50;
+  public static final int NUM_BINS = MAX_BIN_POWER - MIN_BIN_POWER + 2;
+
+  @XmlElement(name = "Path")
+  private String path;
+
+  @XmlElement(name = "NumberOfKeys")
+  private long objectCount;
+
+  @XmlElement(name = "LogicalSize")
+  private long logicalSize;
+
+  @XmlElement(name = "ReplicatedSize")
+  private long replicatedSize;
+
+  @XmlElement(name = "FileSizeHistogram")
+  private long[] sizeHistogram;
+
+  public NamespaceUsage(String path) {
+    this.path = path;
+    this.sizeHistogram = new long[NUM_BINS];
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public long getObjectCount() {
+    return objectCount;
+  }
+
+  public long getLogicalSize() {
+    return logicalSize;
+  }
+
+  public long getReplicatedSize() {
+    return replicatedSize;
+  }
+
+  public long[] getSizeHistogram() {
+    return sizeHistogram;
+  }
+
+  /**
+   * Account for a key being added (delta = 1) or removed (delta = -1).
+   * @param delta +1 or -1.
+   * @param dataSize logical size of the key.
+   * @param replicatedDataSize size of the key including replicas.
+   */
+  public void update(int delta, long dataSize, long replicatedDataSize) {
+    objectCount += delta;
+    logicalSize += delta * dataSize;
+    replicatedSize += delta * replicatedDataSize;
+    sizeHistogram[getBinIndex(dataSize)] += delta;
+  }
+
+  /**
+   * Add the counters of the given usage to this one.
+   * @param other usage to merge.
+   */
+  public void merge(NamespaceUsage other) {
+    objectCount += other.objectCount;
+    logicalSize += other.logicalSize;
+    replicatedSize += other.replicatedSize;
+    for (int i = 0; i < NUM_BINS; i++) {
+      sizeHistogram[i] += other.sizeHistogram[i];
+    }
+  }
+
+  public boolean isEmpty() {
+    return objectCount <= 0;
+  }
+
+  /**
+   * Calculate the histogram bin of a key size, which is the number of right
+   * shifts needed until dataSize becomes zero, less the smallest tracked
+   * power.
+   * @param dataSize size of the key.
+   * @return bin index.
+   */
+  public static int getBinIndex(long dataSize) {
+    int index = 64 - Long.numberOfLeadingZeros(dataSize);
+    if (index > MAX_BIN_POWER) {
+      return NUM_BINS - 1;
+    }
+    return index < MIN_BIN_POWER ? 0 : index - MIN_BIN_POWER;
+  }
+
+  /**
+   * Return the upper bound of the key sizes counted in a bin.
+   * @param index bin index.
+   * @return upper bound in bytes.
+   */
+  public static long getBinUpperBound(int index) {
+    return index == NUM_BINS - 1 ? Long.MAX_VALUE :
+        1L << (MIN_BIN_POWER + index);
+  }
+
+  /**
+   * Convert to the row stored in the namespace_summary table.
+   */
+  public NamespaceSummary toRecord() {
+    return new NamespaceSummary(path, objectCount, logicalSize,
+        replicatedSize, StringUtils.join(sizeHistogram, ','));
+  }
+
+  /**
+   * Build from a row of the namespace_summary table.
+   */
+  public static NamespaceUsage fromRecord(NamespaceSummary record) {
+    NamespaceUsage usage = new NamespaceUsage(record.getPath());
+    usage.objectCount = record.getObjectCount();
+    usage.logicalSize = record.getLogicalSize();
+    usage.replicatedSize = record.getReplicatedSize();
+    if (StringUtils.isNotEmpty(record.getSizeHistogram())) {
+      String[] bins = record.getSizeHistogram().split(",");
+      for (int i = 0; i < bins.length && i < NUM_BINS; i++) {
+        usage.sizeHistogram[i] = Long.parseLong(bins[i]);
+      }
+    }
+    return usage;
+  }
+}
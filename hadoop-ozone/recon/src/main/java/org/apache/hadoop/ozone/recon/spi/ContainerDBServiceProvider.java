@@ -65,6 +65,16 @@ void storeContainerKeyMapping(ContainerKeyPrefix containerKeyPrefix,
    */
   void storeContainerKeyCount(Long containerID, Long count) throws IOException;
 
+  /**
+   * Store the containerID -> total size of the key blocks in the container
+   * into the container DB store.
+   *
+   * @param containerID the containerID.
+   * @param size size in bytes of the key blocks within the given containerID.
+   * @throws IOException
+   */
+  void storeContainerKeySize(Long containerID, Long size) throws IOException;
+
   /**
    * Store the total count of containers into the container DB store.
    *
@@ -72,6 +82,36 @@ void storeContainerKeyMapping(ContainerKeyPrefix containerKeyPrefix,
    */
   void storeContainerCount(Long count);
 
+  /**
+   * Get the total size of the key blocks within the given containerID.
+   *
+   * @param containerID the given containerID.
+   * @return size in bytes of the key blocks within the given containerID.
+   * @throws IOException
+   */
+  long getKeySizeForContainer(Long containerID) throws IOException;
+
+  /**
+   * Store the size of the key blocks matching the containerID, key-prefix
+   * into the container DB store.
+   *
+   * @param containerKeyPrefix the containerID, key-prefix tuple.
+   * @param size size in bytes of the key blocks matching that prefix.
+   * @throws IOException
+   */
+  void storeContainerKeyPrefixSize(ContainerKeyPrefix containerKeyPrefix,
+      Long size) throws IOException;
+
+  /**
+   * Get the size of the key blocks matching the containerID, key-prefix.
+   *
+   * @param containerKeyPrefix the containerID, key-prefix tuple.
+   * @return size in bytes of the key blocks, 0 if not known.
+   * @throws IOException
+   */
+  long getSizeForContainerKeyPrefix(ContainerKeyPrefix containerKeyPrefix)
+      throws IOException;
+
   /**
    * Get the stored key prefix count for the given containerID, key prefix.
    *
@@ -133,7 +173,7 @@ Map<Long, ContainerMetadata> getContainers(int limit, long prevContainer)
       throws IOException;
 
   /**
-   * Delete an entry in the container DB.
+   * Delete an entry, and the size stored for it, in the container DB.
    *
    * @param containerKeyPrefix container key prefix to be deleted.
    * @throws IOException exception.
@@ -20,6 +20,8 @@
 
 import static org.apache.hadoop.ozone.recon.ReconConstants.CONTAINER_COUNT_KEY;
 import static org.apache.hadoop.ozone.recon.ReconConstants.CONTAINER_KEY_COUNT_TABLE;
+import static org.apache.hadoop.ozone.recon.ReconConstants.CONTAINER_KEY_PREFIX_SIZE_TABLE;
+import static org.apache.hadoop.ozone.recon.ReconConstants.CONTAINER_KEY_SIZE_TABLE;
 import static org.apache.hadoop.ozone.recon.ReconConstants.CONTAINER_KEY_TABLE;
 import static org.jooq.impl.DSL.currentTimestamp;
 import static org.jooq.impl.DSL.select;
@@ -63,6 +65,8 @@
 
   private Table<ContainerKeyPrefix, Integer> containerKeyTable;
   private Table<Long, Long> containerKeyCountTable;
+  private Table<Long, Long> containerKeySizeTable;
+  private Table<ContainerKeyPrefix, Long> containerKeyPrefixSizeTable;
   private GlobalStatsDao globalStatsDao;
 
   @Inject
@@ -138,6 +142,11 @@ private void initializeTables(DBStore dbStore) {
           ContainerKeyPrefix.class, Integer.class);
       this.containerKeyCountTable = dbStore.getTable(CONTAINER_KEY_COUNT_TABLE,
           Long.class, Long.class);
+      this.containerKeySizeTable = dbStore.getTable(CONTAINER_KEY_SIZE_TABLE,
+          Long.class, Long.class);
+      this.containerKeyPrefixSizeTable = dbStore.getTable(
+          CONTAINER_KEY_PREFIX_SIZE_TABLE, ContainerKeyPrefix.class,
+          Long.class);
     } catch (IOException e) {
       LOG.error("Unable to create Container Key tables." + e);
     }
@@ -170,6 +179,61 @@ public void storeContainerKeyCount(Long containerID, Long count)
     containerKeyCountTable.put(containerID, count);
   }
 
+  /**
+   * Store the containerID -> size of the key blocks into the container DB
+   * store.
+   *
+   * @param containerID the containerID.
+   * @param size size of the key blocks within the given containerID.
+   * @throws IOException
+   */
+  @Override
+  public void storeContainerKeySize(Long containerID, Long size)
+      throws IOException {
+    containerKeySizeTable.put(containerID, size);
+  }
+
+  /**
+   * Get the total size of the key blocks within the given containerID.
+   *
+   * @param containerID the given containerID.
+   * @return size of the key blocks within the given containerID.
+   * @throws IOException
+   */
+  @Override
+  public long getKeySizeForContainer(Long containerID) throws IOException {
+    Long keySize = containerKeySizeTable.get(containerID);
+    return keySize == null ? 0L : keySize;
+  }
+
+  /**
+   * Store the size of the key blocks matching the containerID, key-prefix
+   * into the container DB store.
+   *
+   * @param containerKeyPrefix the containerID, key-prefix tuple.
+   * @param size size of the key blocks matching that prefix.
+   * @throws IOException
+   */
+  @Override
+  public void storeContainerKeyPrefixSize(
+      ContainerKeyPrefix containerKeyPrefix, Long size) throws IOException {
+    containerKeyPrefixSizeTable.put(containerKeyPrefix, size);
+  }
+
+  /**
+   * Get the size of the key blocks matching the containerID, key-prefix.
+   *
+   * @param containerKeyPrefix the containerID, key-prefix tuple.
+   * @return size of the key blocks, 0 if not known.
+   * @throws IOException
+   */
+  @Override
+  public long getSizeForContainerKeyPrefix(
+      ContainerKeyPrefix containerKeyPrefix) throws IOException {
+    Long size = containerKeyPrefixSizeTable.get(containerKeyPrefix);
+    return size == null ? 0L : size;
+  }
+
   /**
    * Get the total count of keys within the given containerID.
    *
@@ -291,9 +355,10 @@ public Map<ContainerKeyPrefix, Integer> getKeyPrefixesForContainer(
   }
 
   /**
-   * Iterate the DB to construct a Map of containerID -> containerMetadata
-   * only for the given limit from the given start key. The start containerID
-   * is skipped from the result.
+   * Iterate the containerID -> no. of keys table to construct a Map of
+   * containerID -> containerMetadata only for the given limit from the given
+   * start key. The start containerID is skipped from the result, so the cost
+   * is proportional to the page size and not to the number of keys.
    *
    * Return all the containers if limit < 0.
    *
@@ -308,43 +373,26 @@ public Map<Long, ContainerMetadata> getContainers(int limit,
                                                     long prevContainer)
       throws IOException {
     Map<Long, ContainerMetadata> containers = new LinkedHashMap<>();
-    TableIterator<ContainerKeyPrefix, ? extends KeyValue<ContainerKeyPrefix,
-        Integer>> containerIterator = containerKeyTable.iterator();
-    ContainerKeyPrefix seekKey;
-    if (prevContainer > 0L) {
-      seekKey = new ContainerKeyPrefix(prevContainer);
-      KeyValue<ContainerKeyPrefix,
-          Integer> seekKeyValue = containerIterator.seek(seekKey);
-      // Check if RocksDB was able to correctly seek to the given
-      // prevContainer containerId. If not, then return empty result
-      if (seekKeyValue != null &&
-          seekKeyValue.getKey().getContainerId() != prevContainer) {
-        return containers;
-      } else {
+    try (TableIterator<Long, ? extends KeyValue<Long, Long>>
+             containerIterator = containerKeyCountTable.iterator()) {
+      if (prevContainer > 0L) {
         // seek to the prevContainer+1 containerID to start scan
-        seekKey = new ContainerKeyPrefix(prevContainer + 1);
-        containerIterator.seek(seekKey);
+        containerIterator.seek(prevContainer + 1);
       }
-    }
-    while (containerIterator.hasNext()) {
-      KeyValue<ContainerKeyPrefix, Integer> keyValue = containerIterator.next();
-      ContainerKeyPrefix containerKeyPrefix = keyValue.getKey();
-      Long containerID = containerKeyPrefix.getContainerId();
-      Integer numberOfKeys = keyValue.getValue();
-
-      // break the loop if limit has been reached
-      // and one more new entity needs to be added to the containers map
-      if (containers.size() == limit && !containers.containsKey(containerID)) {
-        break;
+      while (containerIterator.hasNext() &&
+          (limit < 0 || containers.size() < limit)) {
+        KeyValue<Long, Long> keyValue = containerIterator.next();
+        Long containerID = keyValue.getKey();
+        // Skip containers whose keys have all been deleted.
+        if (keyValue.getValue() == null || keyValue.getValue() <= 0) {
+          continue;
+        }
+        ContainerMetadata containerMetadata =
+            new ContainerMetadata(containerID);
+        containerMetadata.setNumberOfKeys(keyValue.getValue());
+        containerMetadata.setUsedBytes(getKeySizeForContainer(containerID));
+        containers.put(containerID, containerMetadata);
       }
-
-      // initialize containerMetadata with 0 as number of keys.
-      containers.computeIfAbsent(containerID, ContainerMetadata::new);
-      // increment number of keys for the containerID
-      ContainerMetadata containerMetadata = containers.get(containerID);
-      containerMetadata.setNumberOfKeys(containerMetadata.getNumberOfKeys() +
-          numberOfKeys);
-      containers.put(containerID, containerMetadata);
     }
     return containers;
   }
@@ -353,6 +401,7 @@ public Map<Long, ContainerMetadata> getContainers(int limit,
   public void deleteContainerMapping(ContainerKeyPrefix containerKeyPrefix)
       throws IOException {
     containerKeyTable.delete(containerKeyPrefix);
+    containerKeyPrefixSizeTable.delete(containerKeyPrefix);
   }
 
   /**
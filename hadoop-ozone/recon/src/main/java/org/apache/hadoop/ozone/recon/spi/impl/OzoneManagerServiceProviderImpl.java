@@ -50,6 +50,7 @@
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdfs.DFSUtil;
 import org.apache.hadoop.http.HttpConfig;
+import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.protocol.OzoneManagerProtocol;
@@ -61,6 +62,7 @@
 import org.apache.hadoop.ozone.recon.tasks.OMUpdateEventBatch;
 import org.apache.hadoop.ozone.recon.tasks.ReconTaskController;
 import org.apache.hadoop.hdds.utils.db.DBCheckpoint;
+import org.apache.hadoop.hdds.utils.db.DBStore;
 import org.apache.hadoop.hdds.utils.db.DBUpdatesWrapper;
 import org.apache.hadoop.hdds.utils.db.RDBBatchOperation;
 import org.apache.hadoop.hdds.utils.db.RDBStore;
@@ -92,6 +94,7 @@
   private final CloseableHttpClient httpClient;
   private File omSnapshotDBParentDir = null;
   private String omDBSnapshotUrl;
+  private boolean incrementalSnapshot;
 
   private OzoneManagerProtocol ozoneManagerClient;
   private final OzoneConfiguration configuration;
@@ -167,6 +170,9 @@ public OzoneManagerServiceProviderImpl(
     this.reconTaskStatusDao = reconTaskController.getReconTaskStatusDao();
     this.ozoneManagerClient = ozoneManagerClient;
     this.configuration = configuration;
+    this.incrementalSnapshot = configuration.getBoolean(
+        OMConfigKeys.OZONE_DB_CHECKPOINT_INCREMENTAL_ENABLED_KEY,
+        OMConfigKeys.OZONE_DB_CHECKPOINT_INCREMENTAL_ENABLED_DEFAULT);
   }
 
   public void registerOMDBTasks() {
@@ -235,23 +241,48 @@ DBCheckpoint getOzoneManagerDBSnapshot() {
         .currentTimeMillis();
     File targetFile = new File(omSnapshotDBParentDir, snapshotFileName +
         ".tar.gz");
+    Path untarredDbDir = Paths.get(omSnapshotDBParentDir.getAbsolutePath(),
+        snapshotFileName);
+    DBCheckpoint localCheckpoint = null;
     try {
-      try (InputStream inputStream = reconUtils.makeHttpCall(httpClient,
-          omDBSnapshotUrl)) {
-        FileUtils.copyInputStreamToFile(inputStream, targetFile);
-      }
+      if (incrementalSnapshot && omMetadataManager.getStore() != null) {
+        // Only the SST files which differ from a checkpoint of the current
+        // snapshot DB are sent, uncompressed, so extract while downloading.
+        // The checkpoint keeps the other files in place until linked.
+        DBStore currentDb = omMetadataManager.getStore();
+        localCheckpoint = currentDb.getCheckpoint(false);
+        String sstFiles = OmUtils.formatSstFileList(
+            OmUtils.getCheckpointSstFiles(currentDb.getLiveSstFiles(),
+                localCheckpoint.getCheckpointLocation()));
+        try (InputStream inputStream = reconUtils.makeHttpPostCall(
+            httpClient, omDBSnapshotUrl, sstFiles)) {
+          OmUtils.extractOmDBCheckpoint(inputStream, untarredDbDir,
+              localCheckpoint.getCheckpointLocation());
+        }
+      } else {
+        try (InputStream inputStream = reconUtils.makeHttpCall(httpClient,
+            omDBSnapshotUrl)) {
+          FileUtils.copyInputStreamToFile(inputStream, targetFile);
+        }
 
-      // Untar the checkpoint file.
-      Path untarredDbDir = Paths.get(omSnapshotDBParentDir.getAbsolutePath(),
-          snapshotFileName);
-      reconUtils.untarCheckpointFile(targetFile, untarredDbDir);
-      FileUtils.deleteQuietly(targetFile);
+        // Untar the checkpoint file.
+        reconUtils.untarCheckpointFile(targetFile, untarredDbDir);
+        FileUtils.deleteQuietly(targetFile);
+      }
 
       // Currently, OM DB type is not configurable. Hence, defaulting to
       // RocksDB.
       return new RocksDBCheckpoint(untarredDbDir);
     } catch (IOException e) {
       LOG.error("Unable to obtain Ozone Manager DB Snapshot. ", e);
+    } finally {
+      if (localCheckpoint != null) {
+        try {
+          localCheckpoint.cleanupCheckpoint();
+        } catch (IOException e) {
+          LOG.warn("Unable to clean up checkpoint of the current OM DB.", e);
+        }
+      }
     }
     return null;
   }
@@ -19,6 +19,8 @@
 package org.apache.hadoop.ozone.recon.spi.impl;
 
 import static org.apache.hadoop.ozone.recon.ReconConstants.CONTAINER_KEY_COUNT_TABLE;
+import static org.apache.hadoop.ozone.recon.ReconConstants.CONTAINER_KEY_PREFIX_SIZE_TABLE;
+import static org.apache.hadoop.ozone.recon.ReconConstants.CONTAINER_KEY_SIZE_TABLE;
 import static org.apache.hadoop.ozone.recon.ReconConstants.RECON_CONTAINER_KEY_DB;
 import static org.apache.hadoop.ozone.recon.ReconConstants.CONTAINER_KEY_TABLE;
 import static org.apache.hadoop.ozone.recon.ReconServerConfigKeys.OZONE_RECON_DB_DIR;
@@ -90,6 +92,8 @@ private static DBStore getDBStore(OzoneConfiguration configuration,
           .setName(dbName)
           .addTable(CONTAINER_KEY_TABLE)
           .addTable(CONTAINER_KEY_COUNT_TABLE)
+          .addTable(CONTAINER_KEY_SIZE_TABLE)
+          .addTable(CONTAINER_KEY_PREFIX_SIZE_TABLE)
           .addCodec(ContainerKeyPrefix.class, new ContainerKeyPrefixCodec())
           .addCodec(Integer.class, new IntegerCodec())
           .build();
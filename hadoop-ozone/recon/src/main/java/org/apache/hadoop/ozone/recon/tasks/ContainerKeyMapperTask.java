@@ -28,6 +28,8 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -117,14 +119,20 @@ public Pair<String, Boolean> process(OMUpdateEventBatch events) {
       OMDBUpdateEvent<String, OmKeyInfo> omdbUpdateEvent = eventIterator.next();
       String updatedKey = omdbUpdateEvent.getKey();
       OmKeyInfo updatedKeyValue = omdbUpdateEvent.getValue();
+      OmKeyInfo oldKeyValue = omdbUpdateEvent.getOldValue();
       try {
         switch (omdbUpdateEvent.getAction()) {
         case PUT:
+          if (oldKeyValue != null) {
+            // Drop the mappings of the overwritten key so that the per
+            // container counts and sizes stay exact.
+            deleteOMKeyFromContainerDB(updatedKey, oldKeyValue);
+          }
           writeOMKeyToContainerDB(updatedKey, updatedKeyValue);
           break;
 
         case DELETE:
-          deleteOMKeyFromContainerDB(updatedKey);
+          deleteOMKeyFromContainerDB(updatedKey, oldKeyValue);
           break;
 
         default: LOG.debug("Skipping DB update event : {}",
@@ -144,7 +152,49 @@ public Pair<String, Boolean> process(OMUpdateEventBatch events) {
 
   /**
    * Delete an OM Key from Container DB and update containerID -> no. of keys
-   * count.
+   * count and size. The container mappings are derived from the previous
+   * value of the key when it is known, otherwise the container table is
+   * scanned for them.
+   *
+   * @param key key String.
+   * @param omKeyInfo previous value of the key, may be null.
+   * @throws IOException If Unable to write to container DB.
+   */
+  private void  deleteOMKeyFromContainerDB(String key, OmKeyInfo omKeyInfo)
+      throws IOException {
+    if (omKeyInfo == null) {
+      deleteOMKeyFromContainerDB(key);
+      return;
+    }
+    Map<ContainerKeyPrefix, Long> containerKeySizes =
+        getContainerKeySizes(key, omKeyInfo);
+    for (Map.Entry<ContainerKeyPrefix, Long> entry :
+        containerKeySizes.entrySet()) {
+      ContainerKeyPrefix containerKeyPrefix = entry.getKey();
+      if (containerDBServiceProvider.getCountForContainerKeyPrefix(
+          containerKeyPrefix) == 0) {
+        continue;
+      }
+      containerDBServiceProvider.deleteContainerMapping(containerKeyPrefix);
+
+      Long containerID = containerKeyPrefix.getContainerId();
+      long keyCount =
+          containerDBServiceProvider.getKeyCountForContainer(containerID);
+      if (keyCount > 0) {
+        containerDBServiceProvider.storeContainerKeyCount(containerID,
+            --keyCount);
+      }
+      long keySize =
+          containerDBServiceProvider.getKeySizeForContainer(containerID);
+      containerDBServiceProvider.storeContainerKeySize(containerID,
+          Math.max(0L, keySize - entry.getValue()));
+    }
+  }
+
+  /**
+   * Delete an OM Key from Container DB by scanning all the container key
+   * prefixes for it and update containerID -> no. of keys count and size.
+   * The sizes are those stored for the prefixes when the key was written.
    *
    * @param key key String.
    * @throws IOException If Unable to write to container DB.
@@ -168,6 +218,8 @@ private void  deleteOMKeyFromContainerDB(String key)
     }
 
     for (ContainerKeyPrefix containerKeyPrefix : keysToBeDeleted) {
+      long prefixSize = containerDBServiceProvider
+          .getSizeForContainerKeyPrefix(containerKeyPrefix);
       containerDBServiceProvider.deleteContainerMapping(containerKeyPrefix);
 
       // decrement count and update containerKeyCount.
@@ -178,12 +230,16 @@ private void  deleteOMKeyFromContainerDB(String key)
         containerDBServiceProvider.storeContainerKeyCount(containerID,
             --keyCount);
       }
+      long keySize =
+          containerDBServiceProvider.getKeySizeForContainer(containerID);
+      containerDBServiceProvider.storeContainerKeySize(containerID,
+          Math.max(0L, keySize - prefixSize));
     }
   }
 
   /**
    * Write an OM key to container DB and update containerID -> no. of keys
-   * count.
+   * count and size.
    *
    * @param key key String
    * @param omKeyInfo omKeyInfo value
@@ -192,37 +248,41 @@ private void  deleteOMKeyFromContainerDB(String key)
   private void  writeOMKeyToContainerDB(String key, OmKeyInfo omKeyInfo)
       throws IOException {
     long containerCountToIncrement = 0;
-    for (OmKeyLocationInfoGroup omKeyLocationInfoGroup : omKeyInfo
-        .getKeyLocationVersions()) {
-      long keyVersion = omKeyLocationInfoGroup.getVersion();
-      for (OmKeyLocationInfo omKeyLocationInfo : omKeyLocationInfoGroup
-          .getLocationList()) {
-        long containerId = omKeyLocationInfo.getContainerID();
-        ContainerKeyPrefix containerKeyPrefix = new ContainerKeyPrefix(
-            containerId, key, keyVersion);
-        if (containerDBServiceProvider.getCountForContainerKeyPrefix(
-            containerKeyPrefix) == 0) {
-          // Save on writes. No need to save same container-key prefix
-          // mapping again.
-          containerDBServiceProvider.storeContainerKeyMapping(
-              containerKeyPrefix, 1);
-
-          // check if container already exists and
-          // increment the count of containers if it does not exist
-          if (!containerDBServiceProvider.doesContainerExists(containerId)) {
-            containerCountToIncrement++;
-          }
-
-          // update the count of keys for the given containerID
-          long keyCount =
-              containerDBServiceProvider.getKeyCountForContainer(containerId);
+    Map<ContainerKeyPrefix, Long> containerKeySizes =
+        getContainerKeySizes(key, omKeyInfo);
+    for (Map.Entry<ContainerKeyPrefix, Long> entry :
+        containerKeySizes.entrySet()) {
+      ContainerKeyPrefix containerKeyPrefix = entry.getKey();
+      long containerId = containerKeyPrefix.getContainerId();
+      if (containerDBServiceProvider.getCountForContainerKeyPrefix(
+          containerKeyPrefix) == 0) {
+        // Save on writes. No need to save same container-key prefix
+        // mapping again.
+        containerDBServiceProvider.storeContainerKeyMapping(
+            containerKeyPrefix, 1);
+        containerDBServiceProvider.storeContainerKeyPrefixSize(
+            containerKeyPrefix, entry.getValue());
 
-          // increment the count and update containerKeyCount.
-          // keyCount will be 0 if containerID is not found. So, there is no
-          // need to initialize keyCount for the first time.
-          containerDBServiceProvider.storeContainerKeyCount(containerId,
-              ++keyCount);
+        // check if container already exists and
+        // increment the count of containers if it does not exist
+        if (!containerDBServiceProvider.doesContainerExists(containerId)) {
+          containerCountToIncrement++;
         }
+
+        // update the count of keys for the given containerID
+        long keyCount =
+            containerDBServiceProvider.getKeyCountForContainer(containerId);
+
+        // increment the count and update containerKeyCount.
+        // keyCount will be 0 if containerID is not found. So, there is no
+        // need to initialize keyCount for the first time.
+        containerDBServiceProvider.storeContainerKeyCount(containerId,
+            ++keyCount);
+
+        long keySize =
+            containerDBServiceProvider.getKeySizeForContainer(containerId);
+        containerDBServiceProvider.storeContainerKeySize(containerId,
+            keySize + entry.getValue());
       }
     }
 
@@ -232,4 +292,28 @@ private void  writeOMKeyToContainerDB(String key, OmKeyInfo omKeyInfo)
     }
   }
 
+  /**
+   * Group the blocks of all the versions of a key by container.
+   *
+   * @param key key String
+   * @param omKeyInfo omKeyInfo value
+   * @return container key prefix -> size of the key blocks in the container.
+   */
+  private Map<ContainerKeyPrefix, Long> getContainerKeySizes(String key,
+      OmKeyInfo omKeyInfo) {
+    Map<ContainerKeyPrefix, Long> containerKeySizes = new LinkedHashMap<>();
+    for (OmKeyLocationInfoGroup omKeyLocationInfoGroup : omKeyInfo
+        .getKeyLocationVersions()) {
+      long keyVersion = omKeyLocationInfoGroup.getVersion();
+      for (OmKeyLocationInfo omKeyLocationInfo : omKeyLocationInfoGroup
+          .getLocationList()) {
+        ContainerKeyPrefix containerKeyPrefix = new ContainerKeyPrefix(
+            omKeyLocationInfo.getContainerID(), key, keyVersion);
+        containerKeySizes.merge(containerKeyPrefix,
+            omKeyLocationInfo.getLength(), Long::sum);
+      }
+    }
+    return containerKeySizes;
+  }
+
 }
@@ -0,0 +1,222 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.recon.tasks;
+
+import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.KEY_TABLE;
+import static org.hadoop.ozone.recon.schema.tables.NamespaceSummaryTable.NAMESPACE_SUMMARY;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.recon.api.types.NamespaceUsage;
+import org.hadoop.ozone.recon.schema.tables.daos.NamespaceSummaryDao;
+import org.hadoop.ozone.recon.schema.tables.pojos.NamespaceSummary;
+import org.jooq.Configuration;
+import org.jooq.impl.DSL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+
+/**
+ * Maintains per volume, bucket and directory prefix aggregates (number of
+ * keys, logical and replicated size, size histogram) of the OM key table in
+ * the Recon namespace_summary table. Every key contributes to the root, its
+ * volume, its bucket and every parent directory prefix of its name, so a
+ * summary of any path is a single row lookup.
+ */
+public class NamespaceSummaryTask implements ReconDBUpdateTask {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(NamespaceSummaryTask.class);
+
+  private final Configuration sqlConfiguration;
+  private final NamespaceSummaryDao namespaceSummaryDao;
+
+  @Inject
+  public NamespaceSummaryTask(Configuration sqlConfiguration) {
+    this.sqlConfiguration = sqlConfiguration;
+    this.namespaceSummaryDao = new NamespaceSummaryDao(sqlConfiguration);
+  }
+
+  @Override
+  public String getTaskName() {
+    return "NamespaceSummaryTask";
+  }
+
+  @Override
+  public Collection<String> getTaskTables() {
+    return Collections.singletonList(KEY_TABLE);
+  }
+
+  /**
+   * Rebuild the namespace summary from a full scan of the OM key table.
+   *
+   * @param omMetadataManager OM Metadata instance.
+   * @return Pair
+   */
+  @Override
+  public Pair<String, Boolean> reprocess(OMMetadataManager omMetadataManager) {
+    Map<String, NamespaceUsage> summaries = new HashMap<>();
+    Table<String, OmKeyInfo> omKeyInfoTable = omMetadataManager.getKeyTable();
+    try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
+        keyIter = omKeyInfoTable.iterator()) {
+      while (keyIter.hasNext()) {
+        updateSummaries(summaries, keyIter.next().getValue(), 1);
+      }
+    } catch (IOException ioEx) {
+      LOG.error("Unable to populate namespace summary in Recon DB. ", ioEx);
+      return new ImmutablePair<>(getTaskName(), false);
+    }
+
+    List<NamespaceSummary> records = new ArrayList<>(summaries.size());
+    for (NamespaceUsage usage : summaries.values()) {
+      records.add(usage.toRecord());
+    }
+    DSL.using(sqlConfiguration).deleteFrom(NAMESPACE_SUMMARY).execute();
+    namespaceSummaryDao.insert(records);
+
+    LOG.info("Completed a 'reprocess' run of NamespaceSummaryTask for {} " +
+        "paths.", records.size());
+    return new ImmutablePair<>(getTaskName(), true);
+  }
+
+  /**
+   * Apply the key table updates as deltas to the affected paths. Deltas of
+   * the whole batch are accumulated first so that every path is written at
+   * most once.
+   *
+   * @param events Update events - PUT/DELETE.
+   * @return Pair
+   */
+  @Override
+  public Pair<String, Boolean> process(OMUpdateEventBatch events) {
+    Map<String, NamespaceUsage> deltas = new HashMap<>();
+    Iterator<OMDBUpdateEvent> eventIterator = events.getIterator();
+    while (eventIterator.hasNext()) {
+      OMDBUpdateEvent<String, OmKeyInfo> omdbUpdateEvent = eventIterator.next();
+      OmKeyInfo oldKeyInfo = omdbUpdateEvent.getOldValue();
+      switch (omdbUpdateEvent.getAction()) {
+      case PUT:
+        if (oldKeyInfo != null) {
+          updateSummaries(deltas, oldKeyInfo, -1);
+        }
+        updateSummaries(deltas, omdbUpdateEvent.getValue(), 1);
+        break;
+
+      case DELETE:
+        if (oldKeyInfo != null) {
+          updateSummaries(deltas, oldKeyInfo, -1);
+        } else {
+          LOG.warn("No previous value for deleted key {}, skipping.",
+              omdbUpdateEvent.getKey());
+        }
+        break;
+
+      default: LOG.trace("Skipping DB update event : {}",
+          omdbUpdateEvent.getAction());
+      }
+    }
+
+    try {
+      for (NamespaceUsage delta : deltas.values()) {
+        applyDelta(delta);
+      }
+    } catch (Exception e) {
+      LOG.error("Unexpected exception while updating namespace summary.", e);
+      return new ImmutablePair<>(getTaskName(), false);
+    }
+    LOG.info("Completed a 'process' run of NamespaceSummaryTask for {} " +
+        "paths.", deltas.size());
+    return new ImmutablePair<>(getTaskName(), true);
+  }
+
+  private void applyDelta(NamespaceUsage delta) {
+    NamespaceSummary record = namespaceSummaryDao.findById(delta.getPath());
+    if (record == null) {
+      if (!delta.isEmpty()) {
+        namespaceSummaryDao.insert(delta.toRecord());
+      }
+      return;
+    }
+    NamespaceUsage usage = NamespaceUsage.fromRecord(record);
+    usage.merge(delta);
+    if (usage.isEmpty()) {
+      namespaceSummaryDao.deleteById(usage.getPath());
+    } else {
+      namespaceSummaryDao.update(usage.toRecord());
+    }
+  }
+
+  /**
+   * Add (delta = 1) or remove (delta = -1) a key to the summaries of all
+   * the paths it belongs to.
+   */
+  private void updateSummaries(Map<String, NamespaceUsage> summaries,
+      OmKeyInfo omKeyInfo, int delta) {
+    long dataSize = omKeyInfo.getDataSize();
+    long replicatedSize = dataSize * omKeyInfo.getFactor().getNumber();
+    for (String path : getParentPaths(omKeyInfo)) {
+      summaries.computeIfAbsent(path, NamespaceUsage::new)
+          .update(delta, dataSize, replicatedSize);
+    }
+  }
+
+  /**
+   * Return the root, volume, bucket and parent directory paths of a key,
+   * e.g. /, /vol, /vol/bucket, /vol/bucket/a and /vol/bucket/a/b for key
+   * a/b/c in bucket bucket of volume vol.
+   */
+  static List<String> getParentPaths(OmKeyInfo omKeyInfo) {
+    List<String> paths = new ArrayList<>();
+    paths.add(OM_KEY_PREFIX);
+    StringBuilder path = new StringBuilder(OM_KEY_PREFIX)
+        .append(omKeyInfo.getVolumeName());
+    paths.add(path.toString());
+    path.append(OM_KEY_PREFIX).append(omKeyInfo.getBucketName());
+    paths.add(path.toString());
+
+    String[] names = omKeyInfo.getKeyName().split(OM_KEY_PREFIX);
+    // The last name is the key itself.
+    int last = names.length - 1;
+    while (last >= 0 && names[last].isEmpty()) {
+      last--;
+    }
+    for (int i = 0; i < last; i++) {
+      if (!names[i].isEmpty()) {
+        path.append(OM_KEY_PREFIX).append(names[i]);
+        paths.add(path.toString());
+      }
+    }
+    return paths;
+  }
+}
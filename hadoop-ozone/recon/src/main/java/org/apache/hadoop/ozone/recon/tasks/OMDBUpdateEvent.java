@@ -30,17 +30,20 @@
   private final String table;
   private final KEY updatedKey;
   private final VALUE updatedValue;
+  private final VALUE oldValue;
   private final long sequenceNumber;
 
   private OMDBUpdateEvent(OMDBUpdateAction action,
                           String table,
                           KEY updatedKey,
                           VALUE updatedValue,
+                          VALUE oldValue,
                           long sequenceNumber) {
     this.action = action;
     this.table = table;
     this.updatedKey = updatedKey;
     this.updatedValue = updatedValue;
+    this.oldValue = oldValue;
     this.sequenceNumber = sequenceNumber;
   }
 
@@ -60,6 +63,13 @@ public VALUE getValue() {
     return updatedValue;
   }
 
+  /**
+   * Value of the key before this update, null if the key did not exist.
+   */
+  public VALUE getOldValue() {
+    return oldValue;
+  }
+
   public long getSequenceNumber() {
     return sequenceNumber;
   }
@@ -75,6 +85,7 @@ public long getSequenceNumber() {
     private String table;
     private KEY updatedKey;
     private VALUE updatedValue;
+    private VALUE oldValue;
     private long lastSequenceNumber;
 
     OMUpdateEventBuilder setAction(OMDBUpdateAction omdbUpdateAction) {
@@ -97,6 +108,11 @@ OMUpdateEventBuilder setValue(VALUE value) {
       return this;
     }
 
+    OMUpdateEventBuilder setOldValue(VALUE value) {
+      this.oldValue = value;
+      return this;
+    }
+
     OMUpdateEventBuilder setSequenceNumber(long sequenceNumber) {
       this.lastSequenceNumber = sequenceNumber;
       return this;
@@ -112,6 +128,7 @@ public OMDBUpdateEvent build() {
           table,
           updatedKey,
           updatedValue,
+          oldValue,
           lastSequenceNumber);
     }
   }
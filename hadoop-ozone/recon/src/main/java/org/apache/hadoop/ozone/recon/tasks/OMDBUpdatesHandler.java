@@ -24,6 +24,7 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +33,7 @@
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
 import org.apache.hadoop.hdds.utils.db.CodecRegistry;
+import org.apache.hadoop.hdds.utils.db.DBStore;
 import org.apache.ratis.thirdparty.com.google.common.annotations.VisibleForTesting;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.WriteBatch;
@@ -48,11 +50,16 @@ public class OMDBUpdatesHandler extends WriteBatch.Handler {
 
   private Map<Integer, String> tablesNames;
   private CodecRegistry codecRegistry;
+  private DBStore dbStore;
   private List<OMDBUpdateEvent> omdbUpdateEvents = new ArrayList<>();
+  // Latest value seen per key of the keyTable, since batches are iterated
+  // before they are applied to the Recon OM DB.
+  private Map<Object, Object> latestKeyValues = new HashMap<>();
 
   public OMDBUpdatesHandler(OMMetadataManager omMetadataManager) {
-    tablesNames = omMetadataManager.getStore().getTableNames();
-    codecRegistry = omMetadataManager.getStore().getCodecRegistry();
+    dbStore = omMetadataManager.getStore();
+    tablesNames = dbStore.getTableNames();
+    codecRegistry = dbStore.getCodecRegistry();
   }
 
   @Override
@@ -98,11 +105,27 @@ private void processEvent(int cfIndex, byte[] keyBytes, byte[]
       Object key = codecRegistry.asObject(keyBytes, keyType);
       builder.setKey(key);
 
+      Object value = null;
       if (!action.equals(OMDBUpdateEvent.OMDBUpdateAction.DELETE)) {
-        Object value = codecRegistry.asObject(valueBytes, valueType);
+        value = codecRegistry.asObject(valueBytes, valueType);
         builder.setValue(value);
       }
 
+      // Only the tasks on the keyTable use the old value, so the other
+      // tables are spared the point lookup.
+      if (tableName.equals(KEY_TABLE)) {
+        if (latestKeyValues.containsKey(key)) {
+          builder.setOldValue(latestKeyValues.get(key));
+        } else {
+          byte[] oldValueBytes = dbStore.getTable(tableName).get(keyBytes);
+          if (oldValueBytes != null) {
+            builder.setOldValue(
+                codecRegistry.asObject(oldValueBytes, valueType));
+          }
+        }
+        latestKeyValues.put(key, value);
+      }
+
       builder.setAction(action);
       OMDBUpdateEvent event = builder.build();
       LOG.debug("Generated OM update Event for table : " + event.getTable()
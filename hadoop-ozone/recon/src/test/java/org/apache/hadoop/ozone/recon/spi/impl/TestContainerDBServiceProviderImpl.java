@@ -78,6 +78,11 @@ private void populateKeysInContainers(long containerId1, long containerId2)
 
     containerDbServiceProvider.storeContainerKeyMapping(containerKeyPrefix3,
         3);
+
+    containerDbServiceProvider.storeContainerKeyCount(containerId1, 3L);
+    containerDbServiceProvider.storeContainerKeyCount(containerId2, 3L);
+    containerDbServiceProvider.storeContainerKeySize(containerId1, 300L);
+    containerDbServiceProvider.storeContainerKeySize(containerId2, 200L);
   }
 
   private static void initializeInjector() throws Exception {
@@ -322,6 +327,8 @@ public void testGetContainersWithPrevContainer() throws Exception {
 
     assertEquals(3, containerMap.get(containerId).getNumberOfKeys());
     assertEquals(3, containerMap.get(nextContainerId).getNumberOfKeys());
+    assertEquals(300, containerMap.get(containerId).getUsedBytes());
+    assertEquals(200, containerMap.get(nextContainerId).getUsedBytes());
 
     // test if limit works
     containerMap = containerDbServiceProvider.getContainers(
@@ -25,6 +25,7 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +40,7 @@
 import org.apache.hadoop.ozone.recon.AbstractOMMetadataManagerTest;
 import org.apache.hadoop.ozone.recon.GuiceInjectorUtilsForTestsImpl;
 import org.apache.hadoop.ozone.recon.api.types.ContainerKeyPrefix;
+import org.apache.hadoop.ozone.recon.api.types.ContainerMetadata;
 import org.apache.hadoop.ozone.recon.recovery.ReconOMMetadataManager;
 import org.apache.hadoop.ozone.recon.spi.ContainerDBServiceProvider;
 import org.apache.hadoop.ozone.recon.spi.impl.OzoneManagerServiceProviderImpl;
@@ -283,6 +285,107 @@ public void testProcessOMEvents() throws IOException {
     assertEquals(3, containerDbServiceProvider.getCountForContainers());
   }
 
+  @Test
+  public void testProcessOMEventsWithOldValue() throws IOException {
+    String omKey = omMetadataManager.getOzoneKey("sampleVol", "bucketOne",
+        "key_moved");
+    OmKeyInfo omKeyInfo = buildOmKeyInfo("sampleVol", "bucketOne",
+        "key_moved", new OmKeyLocationInfoGroup(0, Arrays.asList(
+            getOmKeyLocationInfo(new BlockID(10, 1), 100L),
+            getOmKeyLocationInfo(new BlockID(10, 2), 50L),
+            getOmKeyLocationInfo(new BlockID(11, 1), 30L))));
+    OmKeyInfo newOmKeyInfo = buildOmKeyInfo("sampleVol", "bucketOne",
+        "key_moved", new OmKeyLocationInfoGroup(0, Collections.singletonList(
+            getOmKeyLocationInfo(new BlockID(11, 2), 70L))));
+
+    ContainerKeyMapperTask containerKeyMapperTask =
+        new ContainerKeyMapperTask(containerDbServiceProvider);
+    containerKeyMapperTask.reprocess(reconOMMetadataManager);
+
+    containerKeyMapperTask.process(new OMUpdateEventBatch(
+        Collections.singletonList(buildKeyEvent(
+            OMDBUpdateEvent.OMDBUpdateAction.PUT, omKey, omKeyInfo, null))));
+    assertEquals(1, containerDbServiceProvider.getKeyCountForContainer(10L));
+    assertEquals(150, containerDbServiceProvider.getKeySizeForContainer(10L));
+    assertEquals(1, containerDbServiceProvider.getKeyCountForContainer(11L));
+    assertEquals(30, containerDbServiceProvider.getKeySizeForContainer(11L));
+
+    // Overwrite the key with one that only has a block in container 11.
+    containerKeyMapperTask.process(new OMUpdateEventBatch(
+        Collections.singletonList(buildKeyEvent(
+            OMDBUpdateEvent.OMDBUpdateAction.PUT, omKey, newOmKeyInfo,
+            omKeyInfo))));
+    assertEquals(0, containerDbServiceProvider.getKeyCountForContainer(10L));
+    assertEquals(0, containerDbServiceProvider.getKeySizeForContainer(10L));
+    assertEquals(1, containerDbServiceProvider.getKeyCountForContainer(11L));
+    assertEquals(70, containerDbServiceProvider.getKeySizeForContainer(11L));
+    Map<Long, ContainerMetadata> containers =
+        containerDbServiceProvider.getContainers(-1, 9L);
+    assertEquals(1, containers.size());
+    assertEquals(70, containers.get(11L).getUsedBytes());
+
+    containerKeyMapperTask.process(new OMUpdateEventBatch(
+        Collections.singletonList(buildKeyEvent(
+            OMDBUpdateEvent.OMDBUpdateAction.DELETE, omKey, null,
+            newOmKeyInfo))));
+    assertEquals(0, containerDbServiceProvider.getKeyCountForContainer(11L));
+    assertEquals(0, containerDbServiceProvider.getKeySizeForContainer(11L));
+    assertTrue(containerDbServiceProvider.getContainers(-1, 9L).isEmpty());
+  }
+
+  @Test
+  public void testProcessOMEventsWithoutOldValue() throws IOException {
+    String omKey = omMetadataManager.getOzoneKey("sampleVol", "bucketOne",
+        "key_unknown");
+    OmKeyInfo omKeyInfo = buildOmKeyInfo("sampleVol", "bucketOne",
+        "key_unknown", new OmKeyLocationInfoGroup(0, Arrays.asList(
+            getOmKeyLocationInfo(new BlockID(20, 1), 100L),
+            getOmKeyLocationInfo(new BlockID(20, 2), 50L),
+            getOmKeyLocationInfo(new BlockID(21, 1), 30L))));
+
+    ContainerKeyMapperTask containerKeyMapperTask =
+        new ContainerKeyMapperTask(containerDbServiceProvider);
+    containerKeyMapperTask.reprocess(reconOMMetadataManager);
+
+    containerKeyMapperTask.process(new OMUpdateEventBatch(
+        Collections.singletonList(buildKeyEvent(
+            OMDBUpdateEvent.OMDBUpdateAction.PUT, omKey, omKeyInfo, null))));
+    assertEquals(150, containerDbServiceProvider.getKeySizeForContainer(20L));
+    assertEquals(30, containerDbServiceProvider.getKeySizeForContainer(21L));
+
+    // Without the old value the mappings are found by a scan, and the sizes
+    // stored for them are subtracted.
+    containerKeyMapperTask.process(new OMUpdateEventBatch(
+        Collections.singletonList(buildKeyEvent(
+            OMDBUpdateEvent.OMDBUpdateAction.DELETE, omKey, null, null))));
+    assertEquals(0, containerDbServiceProvider.getKeyCountForContainer(20L));
+    assertEquals(0, containerDbServiceProvider.getKeySizeForContainer(20L));
+    assertEquals(0, containerDbServiceProvider.getKeyCountForContainer(21L));
+    assertEquals(0, containerDbServiceProvider.getKeySizeForContainer(21L));
+    assertEquals(0, containerDbServiceProvider.getSizeForContainerKeyPrefix(
+        new ContainerKeyPrefix(20L, omKey, 0L)));
+  }
+
+  private OMDBUpdateEvent buildKeyEvent(OMDBUpdateEvent.OMDBUpdateAction action,
+      String omKey, OmKeyInfo value, OmKeyInfo oldValue) {
+    return new OMDBUpdateEvent.OMUpdateEventBuilder<String, OmKeyInfo>()
+        .setKey(omKey)
+        .setValue(value)
+        .setOldValue(oldValue)
+        .setTable(omMetadataManager.getKeyTable().getName())
+        .setAction(action)
+        .build();
+  }
+
+  private OmKeyLocationInfo getOmKeyLocationInfo(BlockID blockID,
+      long length) {
+    return new OmKeyLocationInfo.Builder()
+        .setBlockID(blockID)
+        .setPipeline(getRandomPipeline())
+        .setLength(length)
+        .build();
+  }
+
   private OmKeyInfo buildOmKeyInfo(String volume,
                                    String bucket,
                                    String key,
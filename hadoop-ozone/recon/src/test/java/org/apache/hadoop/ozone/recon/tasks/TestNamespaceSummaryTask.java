@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.recon.tasks;
+
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.KEY_TABLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
+import org.apache.hadoop.ozone.recon.api.types.NamespaceUsage;
+import org.apache.hadoop.ozone.recon.persistence.AbstractSqlDatabaseTest;
+import org.hadoop.ozone.recon.schema.UtilizationSchemaDefinition;
+import org.hadoop.ozone.recon.schema.tables.daos.NamespaceSummaryDao;
+import org.jooq.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for the namespace summary task.
+ */
+public class TestNamespaceSummaryTask extends AbstractSqlDatabaseTest {
+
+  private NamespaceSummaryTask namespaceSummaryTask;
+  private NamespaceSummaryDao namespaceSummaryDao;
+
+  @Before
+  public void setUp() throws Exception {
+    UtilizationSchemaDefinition schemaDefinition = getInjector().getInstance(
+        UtilizationSchemaDefinition.class);
+    schemaDefinition.initializeSchema();
+    Configuration sqlConfiguration =
+        getInjector().getInstance(Configuration.class);
+    namespaceSummaryTask = new NamespaceSummaryTask(sqlConfiguration);
+    namespaceSummaryDao = new NamespaceSummaryDao(sqlConfiguration);
+  }
+
+  @Test
+  public void testGetParentPaths() {
+    assertEquals(Arrays.asList("/", "/vol", "/vol/bucket"),
+        NamespaceSummaryTask.getParentPaths(
+            buildOmKeyInfo("key", 0, HddsProtos.ReplicationFactor.ONE)));
+    assertEquals(Arrays.asList("/", "/vol", "/vol/bucket", "/vol/bucket/a",
+        "/vol/bucket/a/b"),
+        NamespaceSummaryTask.getParentPaths(
+            buildOmKeyInfo("a/b/c", 0, HddsProtos.ReplicationFactor.ONE)));
+    assertEquals(Arrays.asList("/", "/vol", "/vol/bucket", "/vol/bucket/a"),
+        NamespaceSummaryTask.getParentPaths(
+            buildOmKeyInfo("a/b/", 0, HddsProtos.ReplicationFactor.ONE)));
+  }
+
+  @Test
+  public void testProcessAppliesDeltas() {
+    OmKeyInfo key1 = buildOmKeyInfo("dir1/key1", 1000L,
+        HddsProtos.ReplicationFactor.THREE);
+    OmKeyInfo key2 = buildOmKeyInfo("dir1/dir2/key2", 2048L,
+        HddsProtos.ReplicationFactor.ONE);
+
+    assertTrue(namespaceSummaryTask.process(new OMUpdateEventBatch(
+        Arrays.asList(buildEvent(OMDBUpdateEvent.OMDBUpdateAction.PUT,
+            "/vol/bucket/dir1/key1", key1, null),
+            buildEvent(OMDBUpdateEvent.OMDBUpdateAction.PUT,
+                "/vol/bucket/dir1/dir2/key2", key2, null))))
+        .getRight());
+
+    NamespaceUsage dir1 = getUsage("/vol/bucket/dir1");
+    assertEquals(2, dir1.getObjectCount());
+    assertEquals(3048L, dir1.getLogicalSize());
+    assertEquals(5048L, dir1.getReplicatedSize());
+    assertEquals(1, dir1.getSizeHistogram()[0]);
+    assertEquals(1, dir1.getSizeHistogram()[2]);
+    assertEquals(2, getUsage("/").getObjectCount());
+    assertEquals(1, getUsage("/vol/bucket/dir1/dir2").getObjectCount());
+
+    // Overwrite key1 with a larger version and delete key2.
+    OmKeyInfo newKey1 = buildOmKeyInfo("dir1/key1", 5000L,
+        HddsProtos.ReplicationFactor.THREE);
+    assertTrue(namespaceSummaryTask.process(new OMUpdateEventBatch(
+        Arrays.asList(buildEvent(OMDBUpdateEvent.OMDBUpdateAction.PUT,
+            "/vol/bucket/dir1/key1", newKey1, key1),
+            buildEvent(OMDBUpdateEvent.OMDBUpdateAction.DELETE,
+                "/vol/bucket/dir1/dir2/key2", null, key2))))
+        .getRight());
+
+    dir1 = getUsage("/vol/bucket/dir1");
+    assertEquals(1, dir1.getObjectCount());
+    assertEquals(5000L, dir1.getLogicalSize());
+    assertEquals(15000L, dir1.getReplicatedSize());
+    assertEquals(0, dir1.getSizeHistogram()[0]);
+    assertEquals(1, dir1.getSizeHistogram()[3]);
+    assertEquals(1, getUsage("/vol").getObjectCount());
+    assertNull(namespaceSummaryDao.findById("/vol/bucket/dir1/dir2"));
+  }
+
+  private NamespaceUsage getUsage(String path) {
+    return NamespaceUsage.fromRecord(namespaceSummaryDao.findById(path));
+  }
+
+  private OMDBUpdateEvent buildEvent(OMDBUpdateEvent.OMDBUpdateAction action,
+      String key, OmKeyInfo value, OmKeyInfo oldValue) {
+    return new OMDBUpdateEvent.OMUpdateEventBuilder<String, OmKeyInfo>()
+        .setKey(key)
+        .setValue(value)
+        .setOldValue(oldValue)
+        .setTable(KEY_TABLE)
+        .setAction(action)
+        .build();
+  }
+
+  private OmKeyInfo buildOmKeyInfo(String key, long dataSize,
+      HddsProtos.ReplicationFactor factor) {
+    return new OmKeyInfo.Builder()
+        .setVolumeName("vol")
+        .setBucketName("bucket")
+        .setKeyName(key)
+        .setDataSize(dataSize)
+        .setReplicationFactor(factor)
+        .setReplicationType(HddsProtos.ReplicationType.RATIS)
+        .setOmKeyLocationInfos(Collections.singletonList(
+            new OmKeyLocationInfoGroup(0, new ArrayList<>())))
+        .build();
+  }
+}
@@ -20,6 +20,7 @@
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -190,6 +191,74 @@ public void testDelete() throws Exception {
     assertEquals(volumeKey, volEvent.getKey());
   }
 
+  @Test
+  public void testOldValue() throws Exception {
+    OzoneConfiguration configuration = createNewTestPath();
+    OmMetadataManagerImpl metaMgr = new OmMetadataManagerImpl(configuration);
+
+    String keyName = "/sampleVol/bucketOne/key_one";
+    OmKeyInfo.Builder keyBuilder = new OmKeyInfo.Builder()
+        .setBucketName("bucketOne")
+        .setVolumeName("sampleVol")
+        .setKeyName("key_one")
+        .setReplicationFactor(HddsProtos.ReplicationFactor.ONE)
+        .setReplicationType(HddsProtos.ReplicationType.STAND_ALONE);
+    OmKeyInfo firstKeyInfo = keyBuilder.setDataSize(100L).build();
+    OmKeyInfo secondKeyInfo = keyBuilder.setDataSize(200L).build();
+    metaMgr.getKeyTable().put(keyName, firstKeyInfo);
+
+    String volumeKey = metaMgr.getVolumeKey("sampleVol");
+    OmVolumeArgs.Builder volumeBuilder = OmVolumeArgs.newBuilder()
+        .setVolume("sampleVol")
+        .setAdminName("bilbo");
+    metaMgr.getVolumeTable().put(volumeKey,
+        volumeBuilder.setOwnerName("bilbo").build());
+    metaMgr.getVolumeTable().put(volumeKey,
+        volumeBuilder.setOwnerName("frodo").build());
+    metaMgr.getKeyTable().put(keyName, secondKeyInfo);
+    metaMgr.getKeyTable().delete(keyName);
+
+    RDBStore rdbStore = (RDBStore) metaMgr.getStore();
+    TransactionLogIterator transactionLogIterator =
+        rdbStore.getDb().getUpdatesSince(0);
+    List<byte[]> writeBatches = new ArrayList<>();
+    while(transactionLogIterator.isValid()) {
+      TransactionLogIterator.BatchResult result =
+          transactionLogIterator.getBatch();
+      result.writeBatch().markWalTerminationPoint();
+      writeBatches.add(result.writeBatch().data());
+      transactionLogIterator.next();
+    }
+
+    // Recon already has the first version of the key.
+    OzoneConfiguration conf2 = createNewTestPath();
+    OmMetadataManagerImpl reconOmmetaMgr = new OmMetadataManagerImpl(conf2);
+    reconOmmetaMgr.getKeyTable().put(keyName, firstKeyInfo);
+    OMDBUpdatesHandler omdbUpdatesHandler =
+        new OMDBUpdatesHandler(reconOmmetaMgr);
+    for (byte[] data : writeBatches.subList(1, writeBatches.size())) {
+      new WriteBatch(data).iterate(omdbUpdatesHandler);
+    }
+    List<OMDBUpdateEvent> events = omdbUpdatesHandler.getEvents();
+    assertEquals(4, events.size());
+
+    // Old values are only looked up for the keyTable.
+    assertNull(events.get(0).getOldValue());
+    assertNull(events.get(1).getOldValue());
+
+    // The old value of an update is read from the Recon OM DB.
+    OMDBUpdateEvent updateEvent = events.get(2);
+    assertEquals(OMDBUpdateEvent.OMDBUpdateAction.PUT,
+        updateEvent.getAction());
+    assertEquals(100L, ((OmKeyInfo) updateEvent.getOldValue()).getDataSize());
+
+    // The old value of a delete is the value put earlier in the batches.
+    OMDBUpdateEvent deleteEvent = events.get(3);
+    assertEquals(OMDBUpdateEvent.OMDBUpdateAction.DELETE,
+        deleteEvent.getAction());
+    assertEquals(200L, ((OmKeyInfo) deleteEvent.getOldValue()).getDataSize());
+  }
+
   @Test
   public void testGetValueType() throws IOException {
     OzoneConfiguration configuration = createNewTestPath();
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.fsck;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.DBStore;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.TableIterator;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+
+import java.io.IOException;
+
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_DB_DIRS;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_KEY_COMPACT_FORMAT_ENABLED;
+
+/**
+ * Rewrites the keyTable, openKeyTable and deletedTable of a stopped OM in
+ * the compact format, without pipelines and block tokens.
+ */
+public class KeyTableCompactor {
+
+  private static final int BATCH_SIZE = 1000;
+
+  public static void main(String[] args) throws Exception {
+    String path = args[0];
+    if (path == null) {
+      throw new IOException("Path cannot be null");
+    }
+
+    OzoneConfiguration configuration = new OzoneConfiguration();
+    configuration.set(OZONE_OM_DB_DIRS, path);
+
+    KeyTableCompactor compactor = new KeyTableCompactor();
+    System.out.println("Rewritten entries: " +
+        compactor.rewrite(configuration));
+  }
+
+  /**
+   * Reads every entry of the key tables and writes it back with the
+   * compact codec.
+   * @param configuration @{@link OzoneConfiguration}
+   * @return number of rewritten entries
+   * @throws Exception
+   */
+  public long rewrite(OzoneConfiguration configuration) throws Exception {
+    String path = configuration.get(OZONE_OM_DB_DIRS);
+    if (path == null || path.isEmpty()) {
+      throw new IOException(OZONE_OM_DB_DIRS + "should be set ");
+    }
+    configuration.setBoolean(OZONE_OM_KEY_COMPACT_FORMAT_ENABLED, true);
+    OmMetadataManagerImpl metadataManager =
+        new OmMetadataManagerImpl(configuration);
+    try {
+      DBStore store = metadataManager.getStore();
+      return rewrite(store, metadataManager.getKeyTable())
+          + rewrite(store, metadataManager.getOpenKeyTable())
+          + rewrite(store, metadataManager.getDeletedTable());
+    } finally {
+      metadataManager.stop();
+    }
+  }
+
+  private <V> long rewrite(DBStore store, Table<String, V> table)
+      throws IOException {
+    long count = 0;
+    BatchOperation batch = store.initBatchOperation();
+    try (TableIterator<String, ? extends Table.KeyValue<String, V>>
+             iterator = table.iterator()) {
+      while (iterator.hasNext()) {
+        Table.KeyValue<String, V> keyValue = iterator.next();
+        table.putWithBatch(batch, keyValue.getKey(), keyValue.getValue());
+        count++;
+        if (count % BATCH_SIZE == 0) {
+          store.commitBatchOperation(batch);
+          batch.close();
+          batch = store.initBatchOperation();
+        }
+      }
+      store.commitBatchOperation(batch);
+    } finally {
+      batch.close();
+    }
+    return count;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.genesis;
+
+import org.apache.hadoop.ozone.common.ChecksumByteBuffer;
+import org.apache.hadoop.ozone.common.ChecksumByteBufferFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Benchmarks the {@link ChecksumByteBuffer} implementations on heap and
+ * direct buffers.
+ */
+@State(Scope.Thread)
+public class BenchMarkChecksum {
+
+  @Param({"pureJavaCrc32", "crc32", "pureJavaCrc32C", "crc32C"})
+  private String implementation;
+
+  @Param({"heap", "direct"})
+  private String bufferType;
+
+  // Default bytes per checksum is 1MB, the scanner and clients may use less.
+  @Param({"16384", "1048576"})
+  private int bytesPerChecksum;
+
+  private ChecksumByteBuffer checksum;
+  private ByteBuffer data;
+
+  @Setup
+  public void createData() {
+    switch (implementation) {
+    case "pureJavaCrc32":
+      checksum = ChecksumByteBufferFactory.pureJavaCrc32();
+      break;
+    case "crc32":
+      checksum = ChecksumByteBufferFactory.crc32Impl();
+      break;
+    case "pureJavaCrc32C":
+      checksum = ChecksumByteBufferFactory.pureJavaCrc32C();
+      break;
+    case "crc32C":
+      checksum = ChecksumByteBufferFactory.crc32CImpl();
+      break;
+    default:
+      throw new IllegalArgumentException(
+          "Unknown implementation " + implementation);
+    }
+    byte[] bytes = new byte[bytesPerChecksum];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    data = "direct".equals(bufferType) ?
+        ByteBuffer.allocateDirect(bytesPerChecksum) :
+        ByteBuffer.allocate(bytesPerChecksum);
+    data.put(bytes);
+  }
+
+  @Benchmark
+  public void computeChecksum(Blackhole sink) {
+    data.rewind();
+    checksum.reset();
+    checksum.update(data);
+    sink.consume(checksum.getValue());
+  }
+}
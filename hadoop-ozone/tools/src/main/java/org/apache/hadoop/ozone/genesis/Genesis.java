@@ -52,7 +52,7 @@ public final class Genesis {
           + "BenchMarkOzoneManager, BenchMarkOMClient, "
           + "BenchMarkSCM, BenchMarkMetadataStoreReads, "
           + "BenchMarkMetadataStoreWrites, BenchMarkDatanodeDispatcher, "
-          + "BenchMarkRocksDbStore}")
+          + "BenchMarkRocksDbStore, BenchMarkChecksum}")
   private static String[] benchmarks;
 
   @Option(names = "-t", defaultValue = "4",
@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.fsck;
+
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationType;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
+import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
+import org.apache.hadoop.util.Time;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collections;
+
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_DB_DIRS;
+
+/**
+ * Tests KeyTableCompactor.
+ */
+public class TestKeyTableCompactor {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private OzoneConfiguration conf;
+
+  @Before
+  public void setup() throws Exception {
+    conf = new OzoneConfiguration();
+    conf.set(OZONE_OM_DB_DIRS, folder.newFolder().getAbsolutePath());
+  }
+
+  @Test
+  public void testRewriteDropsPipelines() throws Exception {
+    OmMetadataManagerImpl metadataManager = new OmMetadataManagerImpl(conf);
+    metadataManager.getKeyTable().put("/vol/bucket/key",
+        createKeyInfo("key"));
+    metadataManager.getOpenKeyTable().put("/vol/bucket/openKey/1",
+        createKeyInfo("openKey"));
+    metadataManager.getDeletedTable().put("/vol/bucket/deletedKey",
+        new RepeatedOmKeyInfo(createKeyInfo("deletedKey")));
+    Assert.assertNotNull(getLocation(
+        metadataManager.getKeyTable().get("/vol/bucket/key")).getPipeline());
+    metadataManager.stop();
+
+    Assert.assertEquals(3,
+        new KeyTableCompactor().rewrite(new OzoneConfiguration(conf)));
+
+    // read back with the default codec, which keeps pipelines if present
+    metadataManager = new OmMetadataManagerImpl(conf);
+    try {
+      assertCompact(metadataManager.getKeyTable().get("/vol/bucket/key"));
+      assertCompact(metadataManager.getOpenKeyTable()
+          .get("/vol/bucket/openKey/1"));
+      assertCompact(metadataManager.getDeletedTable()
+          .get("/vol/bucket/deletedKey").getOmKeyInfoList().get(0));
+    } finally {
+      metadataManager.stop();
+    }
+  }
+
+  @Test
+  public void testRewriteEmptyTables() throws Exception {
+    new OmMetadataManagerImpl(conf).stop();
+    Assert.assertEquals(0,
+        new KeyTableCompactor().rewrite(new OzoneConfiguration(conf)));
+  }
+
+  private static void assertCompact(OmKeyInfo keyInfo) {
+    OmKeyLocationInfo location = getLocation(keyInfo);
+    Assert.assertNull(location.getPipeline());
+    Assert.assertEquals(new BlockID(1L, 2L), location.getBlockID());
+    Assert.assertEquals(1024, location.getLength());
+  }
+
+  private static OmKeyLocationInfo getLocation(OmKeyInfo keyInfo) {
+    return keyInfo.getLatestVersionLocations().getLocationList().get(0);
+  }
+
+  private static OmKeyInfo createKeyInfo(String keyName) {
+    Pipeline pipeline = Pipeline.newBuilder()
+        .setId(PipelineID.randomId())
+        .setType(ReplicationType.STAND_ALONE)
+        .setFactor(ReplicationFactor.ONE)
+        .setState(Pipeline.PipelineState.OPEN)
+        .setNodes(Collections.emptyList())
+        .build();
+    return new OmKeyInfo.Builder()
+        .setVolumeName("vol")
+        .setBucketName("bucket")
+        .setKeyName(keyName)
+        .setOmKeyLocationInfos(Collections.singletonList(
+            new OmKeyLocationInfoGroup(0, Collections.singletonList(
+                new OmKeyLocationInfo.Builder()
+                    .setBlockID(new BlockID(1L, 2L))
+                    .setPipeline(pipeline)
+                    .setLength(1024)
+                    .build()))))
+        .setCreationTime(Time.now())
+        .setModificationTime(Time.now())
+        .setDataSize(1024)
+        .setReplicationType(ReplicationType.STAND_ALONE)
+        .setReplicationFactor(ReplicationFactor.ONE)
+        .setAcls(Collections.emptyList())
+        .build();
+  }
+}